@@ -0,0 +1,94 @@
+package edu.ncsu.csc316.trail.bench;
+
+import java.io.FileNotFoundException;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import edu.ncsu.csc316.dsa.map.Map;
+import edu.ncsu.csc316.trail.dsa.DataStructure;
+import edu.ncsu.csc316.trail.manager.ReportManager;
+
+/**
+ * Compares generating distance reports for a batch of origins one at a time
+ * against the parallel batch API. The speedup of batch over sequential shows
+ * how well the batch scales with the cores available to the common fork-join
+ * pool.
+ *
+ * @author Thommasaht Nhouyvanisvong (tcnhouyv)
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class BatchQueryBenchmark {
+
+	/** Size suffix of the input/landmarks_N.csv and input/trails_N.csv pair */
+	@Param({ "14", "16" })
+	public int dataset;
+
+	/** Number of origins in each batch */
+	@Param({ "32" })
+	public int origins;
+
+	/** Report manager over the dataset */
+	private ReportManager reports;
+	/** Origin landmark IDs */
+	private String[] originIDs;
+
+	/**
+	 * Loads the dataset, disables the report and distance caches, and picks
+	 * origins spread across the landmark IDs.
+	 *
+	 * @throws FileNotFoundException if the dataset files are missing
+	 */
+	@Setup
+	public void setUp() throws FileNotFoundException {
+		reports = new ReportManager("input/landmarks_" + dataset + ".csv", "input/trails_" + dataset + ".csv",
+				DataStructure.LINEARPROBINGHASHMAP);
+		reports.getReportCache().setCapacity(0);
+		reports.getDistanceCache().setCapacity(0);
+		originIDs = new String[origins];
+		int landmarks = 1 << dataset;
+		for (int i = 0; i < origins; i++) {
+			originIDs[i] = String.format("L%07d", 1 + (long) i * landmarks / origins);
+		}
+	}
+
+	/**
+	 * Generates the reports one origin at a time on the calling thread.
+	 *
+	 * @return total length of the reports
+	 */
+	@Benchmark
+	public long sequential() {
+		long length = 0;
+		for (String origin : originIDs) {
+			length += reports.getDistancesReport(origin).length();
+		}
+		return length;
+	}
+
+	/**
+	 * Generates the reports with the parallel batch API.
+	 *
+	 * @return number of reports
+	 */
+	@Benchmark
+	public int batch() {
+		Map<String, String> batch = reports.getDistancesReports(originIDs);
+		return batch.size();
+	}
+}
@@ -0,0 +1,43 @@
+package edu.ncsu.csc316.trail.bench;
+
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.ChainedOptionsBuilder;
+import org.openjdk.jmh.runner.options.CommandLineOptionException;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Runs the benchmarks with the GC profiler attached, so every result also
+ * reports the bytes allocated per operation, and writes the results as JSON.
+ * Accepts the same arguments as the JMH command line; unless a result file or
+ * format is given, results are written to bench-results.json.
+ *
+ * @author Thommasaht Nhouyvanisvong (tcnhouyv)
+ */
+public class BenchmarkRunner {
+
+	/** Default file the JSON results are written to */
+	private static final String DEFAULT_RESULT_FILE = "bench-results.json";
+
+	/**
+	 * Runs the benchmarks selected by the JMH command line arguments.
+	 *
+	 * @param args JMH command line arguments
+	 * @throws CommandLineOptionException if the arguments are invalid
+	 * @throws RunnerException            if a benchmark fails
+	 */
+	public static void main(String[] args) throws CommandLineOptionException, RunnerException {
+		CommandLineOptions commandLine = new CommandLineOptions(args);
+		ChainedOptionsBuilder options = new OptionsBuilder().parent(commandLine).addProfiler(GCProfiler.class);
+		if (!commandLine.getResultFormat().hasValue()) {
+			options.resultFormat(ResultFormatType.JSON);
+		}
+		if (!commandLine.getResult().hasValue()) {
+			options.result(DEFAULT_RESULT_FILE);
+		}
+		new Runner(options.build()).run();
+	}
+}
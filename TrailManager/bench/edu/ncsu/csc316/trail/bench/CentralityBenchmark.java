@@ -0,0 +1,67 @@
+package edu.ncsu.csc316.trail.bench;
+
+import java.io.FileNotFoundException;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import edu.ncsu.csc316.trail.graph.CentralityIndex;
+import edu.ncsu.csc316.trail.graph.TrailGraph;
+import edu.ncsu.csc316.trail.manager.TrailDataLoader;
+
+/**
+ * Measures computing closeness and betweenness centrality for every landmark
+ * from a sample of sources, which the centrality rankings of first aid
+ * locations wait for after each change to the park.
+ *
+ * @author Thommasaht Nhouyvanisvong (tcnhouyv)
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@Fork(1)
+public class CentralityBenchmark {
+
+	/** Size suffix of the input/landmarks_N.csv and input/trails_N.csv pair */
+	@Param({ "14", "16" })
+	public int dataset;
+
+	/** Number of sampled source landmarks */
+	@Param({ "128" })
+	public int samples;
+
+	/** Graph scored */
+	private TrailGraph graph;
+
+	/**
+	 * Loads the dataset.
+	 *
+	 * @throws FileNotFoundException if the dataset files are missing
+	 */
+	@Setup
+	public void setUp() throws FileNotFoundException {
+		graph = TrailDataLoader.load("input/landmarks_" + dataset + ".csv", "input/trails_" + dataset + ".csv");
+	}
+
+	/**
+	 * Computes the centrality of every landmark.
+	 *
+	 * @return centrality index
+	 */
+	@Benchmark
+	public CentralityIndex compute() {
+		return CentralityIndex.compute(graph, samples, CentralityIndex.DEFAULT_SEED);
+	}
+}
@@ -0,0 +1,173 @@
+package edu.ncsu.csc316.trail.bench;
+
+import java.util.Collection;
+import java.util.Random;
+import java.util.TreeMap;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.results.RunResult;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import edu.ncsu.csc316.dsa.map.Map;
+import edu.ncsu.csc316.trail.data.Landmark;
+import edu.ncsu.csc316.trail.dsa.Algorithm;
+import edu.ncsu.csc316.trail.dsa.DataStructure;
+import edu.ncsu.csc316.trail.manager.StructureFactory;
+
+/**
+ * Measures what a result map costs per entry for every map type: filling a new
+ * map with landmark keys, and looking every key up again. Keys are inserted
+ * and looked up in shuffled order, as query results are. Running main runs
+ * every size and type and prints the per-entry costs as the calibration table
+ * of MapCostModel, which TrailManager uses to choose a map type automatically.
+ * Each configuration runs in three forks, and the table takes the median of
+ * the forks' averages, so one fork slowed by garbage collection or JIT
+ * decisions does not end up in the table.
+ *
+ * @author Thommasaht Nhouyvanisvong (tcnhouyv)
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(3)
+public class MapCostBenchmark {
+
+	/** Number of entries in the map */
+	@Param({ "64", "1024", "16384" })
+	public int size;
+
+	/** Map type measured */
+	@Param({ "UNORDEREDLINKEDMAP", "SEARCHTABLE", "SKIPLIST", "BINARYSEARCHTREE", "AVLTREE", "SPLAYTREE",
+			"REDBLACKTREE", "SEPARATECHAININGHASHMAP", "LINEARPROBINGHASHMAP" })
+	public DataStructure mapType;
+
+	/** Factory creating maps of the type measured */
+	private StructureFactory structures;
+	/** Keys in insertion order */
+	private Landmark[] keys;
+	/** Keys in lookup order */
+	private Landmark[] lookups;
+	/** Value stored with each key */
+	private Integer[] values;
+	/** Map holding every key, for lookups */
+	private Map<Landmark, Integer> filled;
+
+	/**
+	 * Creates the keys and a filled map.
+	 */
+	@Setup
+	public void setUp() {
+		structures = new StructureFactory(mapType, DataStructure.SINGLYLINKEDLIST, Algorithm.MERGESORT);
+		keys = new Landmark[size];
+		values = new Integer[size];
+		for (int i = 0; i < size; i++) {
+			keys[i] = new Landmark(String.format("L%07d", i + 1), "Landmark " + i, "Trailhead");
+			values[i] = i * 10;
+		}
+		Random random = new Random(316);
+		shuffle(keys, random);
+		lookups = keys.clone();
+		shuffle(lookups, random);
+		filled = fill();
+	}
+
+	/**
+	 * Shuffles an array in place.
+	 *
+	 * @param array  array to shuffle
+	 * @param random source of randomness
+	 */
+	private static void shuffle(Landmark[] array, Random random) {
+		for (int i = array.length - 1; i > 0; i--) {
+			int j = random.nextInt(i + 1);
+			Landmark swap = array[i];
+			array[i] = array[j];
+			array[j] = swap;
+		}
+	}
+
+	/**
+	 * Fills a new map with every key.
+	 *
+	 * @return the filled map
+	 */
+	@Benchmark
+	public Map<Landmark, Integer> fill() {
+		Map<Landmark, Integer> map = structures.getMap();
+		for (int i = 0; i < size; i++) {
+			map.put(keys[i], values[i]);
+		}
+		return map;
+	}
+
+	/**
+	 * Looks up every key in a filled map.
+	 *
+	 * @return sum of the values found
+	 */
+	@Benchmark
+	public long lookUp() {
+		long sum = 0;
+		for (int i = 0; i < size; i++) {
+			sum += filled.get(lookups[i]);
+		}
+		return sum;
+	}
+
+	/**
+	 * Runs every size and map type and prints the median over the forks of the
+	 * nanoseconds per put and per get of each type, in the format of
+	 * MapCostModel's calibration table.
+	 *
+	 * @param args unused
+	 * @throws RunnerException if a benchmark fails
+	 */
+	public static void main(String[] args) throws RunnerException {
+		Collection<RunResult> results = new Runner(
+				new OptionsBuilder().include(MapCostBenchmark.class.getSimpleName()).build()).run();
+		// Map type, then benchmark and size, to the cost of one entry
+		TreeMap<String, TreeMap<String, Double>> table = new TreeMap<>();
+		for (RunResult result : results) {
+			String type = result.getParams().getParam("mapType");
+			int entries = Integer.parseInt(result.getParams().getParam("size"));
+			String benchmark = result.getParams().getBenchmark();
+			String column = (benchmark.endsWith("fill") ? "0 put " : "1 get ") + String.format("%06d", entries);
+			table.computeIfAbsent(type, t -> new TreeMap<>()).put(column, median(result) / entries);
+		}
+		for (String type : table.keySet()) {
+			StringBuilder row = new StringBuilder(type);
+			for (double cost : table.get(type).values()) {
+				row.append(String.format(" %.1f", cost));
+			}
+			System.out.println(row);
+		}
+	}
+
+	/**
+	 * Returns the median of the average scores of a result's forks.
+	 *
+	 * @param result result of one benchmark configuration
+	 * @return median fork score
+	 */
+	private static double median(RunResult result) {
+		double[] scores = result.getBenchmarkResults().stream()
+				.mapToDouble(fork -> fork.getPrimaryResult().getScore()).sorted().toArray();
+		int middle = scores.length / 2;
+		return scores.length % 2 == 1 ? scores[middle] : (scores[middle - 1] + scores[middle]) / 2;
+	}
+}
@@ -0,0 +1,129 @@
+package edu.ncsu.csc316.trail.bench;
+
+import java.io.FileNotFoundException;
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import edu.ncsu.csc316.trail.graph.DijkstraSearch;
+import edu.ncsu.csc316.trail.graph.MultiSourceSearch;
+import edu.ncsu.csc316.trail.graph.TrailGraph;
+import edu.ncsu.csc316.trail.manager.TrailDataLoader;
+
+/**
+ * Compares finding the nearest of several sources for every landmark with one
+ * Dijkstra search per source against one multi-source delta-stepping search,
+ * run on the calling thread and with its rounds split across the common
+ * fork-join pool.
+ *
+ * @author Thommasaht Nhouyvanisvong (tcnhouyv)
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class MultiSourceBenchmark {
+
+	/** Size suffix of the input/landmarks_N.csv and input/trails_N.csv pair */
+	@Param({ "14", "16" })
+	public int dataset;
+
+	/** Number of source landmarks */
+	@Param({ "32" })
+	public int sources;
+
+	/** Graph searched */
+	private TrailGraph graph;
+	/** Source landmark indexes spread across the graph */
+	private int[] sourceIndexes;
+	/** Single-source engine run once per source */
+	private DijkstraSearch dijkstra;
+	/** Multi-source engine that never splits a round */
+	private MultiSourceSearch sequential;
+	/** Multi-source engine with the default parallel threshold */
+	private MultiSourceSearch parallel;
+	/** Nearest distance of each landmark found by the per-source searches */
+	private long[] nearest;
+
+	/**
+	 * Loads the dataset, picks sources spread across the landmark indexes, and
+	 * creates the engines.
+	 *
+	 * @throws FileNotFoundException if the dataset files are missing
+	 */
+	@Setup
+	public void setUp() throws FileNotFoundException {
+		graph = TrailDataLoader.load("input/landmarks_" + dataset + ".csv", "input/trails_" + dataset + ".csv");
+		sourceIndexes = new int[sources];
+		for (int i = 0; i < sources; i++) {
+			sourceIndexes[i] = (int) ((long) i * graph.size() / sources);
+		}
+		dijkstra = new DijkstraSearch(graph);
+		parallel = new MultiSourceSearch(graph);
+		// Run once to learn the default bucket width, so both engines use it
+		parallel.run(sourceIndexes);
+		sequential = new MultiSourceSearch(graph, parallel.getDelta(), Integer.MAX_VALUE);
+		nearest = new long[graph.size()];
+	}
+
+	/**
+	 * Runs one Dijkstra search per source, keeping the nearest distance of every
+	 * landmark.
+	 *
+	 * @return number of landmarks reached
+	 */
+	@Benchmark
+	public int perSource() {
+		Arrays.fill(nearest, DijkstraSearch.UNREACHED);
+		for (int source : sourceIndexes) {
+			dijkstra.run(source);
+			for (int i = 0; i < dijkstra.getSettledCount(); i++) {
+				int v = dijkstra.getSettled(i);
+				nearest[v] = Math.min(nearest[v], dijkstra.getDistance(v));
+			}
+		}
+		int reached = 0;
+		for (long distance : nearest) {
+			if (distance != DijkstraSearch.UNREACHED) {
+				reached++;
+			}
+		}
+		return reached;
+	}
+
+	/**
+	 * Runs one multi-source search on the calling thread.
+	 *
+	 * @return number of landmarks reached
+	 */
+	@Benchmark
+	public int multiSource() {
+		sequential.run(sourceIndexes);
+		return sequential.getReachedCount();
+	}
+
+	/**
+	 * Runs one multi-source search with large rounds split across the common
+	 * fork-join pool.
+	 *
+	 * @return number of landmarks reached
+	 */
+	@Benchmark
+	public int parallelMultiSource() {
+		parallel.run(sourceIndexes);
+		return parallel.getReachedCount();
+	}
+}
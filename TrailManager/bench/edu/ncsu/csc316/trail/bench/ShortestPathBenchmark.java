@@ -0,0 +1,103 @@
+package edu.ncsu.csc316.trail.bench;
+
+import java.io.FileNotFoundException;
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import edu.ncsu.csc316.trail.graph.DijkstraSearch;
+import edu.ncsu.csc316.trail.graph.TrailGraph;
+import edu.ncsu.csc316.trail.manager.TrailDataLoader;
+
+/**
+ * Compares a full single-source Dijkstra run against the breadth-first
+ * traversal that getDistancesToDestinations used before it, both over the same
+ * CSR trail graph.
+ *
+ * @author Thommasaht Nhouyvanisvong (tcnhouyv)
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ShortestPathBenchmark {
+
+	/** Size suffix of the input/landmarks_N.csv and input/trails_N.csv pair */
+	@Param({ "10", "12", "14", "16" })
+	public int dataset;
+
+	/** Graph loaded from the dataset */
+	private TrailGraph graph;
+	/** Dijkstra engine reused across invocations */
+	private DijkstraSearch search;
+	/** BFS distances, reused across invocations */
+	private int[] bfsDistances;
+	/** BFS queue, reused across invocations */
+	private int[] bfsQueue;
+	/** Source landmark index */
+	private int source;
+
+	/**
+	 * Loads the dataset and allocates the scratch arrays for both traversals.
+	 *
+	 * @throws FileNotFoundException if the dataset files are missing
+	 */
+	@Setup
+	public void setUp() throws FileNotFoundException {
+		graph = TrailDataLoader.load("input/landmarks_" + dataset + ".csv", "input/trails_" + dataset + ".csv");
+		search = new DijkstraSearch(graph);
+		bfsDistances = new int[graph.size()];
+		bfsQueue = new int[graph.size()];
+		source = graph.indexOf("L0000001");
+	}
+
+	/**
+	 * Runs Dijkstra's algorithm from the source landmark.
+	 *
+	 * @return number of landmarks settled
+	 */
+	@Benchmark
+	public int dijkstra() {
+		search.run(source);
+		return search.getSettledCount();
+	}
+
+	/**
+	 * Runs the previous breadth-first traversal from the source landmark, which
+	 * keeps the first distance found for each landmark.
+	 *
+	 * @return number of landmarks reached
+	 */
+	@Benchmark
+	public int breadthFirst() {
+		Arrays.fill(bfsDistances, -1);
+		int head = 0;
+		int tail = 0;
+		bfsDistances[source] = 0;
+		bfsQueue[tail++] = source;
+		while (head < tail) {
+			int current = bfsQueue[head++];
+			for (int e = graph.firstEdge(current); e < graph.endEdge(current); e++) {
+				int next = graph.neighbor(e);
+				if (bfsDistances[next] < 0) {
+					bfsDistances[next] = bfsDistances[current] + graph.length(e);
+					bfsQueue[tail++] = next;
+				}
+			}
+		}
+		return tail;
+	}
+}
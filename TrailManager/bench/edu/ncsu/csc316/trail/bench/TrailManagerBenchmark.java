@@ -0,0 +1,133 @@
+package edu.ncsu.csc316.trail.bench;
+
+import java.io.FileNotFoundException;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import edu.ncsu.csc316.dsa.list.List;
+import edu.ncsu.csc316.dsa.map.Map;
+import edu.ncsu.csc316.trail.data.Landmark;
+import edu.ncsu.csc316.trail.data.Trail;
+import edu.ncsu.csc316.trail.dsa.DataStructure;
+import edu.ncsu.csc316.trail.manager.ReportManager;
+import edu.ncsu.csc316.trail.manager.TrailManager;
+
+/**
+ * Measures the public TrailManager and ReportManager operations for every
+ * result map type on the input/*_6 through input/*_16 datasets: building a
+ * manager from the CSV files, single-source distance queries and reports, and
+ * first aid queries and reports. The result caches are disabled so that every
+ * invocation does the full computation.
+ *
+ * @author Thommasaht Nhouyvanisvong (tcnhouyv)
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TrailManagerBenchmark {
+
+	/** Landmark every dataset starts from */
+	private static final String ORIGIN = "L0000001";
+	/** Intersecting trail threshold used by the first aid benchmarks */
+	private static final int FIRST_AID_THRESHOLD = 3;
+
+	/** Size suffix of the input/landmarks_N.csv and input/trails_N.csv pair */
+	@Param({ "6", "8", "10", "12", "14", "16" })
+	public int dataset;
+
+	/** Map type used for query results */
+	@Param({ "UNORDEREDLINKEDMAP", "SEARCHTABLE", "SKIPLIST", "BINARYSEARCHTREE", "AVLTREE", "SPLAYTREE",
+			"REDBLACKTREE", "SEPARATECHAININGHASHMAP", "LINEARPROBINGHASHMAP" })
+	public DataStructure mapType;
+
+	/** Path to the landmark file of the dataset */
+	private String landmarkFile;
+	/** Path to the trail file of the dataset */
+	private String trailFile;
+	/** Manager queried directly */
+	private TrailManager manager;
+	/** Report manager over its own manager */
+	private ReportManager reports;
+
+	/**
+	 * Loads the dataset into a manager and a report manager and disables their
+	 * result caches.
+	 *
+	 * @throws FileNotFoundException if the dataset files are missing
+	 */
+	@Setup
+	public void setUp() throws FileNotFoundException {
+		landmarkFile = "input/landmarks_" + dataset + ".csv";
+		trailFile = "input/trails_" + dataset + ".csv";
+		manager = new TrailManager(landmarkFile, trailFile, mapType);
+		manager.getDistanceCache().setCapacity(0);
+		reports = new ReportManager(landmarkFile, trailFile, mapType);
+		reports.getReportCache().setCapacity(0);
+		reports.getDistanceCache().setCapacity(0);
+	}
+
+	/**
+	 * Builds a manager from the CSV files.
+	 *
+	 * @return the new manager
+	 * @throws FileNotFoundException if the dataset files are missing
+	 */
+	@Benchmark
+	public TrailManager construct() throws FileNotFoundException {
+		return new TrailManager(landmarkFile, trailFile, mapType);
+	}
+
+	/**
+	 * Computes the distance from the origin to every landmark it reaches.
+	 *
+	 * @return map of reachable landmarks and their distances
+	 */
+	@Benchmark
+	public Map<Landmark, Integer> distancesToDestinations() {
+		return manager.getDistancesToDestinations(ORIGIN);
+	}
+
+	/**
+	 * Formats the distance report for the origin.
+	 *
+	 * @return distance report
+	 */
+	@Benchmark
+	public String distancesReport() {
+		return reports.getDistancesReport(ORIGIN);
+	}
+
+	/**
+	 * Finds the landmarks with at least FIRST_AID_THRESHOLD intersecting trails.
+	 *
+	 * @return map of landmarks and their intersecting trails
+	 */
+	@Benchmark
+	public Map<Landmark, List<Trail>> proposedFirstAidLocations() {
+		return manager.getProposedFirstAidLocations(FIRST_AID_THRESHOLD);
+	}
+
+	/**
+	 * Formats the first aid report for FIRST_AID_THRESHOLD intersecting trails.
+	 *
+	 * @return first aid report
+	 */
+	@Benchmark
+	public String firstAidReport() {
+		return reports.getProposedFirstAidLocations(FIRST_AID_THRESHOLD);
+	}
+}
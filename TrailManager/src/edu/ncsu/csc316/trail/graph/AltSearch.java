@@ -0,0 +1,155 @@
+package edu.ncsu.csc316.trail.graph;
+
+import java.util.Arrays;
+
+/**
+ * A point-to-point A* search for the anchor queries of a DistanceOracle. The
+ * frontier is keyed by distance plus the triangle inequality lower bound to
+ * the target over the oracle's anchors, so far fewer landmarks are settled
+ * than by Dijkstra's algorithm. Like DijkstraSearch, the arrays are reused
+ * between runs, growing only when landmarks are added to the graph, and only
+ * the entries touched by the previous run are reset. The search belongs to
+ * its caller rather than to an oracle, so it outlives the oracles rebuilt
+ * after each change to the graph. A search is not thread-safe and should be
+ * used by one thread at a time.
+ *
+ * @author Thommasaht Nhouyvanisvong (tcnhouyv)
+ */
+public class AltSearch {
+
+	/** Distance of landmarks not reached, and of pairs that are not connected */
+	public static final long UNREACHED = Long.MAX_VALUE;
+
+	/** Graph searched */
+	private final TrailGraph graph;
+	/** Distance of each landmark from the source */
+	private long[] distances;
+	/** Landmarks whose distance was set by the last run */
+	private int[] touched;
+	/** Number of touched landmarks */
+	private int touchedCount;
+	/** Frontier, keyed by distance plus lower bound to the target */
+	private IndexedMinHeap heap;
+	/** Number of landmarks settled by the last run */
+	private int settledCount;
+
+	/**
+	 * Creates a search over the specified graph.
+	 *
+	 * @param graph graph to search
+	 */
+	public AltSearch(TrailGraph graph) {
+		this.graph = graph;
+		allocate(graph.size());
+	}
+
+	/**
+	 * Allocates the search arrays for landmark indexes in [0, capacity).
+	 *
+	 * @param capacity number of landmark indexes the search can handle
+	 */
+	private void allocate(int capacity) {
+		distances = new long[capacity];
+		Arrays.fill(distances, UNREACHED);
+		touched = new int[capacity];
+		heap = new IndexedMinHeap(capacity);
+		touchedCount = 0;
+		settledCount = 0;
+	}
+
+	/**
+	 * Finds the shortest distance between two landmarks, guided by the
+	 * distances from k anchors to every landmark, grouped by landmark.
+	 *
+	 * @param source          index of the first landmark
+	 * @param target          index of the second landmark
+	 * @param anchorDistances distance from each anchor to each landmark
+	 * @param k               number of anchors
+	 * @return shortest distance in feet, or UNREACHED
+	 */
+	long run(int source, int target, int[] anchorDistances, int k) {
+		if (graph.size() > distances.length) {
+			// Landmarks were added to the graph since the arrays were allocated
+			allocate(Math.max(graph.size(), distances.length * 2));
+		} else {
+			reset();
+		}
+		if (source == target) {
+			return 0;
+		}
+		for (int a = 0; a < k; a++) {
+			// An anchor reaching only one of the landmarks separates them
+			boolean reachesSource = anchorDistances[source * k + a] != DistanceOracle.NO_PATH;
+			boolean reachesTarget = anchorDistances[target * k + a] != DistanceOracle.NO_PATH;
+			if (reachesSource != reachesTarget) {
+				return UNREACHED;
+			}
+		}
+		distances[source] = 0;
+		touched[touchedCount++] = source;
+		heap.insertOrDecrease(source, lowerBound(source, target, anchorDistances, k));
+		while (!heap.isEmpty()) {
+			int current = heap.poll();
+			settledCount++;
+			if (current == target) {
+				return distances[current];
+			}
+			long currentDistance = distances[current];
+			for (int e = graph.firstEdge(current); e < graph.endEdge(current); e++) {
+				int next = graph.neighbor(e);
+				long candidate = currentDistance + graph.length(e);
+				if (candidate < distances[next]) {
+					if (distances[next] == UNREACHED) {
+						touched[touchedCount++] = next;
+					}
+					distances[next] = candidate;
+					heap.insertOrDecrease(next, candidate + lowerBound(next, target, anchorDistances, k));
+				}
+			}
+		}
+		return UNREACHED;
+	}
+
+	/**
+	 * Returns the number of landmarks settled by the last run.
+	 *
+	 * @return number of settled landmarks
+	 */
+	public int getSettledCount() {
+		return settledCount;
+	}
+
+	/**
+	 * Returns the largest triangle inequality lower bound on the distance
+	 * between two landmarks over the anchors reaching both.
+	 *
+	 * @param v               index of one landmark
+	 * @param target          index of the other landmark
+	 * @param anchorDistances distance from each anchor to each landmark
+	 * @param k               number of anchors
+	 * @return lower bound on their distance in feet
+	 */
+	private static long lowerBound(int v, int target, int[] anchorDistances, int k) {
+		long bound = 0;
+		for (int a = 0; a < k; a++) {
+			int fromV = anchorDistances[v * k + a];
+			int fromTarget = anchorDistances[target * k + a];
+			if (fromV != DistanceOracle.NO_PATH && fromTarget != DistanceOracle.NO_PATH) {
+				bound = Math.max(bound, Math.abs((long) fromTarget - fromV));
+			}
+		}
+		return bound;
+	}
+
+	/**
+	 * Clears the state left by the previous run.
+	 */
+	private void reset() {
+		for (int i = 0; i < touchedCount; i++) {
+			distances[touched[i]] = UNREACHED;
+		}
+		touchedCount = 0;
+		settledCount = 0;
+		heap.clear();
+	}
+}
@@ -0,0 +1,301 @@
+package edu.ncsu.csc316.trail.graph;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * A fixed-length array of bytes held in a GraphStorage: a Java byte[] on the
+ * heap, or a direct buffer outside it. LandmarkTable keeps its character arena
+ * in one, so the same code runs against either storage.
+ *
+ * @author Thommasaht Nhouyvanisvong (tcnhouyv)
+ */
+abstract class ByteArray {
+
+	/**
+	 * Returns the number of bytes in the array.
+	 *
+	 * @return length of the array
+	 */
+	abstract int length();
+
+	/**
+	 * Returns the byte at the specified index.
+	 *
+	 * @param index index to read
+	 * @return value at the index
+	 */
+	abstract byte get(int index);
+
+	/**
+	 * Stores a byte at the specified index.
+	 *
+	 * @param index index to write
+	 * @param value value to store
+	 */
+	abstract void set(int index, byte value);
+
+	/**
+	 * Returns the storage the array is held in.
+	 *
+	 * @return storage of the array
+	 */
+	abstract GraphStorage storage();
+
+	/**
+	 * Releases the array's memory. The array must not be used afterward.
+	 */
+	abstract void free();
+
+	/**
+	 * Copies count bytes starting at from into target starting at to. The
+	 * arrays must be different.
+	 *
+	 * @param from   first index copied from this array
+	 * @param target array copied into
+	 * @param to     first index copied to in target
+	 * @param count  number of bytes to copy
+	 */
+	void copyTo(int from, ByteArray target, int to, int count) {
+		for (int i = 0; i < count; i++) {
+			target.set(to + i, get(from + i));
+		}
+	}
+
+	/**
+	 * Writes the first count bytes to a buffer at its position, advancing it.
+	 *
+	 * @param out   buffer to write to
+	 * @param count number of bytes to write
+	 */
+	void writeTo(ByteBuffer out, int count) {
+		for (int i = 0; i < count; i++) {
+			out.put(get(i));
+		}
+	}
+
+	/**
+	 * Returns true if the bytes of [start, end) equal a range of a byte[].
+	 *
+	 * @param start  start of the range of this array
+	 * @param end    end of the range of this array (exclusive)
+	 * @param bytes  buffer to compare with
+	 * @param offset start of the range of bytes
+	 * @param length number of bytes in the range of bytes
+	 * @return true if the ranges hold the same bytes
+	 */
+	boolean rangeEquals(int start, int end, byte[] bytes, int offset, int length) {
+		if (end - start != length) {
+			return false;
+		}
+		for (int i = 0; i < length; i++) {
+			if (get(start + i) != bytes[offset + i]) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * Returns the offset of the first byte that differs between two ranges of
+	 * this array, the length of the shorter range if one is a prefix of the
+	 * other, or -1 if the ranges are equal.
+	 *
+	 * @param aStart start of the first range
+	 * @param aEnd   end of the first range (exclusive)
+	 * @param bStart start of the second range
+	 * @param bEnd   end of the second range (exclusive)
+	 * @return offset of the first mismatch, or -1
+	 */
+	int mismatch(int aStart, int aEnd, int bStart, int bEnd) {
+		int length = Math.min(aEnd - aStart, bEnd - bStart);
+		for (int i = 0; i < length; i++) {
+			if (get(aStart + i) != get(bStart + i)) {
+				return i;
+			}
+		}
+		return aEnd - aStart == bEnd - bStart ? -1 : length;
+	}
+
+	/**
+	 * Decodes a range of Latin-1 bytes.
+	 *
+	 * @param start start of the range
+	 * @param end   end of the range (exclusive)
+	 * @return decoded characters
+	 */
+	String decodeLatin1(int start, int end) {
+		byte[] bytes = new byte[end - start];
+		for (int i = 0; i < bytes.length; i++) {
+			bytes[i] = get(start + i);
+		}
+		return new String(bytes, StandardCharsets.ISO_8859_1);
+	}
+
+	/**
+	 * Decodes a range of Latin-1 bytes into a char[].
+	 *
+	 * @param start     start of the range
+	 * @param end       end of the range (exclusive)
+	 * @param dest      array to decode into
+	 * @param destBegin first index of dest decoded into
+	 */
+	void decodeLatin1(int start, int end, char[] dest, int destBegin) {
+		for (int i = start; i < end; i++) {
+			dest[destBegin++] = (char) (get(i) & 0xFF);
+		}
+	}
+
+	/**
+	 * Returns a new array of the specified length in the same storage holding
+	 * this array's leading bytes, and frees this array.
+	 *
+	 * @param length length of the new array
+	 * @return resized copy of the array
+	 */
+	ByteArray resize(int length) {
+		ByteArray resized = storage().allocateBytes(length);
+		copyTo(0, resized, 0, Math.min(length, length()));
+		free();
+		return resized;
+	}
+
+	/**
+	 * An array of bytes backed by a Java byte[].
+	 */
+	static final class Heap extends ByteArray {
+
+		/** Values of the array */
+		private final byte[] values;
+
+		/**
+		 * Creates an array backed by the specified values.
+		 *
+		 * @param values values of the array
+		 */
+		Heap(byte[] values) {
+			this.values = values;
+		}
+
+		@Override
+		int length() {
+			return values.length;
+		}
+
+		@Override
+		byte get(int index) {
+			return values[index];
+		}
+
+		@Override
+		void set(int index, byte value) {
+			values[index] = value;
+		}
+
+		@Override
+		GraphStorage storage() {
+			return GraphStorage.HEAP;
+		}
+
+		@Override
+		void free() {
+			// The garbage collector reclaims the array
+		}
+
+		@Override
+		void copyTo(int from, ByteArray target, int to, int count) {
+			if (target instanceof Heap) {
+				System.arraycopy(values, from, ((Heap) target).values, to, count);
+			} else {
+				super.copyTo(from, target, to, count);
+			}
+		}
+
+		@Override
+		void writeTo(ByteBuffer out, int count) {
+			out.put(values, 0, count);
+		}
+
+		@Override
+		boolean rangeEquals(int start, int end, byte[] bytes, int offset, int length) {
+			return Arrays.equals(values, start, end, bytes, offset, offset + length);
+		}
+
+		@Override
+		int mismatch(int aStart, int aEnd, int bStart, int bEnd) {
+			return Arrays.mismatch(values, aStart, aEnd, values, bStart, bEnd);
+		}
+
+		@Override
+		String decodeLatin1(int start, int end) {
+			return new String(values, start, end - start, StandardCharsets.ISO_8859_1);
+		}
+
+		@Override
+		void decodeLatin1(int start, int end, char[] dest, int destBegin) {
+			for (int i = start; i < end; i++) {
+				dest[destBegin++] = (char) (values[i] & 0xFF);
+			}
+		}
+	}
+
+	/**
+	 * An array of bytes backed by a direct buffer outside the heap.
+	 */
+	static final class Direct extends ByteArray {
+
+		/** Buffer holding the bytes, or an empty buffer once freed */
+		private ByteBuffer buffer;
+		/** Number of bytes in the array */
+		private final int length;
+
+		/**
+		 * Allocates a zeroed array of the specified length.
+		 *
+		 * @param length number of bytes
+		 */
+		Direct(int length) {
+			this.length = length;
+			buffer = GraphStorage.allocateDirect(length);
+		}
+
+		@Override
+		int length() {
+			return length;
+		}
+
+		@Override
+		byte get(int index) {
+			return buffer.get(index);
+		}
+
+		@Override
+		void set(int index, byte value) {
+			buffer.put(index, value);
+		}
+
+		@Override
+		void decodeLatin1(int start, int end, char[] dest, int destBegin) {
+			for (int i = start; i < end; i++) {
+				dest[destBegin++] = (char) (buffer.get(i) & 0xFF);
+			}
+		}
+
+		@Override
+		GraphStorage storage() {
+			return GraphStorage.OFF_HEAP;
+		}
+
+		@Override
+		void free() {
+			if (!buffer.isDirect()) {
+				return;
+			}
+			ByteBuffer freed = buffer;
+			// Any later access fails on the empty buffer instead of reading freed memory
+			buffer = ByteBuffer.allocate(0);
+			GraphStorage.free(freed);
+		}
+	}
+}
@@ -0,0 +1,314 @@
+package edu.ncsu.csc316.trail.graph;
+
+import java.util.Arrays;
+import java.util.Random;
+import java.util.stream.IntStream;
+
+/**
+ * Closeness and betweenness centrality of every landmark in a TrailGraph, by
+ * trail length. Both are computed from shortest path searches out of a set of
+ * source landmarks: every landmark when the park is small enough, or a random
+ * sample of them otherwise, which estimates the scores of every landmark at a
+ * fraction of the cost.
+ *
+ * Betweenness is the share of shortest paths between other pairs of landmarks
+ * that pass through a landmark, from 0 to 1, accumulated with Brandes'
+ * algorithm and scaled up from the sample. Closeness is the reciprocal of a
+ * landmark's average distance in miles to the sources that reach it, weighted
+ * by the share of sources it reaches, so landmarks in small trail systems rank
+ * below central landmarks of large ones.
+ *
+ * The sources are split into a fixed number of chunks that run in parallel on
+ * the common fork-join pool, each on its own search arrays, and the chunks'
+ * sums are added in chunk order. The scores are therefore the same on any
+ * number of cores. An index describes the graph as it was when computed, so it
+ * must be recomputed after the graph changes.
+ *
+ * @author Thommasaht Nhouyvanisvong (tcnhouyv)
+ */
+public class CentralityIndex {
+
+	/** Default number of source landmarks sampled in large parks */
+	public static final int DEFAULT_SAMPLES = 128;
+	/** Default seed of the source sample */
+	public static final long DEFAULT_SEED = 316;
+	/** Number of chunks the sources are split into */
+	private static final int CHUNKS = 16;
+	/** Number of feet in a mile */
+	private static final double FEET_IN_A_MILE = 5280;
+
+	/** Closeness of each landmark, or 0 for empty indexes */
+	private final double[] closeness;
+	/** Betweenness of each landmark, or 0 for empty indexes */
+	private final double[] betweenness;
+	/** Number of source landmarks searched from */
+	private final int sampleCount;
+	/** Whether every landmark was a source */
+	private final boolean exact;
+
+	/**
+	 * Creates an index from its scores.
+	 *
+	 * @param closeness   closeness of each landmark
+	 * @param betweenness betweenness of each landmark
+	 * @param sampleCount number of source landmarks searched from
+	 * @param exact       whether every landmark was a source
+	 */
+	private CentralityIndex(double[] closeness, double[] betweenness, int sampleCount, boolean exact) {
+		this.closeness = closeness;
+		this.betweenness = betweenness;
+		this.sampleCount = sampleCount;
+		this.exact = exact;
+	}
+
+	/**
+	 * Computes the centrality of every landmark from the default number of
+	 * sampled sources.
+	 *
+	 * @param graph graph to score
+	 * @return centrality of every landmark
+	 */
+	public static CentralityIndex compute(TrailGraph graph) {
+		return compute(graph, DEFAULT_SAMPLES, DEFAULT_SEED);
+	}
+
+	/**
+	 * Computes the centrality of every landmark. If the graph has no more than
+	 * samples landmarks, every landmark is a source and the scores are exact;
+	 * otherwise samples sources are drawn at random with the specified seed.
+	 *
+	 * @param graph   graph to score
+	 * @param samples largest number of source landmarks to search from
+	 * @param seed    seed of the source sample
+	 * @return centrality of every landmark
+	 * @throws IllegalArgumentException if samples is not positive
+	 */
+	public static CentralityIndex compute(TrailGraph graph, int samples, long seed) {
+		if (samples <= 0) {
+			throw new IllegalArgumentException("Number of samples must be positive.");
+		}
+		int n = graph.size();
+		int[] landmarks = new int[graph.getLandmarkCount()];
+		int count = 0;
+		for (int v = 0; v < n; v++) {
+			if (graph.contains(v)) {
+				landmarks[count++] = v;
+			}
+		}
+		int k = Math.min(samples, count);
+		boolean exact = k == count;
+		if (!exact) {
+			// Draw k distinct sources with a partial Fisher-Yates shuffle
+			Random random = new Random(seed);
+			for (int i = 0; i < k; i++) {
+				int j = i + random.nextInt(count - i);
+				int swap = landmarks[i];
+				landmarks[i] = landmarks[j];
+				landmarks[j] = swap;
+			}
+		}
+		int[] sources = Arrays.copyOf(landmarks, k);
+
+		long[] distanceSums = new long[n];
+		int[] reachCounts = new int[n];
+		int chunks = Math.min(CHUNKS, k);
+		double[][] partials = new double[chunks][];
+		IntStream.range(0, chunks).parallel().forEach(c -> {
+			// A search per chunk is freed with the chunk, where a thread-local one
+			// would stay reachable from pool threads after the index is built
+			BrandesSearch search = new BrandesSearch(graph, n);
+			double[] partial = new double[n];
+			for (int i = (int) ((long) k * c / chunks); i < (int) ((long) k * (c + 1) / chunks); i++) {
+				search.run(sources[i], partial);
+			}
+			partials[c] = partial;
+			// Integer sums do not depend on the order the chunks are added in
+			synchronized (distanceSums) {
+				search.drain(distanceSums, reachCounts);
+			}
+		});
+
+		double[] betweenness = new double[n];
+		for (double[] partial : partials) {
+			for (int v = 0; v < n; v++) {
+				betweenness[v] += partial[v];
+			}
+		}
+		// Each unordered pair is counted from both ends, and there are
+		// (count - 1)(count - 2) ordered pairs of other landmarks
+		double scale = count > 2 ? (double) count / k / ((count - 1.0) * (count - 2.0)) : 0;
+		boolean[] sampled = new boolean[n];
+		for (int source : sources) {
+			sampled[source] = true;
+		}
+		double[] closeness = new double[n];
+		for (int v = 0; v < n; v++) {
+			betweenness[v] *= scale;
+			int others = sampled[v] ? k - 1 : k;
+			if (reachCounts[v] > 0 && others > 0) {
+				double reached = (double) reachCounts[v] / others;
+				double averageMiles = Math.max(1, distanceSums[v]) / FEET_IN_A_MILE / reachCounts[v];
+				closeness[v] = reached / averageMiles;
+			}
+		}
+		return new CentralityIndex(closeness, betweenness, k, exact);
+	}
+
+	/**
+	 * Returns the closeness of a landmark: the share of sources that reach it
+	 * divided by its average distance in miles to them.
+	 *
+	 * @param index landmark index
+	 * @return closeness, or 0 if no other source reaches the landmark
+	 */
+	public double getCloseness(int index) {
+		return index < closeness.length ? closeness[index] : 0;
+	}
+
+	/**
+	 * Returns the betweenness of a landmark: the share of shortest paths between
+	 * pairs of other landmarks that pass through it, from 0 to 1.
+	 *
+	 * @param index landmark index
+	 * @return betweenness
+	 */
+	public double getBetweenness(int index) {
+		return index < betweenness.length ? betweenness[index] : 0;
+	}
+
+	/**
+	 * Returns the number of source landmarks the scores were computed from.
+	 *
+	 * @return number of sources
+	 */
+	public int getSampleCount() {
+		return sampleCount;
+	}
+
+	/**
+	 * Returns true if every landmark was a source, so the scores are exact
+	 * rather than estimated.
+	 *
+	 * @return true if the scores are exact
+	 */
+	public boolean isExact() {
+		return exact;
+	}
+
+	/**
+	 * A shortest path search that counts the shortest paths to each landmark
+	 * and then accumulates each landmark's dependency on the source, in the
+	 * manner of Brandes' algorithm for weighted graphs. The search arrays are
+	 * allocated once and reset after each run, and the distance sums used for
+	 * closeness are kept until they are drained.
+	 */
+	private static final class BrandesSearch {
+
+		/** Graph searched */
+		private final TrailGraph graph;
+		/** Shortest distance of each landmark from the current source */
+		private final long[] distances;
+		/** Number of shortest paths from the source to each landmark */
+		private final double[] paths;
+		/** Dependency of the source on each landmark */
+		private final double[] dependencies;
+		/** Position of each landmark in the settle order */
+		private final int[] positions;
+		/** Landmarks in the order they were settled */
+		private final int[] settled;
+		/** Number of settled landmarks */
+		private int settledCount;
+		/** Frontier of reached but unsettled landmarks */
+		private final IndexedMinHeap heap;
+		/** Sum of the distances from the sources run since the last drain */
+		private final long[] distanceSums;
+		/** Number of sources run since the last drain that reach each landmark */
+		private final int[] reachCounts;
+
+		/**
+		 * Creates a search over landmark indexes in [0, n).
+		 *
+		 * @param graph graph to search
+		 * @param n     landmark index bound of the graph
+		 */
+		BrandesSearch(TrailGraph graph, int n) {
+			this.graph = graph;
+			distances = new long[n];
+			Arrays.fill(distances, DijkstraSearch.UNREACHED);
+			paths = new double[n];
+			dependencies = new double[n];
+			positions = new int[n];
+			settled = new int[n];
+			heap = new IndexedMinHeap(n);
+			distanceSums = new long[n];
+			reachCounts = new int[n];
+		}
+
+		/**
+		 * Searches from a source, adding each other landmark's dependency to
+		 * betweenness and its distance to the closeness sums.
+		 *
+		 * @param source      index of the source landmark
+		 * @param betweenness betweenness sums to add to
+		 */
+		void run(int source, double[] betweenness) {
+			distances[source] = 0;
+			paths[source] = 1;
+			heap.insertOrDecrease(source, 0);
+			while (!heap.isEmpty()) {
+				int u = heap.poll();
+				positions[u] = settledCount;
+				settled[settledCount++] = u;
+				for (int e = graph.firstEdge(u); e < graph.endEdge(u); e++) {
+					int w = graph.neighbor(e);
+					long candidate = distances[u] + graph.length(e);
+					if (candidate < distances[w]) {
+						distances[w] = candidate;
+						paths[w] = paths[u];
+						heap.insertOrDecrease(w, candidate);
+					} else if (candidate == distances[w] && heap.contains(w)) {
+						paths[w] += paths[u];
+					}
+				}
+			}
+			// Landmarks settled earlier at the right distance are the predecessors,
+			// which also orders landmarks joined by trails of length 0
+			for (int i = settledCount - 1; i > 0; i--) {
+				int w = settled[i];
+				double coefficient = (1 + dependencies[w]) / paths[w];
+				for (int e = graph.firstEdge(w); e < graph.endEdge(w); e++) {
+					int v = graph.neighbor(e);
+					if (distances[v] + graph.length(e) == distances[w] && positions[v] < i) {
+						dependencies[v] += paths[v] * coefficient;
+					}
+				}
+				betweenness[w] += dependencies[w];
+				distanceSums[w] += distances[w];
+				reachCounts[w]++;
+			}
+			for (int i = 0; i < settledCount; i++) {
+				int v = settled[i];
+				distances[v] = DijkstraSearch.UNREACHED;
+				paths[v] = 0;
+				dependencies[v] = 0;
+			}
+			settledCount = 0;
+		}
+
+		/**
+		 * Adds the closeness sums of the sources run since the last drain to the
+		 * specified totals and clears them.
+		 *
+		 * @param sums   distance sums to add to
+		 * @param counts reach counts to add to
+		 */
+		void drain(long[] sums, int[] counts) {
+			for (int v = 0; v < sums.length; v++) {
+				sums[v] += distanceSums[v];
+				counts[v] += reachCounts[v];
+			}
+			Arrays.fill(distanceSums, 0);
+			Arrays.fill(reachCounts, 0);
+		}
+	}
+}
@@ -0,0 +1,189 @@
+package edu.ncsu.csc316.trail.graph;
+
+import java.util.Arrays;
+
+/**
+ * An index of the connected components of a TrailGraph, built once with a
+ * union-find pass over every trail. Components are numbered from 0 in order
+ * of decreasing size, with ties broken by their lowest landmark index, so
+ * reachability, component size, and the list of components by size are all
+ * answered with array lookups and no traversal.
+ *
+ * @author Thommasaht Nhouyvanisvong (tcnhouyv)
+ */
+public class ComponentIndex {
+
+	/** Component number of each landmark */
+	private final int[] componentOf;
+	/** Number of landmarks in each component */
+	private final int[] componentSize;
+	/** Lowest landmark index in each component */
+	private final int[] representative;
+
+	/**
+	 * Builds the component index of the specified graph.
+	 *
+	 * @param graph graph to index
+	 */
+	public ComponentIndex(TrailGraph graph) {
+		int n = graph.size();
+		int[] parent = new int[n];
+		int[] rank = new int[n];
+		for (int v = 0; v < n; v++) {
+			parent[v] = v;
+		}
+		for (int v = 0; v < n; v++) {
+			for (int e = graph.firstEdge(v); e < graph.endEdge(v); e++) {
+				int w = graph.neighbor(e);
+				// Each trail is stored in both ranges, so union it only once
+				if (v < w) {
+					union(parent, rank, v, w);
+				}
+			}
+		}
+
+		// Number the components by their lowest landmark index first
+		int[] rawOf = new int[n];
+		int[] rawOfRoot = new int[n];
+		Arrays.fill(rawOfRoot, -1);
+		int[] rawSize = new int[n];
+		int[] rawRepresentative = new int[n];
+		int count = 0;
+		for (int v = 0; v < n; v++) {
+			if (!graph.contains(v)) {
+				// Removed landmarks belong to no component
+				rawOf[v] = -1;
+				continue;
+			}
+			int root = find(parent, v);
+			if (rawOfRoot[root] < 0) {
+				rawOfRoot[root] = count;
+				rawRepresentative[count++] = v;
+			}
+			rawOf[v] = rawOfRoot[root];
+			rawSize[rawOf[v]]++;
+		}
+
+		// Renumber by decreasing size, breaking ties by lowest landmark index
+		long[] order = new long[count];
+		for (int c = 0; c < count; c++) {
+			order[c] = ((long) (n - rawSize[c]) << 32) | c;
+		}
+		Arrays.sort(order);
+		int[] renumber = new int[count];
+		componentSize = new int[count];
+		representative = new int[count];
+		for (int c = 0; c < count; c++) {
+			int raw = (int) order[c];
+			renumber[raw] = c;
+			componentSize[c] = rawSize[raw];
+			representative[c] = rawRepresentative[raw];
+		}
+		componentOf = new int[n];
+		for (int v = 0; v < n; v++) {
+			componentOf[v] = rawOf[v] < 0 ? -1 : renumber[rawOf[v]];
+		}
+	}
+
+	/**
+	 * Returns the number of connected components.
+	 *
+	 * @return number of components
+	 */
+	public int getComponentCount() {
+		return componentSize.length;
+	}
+
+	/**
+	 * Returns the component number of the specified landmark. Component 0 is the
+	 * largest component.
+	 *
+	 * @param index landmark index
+	 * @return component number of the landmark, or -1 if it has been removed
+	 */
+	public int getComponent(int index) {
+		return componentOf[index];
+	}
+
+	/**
+	 * Returns the number of landmarks in the specified component.
+	 *
+	 * @param component component number
+	 * @return number of landmarks in the component
+	 */
+	public int getSize(int component) {
+		return componentSize[component];
+	}
+
+	/**
+	 * Returns the lowest landmark index in the specified component.
+	 *
+	 * @param component component number
+	 * @return representative landmark index of the component
+	 */
+	public int getRepresentative(int component) {
+		return representative[component];
+	}
+
+	/**
+	 * Returns the number of landmarks reachable from the specified landmark,
+	 * including itself.
+	 *
+	 * @param index landmark index
+	 * @return size of the landmark's component
+	 */
+	public int getComponentSize(int index) {
+		return componentSize[componentOf[index]];
+	}
+
+	/**
+	 * Returns true if the two landmarks are connected by trails.
+	 *
+	 * @param first  index of the first landmark
+	 * @param second index of the second landmark
+	 * @return true if the landmarks are in the same component
+	 */
+	public boolean isConnected(int first, int second) {
+		return componentOf[first] == componentOf[second];
+	}
+
+	/**
+	 * Returns the root of the set containing v, halving the path as it goes.
+	 *
+	 * @param parent parent of each set element
+	 * @param v      element to find
+	 * @return root of v's set
+	 */
+	private static int find(int[] parent, int v) {
+		while (parent[v] != v) {
+			parent[v] = parent[parent[v]];
+			v = parent[v];
+		}
+		return v;
+	}
+
+	/**
+	 * Merges the sets containing a and b, attaching the lower-ranked root under
+	 * the higher-ranked one.
+	 *
+	 * @param parent parent of each set element
+	 * @param rank   upper bound on the height of each root's tree
+	 * @param a      element of the first set
+	 * @param b      element of the second set
+	 */
+	private static void union(int[] parent, int[] rank, int a, int b) {
+		int rootA = find(parent, a);
+		int rootB = find(parent, b);
+		if (rootA == rootB) {
+			return;
+		}
+		if (rank[rootA] < rank[rootB]) {
+			parent[rootA] = rootB;
+		} else if (rank[rootA] > rank[rootB]) {
+			parent[rootB] = rootA;
+		} else {
+			parent[rootB] = rootA;
+			rank[rootA]++;
+		}
+	}
+}
@@ -0,0 +1,216 @@
+package edu.ncsu.csc316.trail.graph;
+
+import java.util.Arrays;
+
+/**
+ * An index of the landmarks of a TrailGraph bucketed by degree, the number of
+ * trails intersecting each landmark. Each bucket is an array of landmark
+ * indexes kept sorted by description, with ties broken by ID, so the landmarks
+ * with at least a given number of trails can be listed in report order by
+ * walking the buckets from the highest degree down, without sorting. The index
+ * is built once with a single sort and then kept current by moving a landmark
+ * between buckets whenever its degree changes.
+ *
+ * @author Thommasaht Nhouyvanisvong (tcnhouyv)
+ */
+public class DegreeIndex {
+
+	/** Smallest capacity given to a bucket */
+	private static final int MIN_BUCKET_CAPACITY = 4;
+	/** Graph indexed */
+	private final TrailGraph graph;
+	/** Landmark indexes of each degree, sorted by description and ID */
+	private int[][] buckets;
+	/** Number of landmarks in each bucket */
+	private int[] bucketSizes;
+	/** Degree each landmark is filed under, or -1 if it is not indexed */
+	private int[] degreeOf;
+	/** Highest degree with a non-empty bucket, or -1 if there are none */
+	private int maxDegree;
+
+	/**
+	 * Builds the degree index of the specified graph.
+	 *
+	 * @param graph graph to index
+	 */
+	public DegreeIndex(TrailGraph graph) {
+		this.graph = graph;
+		int n = graph.size();
+		degreeOf = new int[Math.max(n, MIN_BUCKET_CAPACITY)];
+		Arrays.fill(degreeOf, -1);
+		maxDegree = -1;
+		Integer[] order = new Integer[graph.getLandmarkCount()];
+		int[] counts = new int[MIN_BUCKET_CAPACITY];
+		int count = 0;
+		for (int v = 0; v < n; v++) {
+			if (graph.contains(v)) {
+				order[count++] = v;
+				int degree = graph.degree(v);
+				if (degree >= counts.length) {
+					counts = Arrays.copyOf(counts, Math.max(degree + 1, counts.length * 2));
+				}
+				counts[degree]++;
+				maxDegree = Math.max(maxDegree, degree);
+			}
+		}
+		// Sorting once and dealing the landmarks out in order leaves every bucket
+		// sorted
+		Arrays.sort(order, graph::compareLandmarks);
+		buckets = new int[counts.length][];
+		bucketSizes = new int[counts.length];
+		for (int d = 0; d < counts.length; d++) {
+			buckets[d] = new int[Math.max(counts[d], MIN_BUCKET_CAPACITY)];
+		}
+		for (int v : order) {
+			int degree = graph.degree(v);
+			buckets[degree][bucketSizes[degree]++] = v;
+			degreeOf[v] = degree;
+		}
+	}
+
+	/**
+	 * Returns the highest degree of any landmark, or -1 if the graph has no
+	 * landmarks.
+	 *
+	 * @return highest landmark degree
+	 */
+	public int getMaxDegree() {
+		return maxDegree;
+	}
+
+	/**
+	 * Returns the number of landmarks with exactly the specified degree.
+	 *
+	 * @param degree number of intersecting trails
+	 * @return number of landmarks with that degree
+	 */
+	public int getCount(int degree) {
+		return degree >= 0 && degree < bucketSizes.length ? bucketSizes[degree] : 0;
+	}
+
+	/**
+	 * Returns the i-th landmark, in description order, among the landmarks with
+	 * the specified degree.
+	 *
+	 * @param degree number of intersecting trails
+	 * @param i      position within the degree's bucket
+	 * @return index of the landmark
+	 */
+	public int get(int degree, int i) {
+		return buckets[degree][i];
+	}
+
+	/**
+	 * Returns the number of landmarks with at least the specified degree.
+	 *
+	 * @param minDegree smallest number of intersecting trails
+	 * @return number of landmarks with at least minDegree trails
+	 */
+	public int countAtLeast(int minDegree) {
+		int count = 0;
+		for (int d = Math.max(minDegree, 0); d <= maxDegree; d++) {
+			count += bucketSizes[d];
+		}
+		return count;
+	}
+
+	/**
+	 * Files the landmark at the specified index under its current degree in the
+	 * graph. Must be called after a landmark is added or the trails intersecting
+	 * it change; calling it when the degree is unchanged does nothing.
+	 *
+	 * @param index landmark index
+	 */
+	public void update(int index) {
+		int degree = graph.degree(index);
+		if (index < degreeOf.length && degreeOf[index] == degree) {
+			return;
+		}
+		remove(index);
+		insert(index, degree);
+	}
+
+	/**
+	 * Removes the landmark at the specified index from the index. Must be called
+	 * before the landmark is removed from the graph.
+	 *
+	 * @param index landmark index
+	 */
+	public void remove(int index) {
+		if (index >= degreeOf.length || degreeOf[index] < 0) {
+			return;
+		}
+		int degree = degreeOf[index];
+		int[] bucket = buckets[degree];
+		int position = search(bucket, bucketSizes[degree], index);
+		System.arraycopy(bucket, position + 1, bucket, position, bucketSizes[degree] - position - 1);
+		bucketSizes[degree]--;
+		degreeOf[index] = -1;
+		while (maxDegree >= 0 && bucketSizes[maxDegree] == 0) {
+			maxDegree--;
+		}
+	}
+
+	/**
+	 * Inserts a landmark into the bucket for the specified degree at its sorted
+	 * position.
+	 *
+	 * @param index  landmark index
+	 * @param degree degree to file the landmark under
+	 */
+	private void insert(int index, int degree) {
+		if (index >= degreeOf.length) {
+			int capacity = Math.max(index + 1, degreeOf.length * 2);
+			int oldLength = degreeOf.length;
+			degreeOf = Arrays.copyOf(degreeOf, capacity);
+			Arrays.fill(degreeOf, oldLength, capacity, -1);
+		}
+		if (degree >= buckets.length) {
+			int capacity = Math.max(degree + 1, buckets.length * 2);
+			int oldLength = buckets.length;
+			buckets = Arrays.copyOf(buckets, capacity);
+			bucketSizes = Arrays.copyOf(bucketSizes, capacity);
+			for (int d = oldLength; d < capacity; d++) {
+				buckets[d] = new int[MIN_BUCKET_CAPACITY];
+			}
+		}
+		int size = bucketSizes[degree];
+		if (size == buckets[degree].length) {
+			buckets[degree] = Arrays.copyOf(buckets[degree], size * 2);
+		}
+		int[] bucket = buckets[degree];
+		// search returns -(insertion point) - 1 for a landmark not in the bucket
+		int position = -search(bucket, size, index) - 1;
+		System.arraycopy(bucket, position, bucket, position + 1, size - position);
+		bucket[position] = index;
+		bucketSizes[degree]++;
+		degreeOf[index] = degree;
+		maxDegree = Math.max(maxDegree, degree);
+	}
+
+	/**
+	 * Binary searches the first size entries of a bucket for a landmark.
+	 *
+	 * @param bucket   bucket to search
+	 * @param size     number of landmarks in the bucket
+	 * @param landmark index of the landmark to find
+	 * @return position of the landmark, or -(insertion point) - 1 if it is not
+	 *         in the bucket
+	 */
+	private int search(int[] bucket, int size, int landmark) {
+		int low = 0;
+		int high = size - 1;
+		while (low <= high) {
+			int middle = (low + high) >>> 1;
+			int comparison = graph.compareLandmarks(bucket[middle], landmark);
+			if (comparison < 0) {
+				low = middle + 1;
+			} else if (comparison > 0) {
+				high = middle - 1;
+			} else {
+				return middle;
+			}
+		}
+		return -low - 1;
+	}
+}
@@ -0,0 +1,73 @@
+package edu.ncsu.csc316.trail.graph;
+
+import java.util.Arrays;
+
+/**
+ * The rank of every landmark of a TrailGraph in description order, with ties
+ * broken by ID. Ranks are dense ints from 0, so the order of two landmarks is
+ * an int comparison and a rank fits in the low bits of a packed sort key. The
+ * ranks are computed once with a single sort and must be rebuilt after
+ * landmarks are added or removed.
+ *
+ * @author Thommasaht Nhouyvanisvong (tcnhouyv)
+ */
+public class DescriptionRank {
+
+	/** Rank of each landmark index, or -1 for removed landmarks */
+	private final int[] rankOf;
+	/** Landmark index of each rank */
+	private final int[] landmarkAt;
+
+	/**
+	 * Ranks the landmarks of the specified graph.
+	 *
+	 * @param graph graph to rank
+	 */
+	public DescriptionRank(TrailGraph graph) {
+		int n = graph.size();
+		Integer[] order = new Integer[graph.getLandmarkCount()];
+		int count = 0;
+		for (int v = 0; v < n; v++) {
+			if (graph.contains(v)) {
+				order[count++] = v;
+			}
+		}
+		Arrays.sort(order, graph::compareLandmarks);
+		rankOf = new int[n];
+		Arrays.fill(rankOf, -1);
+		landmarkAt = new int[count];
+		for (int r = 0; r < count; r++) {
+			landmarkAt[r] = order[r];
+			rankOf[order[r]] = r;
+		}
+	}
+
+	/**
+	 * Returns the number of ranked landmarks.
+	 *
+	 * @return number of landmarks
+	 */
+	public int size() {
+		return landmarkAt.length;
+	}
+
+	/**
+	 * Returns the rank of the specified landmark.
+	 *
+	 * @param index landmark index
+	 * @return rank of the landmark, or -1 if it has been removed
+	 */
+	public int getRank(int index) {
+		return rankOf[index];
+	}
+
+	/**
+	 * Returns the landmark with the specified rank.
+	 *
+	 * @param rank rank in description order
+	 * @return landmark index
+	 */
+	public int getLandmark(int rank) {
+		return landmarkAt[rank];
+	}
+}
@@ -0,0 +1,180 @@
+package edu.ncsu.csc316.trail.graph;
+
+import java.util.Arrays;
+import java.util.function.IntPredicate;
+
+/**
+ * A single-source shortest path engine for a TrailGraph. Runs Dijkstra's
+ * algorithm over an IndexedMinHeap and records landmarks in the order they are
+ * settled, which is nondecreasing distance order. The distance and heap arrays
+ * are allocated once and reused by every run, growing only when landmarks are
+ * added to the graph; only entries touched by the previous run are reset, so a
+ * run costs time proportional to the part of the graph it reaches. Runs can
+ * stop at a distance bound or once enough matching landmarks are settled, so
+ * nearby queries reach only a small part of the graph. A search is not
+ * thread-safe and should be used by one thread at a time.
+ *
+ * @author Thommasaht Nhouyvanisvong (tcnhouyv)
+ */
+public class DijkstraSearch {
+
+	/** Distance of landmarks not reached by the last run */
+	public static final long UNREACHED = Long.MAX_VALUE;
+
+	/** Graph searched */
+	private final TrailGraph graph;
+	/** Shortest distance of each landmark from the last source */
+	private long[] distances;
+	/** Landmarks whose distance was set by the last run */
+	private int[] touched;
+	/** Number of touched landmarks */
+	private int touchedCount;
+	/** Landmarks in the order they were settled */
+	private int[] settled;
+	/** Number of settled landmarks */
+	private int settledCount;
+	/** Number of edges scanned from settled landmarks */
+	private long scannedCount;
+	/** Frontier of reached but unsettled landmarks */
+	private IndexedMinHeap heap;
+
+	/**
+	 * Creates a search over the specified graph.
+	 *
+	 * @param graph graph to search
+	 */
+	public DijkstraSearch(TrailGraph graph) {
+		this.graph = graph;
+		allocate(graph.size());
+	}
+
+	/**
+	 * Allocates the search arrays for landmark indexes in [0, capacity).
+	 *
+	 * @param capacity number of landmark indexes the search can handle
+	 */
+	private void allocate(int capacity) {
+		distances = new long[capacity];
+		Arrays.fill(distances, UNREACHED);
+		touched = new int[capacity];
+		settled = new int[capacity];
+		heap = new IndexedMinHeap(capacity);
+		touchedCount = 0;
+		settledCount = 0;
+		scannedCount = 0;
+	}
+
+	/**
+	 * Computes the shortest distance from the source landmark to every landmark
+	 * reachable from it.
+	 *
+	 * @param source index of the source landmark
+	 */
+	public void run(int source) {
+		run(source, UNREACHED, null, Integer.MAX_VALUE);
+	}
+
+	/**
+	 * Computes the shortest distance from the source landmark to the landmarks
+	 * closest to it, stopping early. No landmark farther than maxDistance is
+	 * settled, and once limit settled landmarks have been accepted by the
+	 * filter, only landmarks at the same distance as the last one accepted are
+	 * settled, so that ties with it are not cut off. Only the distances of
+	 * settled landmarks are final.
+	 *
+	 * @param source      index of the source landmark
+	 * @param maxDistance longest distance to settle, in feet
+	 * @param filter      landmarks counted toward the limit, or null to count
+	 *                    every landmark
+	 * @param limit       number of accepted landmarks after which the search
+	 *                    stops
+	 */
+	public void run(int source, long maxDistance, IntPredicate filter, int limit) {
+		if (graph.size() > distances.length) {
+			// Landmarks were added to the graph since the arrays were allocated
+			allocate(Math.max(graph.size(), distances.length * 2));
+		} else {
+			reset();
+		}
+		distances[source] = 0;
+		touched[touchedCount++] = source;
+		heap.insertOrDecrease(source, 0);
+		int accepted = 0;
+		while (!heap.isEmpty() && heap.getKey(heap.peek()) <= maxDistance) {
+			int current = heap.poll();
+			settled[settledCount++] = current;
+			long currentDistance = distances[current];
+			if (accepted < limit && (filter == null || filter.test(current)) && ++accepted == limit) {
+				// Settle the rest of the landmarks tied with the last one accepted
+				maxDistance = currentDistance;
+			}
+			scannedCount += graph.endEdge(current) - graph.firstEdge(current);
+			for (int e = graph.firstEdge(current); e < graph.endEdge(current); e++) {
+				int next = graph.neighbor(e);
+				long candidate = currentDistance + graph.length(e);
+				if (candidate < distances[next]) {
+					if (distances[next] == UNREACHED) {
+						touched[touchedCount++] = next;
+					}
+					distances[next] = candidate;
+					heap.insertOrDecrease(next, candidate);
+				}
+			}
+		}
+	}
+
+	/**
+	 * Returns the number of landmarks settled by the last run, including the
+	 * source.
+	 *
+	 * @return number of settled landmarks
+	 */
+	public int getSettledCount() {
+		return settledCount;
+	}
+
+	/**
+	 * Returns the number of edges scanned by the last run, which counts each
+	 * trail leaving a settled landmark once from that end.
+	 *
+	 * @return number of scanned edges
+	 */
+	public long getScannedCount() {
+		return scannedCount;
+	}
+
+	/**
+	 * Returns the i-th landmark settled by the last run. Landmarks are settled in
+	 * nondecreasing order of distance, starting with the source.
+	 *
+	 * @param i settle order position
+	 * @return index of the i-th settled landmark
+	 */
+	public int getSettled(int i) {
+		return settled[i];
+	}
+
+	/**
+	 * Returns the shortest distance from the last source to the specified
+	 * landmark, or UNREACHED if it could not be reached.
+	 *
+	 * @param index landmark index
+	 * @return shortest distance in feet, or UNREACHED
+	 */
+	public long getDistance(int index) {
+		return distances[index];
+	}
+
+	/**
+	 * Clears the state left by the previous run.
+	 */
+	private void reset() {
+		for (int i = 0; i < touchedCount; i++) {
+			distances[touched[i]] = UNREACHED;
+		}
+		touchedCount = 0;
+		settledCount = 0;
+		scannedCount = 0;
+		heap.clear();
+	}
+}
@@ -0,0 +1,359 @@
+package edu.ncsu.csc316.trail.graph;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.IntBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.stream.IntStream;
+import java.util.zip.CRC32C;
+
+/**
+ * Precomputed shortest distances between pairs of landmarks in a TrailGraph.
+ * When an int matrix of every pair fits the memory budget, the oracle holds
+ * the exact distance of every pair, computed with one Dijkstra search per
+ * landmark in parallel, and each query is a single array lookup. Otherwise it
+ * holds the distances from a few anchor landmarks, chosen far apart, to every
+ * landmark, and answers queries with an AltSearch, an A* search guided by the
+ * triangle inequality lower bound |d(a, t) - d(a, v)| over the anchors (the ALT
+ * technique), which settles far fewer landmarks than Dijkstra's algorithm.
+ * Anchors in one trail system and not the other also show that two landmarks
+ * are disconnected without a search.
+ *
+ * An oracle describes the graph as it was when built, so it must be rebuilt
+ * after the graph changes. It can be saved to a binary file with a header
+ * like TrailSnapshot's, holding a fingerprint of the graph so that an oracle
+ * is only reopened for the graph it was built from. Queries may be made from
+ * several threads at once, each passing its own search. The oracle keeps no
+ * search state of its own, so the arrays of an oracle discarded after a
+ * change are freed with it.
+ *
+ * @author Thommasaht Nhouyvanisvong (tcnhouyv)
+ */
+public class DistanceOracle {
+
+	/** Distance of landmarks that are not connected */
+	public static final long UNREACHED = Long.MAX_VALUE;
+	/** Number of anchors used when the exact matrix does not fit */
+	public static final int DEFAULT_ANCHORS = 16;
+	/** Stored distance of pairs that are not connected */
+	static final int NO_PATH = -1;
+	/** Magic number at the start of every oracle file ("TRLO") */
+	private static final int MAGIC = 0x54524C4F;
+	/** Current oracle file format version */
+	private static final int VERSION = 1;
+	/** Size of the fixed header in bytes */
+	private static final int HEADER_BYTES = 40;
+	/** Number of ints written to the file at a time */
+	private static final int WRITE_CHUNK_INTS = 1 << 16;
+	/** Number of parallel tasks the exact matrix is split into */
+	private static final int CHUNKS = 16;
+
+	/** Graph the oracle was built from */
+	private final TrailGraph graph;
+	/** Landmark index bound of the graph when the oracle was built */
+	private final int size;
+	/** Distance of every pair, row by source, or null for an anchor oracle */
+	private final int[] matrix;
+	/** Anchor landmark indexes, or null for an exact oracle */
+	private final int[] anchors;
+	/** Distance from each anchor to each landmark, grouped by landmark */
+	private final int[] anchorDistances;
+
+	/**
+	 * Creates an oracle from its distance tables.
+	 *
+	 * @param graph           graph the tables describe
+	 * @param size            landmark index bound of the graph
+	 * @param matrix          distance of every pair, or null
+	 * @param anchors         anchor landmark indexes, or null
+	 * @param anchorDistances distances from each anchor, or null
+	 */
+	private DistanceOracle(TrailGraph graph, int size, int[] matrix, int[] anchors, int[] anchorDistances) {
+		this.graph = graph;
+		this.size = size;
+		this.matrix = matrix;
+		this.anchors = anchors;
+		this.anchorDistances = anchorDistances;
+	}
+
+	/**
+	 * Builds an oracle for the graph with the default number of anchors.
+	 *
+	 * @param graph        graph to precompute distances for
+	 * @param memoryBudget largest size of an exact distance matrix, in bytes
+	 * @return exact oracle if its matrix fits the budget, otherwise an anchor
+	 *         oracle
+	 */
+	public static DistanceOracle build(TrailGraph graph, long memoryBudget) {
+		return build(graph, memoryBudget, DEFAULT_ANCHORS);
+	}
+
+	/**
+	 * Builds an oracle for the graph. The exact matrix is computed with one
+	 * search per landmark, split into chunks of sources on the common fork-join
+	 * pool. Anchors are chosen one
+	 * at a time, each the landmark farthest from the anchors already chosen, so
+	 * the search from each anchor also picks the next one; landmarks in trail
+	 * systems without an anchor are chosen first.
+	 *
+	 * @param graph        graph to precompute distances for
+	 * @param memoryBudget largest size of an exact distance matrix, in bytes
+	 * @param anchorCount  number of anchors if the matrix does not fit
+	 * @return exact oracle if its matrix fits the budget, otherwise an anchor
+	 *         oracle
+	 */
+	public static DistanceOracle build(TrailGraph graph, long memoryBudget, int anchorCount) {
+		int n = graph.size();
+		long cells = (long) n * n;
+		if (cells * Integer.BYTES <= memoryBudget && cells <= Integer.MAX_VALUE - 8) {
+			int[] matrix = new int[(int) cells];
+			int chunks = Math.min(CHUNKS, n);
+			IntStream.range(0, chunks).parallel().forEach(c -> {
+				// Each chunk's search is garbage once the chunk is done, so no
+				// pool thread keeps search arrays after the build
+				DijkstraSearch search = new DijkstraSearch(graph);
+				int end = (int) ((long) n * (c + 1) / chunks);
+				for (int source = (int) ((long) n * c / chunks); source < end; source++) {
+					Arrays.fill(matrix, source * n, (source + 1) * n, NO_PATH);
+					if (graph.contains(source)) {
+						search.run(source);
+						for (int i = 0; i < search.getSettledCount(); i++) {
+							int v = search.getSettled(i);
+							matrix[source * n + v] = (int) search.getDistance(v);
+						}
+					}
+				}
+			});
+			return new DistanceOracle(graph, n, matrix, null, null);
+		}
+
+		int k = Math.max(1, Math.min(anchorCount, graph.getLandmarkCount()));
+		int[] anchors = new int[k];
+		int[] anchorDistances = new int[k * n];
+		Arrays.fill(anchorDistances, NO_PATH);
+		long[] nearest = new long[n];
+		Arrays.fill(nearest, UNREACHED);
+		DijkstraSearch search = new DijkstraSearch(graph);
+		int first = 0;
+		while (first < n && !graph.contains(first)) {
+			first++;
+		}
+		if (first == n) {
+			return new DistanceOracle(graph, n, null, new int[0], new int[0]);
+		}
+		// Start from the landmark farthest from an arbitrary one
+		search.run(first);
+		int next = search.getSettled(search.getSettledCount() - 1);
+		for (int a = 0; a < k; a++) {
+			anchors[a] = next;
+			search.run(next);
+			for (int i = 0; i < search.getSettledCount(); i++) {
+				int v = search.getSettled(i);
+				long distance = search.getDistance(v);
+				anchorDistances[v * k + a] = (int) distance;
+				nearest[v] = Math.min(nearest[v], distance);
+			}
+			// Landmarks no anchor reaches count as infinitely far
+			long farthest = -1;
+			for (int v = 0; v < n; v++) {
+				if (graph.contains(v) && nearest[v] > farthest) {
+					farthest = nearest[v];
+					next = v;
+				}
+			}
+		}
+		return new DistanceOracle(graph, n, null, anchors, anchorDistances);
+	}
+
+	/**
+	 * Returns true if the oracle holds the exact distance of every pair.
+	 *
+	 * @return true for an exact oracle, false for an anchor oracle
+	 */
+	public boolean isExact() {
+		return matrix != null;
+	}
+
+	/**
+	 * Returns the number of anchors of an anchor oracle, or 0 for an exact
+	 * oracle.
+	 *
+	 * @return number of anchors
+	 */
+	public int getAnchorCount() {
+		return anchors == null ? 0 : anchors.length;
+	}
+
+	/**
+	 * Returns the approximate number of bytes used by the oracle's tables.
+	 *
+	 * @return memory used in bytes
+	 */
+	public long estimateBytes() {
+		return isExact() ? (long) matrix.length * Integer.BYTES
+				: (long) (anchors.length + anchorDistances.length) * Integer.BYTES;
+	}
+
+	/**
+	 * Returns the shortest distance between two landmarks of the graph the
+	 * oracle was built from. An anchor oracle runs the query on the caller's
+	 * search, which must be over the same graph; an exact oracle leaves it
+	 * untouched.
+	 *
+	 * @param source index of the first landmark
+	 * @param target index of the second landmark
+	 * @param search search to run an anchor query on
+	 * @return shortest distance in feet, or UNREACHED if the landmarks are not
+	 *         connected
+	 */
+	public long getDistance(int source, int target, AltSearch search) {
+		if (isExact()) {
+			int distance = matrix[source * size + target];
+			return distance == NO_PATH ? UNREACHED : distance;
+		}
+		return search.run(source, target, anchorDistances, anchors.length);
+	}
+
+	/**
+	 * Writes the oracle to the specified file, replacing it atomically if it
+	 * already exists.
+	 *
+	 * @param file file to write
+	 * @throws IOException if the file cannot be written
+	 */
+	public void write(Path file) throws IOException {
+		int[] anchorList = isExact() ? new int[0] : anchors;
+		int[] table = isExact() ? matrix : anchorDistances;
+		Path temp = file.resolveSibling(file.getFileName() + ".tmp");
+		try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+				StandardOpenOption.TRUNCATE_EXISTING)) {
+			// The checksum is only known once the payload is written, so the
+			// header goes in last
+			channel.position(HEADER_BYTES);
+			CRC32C checksum = new CRC32C();
+			ByteBuffer chunk = ByteBuffer.allocate(WRITE_CHUNK_INTS * Integer.BYTES);
+			writeInts(channel, chunk, checksum, anchorList);
+			writeInts(channel, chunk, checksum, table);
+			ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES);
+			header.putInt(MAGIC).putInt(VERSION).putInt(isExact() ? 0 : 1).putInt(size).putInt(anchorList.length)
+					.putInt(graph.getTrailCount()).putLong(fingerprint(graph)).putLong(checksum.getValue());
+			header.flip();
+			while (header.hasRemaining()) {
+				channel.write(header, header.position());
+			}
+		}
+		Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+	}
+
+	/**
+	 * Writes an array of ints at the channel's position in chunks, adding them
+	 * to the checksum.
+	 *
+	 * @param channel  channel to write to
+	 * @param chunk    scratch buffer
+	 * @param checksum checksum of everything written
+	 * @param values   ints to write
+	 * @throws IOException if the channel cannot be written
+	 */
+	private static void writeInts(FileChannel channel, ByteBuffer chunk, CRC32C checksum, int[] values)
+			throws IOException {
+		for (int start = 0; start < values.length; start += WRITE_CHUNK_INTS) {
+			int count = Math.min(WRITE_CHUNK_INTS, values.length - start);
+			chunk.clear();
+			chunk.asIntBuffer().put(values, start, count);
+			chunk.limit(count * Integer.BYTES);
+			checksum.update(chunk.duplicate());
+			while (chunk.hasRemaining()) {
+				channel.write(chunk);
+			}
+		}
+	}
+
+	/**
+	 * Opens an oracle file built from the specified graph.
+	 *
+	 * @param file  oracle file
+	 * @param graph graph the oracle must describe
+	 * @return oracle stored in the file
+	 * @throws IOException if the file cannot be read, has an unknown format,
+	 *                     fails its checksum, or was built from a different
+	 *                     graph
+	 */
+	public static DistanceOracle read(Path file, TrailGraph graph) throws IOException {
+		MappedByteBuffer buffer;
+		try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+			buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+		}
+		if (buffer.remaining() < HEADER_BYTES || buffer.getInt() != MAGIC) {
+			throw new IOException("Not a distance oracle: " + file);
+		}
+		if (buffer.getInt() != VERSION) {
+			throw new IOException("Unsupported distance oracle version: " + file);
+		}
+		boolean exact = buffer.getInt() == 0;
+		int n = buffer.getInt();
+		int k = buffer.getInt();
+		int trails = buffer.getInt();
+		long expectedFingerprint = buffer.getLong();
+		long expectedChecksum = buffer.getLong();
+		if (n != graph.size() || trails != graph.getTrailCount() || expectedFingerprint != fingerprint(graph)) {
+			throw new IOException("Distance oracle was built from a different graph: " + file);
+		}
+		long tableInts = exact ? (long) n * n : (long) k * n;
+		if (k < 0 || buffer.remaining() != (k + tableInts) * Integer.BYTES) {
+			throw new IOException("Truncated distance oracle: " + file);
+		}
+		CRC32C checksum = new CRC32C();
+		checksum.update(buffer.duplicate());
+		if (checksum.getValue() != expectedChecksum) {
+			throw new IOException("Distance oracle checksum mismatch: " + file);
+		}
+		IntBuffer ints = buffer.asIntBuffer();
+		int[] anchors = new int[k];
+		int[] table = new int[(int) tableInts];
+		ints.get(anchors).get(table);
+		return exact ? new DistanceOracle(graph, n, table, null, null)
+				: new DistanceOracle(graph, n, null, anchors, table);
+	}
+
+	/**
+	 * Returns a checksum of the graph's landmark IDs and trails, used to
+	 * check that an oracle file describes the graph it is opened with.
+	 *
+	 * @param graph graph to fingerprint
+	 * @return fingerprint of the graph
+	 */
+	private static long fingerprint(TrailGraph graph) {
+		CRC32C checksum = new CRC32C();
+		ByteBuffer chunk = ByteBuffer.allocate(WRITE_CHUNK_INTS * Integer.BYTES);
+		for (int v = 0; v < graph.size(); v++) {
+			if (chunk.remaining() < 3 * Integer.BYTES) {
+				chunk.flip();
+				checksum.update(chunk);
+				chunk.clear();
+			}
+			if (graph.contains(v)) {
+				chunk.putInt(graph.getId(v).hashCode()).putInt(graph.degree(v));
+			} else {
+				chunk.putInt(0).putInt(-1);
+			}
+			for (int e = graph.firstEdge(v); graph.contains(v) && e < graph.endEdge(v); e++) {
+				if (chunk.remaining() < 2 * Integer.BYTES) {
+					chunk.flip();
+					checksum.update(chunk);
+					chunk.clear();
+				}
+				chunk.putInt(graph.neighbor(e)).putInt(graph.length(e));
+			}
+		}
+		chunk.flip();
+		checksum.update(chunk);
+		return checksum.getValue();
+	}
+}
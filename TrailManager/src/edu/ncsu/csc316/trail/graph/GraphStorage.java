@@ -0,0 +1,111 @@
+package edu.ncsu.csc316.trail.graph;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+
+/**
+ * Where a TrailGraph keeps its edge arrays and landmark columns. Heap storage
+ * uses ordinary Java arrays. Off-heap storage uses direct buffers, so the size
+ * of the graph adds nothing to the heap the garbage collector has to trace
+ * and copy; its memory is returned to the operating system when the graph is
+ * closed rather than when it is collected.
+ *
+ * @author Thommasaht Nhouyvanisvong (tcnhouyv)
+ */
+public enum GraphStorage {
+
+	/** Java arrays on the heap, freed by the garbage collector */
+	HEAP,
+	/** Direct buffers outside the heap, freed when the graph is closed */
+	OFF_HEAP;
+
+	/** Unsafe.invokeCleaner, or null if direct buffers cannot be freed early */
+	private static final Method INVOKE_CLEANER;
+	/** Instance of Unsafe to call invokeCleaner on */
+	private static final Object UNSAFE;
+
+	static {
+		Method invokeCleaner = null;
+		Object unsafe = null;
+		try {
+			Class<?> unsafeClass = Class.forName("sun.misc.Unsafe");
+			Field theUnsafe = unsafeClass.getDeclaredField("theUnsafe");
+			theUnsafe.setAccessible(true);
+			unsafe = theUnsafe.get(null);
+			invokeCleaner = unsafeClass.getMethod("invokeCleaner", ByteBuffer.class);
+		} catch (ReflectiveOperationException | RuntimeException e) {
+			// Without Unsafe, buffers are freed once they are garbage collected
+			invokeCleaner = null;
+		}
+		INVOKE_CLEANER = invokeCleaner;
+		UNSAFE = unsafe;
+	}
+
+	/**
+	 * Returns a new zeroed array of ints in this storage.
+	 *
+	 * @param length number of ints
+	 * @return new array
+	 */
+	IntArray allocateInts(int length) {
+		return this == HEAP ? new IntArray.Heap(new int[length]) : new IntArray.Direct(length);
+	}
+
+	/**
+	 * Returns an array of ints in this storage holding the specified values. Heap
+	 * storage uses the values array itself rather than a copy.
+	 *
+	 * @param values values of the array
+	 * @return array holding the values
+	 */
+	IntArray wrap(int[] values) {
+		if (this == HEAP) {
+			return new IntArray.Heap(values);
+		}
+		IntArray array = new IntArray.Direct(values.length);
+		for (int i = 0; i < values.length; i++) {
+			array.set(i, values[i]);
+		}
+		return array;
+	}
+
+	/**
+	 * Returns a new zeroed array of bytes in this storage.
+	 *
+	 * @param length number of bytes
+	 * @return new array
+	 */
+	ByteArray allocateBytes(int length) {
+		return this == HEAP ? new ByteArray.Heap(new byte[length]) : new ByteArray.Direct(length);
+	}
+
+	/**
+	 * Allocates a zeroed direct buffer in native byte order.
+	 *
+	 * @param bytes capacity of the buffer
+	 * @return new direct buffer
+	 */
+	static ByteBuffer allocateDirect(int bytes) {
+		return ByteBuffer.allocateDirect(bytes).order(ByteOrder.nativeOrder());
+	}
+
+	/**
+	 * Releases the memory of a direct buffer immediately. The buffer must not be
+	 * used afterward. If the JVM does not allow early release, the memory is
+	 * released when the buffer is garbage collected.
+	 *
+	 * @param buffer direct buffer to free
+	 */
+	static void free(ByteBuffer buffer) {
+		if (INVOKE_CLEANER == null) {
+			return;
+		}
+		try {
+			INVOKE_CLEANER.invoke(UNSAFE, buffer);
+		} catch (ReflectiveOperationException e) {
+			throw new IllegalStateException("Cannot free direct buffer.", e);
+		}
+	}
+}
@@ -0,0 +1,221 @@
+package edu.ncsu.csc316.trail.graph;
+
+import java.nio.charset.StandardCharsets;
+
+/**
+ * An open-addressing hash index that interns landmark IDs to dense integer
+ * indexes. Keys and values are held in parallel arrays and collisions are
+ * resolved with linear probing, so a lookup touches at most a few adjacent
+ * array slots and never allocates.
+ *
+ * @author Thommasaht Nhouyvanisvong (tcnhouyv)
+ */
+public class IdIndex {
+
+	/** Value returned by lookups for IDs that are not in the index */
+	public static final int NOT_FOUND = -1;
+	/** Smallest table capacity used by the index */
+	private static final int MIN_CAPACITY = 16;
+
+	/** Table of interned IDs, null for empty slots */
+	private String[] keys;
+	/** Table of indexes stored alongside keys */
+	private int[] values;
+	/** Number of IDs currently in the index */
+	private int size;
+
+	/**
+	 * Creates an empty index sized to hold expectedSize IDs without resizing.
+	 *
+	 * @param expectedSize number of IDs the index is expected to hold
+	 */
+	public IdIndex(int expectedSize) {
+		int capacity = MIN_CAPACITY;
+		// Keep the load factor at or below one half
+		while (capacity < expectedSize * 2) {
+			capacity <<= 1;
+		}
+		keys = new String[capacity];
+		values = new int[capacity];
+	}
+
+	/**
+	 * Returns the index stored for the specified ID, or NOT_FOUND if the ID has
+	 * not been added.
+	 *
+	 * @param id landmark ID to look up
+	 * @return index of the ID, or NOT_FOUND
+	 */
+	public int get(String id) {
+		if (id == null) {
+			return NOT_FOUND;
+		}
+		int mask = keys.length - 1;
+		int slot = spread(id.hashCode()) & mask;
+		while (keys[slot] != null) {
+			if (keys[slot].equals(id)) {
+				return values[slot];
+			}
+			slot = (slot + 1) & mask;
+		}
+		return NOT_FOUND;
+	}
+
+	/**
+	 * Returns the index stored for the ID spelled by a range of UTF-8 bytes, or
+	 * NOT_FOUND if the ID has not been added. IDs made only of ASCII characters
+	 * are matched directly against the bytes without creating a String.
+	 *
+	 * @param bytes  buffer holding the ID
+	 * @param offset start of the ID in bytes
+	 * @param length number of bytes in the ID
+	 * @return index of the ID, or NOT_FOUND
+	 */
+	public int get(byte[] bytes, int offset, int length) {
+		int hash = 0;
+		for (int i = offset; i < offset + length; i++) {
+			if (bytes[i] < 0) {
+				return get(new String(bytes, offset, length, StandardCharsets.UTF_8));
+			}
+			hash = 31 * hash + bytes[i];
+		}
+		int mask = keys.length - 1;
+		int slot = spread(hash) & mask;
+		while (keys[slot] != null) {
+			if (matches(keys[slot], bytes, offset, length)) {
+				return values[slot];
+			}
+			slot = (slot + 1) & mask;
+		}
+		return NOT_FOUND;
+	}
+
+	/**
+	 * Stores the index for the specified ID, replacing any existing value.
+	 *
+	 * @param id    landmark ID to store
+	 * @param index dense index for the ID
+	 * @return the previous index for the ID, or NOT_FOUND if it was not present
+	 */
+	public int put(String id, int index) {
+		if (size * 2 >= keys.length) {
+			resize(keys.length << 1);
+		}
+		int mask = keys.length - 1;
+		int slot = spread(id.hashCode()) & mask;
+		while (keys[slot] != null) {
+			if (keys[slot].equals(id)) {
+				int previous = values[slot];
+				values[slot] = index;
+				return previous;
+			}
+			slot = (slot + 1) & mask;
+		}
+		keys[slot] = id;
+		values[slot] = index;
+		size++;
+		return NOT_FOUND;
+	}
+
+	/**
+	 * Removes the specified ID from the index. Entries after it in the same
+	 * probe run are shifted back into the freed slot, so lookups never need
+	 * deletion markers.
+	 *
+	 * @param id landmark ID to remove
+	 * @return the index that was stored for the ID, or NOT_FOUND if it was not
+	 *         present
+	 */
+	public int remove(String id) {
+		if (id == null) {
+			return NOT_FOUND;
+		}
+		int mask = keys.length - 1;
+		int slot = spread(id.hashCode()) & mask;
+		while (keys[slot] != null && !keys[slot].equals(id)) {
+			slot = (slot + 1) & mask;
+		}
+		if (keys[slot] == null) {
+			return NOT_FOUND;
+		}
+		int previous = values[slot];
+		int hole = slot;
+		for (int next = (slot + 1) & mask; keys[next] != null; next = (next + 1) & mask) {
+			int home = spread(keys[next].hashCode()) & mask;
+			// An entry may fill the hole only if the hole lies on its probe path
+			if (((next - home) & mask) >= ((next - hole) & mask)) {
+				keys[hole] = keys[next];
+				values[hole] = values[next];
+				hole = next;
+			}
+		}
+		keys[hole] = null;
+		size--;
+		return previous;
+	}
+
+	/**
+	 * Returns the number of IDs in the index.
+	 *
+	 * @return number of IDs in the index
+	 */
+	public int size() {
+		return size;
+	}
+
+	/**
+	 * Rehashes every ID into a table of the specified capacity.
+	 *
+	 * @param capacity new table capacity, a power of two
+	 */
+	private void resize(int capacity) {
+		String[] oldKeys = keys;
+		int[] oldValues = values;
+		keys = new String[capacity];
+		values = new int[capacity];
+		int mask = capacity - 1;
+		for (int i = 0; i < oldKeys.length; i++) {
+			if (oldKeys[i] != null) {
+				int slot = spread(oldKeys[i].hashCode()) & mask;
+				while (keys[slot] != null) {
+					slot = (slot + 1) & mask;
+				}
+				keys[slot] = oldKeys[i];
+				values[slot] = oldValues[i];
+			}
+		}
+	}
+
+	/**
+	 * Returns true if key spells the same ASCII characters as the byte range.
+	 *
+	 * @param key    key to compare
+	 * @param bytes  buffer holding ASCII bytes
+	 * @param offset start of the range
+	 * @param length number of bytes in the range
+	 * @return true if the key matches the bytes
+	 */
+	private static boolean matches(String key, byte[] bytes, int offset, int length) {
+		if (key.length() != length) {
+			return false;
+		}
+		for (int i = 0; i < length; i++) {
+			if (key.charAt(i) != bytes[offset + i]) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * Mixes the high bits of a hash code into the low bits so that IDs sharing a
+	 * long common prefix still spread across the table.
+	 *
+	 * @param hash hash code to spread
+	 * @return spread hash code
+	 */
+	static int spread(int hash) {
+		int h = hash * 0x9E3779B9;
+		return h ^ (h >>> 16);
+	}
+}
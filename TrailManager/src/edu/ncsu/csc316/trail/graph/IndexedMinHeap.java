@@ -0,0 +1,197 @@
+package edu.ncsu.csc316.trail.graph;
+
+import java.util.Arrays;
+
+/**
+ * A binary min-heap of landmark indexes keyed by primitive long priorities.
+ * Like the library's HeapAdaptablePriorityQueue, the heap tracks the position
+ * of every entry so that a key can be decreased in place, but entries are
+ * plain int items in [0, capacity) and no Entry or boxed key objects are ever
+ * created.
+ *
+ * @author Thommasaht Nhouyvanisvong (tcnhouyv)
+ */
+public class IndexedMinHeap {
+
+	/** Position value for items not currently in the heap */
+	private static final int ABSENT = -1;
+
+	/** Items in heap order */
+	private final int[] heap;
+	/** Current key of each item, indexed by item */
+	private final long[] keys;
+	/** Position of each item in heap, or ABSENT */
+	private final int[] positions;
+	/** Number of items in the heap */
+	private int size;
+
+	/**
+	 * Creates an empty heap able to hold items in the range [0, capacity).
+	 *
+	 * @param capacity number of distinct items the heap can hold
+	 */
+	public IndexedMinHeap(int capacity) {
+		heap = new int[capacity];
+		keys = new long[capacity];
+		positions = new int[capacity];
+		Arrays.fill(positions, ABSENT);
+	}
+
+	/**
+	 * Returns true if the heap has no items.
+	 *
+	 * @return true if the heap is empty
+	 */
+	public boolean isEmpty() {
+		return size == 0;
+	}
+
+	/**
+	 * Returns the number of items in the heap.
+	 *
+	 * @return number of items in the heap
+	 */
+	public int size() {
+		return size;
+	}
+
+	/**
+	 * Returns true if the specified item is in the heap.
+	 *
+	 * @param item item to check
+	 * @return true if the item is in the heap
+	 */
+	public boolean contains(int item) {
+		return positions[item] != ABSENT;
+	}
+
+	/**
+	 * Returns the current key of an item in the heap.
+	 *
+	 * @param item item in the heap
+	 * @return key of the item
+	 */
+	public long getKey(int item) {
+		return keys[item];
+	}
+
+	/**
+	 * Adds an item with the specified key, or lowers the key of an item already in
+	 * the heap. Nothing changes if the item is present with a key no greater than
+	 * the specified key.
+	 *
+	 * @param item item to insert or update
+	 * @param key  new key of the item
+	 * @return true if the heap changed
+	 */
+	public boolean insertOrDecrease(int item, long key) {
+		int position = positions[item];
+		if (position == ABSENT) {
+			keys[item] = key;
+			heap[size] = item;
+			positions[item] = size;
+			siftUp(size++);
+			return true;
+		}
+		if (key < keys[item]) {
+			keys[item] = key;
+			siftUp(position);
+			return true;
+		}
+		return false;
+	}
+
+	/**
+	 * Returns the item with the smallest key without removing it.
+	 *
+	 * @return item with the smallest key
+	 * @throws IllegalStateException if the heap is empty
+	 */
+	public int peek() {
+		if (size == 0) {
+			throw new IllegalStateException("Heap is empty.");
+		}
+		return heap[0];
+	}
+
+	/**
+	 * Removes and returns the item with the smallest key.
+	 *
+	 * @return item with the smallest key
+	 * @throws IllegalStateException if the heap is empty
+	 */
+	public int poll() {
+		int min = peek();
+		positions[min] = ABSENT;
+		size--;
+		if (size > 0) {
+			int last = heap[size];
+			heap[0] = last;
+			positions[last] = 0;
+			siftDown(0);
+		}
+		return min;
+	}
+
+	/**
+	 * Removes every item from the heap. Runs in time proportional to the number
+	 * of items left in the heap, not its capacity.
+	 */
+	public void clear() {
+		for (int i = 0; i < size; i++) {
+			positions[heap[i]] = ABSENT;
+		}
+		size = 0;
+	}
+
+	/**
+	 * Moves the item at the specified position up until its parent has a smaller
+	 * or equal key.
+	 *
+	 * @param position heap position of the item to move
+	 */
+	private void siftUp(int position) {
+		int item = heap[position];
+		long key = keys[item];
+		while (position > 0) {
+			int parent = (position - 1) >>> 1;
+			int parentItem = heap[parent];
+			if (keys[parentItem] <= key) {
+				break;
+			}
+			heap[position] = parentItem;
+			positions[parentItem] = position;
+			position = parent;
+		}
+		heap[position] = item;
+		positions[item] = position;
+	}
+
+	/**
+	 * Moves the item at the specified position down until both children have
+	 * greater or equal keys.
+	 *
+	 * @param position heap position of the item to move
+	 */
+	private void siftDown(int position) {
+		int item = heap[position];
+		long key = keys[item];
+		int half = size >>> 1;
+		while (position < half) {
+			int child = 2 * position + 1;
+			int right = child + 1;
+			if (right < size && keys[heap[right]] < keys[heap[child]]) {
+				child = right;
+			}
+			int childItem = heap[child];
+			if (key <= keys[childItem]) {
+				break;
+			}
+			heap[position] = childItem;
+			positions[childItem] = position;
+			position = child;
+		}
+		heap[position] = item;
+		positions[item] = position;
+	}
+}
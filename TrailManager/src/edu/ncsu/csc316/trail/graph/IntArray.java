@@ -0,0 +1,218 @@
+package edu.ncsu.csc316.trail.graph;
+
+import java.nio.ByteBuffer;
+
+/**
+ * A fixed-length array of ints held in a GraphStorage: a Java int[] on the
+ * heap, or a direct buffer outside it. Graph structures read and write their
+ * columns through this class so the same code runs against either storage.
+ *
+ * @author Thommasaht Nhouyvanisvong (tcnhouyv)
+ */
+abstract class IntArray {
+
+	/**
+	 * Returns the number of ints in the array.
+	 *
+	 * @return length of the array
+	 */
+	abstract int length();
+
+	/**
+	 * Returns the int at the specified index.
+	 *
+	 * @param index index to read
+	 * @return value at the index
+	 */
+	abstract int get(int index);
+
+	/**
+	 * Stores an int at the specified index.
+	 *
+	 * @param index index to write
+	 * @param value value to store
+	 */
+	abstract void set(int index, int value);
+
+	/**
+	 * Returns the storage the array is held in.
+	 *
+	 * @return storage of the array
+	 */
+	abstract GraphStorage storage();
+
+	/**
+	 * Releases the array's memory. The array must not be used afterward.
+	 */
+	abstract void free();
+
+	/**
+	 * Copies count ints starting at from into target starting at to. The ranges
+	 * may overlap when target is this array.
+	 *
+	 * @param from   first index copied from this array
+	 * @param target array copied into
+	 * @param to     first index copied to in target
+	 * @param count  number of ints to copy
+	 */
+	void copyTo(int from, IntArray target, int to, int count) {
+		if (target == this && from < to) {
+			for (int i = count - 1; i >= 0; i--) {
+				target.set(to + i, get(from + i));
+			}
+		} else {
+			for (int i = 0; i < count; i++) {
+				target.set(to + i, get(from + i));
+			}
+		}
+	}
+
+	/**
+	 * Writes the first count ints to a buffer at its position, advancing it.
+	 *
+	 * @param out   buffer to write to
+	 * @param count number of ints to write
+	 */
+	void writeTo(ByteBuffer out, int count) {
+		for (int i = 0; i < count; i++) {
+			out.putInt(get(i));
+		}
+	}
+
+	/**
+	 * Stores the same value at every index in [from, to).
+	 *
+	 * @param from  first index to fill
+	 * @param to    end of the range (exclusive)
+	 * @param value value to store
+	 */
+	void fill(int from, int to, int value) {
+		for (int i = from; i < to; i++) {
+			set(i, value);
+		}
+	}
+
+	/**
+	 * Returns a new array of the specified length in the same storage holding
+	 * this array's leading values, and frees this array.
+	 *
+	 * @param length length of the new array
+	 * @return resized copy of the array
+	 */
+	IntArray resize(int length) {
+		IntArray resized = storage().allocateInts(length);
+		copyTo(0, resized, 0, Math.min(length, length()));
+		free();
+		return resized;
+	}
+
+	/**
+	 * An array of ints backed by a Java int[].
+	 */
+	static final class Heap extends IntArray {
+
+		/** Values of the array */
+		private final int[] values;
+
+		/**
+		 * Creates an array backed by the specified values.
+		 *
+		 * @param values values of the array
+		 */
+		Heap(int[] values) {
+			this.values = values;
+		}
+
+		@Override
+		int length() {
+			return values.length;
+		}
+
+		@Override
+		int get(int index) {
+			return values[index];
+		}
+
+		@Override
+		void set(int index, int value) {
+			values[index] = value;
+		}
+
+		@Override
+		GraphStorage storage() {
+			return GraphStorage.HEAP;
+		}
+
+		@Override
+		void free() {
+			// The garbage collector reclaims the array
+		}
+
+		@Override
+		void copyTo(int from, IntArray target, int to, int count) {
+			if (target instanceof Heap) {
+				System.arraycopy(values, from, ((Heap) target).values, to, count);
+			} else {
+				super.copyTo(from, target, to, count);
+			}
+		}
+
+		@Override
+		void writeTo(ByteBuffer out, int count) {
+			out.asIntBuffer().put(values, 0, count);
+			out.position(out.position() + count * Integer.BYTES);
+		}
+	}
+
+	/**
+	 * An array of ints backed by a direct buffer outside the heap.
+	 */
+	static final class Direct extends IntArray {
+
+		/** Buffer holding the values, or an empty buffer once freed */
+		private ByteBuffer buffer;
+		/** Number of ints in the array */
+		private final int length;
+
+		/**
+		 * Allocates a zeroed array of the specified length.
+		 *
+		 * @param length number of ints
+		 */
+		Direct(int length) {
+			this.length = length;
+			buffer = GraphStorage.allocateDirect(Math.multiplyExact(length, Integer.BYTES));
+		}
+
+		@Override
+		int length() {
+			return length;
+		}
+
+		@Override
+		int get(int index) {
+			return buffer.getInt(index << 2);
+		}
+
+		@Override
+		void set(int index, int value) {
+			buffer.putInt(index << 2, value);
+		}
+
+		@Override
+		GraphStorage storage() {
+			return GraphStorage.OFF_HEAP;
+		}
+
+		@Override
+		void free() {
+			if (!buffer.isDirect()) {
+				return;
+			}
+			ByteBuffer freed = buffer;
+			// Any later access fails on the empty buffer instead of reading freed memory
+			buffer = ByteBuffer.allocate(0);
+			GraphStorage.free(freed);
+		}
+	}
+}
@@ -0,0 +1,914 @@
+package edu.ncsu.csc316.trail.graph;
+
+import java.nio.ByteBuffer;
+import java.nio.IntBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.BitSet;
+
+import edu.ncsu.csc316.trail.data.Landmark;
+
+/**
+ * Columnar storage for the landmarks of a TrailGraph, indexed by dense
+ * landmark index. The characters of every landmark's ID and description are
+ * packed back to back into one byte arena, one byte per character when both
+ * fit in Latin-1 and two bytes per character otherwise, and each landmark
+ * keeps only the arena positions where its ID and description start and end.
+ * Types are interned once and stored as small numbers. IDs are indexed by an
+ * open-addressing table of landmark indexes that hashes and compares the
+ * arena bytes directly, so no String is kept per landmark at all.
+ *
+ * Landmark objects are views created on request from the stored columns.
+ * Since landmarks are equal when their IDs are, a view can stand in for the
+ * landmark it was made from anywhere a Landmark is expected.
+ *
+ * A landmark that is replaced or removed leaves its characters behind in the
+ * arena; once more than half of the arena is abandoned, it is packed again
+ * the next time it has to grow. The arena, columns, and ID table are held in
+ * the GraphStorage the table was created with.
+ *
+ * @author Thommasaht Nhouyvanisvong (tcnhouyv)
+ */
+public class LandmarkTable {
+
+	/** Value returned by lookups for IDs that are not in the table */
+	public static final int NOT_FOUND = -1;
+	/** Smallest capacity of the columns and the ID table */
+	private static final int MIN_CAPACITY = 16;
+	/** Characters expected per landmark when presizing the arena */
+	private static final int EXPECTED_CHARACTERS = 16;
+
+	/** Characters of every ID and description */
+	private ByteArray text;
+	/** Arena bytes in use, including abandoned bytes */
+	private int textLength;
+	/** Arena bytes below textLength left behind by replaced or removed landmarks */
+	private int abandoned;
+	/** Arena position of each landmark's ID, or -1 for empty indexes */
+	private IntArray idStarts;
+	/** Arena position of each landmark's description, just past its ID */
+	private IntArray descriptionStarts;
+	/** Arena position just past each landmark's description */
+	private IntArray descriptionEnds;
+	/** Type number of each landmark */
+	private IntArray typeOf;
+	/** Landmarks whose characters are stored as two bytes each */
+	private final BitSet wide;
+	/** Distinct types in the order they were first stored */
+	private String[] types;
+	/** Index of type names to type numbers */
+	private final IdIndex typeIndex;
+	/** ID hash table of landmark index + 1, 0 for empty slots */
+	private IntArray slots;
+	/** Number of landmark indexes in use, including empty indexes */
+	private int size;
+	/** Number of landmarks stored */
+	private int count;
+
+	/**
+	 * Creates an empty table on the heap sized to hold expectedSize landmarks
+	 * without resizing.
+	 *
+	 * @param expectedSize number of landmarks the table is expected to hold
+	 */
+	public LandmarkTable(int expectedSize) {
+		this(GraphStorage.HEAP, expectedSize);
+	}
+
+	/**
+	 * Creates an empty table in the specified storage sized to hold
+	 * expectedSize landmarks without resizing.
+	 *
+	 * @param storage      storage for the arena, columns, and ID table
+	 * @param expectedSize number of landmarks the table is expected to hold
+	 */
+	public LandmarkTable(GraphStorage storage, int expectedSize) {
+		int capacity = Math.max(expectedSize, MIN_CAPACITY);
+		text = storage.allocateBytes(capacity * EXPECTED_CHARACTERS);
+		idStarts = storage.allocateInts(capacity);
+		idStarts.fill(0, capacity, -1);
+		descriptionStarts = storage.allocateInts(capacity);
+		descriptionEnds = storage.allocateInts(capacity);
+		typeOf = storage.allocateInts(capacity);
+		wide = new BitSet();
+		types = new String[MIN_CAPACITY];
+		typeIndex = new IdIndex(MIN_CAPACITY);
+		int slotCount = MIN_CAPACITY;
+		// Keep the load factor at or below one half
+		while (slotCount < expectedSize * 2) {
+			slotCount <<= 1;
+		}
+		slots = storage.allocateInts(slotCount);
+	}
+
+	/**
+	 * Creates a table on the heap from restored columns, with every index in
+	 * [0, count) holding a landmark and no abandoned arena bytes.
+	 *
+	 * @param text              characters of every ID and description
+	 * @param textLength        arena bytes in use
+	 * @param idStarts          arena position of each landmark's ID
+	 * @param descriptionStarts arena position of each landmark's description
+	 * @param descriptionEnds   arena position just past each description
+	 * @param typeOf            type number of each landmark
+	 * @param wide              landmarks stored as two bytes per character
+	 * @param types             distinct types by type number
+	 * @param typeIndex         index of type names to type numbers
+	 * @param slots             ID hash table of landmark index + 1
+	 * @param count             number of landmarks
+	 */
+	private LandmarkTable(ByteArray text, int textLength, IntArray idStarts, IntArray descriptionStarts,
+			IntArray descriptionEnds, IntArray typeOf, BitSet wide, String[] types, IdIndex typeIndex,
+			IntArray slots, int count) {
+		this.text = text;
+		this.textLength = textLength;
+		this.idStarts = idStarts;
+		this.descriptionStarts = descriptionStarts;
+		this.descriptionEnds = descriptionEnds;
+		this.typeOf = typeOf;
+		this.wide = wide;
+		this.types = types;
+		this.typeIndex = typeIndex;
+		this.slots = slots;
+		this.size = count;
+		this.count = count;
+	}
+
+	/**
+	 * Returns the number of landmark indexes in use. Every stored landmark has
+	 * an index less than this bound.
+	 *
+	 * @return bound on landmark indexes
+	 */
+	public int size() {
+		return size;
+	}
+
+	/**
+	 * Returns the number of landmarks stored.
+	 *
+	 * @return number of landmarks
+	 */
+	public int getCount() {
+		return count;
+	}
+
+	/**
+	 * Returns true if the specified index holds a landmark.
+	 *
+	 * @param index landmark index
+	 * @return true if a landmark is stored at the index
+	 */
+	public boolean contains(int index) {
+		return index >= 0 && index < size && idStarts.get(index) >= 0;
+	}
+
+	/**
+	 * Returns the index of the landmark with the specified ID, or NOT_FOUND if
+	 * no landmark has that ID.
+	 *
+	 * @param id landmark ID to look up
+	 * @return index of the landmark, or NOT_FOUND
+	 */
+	public int indexOf(String id) {
+		if (id == null) {
+			return NOT_FOUND;
+		}
+		int mask = slots.length() - 1;
+		for (int slot = IdIndex.spread(id.hashCode()) & mask; slots.get(slot) != 0; slot = (slot + 1) & mask) {
+			if (idEquals(slots.get(slot) - 1, id)) {
+				return slots.get(slot) - 1;
+			}
+		}
+		return NOT_FOUND;
+	}
+
+	/**
+	 * Returns the index of the landmark whose ID is spelled by a range of UTF-8
+	 * bytes, or NOT_FOUND if no landmark has that ID. IDs made only of ASCII
+	 * characters are matched directly against the bytes without creating a
+	 * String.
+	 *
+	 * @param bytes  buffer holding the ID
+	 * @param offset start of the ID in bytes
+	 * @param length number of bytes in the ID
+	 * @return index of the landmark, or NOT_FOUND
+	 */
+	public int indexOf(byte[] bytes, int offset, int length) {
+		int hash = 0;
+		for (int i = offset; i < offset + length; i++) {
+			if (bytes[i] < 0) {
+				return indexOf(new String(bytes, offset, length, StandardCharsets.UTF_8));
+			}
+			hash = 31 * hash + bytes[i];
+		}
+		int mask = slots.length() - 1;
+		for (int slot = IdIndex.spread(hash) & mask; slots.get(slot) != 0; slot = (slot + 1) & mask) {
+			if (idEquals(slots.get(slot) - 1, bytes, offset, length)) {
+				return slots.get(slot) - 1;
+			}
+		}
+		return NOT_FOUND;
+	}
+
+	/**
+	 * Stores a landmark at the specified index, replacing the landmark stored
+	 * there before. An index equal to size appends the landmark.
+	 *
+	 * @param index       index to store the landmark at, at most size
+	 * @param id          landmark ID
+	 * @param description landmark description
+	 * @param type        landmark type
+	 * @throws IllegalArgumentException if the index is out of range, or another
+	 *                                  index holds a landmark with the same ID
+	 */
+	public void put(int index, String id, String description, String type) {
+		if (index < 0 || index > size) {
+			throw new IllegalArgumentException("No landmark index " + index + ".");
+		}
+		int existing = indexOf(id);
+		if (existing != NOT_FOUND && existing != index) {
+			throw new IllegalArgumentException("Landmark " + id + " already has index " + existing + ".");
+		}
+		remove(index);
+		if (index == size) {
+			ensureCapacity(size + 1);
+			size++;
+		}
+		// Rehash before the landmark is written, so it is placed in the table once
+		if ((count + 1) * 2 > slots.length()) {
+			rehash(slots.length() << 1);
+		}
+		boolean twoBytes = !isLatin1(id) || !isLatin1(description);
+		int shift = twoBytes ? 1 : 0;
+		ensureText(textLength + ((id.length() + description.length()) << shift));
+		wide.set(index, twoBytes);
+		idStarts.set(index, textLength);
+		textLength = encode(id, textLength, twoBytes);
+		descriptionStarts.set(index, textLength);
+		textLength = encode(description, textLength, twoBytes);
+		descriptionEnds.set(index, textLength);
+		typeOf.set(index, internType(type));
+		insertSlot(index);
+		count++;
+	}
+
+	/**
+	 * Stores a landmark at the specified index, replacing the landmark stored
+	 * there before. An index equal to size appends the landmark.
+	 *
+	 * @param index    index to store the landmark at, at most size
+	 * @param landmark landmark to store
+	 * @throws IllegalArgumentException if the index is out of range, or another
+	 *                                  index holds a landmark with the same ID
+	 */
+	public void put(int index, Landmark landmark) {
+		put(index, landmark.getId(), landmark.getDescription(), landmark.getType());
+	}
+
+	/**
+	 * Removes the landmark at the specified index, leaving the index empty.
+	 *
+	 * @param index landmark index
+	 * @return true if a landmark was removed
+	 */
+	public boolean remove(int index) {
+		if (!contains(index)) {
+			return false;
+		}
+		int mask = slots.length() - 1;
+		int slot = IdIndex.spread(hashId(index)) & mask;
+		while (slots.get(slot) != index + 1) {
+			slot = (slot + 1) & mask;
+		}
+		int hole = slot;
+		for (int next = (slot + 1) & mask; slots.get(next) != 0; next = (next + 1) & mask) {
+			int home = IdIndex.spread(hashId(slots.get(next) - 1)) & mask;
+			// An entry may fill the hole only if the hole lies on its probe path
+			if (((next - home) & mask) >= ((next - hole) & mask)) {
+				slots.set(hole, slots.get(next));
+				hole = next;
+			}
+		}
+		slots.set(hole, 0);
+		abandoned += descriptionEnds.get(index) - idStarts.get(index);
+		idStarts.set(index, -1);
+		count--;
+		return true;
+	}
+
+	/**
+	 * Returns a view of the landmark stored at the specified index.
+	 *
+	 * @param index landmark index
+	 * @return landmark at the index, or null if the index is empty
+	 */
+	public Landmark get(int index) {
+		if (!contains(index)) {
+			return null;
+		}
+		return new Landmark(getId(index), getDescription(index), getType(index));
+	}
+
+	/**
+	 * Returns the ID of the landmark at the specified index.
+	 *
+	 * @param index index of a stored landmark
+	 * @return landmark ID
+	 */
+	public String getId(int index) {
+		return decode(index, idStarts.get(index), descriptionStarts.get(index));
+	}
+
+	/**
+	 * Returns the description of the landmark at the specified index.
+	 *
+	 * @param index index of a stored landmark
+	 * @return landmark description
+	 */
+	public String getDescription(int index) {
+		return decode(index, descriptionStarts.get(index), descriptionEnds.get(index));
+	}
+
+	/**
+	 * Returns the number of characters in the ID of the landmark at the
+	 * specified index.
+	 *
+	 * @param index index of a stored landmark
+	 * @return length of the ID
+	 */
+	public int getIdLength(int index) {
+		return idLength(index);
+	}
+
+	/**
+	 * Copies the ID of the landmark at the specified index into a char[], as
+	 * String.getChars would, without creating the String.
+	 *
+	 * @param index     index of a stored landmark
+	 * @param dest      array to copy into, with room for getIdLength characters
+	 * @param destBegin first index of dest copied into
+	 */
+	public void getIdChars(int index, char[] dest, int destBegin) {
+		decode(index, idStarts.get(index), descriptionStarts.get(index), dest, destBegin);
+	}
+
+	/**
+	 * Returns the number of characters in the description of the landmark at
+	 * the specified index.
+	 *
+	 * @param index index of a stored landmark
+	 * @return length of the description
+	 */
+	public int getDescriptionLength(int index) {
+		return (descriptionEnds.get(index) - descriptionStarts.get(index)) >> (wide.get(index) ? 1 : 0);
+	}
+
+	/**
+	 * Copies the description of the landmark at the specified index into a
+	 * char[], as String.getChars would, without creating the String.
+	 *
+	 * @param index     index of a stored landmark
+	 * @param dest      array to copy into, with room for getDescriptionLength
+	 *                  characters
+	 * @param destBegin first index of dest copied into
+	 */
+	public void getDescriptionChars(int index, char[] dest, int destBegin) {
+		decode(index, descriptionStarts.get(index), descriptionEnds.get(index), dest, destBegin);
+	}
+
+	/**
+	 * Returns the type of the landmark at the specified index. Landmarks of the
+	 * same type share one String.
+	 *
+	 * @param index index of a stored landmark
+	 * @return landmark type
+	 */
+	public String getType(int index) {
+		return types[typeOf.get(index)];
+	}
+
+	/**
+	 * Compares the descriptions of two stored landmarks as String.compareTo
+	 * would, without creating either String.
+	 *
+	 * @param a index of the first landmark
+	 * @param b index of the second landmark
+	 * @return negative, zero, or positive as a's description is less than, equal
+	 *         to, or greater than b's
+	 */
+	public int compareDescriptions(int a, int b) {
+		return compare(a, descriptionStarts.get(a), descriptionEnds.get(a), b, descriptionStarts.get(b), descriptionEnds.get(b));
+	}
+
+	/**
+	 * Compares the IDs of two stored landmarks as String.compareTo would,
+	 * without creating either String.
+	 *
+	 * @param a index of the first landmark
+	 * @param b index of the second landmark
+	 * @return negative, zero, or positive as a's ID is less than, equal to, or
+	 *         greater than b's
+	 */
+	public int compareIds(int a, int b) {
+		return compare(a, idStarts.get(a), descriptionStarts.get(a), b, idStarts.get(b), descriptionStarts.get(b));
+	}
+
+	/**
+	 * Returns the number of bytes of the character arena in use, including
+	 * bytes abandoned by replaced or removed landmarks.
+	 *
+	 * @return arena bytes in use
+	 */
+	public int getTextLength() {
+		return textLength;
+	}
+
+	/**
+	 * Returns the storage holding the table's arena, columns, and ID table.
+	 *
+	 * @return storage of the table
+	 */
+	public GraphStorage getStorage() {
+		return text.storage();
+	}
+
+	/**
+	 * Returns a table holding the same landmarks in index order at consecutive
+	 * indexes from 0, with no abandoned arena bytes: this table if it already
+	 * is one, otherwise a new copy on the heap.
+	 *
+	 * @return compact table of the same landmarks
+	 */
+	LandmarkTable compacted() {
+		if (count == size && abandoned == 0) {
+			return this;
+		}
+		LandmarkTable copy = new LandmarkTable(count);
+		for (int v = 0; v < size; v++) {
+			if (contains(v)) {
+				copy.put(copy.size(), getId(v), getDescription(v), getType(v));
+			}
+		}
+		return copy;
+	}
+
+	/**
+	 * Writes a compact table's arena, columns, ID table, and type names to a
+	 * new buffer as they are stored, so that fromBuffer can restore the table
+	 * with bulk copies instead of storing each landmark again. The buffer holds
+	 * five counts, the four columns, the ID table, the type name offsets, the
+	 * wide landmark bits, the arena, and the UTF-8 type names.
+	 *
+	 * @return buffer holding the table, positioned at its start
+	 * @throws IllegalStateException if the table has empty indexes or
+	 *                               abandoned arena bytes
+	 */
+	ByteBuffer toBuffer() {
+		if (count != size || abandoned != 0) {
+			throw new IllegalStateException("Only a compact landmark table can be written.");
+		}
+		int typeCount = typeIndex.size();
+		byte[][] typeNames = new byte[typeCount][];
+		int typeBytes = 0;
+		for (int t = 0; t < typeCount; t++) {
+			typeNames[t] = types[t].getBytes(StandardCharsets.UTF_8);
+			typeBytes += typeNames[t].length;
+		}
+		int ints = 5 + 4 * count + slots.length() + typeCount + 1;
+		long[] wideWords = Arrays.copyOf(wide.toLongArray(), wordCount(count));
+		ByteBuffer out = ByteBuffer
+				.allocate(ints * Integer.BYTES + wideWords.length * Long.BYTES + textLength + typeBytes);
+		out.putInt(count).putInt(textLength).putInt(typeCount).putInt(slots.length()).putInt(typeBytes);
+		idStarts.writeTo(out, count);
+		descriptionStarts.writeTo(out, count);
+		descriptionEnds.writeTo(out, count);
+		typeOf.writeTo(out, count);
+		slots.writeTo(out, slots.length());
+		int position = 0;
+		for (byte[] name : typeNames) {
+			out.putInt(position);
+			position += name.length;
+		}
+		out.putInt(position);
+		out.asLongBuffer().put(wideWords);
+		out.position(out.position() + wideWords.length * Long.BYTES);
+		text.writeTo(out, textLength);
+		for (byte[] name : typeNames) {
+			out.put(name);
+		}
+		return out.flip();
+	}
+
+	/**
+	 * Restores a table on the heap from a buffer written by toBuffer, starting
+	 * at the buffer's position and advancing it past the table. The columns,
+	 * ID table, and arena are restored with bulk copies, so no landmark is
+	 * decoded, hashed, or stored again; only the type names are decoded.
+	 *
+	 * @param buffer buffer holding the table
+	 * @return restored table
+	 * @throws IllegalArgumentException if the buffer does not hold a whole
+	 *                                  table
+	 */
+	static LandmarkTable fromBuffer(ByteBuffer buffer) {
+		if (buffer.remaining() < 5 * Integer.BYTES) {
+			throw new IllegalArgumentException("Truncated landmark table.");
+		}
+		int count = buffer.getInt();
+		int textLength = buffer.getInt();
+		int typeCount = buffer.getInt();
+		int slotCount = buffer.getInt();
+		int typeBytes = buffer.getInt();
+		if (count < 0 || textLength < 0 || typeCount < 0 || typeBytes < 0 || Integer.bitCount(slotCount) != 1
+				|| slotCount <= count) {
+			throw new IllegalArgumentException("Malformed landmark table.");
+		}
+		long ints = 4L * count + slotCount + typeCount + 1;
+		long bytes = ints * Integer.BYTES + (long) wordCount(count) * Long.BYTES + textLength + typeBytes;
+		if (buffer.remaining() < bytes) {
+			throw new IllegalArgumentException("Truncated landmark table.");
+		}
+		IntBuffer intBuffer = buffer.asIntBuffer();
+		int[] idStarts = new int[count];
+		int[] descriptionStarts = new int[count];
+		int[] descriptionEnds = new int[count];
+		int[] typeOf = new int[count];
+		int[] slots = new int[slotCount];
+		int[] typeOffsets = new int[typeCount + 1];
+		intBuffer.get(idStarts).get(descriptionStarts).get(descriptionEnds).get(typeOf).get(slots).get(typeOffsets);
+		buffer.position(buffer.position() + (int) ints * Integer.BYTES);
+		long[] wideWords = new long[wordCount(count)];
+		buffer.asLongBuffer().get(wideWords);
+		buffer.position(buffer.position() + wideWords.length * Long.BYTES);
+		byte[] text = new byte[textLength];
+		buffer.get(text);
+		byte[] typeNames = new byte[typeBytes];
+		buffer.get(typeNames);
+
+		String[] types = new String[Math.max(typeCount, MIN_CAPACITY)];
+		IdIndex typeIndex = new IdIndex(Math.max(typeCount, MIN_CAPACITY));
+		for (int t = 0; t < typeCount; t++) {
+			types[t] = new String(typeNames, typeOffsets[t], typeOffsets[t + 1] - typeOffsets[t],
+					StandardCharsets.UTF_8);
+			typeIndex.put(types[t], t);
+		}
+		GraphStorage heap = GraphStorage.HEAP;
+		return new LandmarkTable(new ByteArray.Heap(text), textLength, heap.wrap(idStarts),
+				heap.wrap(descriptionStarts), heap.wrap(descriptionEnds), heap.wrap(typeOf),
+				BitSet.valueOf(wideWords), types, typeIndex, heap.wrap(slots), count);
+	}
+
+	/**
+	 * Releases the memory of the arena, columns, and ID table. Off-heap memory is
+	 * returned immediately; the table must not be used afterward.
+	 */
+	public void close() {
+		text.free();
+		idStarts.free();
+		descriptionStarts.free();
+		descriptionEnds.free();
+		typeOf.free();
+		slots.free();
+	}
+
+	/**
+	 * Private helper method that returns the number of longs holding one bit
+	 * for each of the specified number of landmarks.
+	 *
+	 * @param count number of landmarks
+	 * @return number of longs
+	 */
+	private static int wordCount(int count) {
+		return (count + Long.SIZE - 1) / Long.SIZE;
+	}
+
+	/**
+	 * Private helper method that compares two character ranges of the arena
+	 * char by char.
+	 *
+	 * @param a      landmark owning the first range
+	 * @param aStart start of the first range
+	 * @param aEnd   end of the first range (exclusive)
+	 * @param b      landmark owning the second range
+	 * @param bStart start of the second range
+	 * @param bEnd   end of the second range (exclusive)
+	 * @return difference of the first differing characters, or of the lengths
+	 */
+	private int compare(int a, int aStart, int aEnd, int b, int bStart, int bEnd) {
+		if (!wide.get(a) && !wide.get(b)) {
+			return compareLatin1(aStart, aEnd, bStart, bEnd);
+		}
+		int aShift = wide.get(a) ? 1 : 0;
+		int bShift = wide.get(b) ? 1 : 0;
+		int aLength = (aEnd - aStart) >> aShift;
+		int bLength = (bEnd - bStart) >> bShift;
+		for (int i = 0; i < Math.min(aLength, bLength); i++) {
+			char ca = charAt(aStart, aShift, i);
+			char cb = charAt(bStart, bShift, i);
+			if (ca != cb) {
+				return ca - cb;
+			}
+		}
+		return aLength - bLength;
+	}
+
+	/**
+	 * Private helper method that compares two Latin-1 ranges of the arena.
+	 *
+	 * @param aStart start of the first range
+	 * @param aEnd   end of the first range (exclusive)
+	 * @param bStart start of the second range
+	 * @param bEnd   end of the second range (exclusive)
+	 * @return difference of the first differing characters, or of the lengths
+	 */
+	private int compareLatin1(int aStart, int aEnd, int bStart, int bEnd) {
+		int mismatch = text.mismatch(aStart, aEnd, bStart, bEnd);
+		if (mismatch < 0) {
+			return 0;
+		}
+		if (mismatch == aEnd - aStart || mismatch == bEnd - bStart) {
+			return (aEnd - aStart) - (bEnd - bStart);
+		}
+		return (text.get(aStart + mismatch) & 0xFF) - (text.get(bStart + mismatch) & 0xFF);
+	}
+
+	/**
+	 * Private helper method that returns a character of the arena.
+	 *
+	 * @param start start of the range holding the character
+	 * @param shift 1 if the range stores two bytes per character, else 0
+	 * @param i     position of the character in the range
+	 * @return the character
+	 */
+	private char charAt(int start, int shift, int i) {
+		if (shift == 0) {
+			return (char) (text.get(start + i) & 0xFF);
+		}
+		int position = start + (i << 1);
+		return (char) ((text.get(position) & 0xFF) << 8 | (text.get(position + 1) & 0xFF));
+	}
+
+	/**
+	 * Private helper method that returns the number of characters in a stored
+	 * landmark's ID.
+	 *
+	 * @param index index of a stored landmark
+	 * @return length of the ID
+	 */
+	private int idLength(int index) {
+		return (descriptionStarts.get(index) - idStarts.get(index)) >> (wide.get(index) ? 1 : 0);
+	}
+
+	/**
+	 * Private helper method that returns true if a stored landmark's ID equals
+	 * a String.
+	 *
+	 * @param index index of a stored landmark
+	 * @param id    ID to compare
+	 * @return true if the IDs are equal
+	 */
+	private boolean idEquals(int index, String id) {
+		if (idLength(index) != id.length()) {
+			return false;
+		}
+		int shift = wide.get(index) ? 1 : 0;
+		for (int i = 0; i < id.length(); i++) {
+			if (charAt(idStarts.get(index), shift, i) != id.charAt(i)) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * Private helper method that returns true if a stored landmark's ID spells
+	 * the same ASCII characters as a byte range.
+	 *
+	 * @param index  index of a stored landmark
+	 * @param bytes  buffer holding ASCII bytes
+	 * @param offset start of the range
+	 * @param length number of bytes in the range
+	 * @return true if the IDs are equal
+	 */
+	private boolean idEquals(int index, byte[] bytes, int offset, int length) {
+		if (idLength(index) != length) {
+			return false;
+		}
+		if (!wide.get(index)) {
+			return text.rangeEquals(idStarts.get(index), descriptionStarts.get(index), bytes, offset, length);
+		}
+		for (int i = 0; i < length; i++) {
+			if (charAt(idStarts.get(index), 1, i) != bytes[offset + i]) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * Private helper method that returns the String.hashCode of a stored
+	 * landmark's ID without creating the String.
+	 *
+	 * @param index index of a stored landmark
+	 * @return hash code of the ID
+	 */
+	private int hashId(int index) {
+		int shift = wide.get(index) ? 1 : 0;
+		int hash = 0;
+		for (int i = 0; i < idLength(index); i++) {
+			hash = 31 * hash + charAt(idStarts.get(index), shift, i);
+		}
+		return hash;
+	}
+
+	/**
+	 * Private helper method that decodes a range of the arena.
+	 *
+	 * @param index landmark owning the range
+	 * @param start start of the range
+	 * @param end   end of the range (exclusive)
+	 * @return decoded characters
+	 */
+	private String decode(int index, int start, int end) {
+		if (!wide.get(index)) {
+			return text.decodeLatin1(start, end);
+		}
+		char[] chars = new char[(end - start) >> 1];
+		for (int i = 0; i < chars.length; i++) {
+			chars[i] = charAt(start, 1, i);
+		}
+		return new String(chars);
+	}
+
+	/**
+	 * Private helper method that decodes a range of the arena into a char[].
+	 *
+	 * @param index     landmark owning the range
+	 * @param start     start of the range
+	 * @param end       end of the range (exclusive)
+	 * @param dest      array to decode into
+	 * @param destBegin first index of dest decoded into
+	 */
+	private void decode(int index, int start, int end, char[] dest, int destBegin) {
+		if (!wide.get(index)) {
+			text.decodeLatin1(start, end, dest, destBegin);
+			return;
+		}
+		int length = (end - start) >> 1;
+		for (int i = 0; i < length; i++) {
+			dest[destBegin + i] = charAt(start, 1, i);
+		}
+	}
+
+	/**
+	 * Private helper method that writes a String into the arena.
+	 *
+	 * @param value    characters to write
+	 * @param position arena position to write at
+	 * @param twoBytes true to write two bytes per character
+	 * @return arena position just past the written characters
+	 */
+	private int encode(String value, int position, boolean twoBytes) {
+		if (!twoBytes) {
+			for (int i = 0; i < value.length(); i++) {
+				text.set(position++, (byte) value.charAt(i));
+			}
+			return position;
+		}
+		for (int i = 0; i < value.length(); i++) {
+			text.set(position++, (byte) (value.charAt(i) >> 8));
+			text.set(position++, (byte) value.charAt(i));
+		}
+		return position;
+	}
+
+	/**
+	 * Private helper method that returns true if every character of a String
+	 * fits in one Latin-1 byte.
+	 *
+	 * @param value String to check
+	 * @return true if the String is Latin-1
+	 */
+	private static boolean isLatin1(String value) {
+		for (int i = 0; i < value.length(); i++) {
+			if (value.charAt(i) > 0xFF) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * Private helper method that returns the number of a type, interning it the
+	 * first time it is stored.
+	 *
+	 * @param type landmark type
+	 * @return type number
+	 */
+	private int internType(String type) {
+		int number = typeIndex.get(type);
+		if (number == IdIndex.NOT_FOUND) {
+			number = typeIndex.size();
+			if (number == types.length) {
+				types = Arrays.copyOf(types, number * 2);
+			}
+			types[number] = type;
+			typeIndex.put(type, number);
+		}
+		return number;
+	}
+
+	/**
+	 * Private helper method that places a stored landmark's index in the ID
+	 * table.
+	 *
+	 * @param index index of a stored landmark
+	 */
+	private void insertSlot(int index) {
+		int mask = slots.length() - 1;
+		int slot = IdIndex.spread(hashId(index)) & mask;
+		while (slots.get(slot) != 0) {
+			slot = (slot + 1) & mask;
+		}
+		slots.set(slot, index + 1);
+	}
+
+	/**
+	 * Private helper method that moves every stored landmark into an ID table of
+	 * the specified capacity.
+	 *
+	 * @param capacity new table capacity, a power of two
+	 */
+	private void rehash(int capacity) {
+		IntArray old = slots;
+		slots = old.storage().allocateInts(capacity);
+		for (int v = 0; v < size; v++) {
+			if (contains(v)) {
+				insertSlot(v);
+			}
+		}
+		old.free();
+	}
+
+	/**
+	 * Private helper method that grows the columns to hold at least the
+	 * specified number of indexes.
+	 *
+	 * @param required number of indexes the columns must hold
+	 */
+	private void ensureCapacity(int required) {
+		if (required > idStarts.length()) {
+			int capacity = Math.max(required, idStarts.length() * 2);
+			int oldLength = idStarts.length();
+			idStarts = idStarts.resize(capacity);
+			idStarts.fill(oldLength, capacity, -1);
+			descriptionStarts = descriptionStarts.resize(capacity);
+			descriptionEnds = descriptionEnds.resize(capacity);
+			typeOf = typeOf.resize(capacity);
+		}
+	}
+
+	/**
+	 * Private helper method that makes room in the arena for at least the
+	 * specified number of bytes, packing it first if more than half of it is
+	 * abandoned.
+	 *
+	 * @param required number of bytes the arena must hold
+	 */
+	private void ensureText(int required) {
+		if (required <= text.length()) {
+			return;
+		}
+		if (abandoned > textLength / 2) {
+			pack();
+			required -= abandoned;
+			abandoned = 0;
+		}
+		if (required > text.length()) {
+			text = text.resize(Math.max(required, text.length() + (text.length() >> 1)));
+		}
+	}
+
+	/**
+	 * Private helper method that packs the characters of every stored landmark
+	 * tightly in index order, reclaiming abandoned bytes.
+	 */
+	private void pack() {
+		ByteArray packed = text.storage().allocateBytes(text.length());
+		int next = 0;
+		for (int v = 0; v < size; v++) {
+			if (contains(v)) {
+				int length = descriptionEnds.get(v) - idStarts.get(v);
+				text.copyTo(idStarts.get(v), packed, next, length);
+				descriptionStarts.set(v, descriptionStarts.get(v) + next - idStarts.get(v));
+				descriptionEnds.set(v, next + length);
+				idStarts.set(v, next);
+				next += length;
+			}
+		}
+		text.free();
+		text = packed;
+		textLength = next;
+	}
+}
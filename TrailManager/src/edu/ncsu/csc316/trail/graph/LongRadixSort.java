@@ -0,0 +1,72 @@
+package edu.ncsu.csc316.trail.graph;
+
+import java.util.Arrays;
+
+/**
+ * Sorts arrays of non-negative packed long keys with a least significant digit
+ * radix sort. Keys are sorted 11 bits at a time, and digits that are the same
+ * in every key are skipped, so keys that pack a small distance above a small
+ * rank take only a few counting passes. Short arrays are sorted with
+ * Arrays.sort instead, since clearing the digit counts would cost more than
+ * sorting them.
+ *
+ * @author Thommasaht Nhouyvanisvong (tcnhouyv)
+ */
+public class LongRadixSort {
+
+	/** Number of bits in a digit */
+	private static final int DIGIT_BITS = 11;
+	/** Number of distinct digits */
+	private static final int RADIX = 1 << DIGIT_BITS;
+	/** Arrays shorter than this are sorted with Arrays.sort */
+	private static final int MIN_RADIX_LENGTH = 256;
+
+	/**
+	 * Sorts the keys into ascending order.
+	 *
+	 * @param keys non-negative keys to sort
+	 */
+	public static void sort(long[] keys) {
+		int n = keys.length;
+		if (n < MIN_RADIX_LENGTH) {
+			Arrays.sort(keys);
+			return;
+		}
+		// Bits set in some keys and clear in others are the only ones that order
+		// the keys
+		long any = 0;
+		long all = -1L;
+		for (long key : keys) {
+			any |= key;
+			all &= key;
+		}
+		long varying = any ^ all;
+		long[] source = keys;
+		long[] target = new long[n];
+		int[] counts = new int[RADIX];
+		for (int shift = 0; shift < Long.SIZE; shift += DIGIT_BITS) {
+			if ((varying >>> shift & (RADIX - 1)) == 0) {
+				continue;
+			}
+			Arrays.fill(counts, 0);
+			for (long key : source) {
+				counts[(int) (key >>> shift) & (RADIX - 1)]++;
+			}
+			int total = 0;
+			for (int d = 0; d < RADIX; d++) {
+				int count = counts[d];
+				counts[d] = total;
+				total += count;
+			}
+			for (long key : source) {
+				target[counts[(int) (key >>> shift) & (RADIX - 1)]++] = key;
+			}
+			long[] swap = source;
+			source = target;
+			target = swap;
+		}
+		if (source != keys) {
+			System.arraycopy(source, 0, keys, 0, n);
+		}
+	}
+}
@@ -0,0 +1,450 @@
+package edu.ncsu.csc316.trail.graph;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.IntStream;
+
+/**
+ * A multi-source shortest path engine for a TrailGraph. One run seeds every
+ * source landmark at once and finds, for each landmark, its distance to the
+ * nearest source and which source that is, in the time of a single search
+ * rather than one search per source.
+ *
+ * The search uses delta-stepping: landmarks are kept in buckets of distance
+ * width delta, and the buckets are emptied in order. Trails no longer than
+ * delta are relaxed from the whole bucket at once, repeatedly, until the
+ * bucket stops changing; longer trails are relaxed once afterward, since
+ * they can only reach later buckets. Each round of relaxations is split
+ * across the common fork-join pool when its frontier is large enough. A
+ * landmark's distance and source are packed into one long key, distance in
+ * the high bits and the source's position among the sources in the low bits,
+ * and updated with compare-and-set, so concurrent relaxations keep the
+ * smaller key without locks. The nearest source is therefore unique: a
+ * landmark tied between sources is assigned the one listed first, however the
+ * rounds were scheduled.
+ *
+ * A run reads the graph from several threads, so the graph must not be
+ * changed during a run. A search is not thread-safe and should be used by one
+ * thread at a time.
+ *
+ * @author Thommasaht Nhouyvanisvong (tcnhouyv)
+ */
+public class MultiSourceSearch {
+
+	/** Distance of landmarks not reached by the last run */
+	public static final long UNREACHED = Long.MAX_VALUE;
+	/** Source of landmarks not reached by the last run */
+	public static final int NO_SOURCE = -1;
+	/** Default smallest frontier whose relaxations are split across threads */
+	public static final int DEFAULT_PARALLEL_THRESHOLD = 4096;
+	/** Log2 of the largest number of buckets a trail can span */
+	private static final int MAX_RING_BITS = 20;
+	/** Number of chunks each pool thread gets in a parallel round */
+	private static final int CHUNKS_PER_THREAD = 4;
+	/** Atomic access to the elements of the key array */
+	private static final VarHandle KEYS = MethodHandles.arrayElementVarHandle(long[].class);
+
+	/** Graph searched */
+	private final TrailGraph graph;
+	/** Bucket width, or 0 to use the average trail length of each run */
+	private final long fixedDelta;
+	/** Smallest frontier whose relaxations are split across threads */
+	private final int parallelThreshold;
+	/** Packed distance and source position of each landmark */
+	private long[] keys;
+	/** Landmark index of each source position in the last run */
+	private int[] sources;
+	/** Number of low key bits holding the source position */
+	private int shift;
+	/** Largest distance a key can hold */
+	private long maxDistance;
+	/** Bucket width of the last run */
+	private long delta;
+	/** Round in which each landmark was last added to a frontier */
+	private int[] frontierMarks;
+	/** Bucket in which each landmark was last added to the settled list */
+	private int[] settledMarks;
+	/** Current frontier round, compared against frontierMarks */
+	private int frontierRound;
+	/** Current bucket round, compared against settledMarks */
+	private int bucketRound;
+	/** Ring of buckets indexed by bucket number modulo its length */
+	private IntList[] buckets;
+	/** Number of landmark entries held in the buckets, stale ones included */
+	private long pending;
+	/** Number of landmarks reached by the last run */
+	private int reachedCount;
+	/** Number of edges scanned by the last run */
+	private long scannedCount;
+	/** Number of relaxation rounds of the last run */
+	private int roundCount;
+
+	/**
+	 * Creates a search over the specified graph whose bucket width is the
+	 * average trail length when each run starts.
+	 *
+	 * @param graph graph to search
+	 */
+	public MultiSourceSearch(TrailGraph graph) {
+		this.graph = graph;
+		this.fixedDelta = 0;
+		this.parallelThreshold = DEFAULT_PARALLEL_THRESHOLD;
+	}
+
+	/**
+	 * Creates a search over the specified graph with a fixed bucket width and
+	 * parallel threshold.
+	 *
+	 * @param graph             graph to search
+	 * @param delta             bucket width in feet
+	 * @param parallelThreshold smallest frontier whose relaxations are split
+	 *                          across threads
+	 * @throws IllegalArgumentException if delta or parallelThreshold is not
+	 *                                  positive
+	 */
+	public MultiSourceSearch(TrailGraph graph, long delta, int parallelThreshold) {
+		if (delta <= 0 || parallelThreshold <= 0) {
+			throw new IllegalArgumentException("Bucket width and parallel threshold must be positive.");
+		}
+		this.graph = graph;
+		this.fixedDelta = delta;
+		this.parallelThreshold = parallelThreshold;
+	}
+
+	/**
+	 * Computes the distance from every landmark to its nearest source. Sources
+	 * listed more than once keep their first position.
+	 *
+	 * @param sourceLandmarks indexes of the source landmarks, in order of
+	 *                        preference for ties
+	 * @throws IllegalArgumentException if a source is not a landmark of the
+	 *                                  graph
+	 * @throws ArithmeticException      if a distance is too long to pack with
+	 *                                  the number of sources
+	 */
+	public void run(int[] sourceLandmarks) {
+		int n = graph.size();
+		for (int source : sourceLandmarks) {
+			if (source < 0 || source >= n || !graph.contains(source)) {
+				throw new IllegalArgumentException("No landmark index " + source + ".");
+			}
+		}
+		prepare(n, sourceLandmarks);
+		for (int position = 0; position < sources.length; position++) {
+			int source = sources[position];
+			if (position < keys[source]) {
+				keys[source] = position;
+				add(0, source);
+			}
+		}
+
+		IntList frontier = new IntList();
+		IntList settled = new IntList();
+		for (long bucket = 0; pending > 0; bucket++) {
+			IntList entries = buckets[(int) (bucket & (buckets.length - 1))];
+			if (entries.size == 0) {
+				continue;
+			}
+			pending -= entries.size;
+			frontier.clear();
+			settled.clear();
+			bucketRound++;
+			frontierRound++;
+			collect(entries, bucket, frontier, false);
+			entries.clear();
+			while (frontier.size > 0) {
+				for (int i = 0; i < frontier.size; i++) {
+					int v = frontier.values[i];
+					if (settledMarks[v] != bucketRound) {
+						settledMarks[v] = bucketRound;
+						settled.add(v);
+					}
+				}
+				IntList[] updated = relax(frontier, true);
+				frontier.clear();
+				frontierRound++;
+				for (IntList list : updated) {
+					collect(list, bucket, frontier, true);
+				}
+			}
+			for (IntList list : relax(settled, false)) {
+				collect(list, bucket, null, true);
+			}
+		}
+
+		reachedCount = 0;
+		for (int v = 0; v < n; v++) {
+			if (keys[v] != UNREACHED) {
+				reachedCount++;
+			}
+		}
+	}
+
+	/**
+	 * Returns the distance from the specified landmark to its nearest source in
+	 * the last run, or UNREACHED if no source is connected to it.
+	 *
+	 * @param index landmark index
+	 * @return shortest distance in feet, or UNREACHED
+	 */
+	public long getDistance(int index) {
+		return keys[index] == UNREACHED ? UNREACHED : keys[index] >>> shift;
+	}
+
+	/**
+	 * Returns the landmark index of the source nearest to the specified landmark
+	 * in the last run, or NO_SOURCE if no source is connected to it. Of sources
+	 * at the same distance, the one listed first is returned.
+	 *
+	 * @param index landmark index
+	 * @return index of the nearest source, or NO_SOURCE
+	 */
+	public int getSource(int index) {
+		return keys[index] == UNREACHED ? NO_SOURCE : sources[(int) (keys[index] & ((1L << shift) - 1))];
+	}
+
+	/**
+	 * Returns the number of landmarks reached by the last run, including the
+	 * sources.
+	 *
+	 * @return number of reached landmarks
+	 */
+	public int getReachedCount() {
+		return reachedCount;
+	}
+
+	/**
+	 * Returns the number of edges scanned by the last run. A landmark whose
+	 * distance improves after it was scanned is scanned again, so this can
+	 * exceed the number of edges.
+	 *
+	 * @return number of scanned edges
+	 */
+	public long getScannedCount() {
+		return scannedCount;
+	}
+
+	/**
+	 * Returns the number of relaxation rounds of the last run, each of which
+	 * relaxes a whole frontier and may be split across threads.
+	 *
+	 * @return number of rounds
+	 */
+	public int getRoundCount() {
+		return roundCount;
+	}
+
+	/**
+	 * Returns the bucket width used by the last run. A fixed width is widened if
+	 * the longest trail would span more than about a million buckets.
+	 *
+	 * @return bucket width in feet
+	 */
+	public long getDelta() {
+		return delta;
+	}
+
+	/**
+	 * Private helper method that resets the keys, chooses the bucket width, and
+	 * sizes the bucket ring for a run.
+	 *
+	 * @param n               landmark index bound of the graph
+	 * @param sourceLandmarks indexes of the source landmarks
+	 */
+	private void prepare(int n, int[] sourceLandmarks) {
+		if (keys == null || keys.length < n) {
+			keys = new long[n];
+			frontierMarks = new int[n];
+			settledMarks = new int[n];
+			frontierRound = 0;
+			bucketRound = 0;
+		}
+		if (frontierRound > Integer.MAX_VALUE / 2 || bucketRound > Integer.MAX_VALUE / 2) {
+			Arrays.fill(frontierMarks, 0);
+			Arrays.fill(settledMarks, 0);
+			frontierRound = 0;
+			bucketRound = 0;
+		}
+		Arrays.fill(keys, UNREACHED);
+		sources = sourceLandmarks.clone();
+		shift = 32 - Integer.numberOfLeadingZeros(Math.max(0, sources.length - 1));
+		maxDistance = (UNREACHED - 1) >>> shift;
+
+		long longest = 0;
+		long total = 0;
+		long edges = 0;
+		for (int v = 0; v < n; v++) {
+			for (int e = graph.firstEdge(v); e < graph.endEdge(v); e++) {
+				longest = Math.max(longest, graph.length(e));
+				total += graph.length(e);
+				edges++;
+			}
+		}
+		delta = fixedDelta > 0 ? fixedDelta : Math.max(1, edges == 0 ? 1 : total / edges);
+		// Widen the buckets if the longest trail would span too many of them
+		delta = Math.max(delta, (longest >> MAX_RING_BITS) + 1);
+		// A relaxation lands at most longest / delta + 1 buckets past the current one
+		int ring = Integer.highestOneBit((int) (longest / delta + 2)) << 1;
+		if (buckets == null || buckets.length != ring) {
+			buckets = new IntList[ring];
+			for (int i = 0; i < ring; i++) {
+				buckets[i] = new IntList();
+			}
+		} else {
+			for (IntList bucket : buckets) {
+				bucket.clear();
+			}
+		}
+		pending = 0;
+		scannedCount = 0;
+		roundCount = 0;
+	}
+
+	/**
+	 * Private helper method that files each landmark of a list under the bucket
+	 * of its current key. Landmarks now in the current bucket go to the
+	 * frontier, once each per frontier round; later ones go to their bucket if
+	 * fileLater is set, and landmarks left behind by a lower key are dropped.
+	 *
+	 * @param list      landmarks to file
+	 * @param current   number of the bucket being emptied
+	 * @param frontier  frontier of the current bucket, or null if no landmark
+	 *                  can be in the current bucket
+	 * @param fileLater true to file landmarks of later buckets, false to
+	 *                  drop them
+	 */
+	private void collect(IntList list, long current, IntList frontier, boolean fileLater) {
+		for (int i = 0; i < list.size; i++) {
+			int v = list.values[i];
+			long bucket = (keys[v] >>> shift) / delta;
+			if (bucket == current && frontier != null) {
+				if (frontierMarks[v] != frontierRound) {
+					frontierMarks[v] = frontierRound;
+					frontier.add(v);
+				}
+			} else if (bucket > current && fileLater) {
+				add(bucket, v);
+			}
+		}
+	}
+
+	/**
+	 * Private helper method that adds a landmark to a bucket.
+	 *
+	 * @param bucket bucket number
+	 * @param v      landmark index
+	 */
+	private void add(long bucket, int v) {
+		buckets[(int) (bucket & (buckets.length - 1))].add(v);
+		pending++;
+	}
+
+	/**
+	 * Private helper method that relaxes the short or the long trails of every
+	 * landmark in a frontier, on the common fork-join pool if the frontier is
+	 * large enough.
+	 *
+	 * @param frontier landmarks whose trails are relaxed
+	 * @param light    true to relax trails no longer than delta, false for the
+	 *                 longer ones
+	 * @return lists of the landmarks whose keys were lowered, which may repeat
+	 */
+	private IntList[] relax(IntList frontier, boolean light) {
+		roundCount++;
+		int size = frontier.size;
+		int chunks = (int) Math.min(size / parallelThreshold,
+				(long) CHUNKS_PER_THREAD * ForkJoinPool.getCommonPoolParallelism());
+		if (chunks <= 1) {
+			IntList updated = new IntList();
+			scannedCount += relaxRange(frontier, 0, size, light, updated);
+			return new IntList[] { updated };
+		}
+		IntList[] updated = new IntList[chunks];
+		long[] scanned = new long[chunks];
+		IntStream.range(0, chunks).parallel().forEach(c -> {
+			updated[c] = new IntList();
+			scanned[c] = relaxRange(frontier, (int) ((long) size * c / chunks),
+					(int) ((long) size * (c + 1) / chunks), light, updated[c]);
+		});
+		for (long count : scanned) {
+			scannedCount += count;
+		}
+		return updated;
+	}
+
+	/**
+	 * Private helper method that relaxes the trails of a range of a frontier,
+	 * lowering the keys of their far ends with compare-and-set.
+	 *
+	 * @param frontier landmarks whose trails are relaxed
+	 * @param start    first position of the range
+	 * @param end      end of the range (exclusive)
+	 * @param light    true to relax trails no longer than delta, false for the
+	 *                 longer ones
+	 * @param updated  list receiving the landmarks whose keys were lowered
+	 * @return number of edges scanned
+	 * @throws ArithmeticException if a distance is too long to pack
+	 */
+	private long relaxRange(IntList frontier, int start, int end, boolean light, IntList updated) {
+		long scanned = 0;
+		long sourceMask = (1L << shift) - 1;
+		for (int i = start; i < end; i++) {
+			int u = frontier.values[i];
+			long key = (long) KEYS.getVolatile(keys, u);
+			long distance = key >>> shift;
+			scanned += graph.endEdge(u) - graph.firstEdge(u);
+			for (int e = graph.firstEdge(u); e < graph.endEdge(u); e++) {
+				int length = graph.length(e);
+				if ((length <= delta) != light) {
+					continue;
+				}
+				if (distance + length > maxDistance) {
+					throw new ArithmeticException("Distance too long to search from " + sources.length + " sources.");
+				}
+				int v = graph.neighbor(e);
+				long candidate = (distance + length) << shift | (key & sourceMask);
+				long current = (long) KEYS.getVolatile(keys, v);
+				while (candidate < current) {
+					if (KEYS.compareAndSet(keys, v, current, candidate)) {
+						updated.add(v);
+						break;
+					}
+					current = (long) KEYS.getVolatile(keys, v);
+				}
+			}
+		}
+		return scanned;
+	}
+
+	/**
+	 * A growable list of ints used for frontiers and buckets.
+	 */
+	private static final class IntList {
+
+		/** Values of the list, followed by unused capacity */
+		private int[] values = new int[8];
+		/** Number of values in the list */
+		private int size;
+
+		/**
+		 * Appends a value.
+		 *
+		 * @param value value to append
+		 */
+		void add(int value) {
+			if (size == values.length) {
+				values = Arrays.copyOf(values, size * 2);
+			}
+			values[size++] = value;
+		}
+
+		/**
+		 * Removes every value, keeping the capacity.
+		 */
+		void clear() {
+			size = 0;
+		}
+	}
+}
@@ -0,0 +1,249 @@
+package edu.ncsu.csc316.trail.graph;
+
+import java.util.Arrays;
+
+/**
+ * A point-to-point shortest path engine for a TrailGraph. Runs Dijkstra's
+ * algorithm from the source and from the target at the same time, always
+ * advancing the side whose frontier is closer, and stops as soon as the two
+ * frontiers together are at least as long as the best connecting path found,
+ * so only the landmarks within about half the route's length of either end
+ * are visited. The route is rebuilt from the parent of each landmark on both
+ * sides. Like DijkstraSearch, the arrays are reused between runs and only the
+ * entries touched by the previous run are reset. A search is not thread-safe
+ * and should be used by one thread at a time.
+ *
+ * @author Thommasaht Nhouyvanisvong (tcnhouyv)
+ */
+public class RouteSearch {
+
+	/** Distance of landmarks not reached, and of routes that do not exist */
+	public static final long UNREACHED = Long.MAX_VALUE;
+	/** Side searching from the source */
+	private static final int FORWARD = 0;
+	/** Side searching from the target */
+	private static final int BACKWARD = 1;
+
+	/** Graph searched */
+	private final TrailGraph graph;
+	/** Distance of each landmark from the source and from the target */
+	private long[][] distances;
+	/** Landmark each landmark was reached from on each side, or -1 */
+	private int[][] parents;
+	/** Length of the trail each landmark was reached by on each side */
+	private int[][] parentLengths;
+	/** Landmarks whose distance was set on each side */
+	private int[][] touched;
+	/** Number of touched landmarks on each side */
+	private int[] touchedCount;
+	/** Frontier of each side */
+	private IndexedMinHeap[] heaps;
+	/** Landmarks on the last route found, from source to target */
+	private int[] path;
+	/** Length of the trail leaving each landmark on the path */
+	private int[] pathLengths;
+	/** Number of landmarks on the path */
+	private int pathSize;
+	/** Number of landmarks settled by the last run on both sides */
+	private int settledCount;
+	/** Number of edges scanned by the last run on both sides */
+	private long scannedCount;
+
+	/**
+	 * Creates a search over the specified graph.
+	 *
+	 * @param graph graph to search
+	 */
+	public RouteSearch(TrailGraph graph) {
+		this.graph = graph;
+		allocate(graph.size());
+	}
+
+	/**
+	 * Allocates the search arrays for landmark indexes in [0, capacity).
+	 *
+	 * @param capacity number of landmark indexes the search can handle
+	 */
+	private void allocate(int capacity) {
+		distances = new long[2][capacity];
+		Arrays.fill(distances[FORWARD], UNREACHED);
+		Arrays.fill(distances[BACKWARD], UNREACHED);
+		parents = new int[2][capacity];
+		parentLengths = new int[2][capacity];
+		touched = new int[2][capacity];
+		touchedCount = new int[2];
+		heaps = new IndexedMinHeap[] { new IndexedMinHeap(capacity), new IndexedMinHeap(capacity) };
+		path = new int[Math.max(capacity, 1)];
+		pathLengths = new int[Math.max(capacity, 1)];
+		pathSize = 0;
+		settledCount = 0;
+		scannedCount = 0;
+	}
+
+	/**
+	 * Finds the shortest route between two landmarks.
+	 *
+	 * @param source index of the landmark the route starts at
+	 * @param target index of the landmark the route ends at
+	 * @return length of the shortest route in feet, or UNREACHED if the
+	 *         landmarks are not connected
+	 */
+	public long run(int source, int target) {
+		if (graph.size() > distances[FORWARD].length) {
+			// Landmarks were added to the graph since the arrays were allocated
+			allocate(Math.max(graph.size(), distances[FORWARD].length * 2));
+		} else {
+			reset();
+		}
+		reach(FORWARD, source, 0, -1, 0);
+		reach(BACKWARD, target, 0, -1, 0);
+		long best = source == target ? 0 : UNREACHED;
+		int meeting = source == target ? source : -1;
+		while (!heaps[FORWARD].isEmpty() && !heaps[BACKWARD].isEmpty()) {
+			long forwardTop = heaps[FORWARD].getKey(heaps[FORWARD].peek());
+			long backwardTop = heaps[BACKWARD].getKey(heaps[BACKWARD].peek());
+			// No path through an unsettled landmark can be shorter than both
+			// frontiers together
+			if (best != UNREACHED && forwardTop + backwardTop >= best) {
+				break;
+			}
+			int side = forwardTop <= backwardTop ? FORWARD : BACKWARD;
+			long[] other = distances[1 - side];
+			int current = heaps[side].poll();
+			settledCount++;
+			scannedCount += graph.endEdge(current) - graph.firstEdge(current);
+			long currentDistance = distances[side][current];
+			for (int e = graph.firstEdge(current); e < graph.endEdge(current); e++) {
+				int next = graph.neighbor(e);
+				long candidate = currentDistance + graph.length(e);
+				if (candidate < distances[side][next]) {
+					reach(side, next, candidate, current, graph.length(e));
+				}
+				if (other[next] != UNREACHED && distances[side][next] + other[next] < best) {
+					best = distances[side][next] + other[next];
+					meeting = next;
+				}
+			}
+		}
+		buildPath(meeting);
+		return best;
+	}
+
+	/**
+	 * Records a shorter distance to a landmark on one side.
+	 *
+	 * @param side         side that reached the landmark
+	 * @param index        landmark reached
+	 * @param distance     new distance of the landmark
+	 * @param parent       landmark it was reached from, or -1 for the start
+	 * @param parentLength length of the trail it was reached by
+	 */
+	private void reach(int side, int index, long distance, int parent, int parentLength) {
+		if (distances[side][index] == UNREACHED) {
+			touched[side][touchedCount[side]++] = index;
+		}
+		distances[side][index] = distance;
+		parents[side][index] = parent;
+		parentLengths[side][index] = parentLength;
+		heaps[side].insertOrDecrease(index, distance);
+	}
+
+	/**
+	 * Rebuilds the route through the meeting landmark from the parents recorded
+	 * on both sides.
+	 *
+	 * @param meeting landmark where the two searches met, or -1 if they did not
+	 */
+	private void buildPath(int meeting) {
+		pathSize = 0;
+		if (meeting < 0) {
+			return;
+		}
+		// Walk back to the source, then reverse that half in place
+		for (int v = meeting; v >= 0; v = parents[FORWARD][v]) {
+			path[pathSize++] = v;
+		}
+		for (int i = 0, j = pathSize - 1; i < j; i++, j--) {
+			int swap = path[i];
+			path[i] = path[j];
+			path[j] = swap;
+		}
+		for (int i = 0; i + 1 < pathSize; i++) {
+			pathLengths[i] = parentLengths[FORWARD][path[i + 1]];
+		}
+		// Walk on to the target, which leads away from the meeting landmark
+		for (int v = meeting; parents[BACKWARD][v] >= 0; v = parents[BACKWARD][v]) {
+			pathLengths[pathSize - 1] = parentLengths[BACKWARD][v];
+			path[pathSize++] = parents[BACKWARD][v];
+		}
+	}
+
+	/**
+	 * Returns the number of landmarks on the last route found, including both
+	 * ends, or 0 if the landmarks were not connected.
+	 *
+	 * @return number of landmarks on the route
+	 */
+	public int getPathSize() {
+		return pathSize;
+	}
+
+	/**
+	 * Returns the i-th landmark on the last route found, starting with the
+	 * source.
+	 *
+	 * @param i position on the route
+	 * @return index of the landmark
+	 */
+	public int getPathLandmark(int i) {
+		return path[i];
+	}
+
+	/**
+	 * Returns the length of the trail from the i-th landmark on the last route
+	 * to the next one.
+	 *
+	 * @param i position on the route, less than getPathSize() - 1
+	 * @return trail length in feet
+	 */
+	public int getPathTrailLength(int i) {
+		return pathLengths[i];
+	}
+
+	/**
+	 * Returns the number of landmarks settled by the last run on both sides
+	 * together, which measures how much of the graph the run explored.
+	 *
+	 * @return number of settled landmarks
+	 */
+	public int getSettledCount() {
+		return settledCount;
+	}
+
+	/**
+	 * Returns the number of edges scanned by the last run on both sides
+	 * together, which counts each trail leaving a settled landmark once from
+	 * that end.
+	 *
+	 * @return number of scanned edges
+	 */
+	public long getScannedCount() {
+		return scannedCount;
+	}
+
+	/**
+	 * Clears the state left by the previous run.
+	 */
+	private void reset() {
+		for (int side = FORWARD; side <= BACKWARD; side++) {
+			for (int i = 0; i < touchedCount[side]; i++) {
+				distances[side][touched[side][i]] = UNREACHED;
+			}
+			touchedCount[side] = 0;
+			heaps[side].clear();
+		}
+		pathSize = 0;
+		settledCount = 0;
+		scannedCount = 0;
+	}
+}
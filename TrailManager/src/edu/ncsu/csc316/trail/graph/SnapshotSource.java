@@ -0,0 +1,145 @@
+package edu.ncsu.csc316.trail.graph;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Objects;
+
+/**
+ * The landmark and trail CSV files a snapshot was built from, identified by
+ * the canonical path of the landmark file and the size and modification time
+ * of both files. Snapshots are named after their trail file, so the trail
+ * file's path is implied by where the snapshot is found. A snapshot is only
+ * reused when every one of these values matches the files being loaded.
+ *
+ * @author Thommasaht Nhouyvanisvong (tcnhouyv)
+ */
+public final class SnapshotSource {
+
+	/** Source that matches no files, for snapshots of changed graphs */
+	public static final SnapshotSource NONE = new SnapshotSource("", -1, -1, -1, -1);
+
+	/** Canonical path of the landmark file */
+	private final String landmarkPath;
+	/** Modification time of the landmark file in milliseconds */
+	private final long landmarkModified;
+	/** Size of the landmark file in bytes */
+	private final long landmarkSize;
+	/** Modification time of the trail file in milliseconds */
+	private final long trailModified;
+	/** Size of the trail file in bytes */
+	private final long trailSize;
+
+	/**
+	 * Creates a source from its recorded values.
+	 *
+	 * @param landmarkPath     canonical path of the landmark file
+	 * @param landmarkModified modification time of the landmark file in
+	 *                         milliseconds
+	 * @param landmarkSize     size of the landmark file in bytes
+	 * @param trailModified    modification time of the trail file in
+	 *                         milliseconds
+	 * @param trailSize        size of the trail file in bytes
+	 */
+	public SnapshotSource(String landmarkPath, long landmarkModified, long landmarkSize, long trailModified,
+			long trailSize) {
+		this.landmarkPath = Objects.requireNonNull(landmarkPath);
+		this.landmarkModified = landmarkModified;
+		this.landmarkSize = landmarkSize;
+		this.trailModified = trailModified;
+		this.trailSize = trailSize;
+	}
+
+	/**
+	 * Returns the source describing the specified files as they are now. A
+	 * missing file has a size and modification time of 0.
+	 *
+	 * @param pathToLandmarkFile landmark CSV file
+	 * @param pathToTrailFile    trail CSV file
+	 * @return source describing the files
+	 */
+	public static SnapshotSource of(String pathToLandmarkFile, String pathToTrailFile) {
+		File landmarks = new File(pathToLandmarkFile);
+		File trails = new File(pathToTrailFile);
+		String path;
+		try {
+			path = landmarks.getCanonicalPath();
+		} catch (IOException e) {
+			path = landmarks.getAbsolutePath();
+		}
+		return new SnapshotSource(path, landmarks.lastModified(), landmarks.length(), trails.lastModified(),
+				trails.length());
+	}
+
+	/**
+	 * Returns true if both files existed when the source was taken.
+	 *
+	 * @return true if both files have a modification time
+	 */
+	public boolean exists() {
+		return landmarkModified != 0 && trailModified != 0;
+	}
+
+	/**
+	 * Returns the canonical path of the landmark file.
+	 *
+	 * @return landmark file path
+	 */
+	public String getLandmarkPath() {
+		return landmarkPath;
+	}
+
+	/**
+	 * Returns the modification time of the landmark file.
+	 *
+	 * @return modification time in milliseconds
+	 */
+	public long getLandmarkModified() {
+		return landmarkModified;
+	}
+
+	/**
+	 * Returns the size of the landmark file.
+	 *
+	 * @return size in bytes
+	 */
+	public long getLandmarkSize() {
+		return landmarkSize;
+	}
+
+	/**
+	 * Returns the modification time of the trail file.
+	 *
+	 * @return modification time in milliseconds
+	 */
+	public long getTrailModified() {
+		return trailModified;
+	}
+
+	/**
+	 * Returns the size of the trail file.
+	 *
+	 * @return size in bytes
+	 */
+	public long getTrailSize() {
+		return trailSize;
+	}
+
+	@Override
+	public boolean equals(Object obj) {
+		if (this == obj) {
+			return true;
+		}
+		if (!(obj instanceof SnapshotSource)) {
+			return false;
+		}
+		SnapshotSource other = (SnapshotSource) obj;
+		return landmarkPath.equals(other.landmarkPath) && landmarkModified == other.landmarkModified
+				&& landmarkSize == other.landmarkSize && trailModified == other.trailModified
+				&& trailSize == other.trailSize;
+	}
+
+	@Override
+	public int hashCode() {
+		return Objects.hash(landmarkPath, landmarkModified, landmarkSize, trailModified, trailSize);
+	}
+}
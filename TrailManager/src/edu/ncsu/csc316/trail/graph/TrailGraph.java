@@ -0,0 +1,592 @@
+package edu.ncsu.csc316.trail.graph;
+
+import java.util.Arrays;
+
+import edu.ncsu.csc316.trail.data.Landmark;
+
+/**
+ * A trail graph stored in compressed sparse row (CSR) form with slack. Each
+ * landmark is interned to a dense integer index whose ID, description, and
+ * type are held in a LandmarkTable, and the trails intersecting
+ * landmark v occupy the contiguous edge range [firstEdge(v), endEdge(v)) of
+ * the neighbor and length arrays. Every trail is stored once in the range of
+ * each of its two landmarks, in the order the trails were added.
+ *
+ * A graph built by TrailGraphBuilder has tightly packed ranges. Landmarks and
+ * trails can then be added and removed in place: a range with no room left is
+ * moved to the end of the edge arrays with double its capacity, a removed
+ * trail is shifted out of its two ranges, and the index of a removed landmark
+ * is left empty until a later landmark reuses it. Once more than half of the
+ * edge arrays is abandoned by moved ranges, every range is packed again.
+ *
+ * The edge arrays and landmark columns live in the GraphStorage the graph was
+ * built with: Java arrays on the heap, or direct buffers outside it that are
+ * freed by close.
+ *
+ * @author Thommasaht Nhouyvanisvong (tcnhouyv)
+ */
+public class TrailGraph {
+
+	/** Smallest capacity given to a range when it is moved */
+	private static final int MIN_RANGE_CAPACITY = 4;
+
+	/** Landmarks in index order, with removed landmarks left empty */
+	private final LandmarkTable landmarks;
+	/** Start of each landmark's edge range */
+	private IntArray starts;
+	/** Number of edges in each landmark's edge range */
+	private IntArray degrees;
+	/** Number of edges each landmark's range can hold before it must move */
+	private IntArray capacities;
+	/** Index of the landmark at the far end of each edge */
+	private IntArray neighbors;
+	/** Length in feet of the trail for each edge */
+	private IntArray lengths;
+	/** Number of landmark indexes in use, including removed landmarks */
+	private int size;
+	/** Number of landmarks in the graph */
+	private int landmarkCount;
+	/** Number of trails in the graph */
+	private int trailCount;
+	/** Edge slots in use by landmark ranges, including their spare capacity */
+	private int edgeLimit;
+	/** Edge slots below edgeLimit left behind by moved ranges */
+	private int abandoned;
+	/** Indexes of removed landmarks available for reuse */
+	private int[] freeIndexes;
+	/** Number of indexes in freeIndexes */
+	private int freeCount;
+
+	/**
+	 * Creates a trail graph from already-built CSR arrays. Graphs are created
+	 * through TrailGraphBuilder.
+	 *
+	 * @param landmarks landmarks in index order, with no empty indexes
+	 * @param offsets   start of each landmark's edge range, length landmarks + 1
+	 * @param neighbors far endpoint of each edge
+	 * @param lengths   trail length of each edge
+	 */
+	TrailGraph(LandmarkTable landmarks, int[] offsets, int[] neighbors, int[] lengths) {
+		this(landmarks, GraphStorage.HEAP.wrap(offsets), GraphStorage.HEAP.wrap(neighbors),
+				GraphStorage.HEAP.wrap(lengths));
+	}
+
+	/**
+	 * Creates a trail graph from already-built CSR arrays in the storage of the
+	 * landmark table. The graph takes ownership of the arrays.
+	 *
+	 * @param landmarks landmarks in index order, with no empty indexes
+	 * @param offsets   start of each landmark's edge range, length landmarks + 1
+	 * @param neighbors far endpoint of each edge
+	 * @param lengths   trail length of each edge
+	 */
+	TrailGraph(LandmarkTable landmarks, IntArray offsets, IntArray neighbors, IntArray lengths) {
+		GraphStorage storage = landmarks.getStorage();
+		this.landmarks = landmarks;
+		this.neighbors = neighbors;
+		this.lengths = lengths;
+		size = landmarks.size();
+		landmarkCount = size;
+		starts = storage.allocateInts(size);
+		degrees = storage.allocateInts(size);
+		for (int v = 0; v < size; v++) {
+			starts.set(v, offsets.get(v));
+			degrees.set(v, offsets.get(v + 1) - offsets.get(v));
+		}
+		capacities = storage.allocateInts(size);
+		degrees.copyTo(0, capacities, 0, size);
+		edgeLimit = offsets.get(size);
+		offsets.free();
+		trailCount = edgeLimit / 2;
+		freeIndexes = new int[0];
+	}
+
+	/**
+	 * Returns the number of landmark indexes in use. Every landmark index is
+	 * less than this bound, but an index whose landmark has been removed holds
+	 * no landmark until it is reused.
+	 *
+	 * @return bound on landmark indexes
+	 */
+	public int size() {
+		return size;
+	}
+
+	/**
+	 * Returns the number of landmarks in the graph.
+	 *
+	 * @return number of landmarks
+	 */
+	public int getLandmarkCount() {
+		return landmarkCount;
+	}
+
+	/**
+	 * Returns the number of trails in the graph.
+	 *
+	 * @return number of trails
+	 */
+	public int getTrailCount() {
+		return trailCount;
+	}
+
+	/**
+	 * Returns the index of the landmark with the specified ID, or -1 if no
+	 * landmark has that ID.
+	 *
+	 * @param landmarkID landmark ID to look up
+	 * @return index of the landmark, or -1
+	 */
+	public int indexOf(String landmarkID) {
+		return landmarks.indexOf(landmarkID);
+	}
+
+	/**
+	 * Returns true if the specified index holds a landmark.
+	 *
+	 * @param index landmark index
+	 * @return true if a landmark is stored at the index
+	 */
+	public boolean contains(int index) {
+		return index >= 0 && index < size && landmarks.contains(index);
+	}
+
+	/**
+	 * Returns a view of the landmark stored at the specified index. A new
+	 * Landmark is created by every call, so code that only needs one field
+	 * should use getId, getDescription, or getType instead.
+	 *
+	 * @param index landmark index
+	 * @return landmark at the index, or null if it has been removed
+	 */
+	public Landmark getLandmark(int index) {
+		return landmarks.get(index);
+	}
+
+	/**
+	 * Returns the ID of the landmark at the specified index.
+	 *
+	 * @param index index of a landmark in the graph
+	 * @return landmark ID
+	 */
+	public String getId(int index) {
+		return landmarks.getId(index);
+	}
+
+	/**
+	 * Returns the description of the landmark at the specified index.
+	 *
+	 * @param index index of a landmark in the graph
+	 * @return landmark description
+	 */
+	public String getDescription(int index) {
+		return landmarks.getDescription(index);
+	}
+
+	/**
+	 * Returns the number of characters in the ID of the landmark at the
+	 * specified index.
+	 *
+	 * @param index index of a landmark in the graph
+	 * @return length of the ID
+	 */
+	public int getIdLength(int index) {
+		return landmarks.getIdLength(index);
+	}
+
+	/**
+	 * Copies the ID of the landmark at the specified index into a char[]
+	 * without creating the String.
+	 *
+	 * @param index     index of a landmark in the graph
+	 * @param dest      array to copy into, with room for getIdLength characters
+	 * @param destBegin first index of dest copied into
+	 */
+	public void getIdChars(int index, char[] dest, int destBegin) {
+		landmarks.getIdChars(index, dest, destBegin);
+	}
+
+	/**
+	 * Returns the number of characters in the description of the landmark at
+	 * the specified index.
+	 *
+	 * @param index index of a landmark in the graph
+	 * @return length of the description
+	 */
+	public int getDescriptionLength(int index) {
+		return landmarks.getDescriptionLength(index);
+	}
+
+	/**
+	 * Copies the description of the landmark at the specified index into a
+	 * char[] without creating the String.
+	 *
+	 * @param index     index of a landmark in the graph
+	 * @param dest      array to copy into, with room for getDescriptionLength
+	 *                  characters
+	 * @param destBegin first index of dest copied into
+	 */
+	public void getDescriptionChars(int index, char[] dest, int destBegin) {
+		landmarks.getDescriptionChars(index, dest, destBegin);
+	}
+
+	/**
+	 * Returns the type of the landmark at the specified index.
+	 *
+	 * @param index index of a landmark in the graph
+	 * @return landmark type
+	 */
+	public String getType(int index) {
+		return landmarks.getType(index);
+	}
+
+	/**
+	 * Compares two landmarks by description, then by ID, without creating
+	 * either Landmark.
+	 *
+	 * @param a index of the first landmark
+	 * @param b index of the second landmark
+	 * @return negative, zero, or positive as a orders before, with, or after b
+	 */
+	public int compareLandmarks(int a, int b) {
+		int comparison = landmarks.compareDescriptions(a, b);
+		return comparison != 0 ? comparison : landmarks.compareIds(a, b);
+	}
+
+	/**
+	 * Returns the storage holding the graph's edge arrays and landmark columns.
+	 *
+	 * @return storage of the graph
+	 */
+	public GraphStorage getStorage() {
+		return landmarks.getStorage();
+	}
+
+	/**
+	 * Returns the table holding the graph's landmarks.
+	 *
+	 * @return landmark table of the graph
+	 */
+	LandmarkTable getLandmarkTable() {
+		return landmarks;
+	}
+
+	/**
+	 * Releases the memory of the graph's edge arrays and landmark columns.
+	 * Off-heap memory is returned immediately rather than when the graph is
+	 * garbage collected. The graph must not be used afterward, and no other
+	 * thread may be reading it while it is closed.
+	 */
+	public void close() {
+		starts.free();
+		degrees.free();
+		capacities.free();
+		neighbors.free();
+		lengths.free();
+		landmarks.close();
+	}
+
+	/**
+	 * Returns the number of trails intersecting the landmark at the specified
+	 * index.
+	 *
+	 * @param index landmark index
+	 * @return number of intersecting trails
+	 */
+	public int degree(int index) {
+		return degrees.get(index);
+	}
+
+	/**
+	 * Returns the first edge in the edge range of the specified landmark.
+	 *
+	 * @param index landmark index
+	 * @return first edge of the landmark
+	 */
+	public int firstEdge(int index) {
+		return starts.get(index);
+	}
+
+	/**
+	 * Returns the edge one past the end of the edge range of the specified
+	 * landmark.
+	 *
+	 * @param index landmark index
+	 * @return end of the landmark's edge range (exclusive)
+	 */
+	public int endEdge(int index) {
+		return starts.get(index) + degrees.get(index);
+	}
+
+	/**
+	 * Returns the index of the landmark at the far end of the specified edge.
+	 *
+	 * @param edge edge to inspect
+	 * @return index of the neighboring landmark
+	 */
+	public int neighbor(int edge) {
+		return neighbors.get(edge);
+	}
+
+	/**
+	 * Returns the length in feet of the trail for the specified edge.
+	 *
+	 * @param edge edge to inspect
+	 * @return trail length in feet
+	 */
+	public int length(int edge) {
+		return lengths.get(edge);
+	}
+
+	/**
+	 * Adds a landmark with no trails, reusing the index of a removed landmark
+	 * if there is one.
+	 *
+	 * @param landmark landmark to add
+	 * @return index of the new landmark, or -1 if a landmark with the same ID
+	 *         is already in the graph
+	 */
+	public int addLandmark(Landmark landmark) {
+		if (landmarks.indexOf(landmark.getId()) != LandmarkTable.NOT_FOUND) {
+			return LandmarkTable.NOT_FOUND;
+		}
+		int index;
+		if (freeCount > 0) {
+			index = freeIndexes[--freeCount];
+		} else {
+			if (size == starts.length()) {
+				int capacity = Math.max(MIN_RANGE_CAPACITY, size * 2);
+				starts = starts.resize(capacity);
+				degrees = degrees.resize(capacity);
+				capacities = capacities.resize(capacity);
+			}
+			index = size++;
+			starts.set(index, edgeLimit);
+		}
+		landmarks.put(index, landmark);
+		landmarkCount++;
+		return index;
+	}
+
+	/**
+	 * Removes the landmark at the specified index along with every trail that
+	 * intersects it.
+	 *
+	 * @param index index of the landmark to remove
+	 * @return true if a landmark was removed
+	 */
+	public boolean removeLandmark(int index) {
+		if (!contains(index)) {
+			return false;
+		}
+		int selfEdges = 0;
+		for (int e = firstEdge(index); e < endEdge(index); e++) {
+			if (neighbors.get(e) == index) {
+				selfEdges++;
+			} else {
+				removeEdge(neighbors.get(e), index);
+				trailCount--;
+			}
+		}
+		// A trail from a landmark to itself is stored twice in its range
+		trailCount -= selfEdges / 2;
+		degrees.set(index, 0);
+		landmarks.remove(index);
+		landmarkCount--;
+		if (freeCount == freeIndexes.length) {
+			freeIndexes = Arrays.copyOf(freeIndexes, Math.max(MIN_RANGE_CAPACITY, freeCount * 2));
+		}
+		freeIndexes[freeCount++] = index;
+		return true;
+	}
+
+	/**
+	 * Adds a trail between the landmarks at the specified indexes. The trail is
+	 * placed after every existing trail in both landmarks' ranges.
+	 *
+	 * @param from   index of the first landmark
+	 * @param to     index of the second landmark
+	 * @param length trail length in feet
+	 * @throws IllegalArgumentException if either index holds no landmark
+	 */
+	public void addTrail(int from, int to, int length) {
+		checkLandmark(from);
+		checkLandmark(to);
+		addEdge(from, to, length);
+		addEdge(to, from, length);
+		trailCount++;
+	}
+
+	/**
+	 * Removes the first trail added between the landmarks at the specified
+	 * indexes.
+	 *
+	 * @param from index of the first landmark
+	 * @param to   index of the second landmark
+	 * @return true if a trail was removed
+	 */
+	public boolean removeTrail(int from, int to) {
+		if (!contains(from) || !contains(to) || !removeEdge(from, to)) {
+			return false;
+		}
+		removeEdge(to, from);
+		trailCount--;
+		return true;
+	}
+
+	/**
+	 * Changes the length of the first trail added between the landmarks at the
+	 * specified indexes.
+	 *
+	 * @param from   index of the first landmark
+	 * @param to     index of the second landmark
+	 * @param length new trail length in feet
+	 * @return true if a trail was updated
+	 */
+	public boolean setTrailLength(int from, int to, int length) {
+		if (!contains(from) || !contains(to)) {
+			return false;
+		}
+		int edge = findEdge(from, to, firstEdge(from));
+		if (edge < 0) {
+			return false;
+		}
+		lengths.set(edge, length);
+		// The second edge is the far end of the same trail, or for a trail from a
+		// landmark to itself, the next copy in the same range.
+		int reverse = from == to ? findEdge(from, from, edge + 1) : findEdge(to, from, firstEdge(to));
+		lengths.set(reverse, length);
+		return true;
+	}
+
+	/**
+	 * Returns the first edge at or after start in the range of from that leads
+	 * to to.
+	 *
+	 * @param from  landmark whose range is searched
+	 * @param to    neighbor to look for
+	 * @param start edge to start searching from
+	 * @return matching edge, or -1 if there is none
+	 */
+	private int findEdge(int from, int to, int start) {
+		for (int e = start; e < endEdge(from); e++) {
+			if (neighbors.get(e) == to) {
+				return e;
+			}
+		}
+		return -1;
+	}
+
+	/**
+	 * Appends an edge to the range of from, moving the range first if it is
+	 * full.
+	 *
+	 * @param from   landmark whose range receives the edge
+	 * @param to     far endpoint of the edge
+	 * @param length trail length in feet
+	 */
+	private void addEdge(int from, int to, int length) {
+		if (degrees.get(from) == capacities.get(from)) {
+			moveRange(from);
+		}
+		int edge = starts.get(from) + degrees.get(from);
+		degrees.set(from, degrees.get(from) + 1);
+		neighbors.set(edge, to);
+		lengths.set(edge, length);
+	}
+
+	/**
+	 * Removes the first edge from from to to, shifting the later edges of the
+	 * range down so the range keeps its order.
+	 *
+	 * @param from landmark whose range holds the edge
+	 * @param to   far endpoint of the edge
+	 * @return true if an edge was removed
+	 */
+	private boolean removeEdge(int from, int to) {
+		int edge = findEdge(from, to, firstEdge(from));
+		if (edge < 0) {
+			return false;
+		}
+		int end = endEdge(from);
+		neighbors.copyTo(edge + 1, neighbors, edge, end - edge - 1);
+		lengths.copyTo(edge + 1, lengths, edge, end - edge - 1);
+		degrees.set(from, degrees.get(from) - 1);
+		return true;
+	}
+
+	/**
+	 * Gives a full range room to grow. A range at the end of the edge arrays is
+	 * extended in place; any other range is moved to the end with double its
+	 * capacity, after packing every range if too much space is abandoned.
+	 *
+	 * @param index landmark whose range is full
+	 */
+	private void moveRange(int index) {
+		int capacity = Math.max(MIN_RANGE_CAPACITY, capacities.get(index) * 2);
+		if (starts.get(index) + capacities.get(index) == edgeLimit) {
+			ensureEdgeCapacity(starts.get(index) + capacity);
+			edgeLimit = starts.get(index) + capacity;
+			capacities.set(index, capacity);
+			return;
+		}
+		if (abandoned > edgeLimit / 2) {
+			pack();
+		}
+		ensureEdgeCapacity(edgeLimit + capacity);
+		neighbors.copyTo(starts.get(index), neighbors, edgeLimit, degrees.get(index));
+		lengths.copyTo(starts.get(index), lengths, edgeLimit, degrees.get(index));
+		abandoned += capacities.get(index);
+		starts.set(index, edgeLimit);
+		capacities.set(index, capacity);
+		edgeLimit += capacity;
+	}
+
+	/**
+	 * Packs every range tightly in landmark order, reclaiming abandoned space
+	 * and spare capacity.
+	 */
+	private void pack() {
+		IntArray packedNeighbors = neighbors.storage().allocateInts(neighbors.length());
+		IntArray packedLengths = lengths.storage().allocateInts(lengths.length());
+		int next = 0;
+		for (int v = 0; v < size; v++) {
+			neighbors.copyTo(starts.get(v), packedNeighbors, next, degrees.get(v));
+			lengths.copyTo(starts.get(v), packedLengths, next, degrees.get(v));
+			starts.set(v, next);
+			capacities.set(v, degrees.get(v));
+			next += degrees.get(v);
+		}
+		neighbors.free();
+		lengths.free();
+		neighbors = packedNeighbors;
+		lengths = packedLengths;
+		edgeLimit = next;
+		abandoned = 0;
+	}
+
+	/**
+	 * Grows the edge arrays to hold at least the specified number of edges.
+	 *
+	 * @param required number of edges the arrays must hold
+	 */
+	private void ensureEdgeCapacity(int required) {
+		if (required > neighbors.length()) {
+			int capacity = Math.max(required, neighbors.length() + (neighbors.length() >> 1));
+			neighbors = neighbors.resize(capacity);
+			lengths = lengths.resize(capacity);
+		}
+	}
+
+	/**
+	 * Checks that the specified index holds a landmark.
+	 *
+	 * @param index landmark index
+	 * @throws IllegalArgumentException if the index holds no landmark
+	 */
+	private void checkLandmark(int index) {
+		if (!contains(index)) {
+			throw new IllegalArgumentException("No landmark has index " + index + ".");
+		}
+	}
+}
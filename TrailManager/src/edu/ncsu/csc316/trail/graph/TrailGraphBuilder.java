@@ -0,0 +1,191 @@
+package edu.ncsu.csc316.trail.graph;
+
+import java.util.Arrays;
+
+import edu.ncsu.csc316.trail.data.Landmark;
+
+/**
+ * Collects landmarks and trails and builds an immutable TrailGraph from them.
+ * Landmarks must be added before any trail that references them. Trails are
+ * buffered as parallel primitive arrays and laid out into CSR form by a single
+ * counting pass in build(). A builder is meant to build a single graph.
+ *
+ * @author Thommasaht Nhouyvanisvong (tcnhouyv)
+ */
+public class TrailGraphBuilder {
+
+	/** Initial capacity of the landmark and trail buffers */
+	private static final int INITIAL_CAPACITY = 64;
+
+	/** Storage of the graph built */
+	private final GraphStorage storage;
+	/** Landmarks added so far, in index order */
+	private final LandmarkTable landmarks;
+	/** First landmark index of each trail */
+	private int[] trailFrom;
+	/** Second landmark index of each trail */
+	private int[] trailTo;
+	/** Length of each trail */
+	private int[] trailLength;
+	/** Number of trails added */
+	private int trailCount;
+
+	/**
+	 * Creates an empty builder.
+	 */
+	public TrailGraphBuilder() {
+		this(INITIAL_CAPACITY, INITIAL_CAPACITY);
+	}
+
+	/**
+	 * Creates an empty builder of a graph on the heap, presized for the expected
+	 * number of landmarks and trails.
+	 *
+	 * @param expectedLandmarks expected number of landmarks
+	 * @param expectedTrails    expected number of trails
+	 */
+	public TrailGraphBuilder(int expectedLandmarks, int expectedTrails) {
+		this(GraphStorage.HEAP, expectedLandmarks, expectedTrails);
+	}
+
+	/**
+	 * Creates an empty builder of a graph in the specified storage, presized for
+	 * the expected number of landmarks and trails. Landmarks are stored there as
+	 * they are added; trails are buffered on the heap until build lays them out.
+	 *
+	 * @param storage           storage of the graph built
+	 * @param expectedLandmarks expected number of landmarks
+	 * @param expectedTrails    expected number of trails
+	 */
+	public TrailGraphBuilder(GraphStorage storage, int expectedLandmarks, int expectedTrails) {
+		this.storage = storage;
+		landmarks = new LandmarkTable(storage, expectedLandmarks);
+		trailFrom = new int[Math.max(expectedTrails, 1)];
+		trailTo = new int[trailFrom.length];
+		trailLength = new int[trailFrom.length];
+	}
+
+	/**
+	 * Adds a landmark to the graph. If a landmark with the same ID was already
+	 * added, it is replaced and keeps its index.
+	 *
+	 * @param landmark landmark to add
+	 * @return index of the landmark
+	 */
+	public int addLandmark(Landmark landmark) {
+		return addLandmark(landmark.getId(), landmark.getDescription(), landmark.getType());
+	}
+
+	/**
+	 * Adds a landmark to the graph from its fields, without creating a Landmark.
+	 * If a landmark with the same ID was already added, it is replaced and keeps
+	 * its index.
+	 *
+	 * @param id          landmark ID
+	 * @param description landmark description
+	 * @param type        landmark type
+	 * @return index of the landmark
+	 */
+	public int addLandmark(String id, String description, String type) {
+		int index = landmarks.indexOf(id);
+		if (index == LandmarkTable.NOT_FOUND) {
+			index = landmarks.size();
+		}
+		landmarks.put(index, id, description, type);
+		return index;
+	}
+
+	/**
+	 * Adds a trail between two previously added landmarks.
+	 *
+	 * @param landmarkOne ID of the first landmark on the trail
+	 * @param landmarkTwo ID of the second landmark on the trail
+	 * @param length      length of the trail in feet
+	 * @throws IllegalArgumentException if either landmark has not been added
+	 */
+	public void addTrail(String landmarkOne, String landmarkTwo, int length) {
+		addTrail(resolve(landmarkOne), resolve(landmarkTwo), length);
+	}
+
+	/**
+	 * Adds a trail between two landmark indexes.
+	 *
+	 * @param from   index of the first landmark on the trail
+	 * @param to     index of the second landmark on the trail
+	 * @param length length of the trail in feet
+	 */
+	public void addTrail(int from, int to, int length) {
+		if (trailCount == trailFrom.length) {
+			int capacity = trailCount * 2;
+			trailFrom = Arrays.copyOf(trailFrom, capacity);
+			trailTo = Arrays.copyOf(trailTo, capacity);
+			trailLength = Arrays.copyOf(trailLength, capacity);
+		}
+		trailFrom[trailCount] = from;
+		trailTo[trailCount] = to;
+		trailLength[trailCount] = length;
+		trailCount++;
+	}
+
+	/**
+	 * Returns the index of the previously added landmark whose ID is spelled by a
+	 * range of UTF-8 bytes, or -1 if it has not been added.
+	 *
+	 * @param bytes  buffer holding the ID
+	 * @param offset start of the ID in bytes
+	 * @param length number of bytes in the ID
+	 * @return index of the landmark, or -1
+	 */
+	public int indexOf(byte[] bytes, int offset, int length) {
+		return landmarks.indexOf(bytes, offset, length);
+	}
+
+	/**
+	 * Builds an immutable graph from the landmarks and trails added so far.
+	 *
+	 * @return graph containing every added landmark and trail
+	 */
+	public TrailGraph build() {
+		int landmarkCount = landmarks.size();
+		int[] offsets = new int[landmarkCount + 1];
+		// Count the edges of each landmark, shifted by one so the prefix sum below
+		// leaves offsets[v] at the start of v's range.
+		for (int t = 0; t < trailCount; t++) {
+			offsets[trailFrom[t] + 1]++;
+			offsets[trailTo[t] + 1]++;
+		}
+		for (int v = 0; v < landmarkCount; v++) {
+			offsets[v + 1] += offsets[v];
+		}
+		IntArray neighbors = storage.allocateInts(trailCount * 2);
+		IntArray lengths = storage.allocateInts(trailCount * 2);
+		int[] next = Arrays.copyOf(offsets, landmarkCount);
+		// Place trails in insertion order so each range keeps the order trails were
+		// read from the file.
+		for (int t = 0; t < trailCount; t++) {
+			int from = trailFrom[t];
+			int to = trailTo[t];
+			neighbors.set(next[from], to);
+			lengths.set(next[from]++, trailLength[t]);
+			neighbors.set(next[to], from);
+			lengths.set(next[to]++, trailLength[t]);
+		}
+		// The offsets are only read while the graph copies them into its storage
+		return new TrailGraph(landmarks, GraphStorage.HEAP.wrap(offsets), neighbors, lengths);
+	}
+
+	/**
+	 * Returns the index of a previously added landmark.
+	 *
+	 * @param landmarkID landmark ID to resolve
+	 * @return index of the landmark
+	 * @throws IllegalArgumentException if the landmark has not been added
+	 */
+	private int resolve(String landmarkID) {
+		int index = landmarks.indexOf(landmarkID);
+		if (index == LandmarkTable.NOT_FOUND) {
+			throw new IllegalArgumentException("Trail references unknown landmark " + landmarkID + ".");
+		}
+		return index;
+	}
+}
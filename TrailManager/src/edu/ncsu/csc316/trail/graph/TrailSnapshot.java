@@ -0,0 +1,203 @@
+package edu.ncsu.csc316.trail.graph;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.IntBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.zip.CRC32C;
+
+/**
+ * Saves a TrailGraph to a compact binary snapshot and reopens it through a
+ * memory-mapped buffer. A snapshot starts with a fixed header holding a magic
+ * number, a format version, the sizes and modification times of the CSV files
+ * it was built from, the array sizes, and a CRC-32C checksum of the payload,
+ * followed by the canonical path of the landmark file it was built from. The
+ * payload holds the CSR arrays followed by the graph's LandmarkTable exactly
+ * as it is stored in memory: its character arena, its offset and type
+ * columns, and its open-addressing ID table. Reopening a snapshot is a
+ * handful of bulk copies out of the mapped buffer; no landmark ID or
+ * description is decoded and no ID is hashed again, and only the few
+ * distinct type names are turned back into Strings.
+ *
+ * @author Thommasaht Nhouyvanisvong (tcnhouyv)
+ */
+public class TrailSnapshot {
+
+	/** Magic number at the start of every snapshot ("TRLS") */
+	private static final int MAGIC = 0x54524C53;
+	/** Current snapshot format version */
+	private static final int VERSION = 3;
+	/** Size of the fixed header in bytes, before the landmark file path */
+	private static final int HEADER_BYTES = 64;
+
+	/**
+	 * Writes a snapshot of the graph to the specified file, replacing it
+	 * atomically if it already exists.
+	 *
+	 * @param graph    graph to save
+	 * @param snapshot file to write
+	 * @param source   CSV files the graph was built from, or SnapshotSource.NONE
+	 *                 if it no longer matches any
+	 * @throws IOException if the snapshot cannot be written
+	 */
+	public static void write(TrailGraph graph, Path snapshot, SnapshotSource source) throws IOException {
+		// Removed landmarks are left out, so live landmarks are renumbered densely
+		// in the same order the compacted landmark table stores them
+		int n = graph.getLandmarkCount();
+		int edges = graph.getTrailCount() * 2;
+		int[] live = new int[n];
+		int[] renumber = new int[graph.size()];
+		for (int v = 0, next = 0; v < graph.size(); v++) {
+			if (graph.contains(v)) {
+				live[next] = v;
+				renumber[v] = next++;
+			}
+		}
+		ByteBuffer table = graph.getLandmarkTable().compacted().toBuffer();
+
+		ByteBuffer payload = ByteBuffer.allocate(((n + 1) + edges + edges) * Integer.BYTES);
+		// Ranges are written packed, whatever spare room they have in memory
+		int offset = 0;
+		for (int v = 0; v < n; v++) {
+			payload.putInt(offset);
+			offset += graph.degree(live[v]);
+		}
+		payload.putInt(offset);
+		for (int v = 0; v < n; v++) {
+			for (int e = graph.firstEdge(live[v]); e < graph.endEdge(live[v]); e++) {
+				payload.putInt(renumber[graph.neighbor(e)]);
+			}
+		}
+		for (int v = 0; v < n; v++) {
+			for (int e = graph.firstEdge(live[v]); e < graph.endEdge(live[v]); e++) {
+				payload.putInt(graph.length(e));
+			}
+		}
+		payload.flip();
+
+		CRC32C checksum = new CRC32C();
+		checksum.update(payload.duplicate());
+		checksum.update(table.duplicate());
+		byte[] landmarkPath = source.getLandmarkPath().getBytes(StandardCharsets.UTF_8);
+		ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES + landmarkPath.length);
+		header.putInt(MAGIC).putInt(VERSION).putLong(source.getLandmarkModified()).putLong(source.getLandmarkSize())
+				.putLong(source.getTrailModified()).putLong(source.getTrailSize()).putInt(landmarkPath.length)
+				.putInt(n).putInt(edges).putInt(table.remaining()).putLong(checksum.getValue()).put(landmarkPath);
+		header.flip();
+
+		Path temp = snapshot.resolveSibling(snapshot.getFileName() + ".tmp");
+		try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+				StandardOpenOption.TRUNCATE_EXISTING)) {
+			ByteBuffer[] buffers = { header, payload, table };
+			while (header.hasRemaining() || payload.hasRemaining() || table.hasRemaining()) {
+				channel.write(buffers);
+			}
+		}
+		Files.move(temp, snapshot, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+	}
+
+	/**
+	 * Returns true if the snapshot exists, has the current format version, and
+	 * was built from the specified CSV files: the same landmark file, with both
+	 * files the same size and modified at the same times as when the snapshot
+	 * was written. Only the header is read.
+	 *
+	 * @param snapshot snapshot file
+	 * @param source   CSV files as they are now
+	 * @return true if the snapshot can be used in place of the CSV files
+	 * @throws IOException if the snapshot exists but cannot be read
+	 */
+	public static boolean isCurrent(Path snapshot, SnapshotSource source) throws IOException {
+		byte[] landmarkPath = source.getLandmarkPath().getBytes(StandardCharsets.UTF_8);
+		ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES + landmarkPath.length);
+		try (FileChannel channel = FileChannel.open(snapshot, StandardOpenOption.READ)) {
+			while (header.hasRemaining() && channel.read(header) >= 0) {
+				// Keep reading until the header is full
+			}
+		} catch (NoSuchFileException e) {
+			return false;
+		}
+		header.flip();
+		if (header.remaining() < HEADER_BYTES || header.getInt() != MAGIC || header.getInt() != VERSION) {
+			return false;
+		}
+		long landmarkModified = header.getLong();
+		long landmarkSize = header.getLong();
+		long trailModified = header.getLong();
+		long trailSize = header.getLong();
+		// A recorded path of another length cannot match, and may not fit
+		if (header.getInt() != landmarkPath.length || header.limit() != HEADER_BYTES + landmarkPath.length) {
+			return false;
+		}
+		header.position(HEADER_BYTES);
+		String recordedPath = StandardCharsets.UTF_8.decode(header).toString();
+		return source
+				.equals(new SnapshotSource(recordedPath, landmarkModified, landmarkSize, trailModified, trailSize));
+	}
+
+	/**
+	 * Opens a snapshot and returns the graph it holds. The CSR arrays and the
+	 * landmark table are bulk copied out of the mapped file.
+	 *
+	 * @param snapshot snapshot file
+	 * @return graph stored in the snapshot
+	 * @throws IOException if the snapshot cannot be read, has an unknown format,
+	 *                     or fails its checksum
+	 */
+	public static TrailGraph read(Path snapshot) throws IOException {
+		MappedByteBuffer buffer;
+		try (FileChannel channel = FileChannel.open(snapshot, StandardOpenOption.READ)) {
+			buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+		}
+		if (buffer.remaining() < HEADER_BYTES || buffer.getInt() != MAGIC) {
+			throw new IOException("Not a trail snapshot: " + snapshot);
+		}
+		if (buffer.getInt() != VERSION) {
+			throw new IOException("Unsupported trail snapshot version: " + snapshot);
+		}
+		buffer.position(buffer.position() + 4 * Long.BYTES);
+		int pathBytes = buffer.getInt();
+		int n = buffer.getInt();
+		int edges = buffer.getInt();
+		int tableBytes = buffer.getInt();
+		long expectedChecksum = buffer.getLong();
+		if (pathBytes < 0 || pathBytes > buffer.remaining()) {
+			throw new IOException("Truncated trail snapshot: " + snapshot);
+		}
+		buffer.position(buffer.position() + pathBytes);
+
+		long payloadBytes = ((long) (n + 1) + edges + edges) * Integer.BYTES + tableBytes;
+		if (n < 0 || edges < 0 || tableBytes < 0 || buffer.remaining() != payloadBytes) {
+			throw new IOException("Truncated trail snapshot: " + snapshot);
+		}
+		CRC32C checksum = new CRC32C();
+		checksum.update(buffer.duplicate());
+		if (checksum.getValue() != expectedChecksum) {
+			throw new IOException("Trail snapshot checksum mismatch: " + snapshot);
+		}
+
+		IntBuffer ints = buffer.asIntBuffer();
+		int[] offsets = new int[n + 1];
+		int[] neighbors = new int[edges];
+		int[] lengths = new int[edges];
+		ints.get(offsets).get(neighbors).get(lengths);
+		buffer.position(buffer.position() + ints.position() * Integer.BYTES);
+		LandmarkTable landmarks;
+		try {
+			landmarks = LandmarkTable.fromBuffer(buffer);
+		} catch (IllegalArgumentException e) {
+			throw new IOException("Malformed trail snapshot: " + snapshot, e);
+		}
+		if (landmarks.size() != n) {
+			throw new IOException("Malformed trail snapshot: " + snapshot);
+		}
+		return new TrailGraph(landmarks, offsets, neighbors, lengths);
+	}
+}
@@ -0,0 +1,62 @@
+package edu.ncsu.csc316.trail.manager;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.function.IntConsumer;
+
+/**
+ * A fork-join task that runs one independent query for each position in a
+ * range. The range is split in half until each task holds a single query, so
+ * idle workers steal the remaining queries and uneven query costs balance out
+ * across the pool.
+ * 
+ * @author Thommasaht Nhouyvanisvong (tcnhouyv)
+ */
+class BatchTask extends RecursiveAction {
+
+	/** Serial version UID, as RecursiveAction is Serializable */
+	private static final long serialVersionUID = 1L;
+
+	/** Query to run for each position */
+	private final transient IntConsumer query;
+	/** First position of the range */
+	private final int start;
+	/** End of the range (exclusive) */
+	private final int end;
+
+	/**
+	 * Creates a task that runs query for every position in [start, end).
+	 * 
+	 * @param query query to run for each position
+	 * @param start first position
+	 * @param end   end of the range (exclusive)
+	 */
+	BatchTask(IntConsumer query, int start, int end) {
+		this.query = query;
+		this.start = start;
+		this.end = end;
+	}
+
+	/**
+	 * Runs query for every position in [0, count) on the common fork-join pool
+	 * and waits for all of them to finish.
+	 * 
+	 * @param count number of queries
+	 * @param query query to run for each position
+	 */
+	static void run(int count, IntConsumer query) {
+		if (count > 0) {
+			ForkJoinPool.commonPool().invoke(new BatchTask(query, 0, count));
+		}
+	}
+
+	@Override
+	protected void compute() {
+		if (end - start == 1) {
+			query.accept(start);
+		} else {
+			int middle = (start + end) >>> 1;
+			invokeAll(new BatchTask(query, start, middle), new BatchTask(query, middle, end));
+		}
+	}
+}
@@ -0,0 +1,58 @@
+package edu.ncsu.csc316.trail.manager;
+
+import edu.ncsu.csc316.dsa.map.Map.Entry;
+import edu.ncsu.csc316.trail.data.Landmark;
+
+/**
+ * An immutable pairing of a landmark with a count read under the same lock as
+ * the landmark itself, such as its number of intersecting trails or the size
+ * of the trail system it represents. Entries compare by count from highest to
+ * lowest, then by landmark description, then by landmark ID.
+ *
+ * @author Thommasaht Nhouyvanisvong (tcnhouyv)
+ */
+final class CountEntry implements Entry<Landmark, Integer> {
+
+	/** Landmark counted */
+	private final Landmark landmark;
+	/** Count of the landmark */
+	private final Integer count;
+
+	/**
+	 * Creates an entry.
+	 *
+	 * @param landmark landmark counted
+	 * @param count    count of the landmark
+	 */
+	CountEntry(Landmark landmark, int count) {
+		this.landmark = landmark;
+		this.count = count;
+	}
+
+	@Override
+	public Landmark getKey() {
+		return landmark;
+	}
+
+	@Override
+	public Integer getValue() {
+		return count;
+	}
+
+	@Override
+	public int compareTo(Entry<Landmark, Integer> other) {
+		int comparison = Integer.compare(other.getValue(), count);
+		if (comparison == 0) {
+			comparison = landmark.getDescription().compareTo(other.getKey().getDescription());
+		}
+		if (comparison == 0) {
+			comparison = landmark.getId().compareTo(other.getKey().getId());
+		}
+		return comparison;
+	}
+
+	@Override
+	public String toString() {
+		return landmark.getId() + "=" + count;
+	}
+}
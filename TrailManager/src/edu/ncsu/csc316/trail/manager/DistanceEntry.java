@@ -0,0 +1,57 @@
+package edu.ncsu.csc316.trail.manager;
+
+import edu.ncsu.csc316.dsa.map.Map.Entry;
+import edu.ncsu.csc316.trail.data.Landmark;
+
+/**
+ * An immutable pairing of a landmark with its distance from an origin, used
+ * for query results that are lists in distance order rather than maps. Entries
+ * compare by distance, then by landmark description, then by landmark ID.
+ * 
+ * @author Thommasaht Nhouyvanisvong (tcnhouyv)
+ */
+final class DistanceEntry implements Entry<Landmark, Integer> {
+
+	/** Landmark reached */
+	private final Landmark landmark;
+	/** Distance of the landmark from the origin in feet */
+	private final Integer distance;
+
+	/**
+	 * Creates an entry.
+	 * 
+	 * @param landmark landmark reached
+	 * @param distance distance of the landmark from the origin in feet
+	 */
+	DistanceEntry(Landmark landmark, int distance) {
+		this.landmark = landmark;
+		this.distance = distance;
+	}
+
+	@Override
+	public Landmark getKey() {
+		return landmark;
+	}
+
+	@Override
+	public Integer getValue() {
+		return distance;
+	}
+
+	@Override
+	public int compareTo(Entry<Landmark, Integer> other) {
+		int comparison = Integer.compare(distance, other.getValue());
+		if (comparison == 0) {
+			comparison = landmark.getDescription().compareTo(other.getKey().getDescription());
+		}
+		if (comparison == 0) {
+			comparison = landmark.getId().compareTo(other.getKey().getId());
+		}
+		return comparison;
+	}
+
+	@Override
+	public String toString() {
+		return landmark.getId() + "=" + distance;
+	}
+}
@@ -0,0 +1,66 @@
+package edu.ncsu.csc316.trail.manager;
+
+/**
+ * The landmarks reachable from one origin and their shortest distances, held
+ * as parallel primitive arrays in nondecreasing distance order with the origin
+ * first. Results are immutable so they can be cached and shared.
+ * 
+ * @author Thommasaht Nhouyvanisvong (tcnhouyv)
+ */
+final class DistanceResult {
+
+	/** Landmark indexes in nondecreasing distance order */
+	private final int[] landmarks;
+	/** Distance of each landmark in feet */
+	private final int[] distances;
+
+	/**
+	 * Creates a result from parallel arrays of landmark indexes and distances.
+	 * 
+	 * @param landmarks landmark indexes in nondecreasing distance order
+	 * @param distances distance of each landmark in feet
+	 */
+	DistanceResult(int[] landmarks, int[] distances) {
+		this.landmarks = landmarks;
+		this.distances = distances;
+	}
+
+	/**
+	 * Returns the number of reachable landmarks, including the origin.
+	 * 
+	 * @return number of landmarks in the result
+	 */
+	int size() {
+		return landmarks.length;
+	}
+
+	/**
+	 * Returns the index of the i-th closest landmark.
+	 * 
+	 * @param i position in distance order
+	 * @return landmark index
+	 */
+	int getLandmark(int i) {
+		return landmarks[i];
+	}
+
+	/**
+	 * Returns the distance of the i-th closest landmark.
+	 * 
+	 * @param i position in distance order
+	 * @return distance in feet
+	 */
+	int getDistance(int i) {
+		return distances[i];
+	}
+
+	/**
+	 * Returns the estimated heap footprint of the result in bytes.
+	 * 
+	 * @return estimated size in bytes
+	 */
+	long estimateBytes() {
+		// Object header and two array headers, plus eight bytes per landmark
+		return 48L + 8L * landmarks.length;
+	}
+}
@@ -0,0 +1,23 @@
+package edu.ncsu.csc316.trail.manager;
+
+/**
+ * The ways TrailManager can rank landmarks as locations for first aid
+ * stations.
+ * 
+ * @author Thommasaht Nhouyvanisvong (tcnhouyv)
+ */
+public enum FirstAidRanking {
+
+	/** Rank landmarks by their number of intersecting trails */
+	DEGREE,
+	/**
+	 * Rank landmarks by closeness centrality, favoring landmarks a short walk
+	 * from most of the park
+	 */
+	CLOSENESS,
+	/**
+	 * Rank landmarks by betweenness centrality, favoring landmarks that the most
+	 * shortest routes between other landmarks pass through
+	 */
+	BETWEENNESS
+}
@@ -0,0 +1,31 @@
+package edu.ncsu.csc316.trail.manager;
+
+/**
+ * The ways TrailManager can read its landmark and trail files.
+ * 
+ * @author Thommasaht Nhouyvanisvong (tcnhouyv)
+ */
+public enum LoadMode {
+
+	/** Read the landmark file and then the trail file on the calling thread */
+	SEQUENTIAL,
+	/**
+	 * Read both files concurrently, splitting large trail files into chunks that
+	 * are parsed on separate workers
+	 */
+	PARALLEL,
+	/**
+	 * Reopen the binary snapshot saved next to the trail file if it was built
+	 * from the same landmark file and both CSV files still have the sizes and
+	 * modification times recorded in it, otherwise read the files sequentially
+	 * and save a new snapshot for the next run
+	 */
+	SNAPSHOT,
+	/**
+	 * Read the files sequentially into a graph whose edge arrays and landmark
+	 * data are kept in direct buffers outside the Java heap, so a large park adds
+	 * nothing to the heap the garbage collector scans; the memory is released
+	 * when the manager is closed
+	 */
+	OFF_HEAP
+}
@@ -0,0 +1,192 @@
+package edu.ncsu.csc316.trail.manager;
+
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A histogram of non-negative values, such as latencies in nanoseconds, with
+ * one bucket per power of two. Bucket 0 counts zeros and bucket b counts the
+ * values in [2^(b-1), 2^b), so a value is filed with one leading-zero count and
+ * percentiles are accurate to within a factor of two. Every bucket is a
+ * LongAdder, so threads recording at once do not contend on a shared counter.
+ * A snapshot taken while values are being recorded may include only part of
+ * a recording, such as its count but not its total.
+ *
+ * @author Thommasaht Nhouyvanisvong (tcnhouyv)
+ */
+public class Log2Histogram {
+
+	/** Number of buckets, one for zero and one per bit length of a long */
+	public static final int BUCKETS = 64;
+
+	/** Number of values recorded in each bucket */
+	private final LongAdder[] counts = new LongAdder[BUCKETS];
+	/** Sum of every value recorded */
+	private final LongAdder total = new LongAdder();
+	/** Largest value recorded */
+	private final LongAccumulator max = new LongAccumulator(Math::max, 0);
+
+	/**
+	 * Creates an empty histogram.
+	 */
+	public Log2Histogram() {
+		for (int b = 0; b < BUCKETS; b++) {
+			counts[b] = new LongAdder();
+		}
+	}
+
+	/**
+	 * Records a value. Negative values are recorded as 0.
+	 *
+	 * @param value value to record
+	 */
+	public void record(long value) {
+		long recorded = Math.max(value, 0);
+		counts[bucketOf(recorded)].increment();
+		total.add(recorded);
+		max.accumulate(recorded);
+	}
+
+	/**
+	 * Returns the bucket a non-negative value is counted in.
+	 *
+	 * @param value value to file
+	 * @return bucket of the value
+	 */
+	public static int bucketOf(long value) {
+		return Long.SIZE - Long.numberOfLeadingZeros(value);
+	}
+
+	/**
+	 * Returns the largest value counted in a bucket.
+	 *
+	 * @param bucket bucket number
+	 * @return largest value of the bucket
+	 */
+	public static long upperBound(int bucket) {
+		return bucket >= BUCKETS - 1 ? Long.MAX_VALUE : (1L << bucket) - 1;
+	}
+
+	/**
+	 * Discards every recorded value.
+	 */
+	public void reset() {
+		for (LongAdder count : counts) {
+			count.reset();
+		}
+		total.reset();
+		max.reset();
+	}
+
+	/**
+	 * Returns a copy of the histogram as it is now.
+	 *
+	 * @return snapshot of the histogram
+	 */
+	public Snapshot snapshot() {
+		long[] copy = new long[BUCKETS];
+		for (int b = 0; b < BUCKETS; b++) {
+			copy[b] = counts[b].sum();
+		}
+		return new Snapshot(copy, total.sum(), max.get());
+	}
+
+	/**
+	 * An unchanging copy of a histogram's buckets, total, and maximum.
+	 */
+	public static final class Snapshot {
+
+		/** Number of values in each bucket */
+		private final long[] counts;
+		/** Number of values */
+		private final long count;
+		/** Sum of the values */
+		private final long total;
+		/** Largest value */
+		private final long max;
+
+		/**
+		 * Creates a snapshot from copies of a histogram's fields.
+		 *
+		 * @param counts number of values in each bucket
+		 * @param total  sum of the values
+		 * @param max    largest value
+		 */
+		private Snapshot(long[] counts, long total, long max) {
+			this.counts = counts;
+			long sum = 0;
+			for (long c : counts) {
+				sum += c;
+			}
+			this.count = sum;
+			this.total = total;
+			this.max = max;
+		}
+
+		/**
+		 * Returns the number of values recorded.
+		 *
+		 * @return number of values
+		 */
+		public long getCount() {
+			return count;
+		}
+
+		/**
+		 * Returns the sum of the values recorded.
+		 *
+		 * @return sum of the values
+		 */
+		public long getTotal() {
+			return total;
+		}
+
+		/**
+		 * Returns the largest value recorded, or 0 if there are none.
+		 *
+		 * @return largest value
+		 */
+		public long getMax() {
+			return max;
+		}
+
+		/**
+		 * Returns the mean of the values recorded, or 0 if there are none.
+		 *
+		 * @return mean value
+		 */
+		public double getMean() {
+			return count == 0 ? 0 : (double) total / count;
+		}
+
+		/**
+		 * Returns the number of values recorded in a bucket.
+		 *
+		 * @param bucket bucket number
+		 * @return number of values in the bucket
+		 */
+		public long getBucketCount(int bucket) {
+			return counts[bucket];
+		}
+
+		/**
+		 * Returns an upper bound on the specified percentile of the values: the
+		 * largest value of the bucket holding it, or the largest value recorded if
+		 * that is smaller. Returns 0 if there are no values.
+		 *
+		 * @param percentile percentile from 0 to 100
+		 * @return upper bound on the percentile
+		 */
+		public long getPercentile(double percentile) {
+			long rank = (long) Math.ceil(count * Math.min(Math.max(percentile, 0), 100) / 100);
+			long seen = 0;
+			for (int b = 0; b < BUCKETS; b++) {
+				seen += counts[b];
+				if (seen >= Math.max(rank, 1) && counts[b] > 0) {
+					return Math.min(upperBound(b), max);
+				}
+			}
+			return 0;
+		}
+	}
+}
@@ -0,0 +1,168 @@
+package edu.ncsu.csc316.trail.manager;
+
+import java.util.EnumMap;
+
+import edu.ncsu.csc316.trail.dsa.DataStructure;
+
+/**
+ * Estimates what a result map of each type costs to fill and read, and picks
+ * the cheapest type for a number of entries and a workload. Estimates come
+ * from a calibration table of the nanoseconds per put and per get measured by
+ * MapCostBenchmark at a few map sizes; costs between those sizes are
+ * interpolated on a log-log scale, and costs beyond the largest size are
+ * extrapolated along the growth of the last two sizes, so a map whose
+ * operations take linear time keeps getting dearer per entry.
+ *
+ * @author Thommasaht Nhouyvanisvong (tcnhouyv)
+ */
+final class MapCostModel {
+
+	/** Number of entries of the maps each column of the table was measured at */
+	private static final int[] SIZES = { 64, 1024, 16384 };
+	/**
+	 * Output of MapCostBenchmark.main: each map type followed by nanoseconds per
+	 * put at each size, then nanoseconds per get at each size, each the median
+	 * of three forks
+	 */
+	private static final String CALIBRATION = """
+			AVLTREE 113.6 276.9 736.7 61.7 164.6 588.4
+			BINARYSEARCHTREE 97.2 195.9 652.7 71.7 149.0 556.2
+			LINEARPROBINGHASHMAP 115.1 117.9 169.0 14.6 25.8 58.3
+			REDBLACKTREE 109.8 291.1 693.5 52.3 170.6 659.5
+			SEARCHTABLE 131.2 675.4 6281.1 64.8 190.6 554.3
+			SEPARATECHAININGHASHMAP 235.9 329.4 761.5 31.6 41.9 114.4
+			SKIPLIST 293.8 561.1 1123.4 114.0 313.5 936.2
+			SPLAYTREE 113.6 585.9 1321.1 178.7 618.6 1497.3
+			UNORDEREDLINKEDMAP 418.4 8626.0 161898.8 477.0 11072.5 693202.0
+			""";
+
+	/** Nanoseconds per put of each map type at each size */
+	private static final EnumMap<DataStructure, double[]> PUT_COSTS = new EnumMap<>(DataStructure.class);
+	/** Nanoseconds per get of each map type at each size */
+	private static final EnumMap<DataStructure, double[]> GET_COSTS = new EnumMap<>(DataStructure.class);
+
+	static {
+		for (String row : CALIBRATION.split("\n")) {
+			String[] columns = row.trim().split("\\s+");
+			DataStructure type = DataStructure.valueOf(columns[0]);
+			double[] put = new double[SIZES.length];
+			double[] get = new double[SIZES.length];
+			for (int i = 0; i < SIZES.length; i++) {
+				put[i] = Double.parseDouble(columns[1 + i]);
+				get[i] = Double.parseDouble(columns[1 + SIZES.length + i]);
+			}
+			PUT_COSTS.put(type, put);
+			GET_COSTS.put(type, get);
+		}
+	}
+
+	/**
+	 * Prevents instantiation; the model is used through its static methods.
+	 */
+	private MapCostModel() {
+	}
+
+	/**
+	 * Returns the estimated nanoseconds per put into a map of the specified type
+	 * holding the specified number of entries.
+	 *
+	 * @param type    map type
+	 * @param entries number of entries in the map
+	 * @return estimated nanoseconds per put
+	 * @throws IllegalArgumentException if the type was not calibrated
+	 */
+	static double getPutCost(DataStructure type, int entries) {
+		return interpolate(costs(PUT_COSTS, type), entries);
+	}
+
+	/**
+	 * Returns the estimated nanoseconds per get from a map of the specified type
+	 * holding the specified number of entries.
+	 *
+	 * @param type    map type
+	 * @param entries number of entries in the map
+	 * @return estimated nanoseconds per get
+	 * @throws IllegalArgumentException if the type was not calibrated
+	 */
+	static double getGetCost(DataStructure type, int entries) {
+		return interpolate(costs(GET_COSTS, type), entries);
+	}
+
+	/**
+	 * Returns the estimated nanoseconds to fill a map of the specified type with
+	 * the specified number of entries and then look entries up as often as the
+	 * workload expects.
+	 *
+	 * @param type     map type
+	 * @param entries  number of entries in the map
+	 * @param workload expected lookups per entry
+	 * @return estimated nanoseconds per result map
+	 * @throws IllegalArgumentException if the type was not calibrated
+	 */
+	static double estimate(DataStructure type, int entries, Workload workload) {
+		return entries * (getPutCost(type, entries) + workload.getReadsPerWrite() * getGetCost(type, entries));
+	}
+
+	/**
+	 * Returns the calibrated map type with the lowest estimated cost for the
+	 * specified number of entries and workload.
+	 *
+	 * @param entries  number of entries in the map
+	 * @param workload expected lookups per entry
+	 * @return cheapest map type
+	 */
+	static DataStructure choose(int entries, Workload workload) {
+		DataStructure best = null;
+		double bestCost = Double.POSITIVE_INFINITY;
+		for (DataStructure type : PUT_COSTS.keySet()) {
+			double cost = estimate(type, entries, workload);
+			if (cost < bestCost) {
+				best = type;
+				bestCost = cost;
+			}
+		}
+		return best;
+	}
+
+	/**
+	 * Private helper method that returns the calibrated costs of a map type.
+	 *
+	 * @param table put or get costs
+	 * @param type  map type
+	 * @return costs of the type at each size
+	 * @throws IllegalArgumentException if the type was not calibrated
+	 */
+	private static double[] costs(EnumMap<DataStructure, double[]> table, DataStructure type) {
+		double[] costs = table.get(type);
+		if (costs == null) {
+			throw new IllegalArgumentException(type + " is not a map type.");
+		}
+		return costs;
+	}
+
+	/**
+	 * Private helper method that interpolates a cost between the calibrated
+	 * sizes on a log-log scale, holding it constant below the smallest size and
+	 * extrapolating it above the largest. Extrapolation never lets the cost
+	 * fall, so noise in the measurements cannot make a large map look free.
+	 *
+	 * @param costs   cost at each calibrated size
+	 * @param entries number of entries
+	 * @return estimated cost
+	 */
+	private static double interpolate(double[] costs, int entries) {
+		if (entries <= SIZES[0]) {
+			return costs[0];
+		}
+		int segment = 0;
+		while (segment < SIZES.length - 2 && entries > SIZES[segment + 1]) {
+			segment++;
+		}
+		double x = Math.log((double) entries / SIZES[segment]) / Math.log((double) SIZES[segment + 1] / SIZES[segment]);
+		double ratio = costs[segment + 1] / costs[segment];
+		if (entries > SIZES[segment + 1]) {
+			ratio = Math.max(ratio, 1);
+		}
+		return costs[segment] * Math.pow(ratio, x);
+	}
+}
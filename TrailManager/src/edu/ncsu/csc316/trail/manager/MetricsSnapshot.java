@@ -0,0 +1,191 @@
+package edu.ncsu.csc316.trail.manager;
+
+/**
+ * An unchanging copy of a TrailManager's metrics at one moment: load phase
+ * timings, histograms of query latency and traversal size, and the hit and
+ * miss counts of the distance and report caches.
+ *
+ * @author Thommasaht Nhouyvanisvong (tcnhouyv)
+ */
+public final class MetricsSnapshot {
+
+	/** Time spent reading the files into the graph, in nanoseconds */
+	private final long parseNanos;
+	/** Time spent building the component and degree indexes, in nanoseconds */
+	private final long indexNanos;
+	/** Time spent sorting landmarks by description, in nanoseconds */
+	private final long sortNanos;
+	/** Latencies of distance queries in nanoseconds */
+	private final Log2Histogram.Snapshot distanceQueries;
+	/** Latencies of first aid queries in nanoseconds */
+	private final Log2Histogram.Snapshot firstAidQueries;
+	/** Landmarks settled per traversal */
+	private final Log2Histogram.Snapshot landmarksSettled;
+	/** Edges scanned per traversal */
+	private final Log2Histogram.Snapshot edgesScanned;
+	/** Distance cache hits */
+	private final long distanceCacheHits;
+	/** Distance cache misses */
+	private final long distanceCacheMisses;
+	/** Report cache hits */
+	private final long reportCacheHits;
+	/** Report cache misses */
+	private final long reportCacheMisses;
+
+	/**
+	 * Creates a snapshot.
+	 *
+	 * @param loadNanos        parse, index, and sort times in nanoseconds
+	 * @param distanceQueries  latencies of distance queries
+	 * @param firstAidQueries  latencies of first aid queries
+	 * @param landmarksSettled landmarks settled per traversal
+	 * @param edgesScanned     edges scanned per traversal
+	 * @param cacheCounts      distance cache hits and misses, then report cache
+	 *                         hits and misses
+	 */
+	MetricsSnapshot(long[] loadNanos, Log2Histogram.Snapshot distanceQueries, Log2Histogram.Snapshot firstAidQueries,
+			Log2Histogram.Snapshot landmarksSettled, Log2Histogram.Snapshot edgesScanned, long[] cacheCounts) {
+		this.parseNanos = loadNanos[0];
+		this.indexNanos = loadNanos[1];
+		this.sortNanos = loadNanos[2];
+		this.distanceQueries = distanceQueries;
+		this.firstAidQueries = firstAidQueries;
+		this.landmarksSettled = landmarksSettled;
+		this.edgesScanned = edgesScanned;
+		this.distanceCacheHits = cacheCounts[0];
+		this.distanceCacheMisses = cacheCounts[1];
+		this.reportCacheHits = cacheCounts[2];
+		this.reportCacheMisses = cacheCounts[3];
+	}
+
+	/**
+	 * Returns the time spent reading the landmark and trail files, or the
+	 * snapshot, into the graph.
+	 *
+	 * @return parse time in nanoseconds
+	 */
+	public long getParseNanos() {
+		return parseNanos;
+	}
+
+	/**
+	 * Returns the time spent building the component and degree indexes.
+	 *
+	 * @return index time in nanoseconds
+	 */
+	public long getIndexNanos() {
+		return indexNanos;
+	}
+
+	/**
+	 * Returns the time spent sorting landmarks by description for reports.
+	 *
+	 * @return sort time in nanoseconds
+	 */
+	public long getSortNanos() {
+		return sortNanos;
+	}
+
+	/**
+	 * Returns the latencies of the distance queries recorded, in nanoseconds.
+	 *
+	 * @return distance query latencies
+	 */
+	public Log2Histogram.Snapshot getDistanceQueries() {
+		return distanceQueries;
+	}
+
+	/**
+	 * Returns the latencies of the first aid queries recorded, in nanoseconds.
+	 *
+	 * @return first aid query latencies
+	 */
+	public Log2Histogram.Snapshot getFirstAidQueries() {
+		return firstAidQueries;
+	}
+
+	/**
+	 * Returns the number of landmarks settled by each traversal recorded.
+	 *
+	 * @return landmarks settled per traversal
+	 */
+	public Log2Histogram.Snapshot getLandmarksSettled() {
+		return landmarksSettled;
+	}
+
+	/**
+	 * Returns the number of edges scanned by each traversal recorded.
+	 *
+	 * @return edges scanned per traversal
+	 */
+	public Log2Histogram.Snapshot getEdgesScanned() {
+		return edgesScanned;
+	}
+
+	/**
+	 * Returns the number of distance cache lookups that were hits.
+	 *
+	 * @return distance cache hits
+	 */
+	public long getDistanceCacheHits() {
+		return distanceCacheHits;
+	}
+
+	/**
+	 * Returns the number of distance cache lookups that were misses.
+	 *
+	 * @return distance cache misses
+	 */
+	public long getDistanceCacheMisses() {
+		return distanceCacheMisses;
+	}
+
+	/**
+	 * Returns the number of report cache lookups that were hits.
+	 *
+	 * @return report cache hits
+	 */
+	public long getReportCacheHits() {
+		return reportCacheHits;
+	}
+
+	/**
+	 * Returns the number of report cache lookups that were misses.
+	 *
+	 * @return report cache misses
+	 */
+	public long getReportCacheMisses() {
+		return reportCacheMisses;
+	}
+
+	/**
+	 * Returns the fraction of distance cache lookups that were hits, or 0 if
+	 * there were none.
+	 *
+	 * @return distance cache hit rate
+	 */
+	public double getDistanceCacheHitRate() {
+		return hitRate(distanceCacheHits, distanceCacheMisses);
+	}
+
+	/**
+	 * Returns the fraction of report cache lookups that were hits, or 0 if
+	 * there were none.
+	 *
+	 * @return report cache hit rate
+	 */
+	public double getReportCacheHitRate() {
+		return hitRate(reportCacheHits, reportCacheMisses);
+	}
+
+	/**
+	 * Private helper method that returns hits as a fraction of lookups.
+	 *
+	 * @param hits   number of hits
+	 * @param misses number of misses
+	 * @return hit rate, or 0 if there were no lookups
+	 */
+	private static double hitRate(long hits, long misses) {
+		return hits + misses == 0 ? 0 : (double) hits / (hits + misses);
+	}
+}
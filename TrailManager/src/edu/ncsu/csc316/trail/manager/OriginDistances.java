@@ -0,0 +1,134 @@
+package edu.ncsu.csc316.trail.manager;
+
+import java.io.IOException;
+
+import edu.ncsu.csc316.trail.graph.DescriptionRank;
+import edu.ncsu.csc316.trail.graph.TrailGraph;
+
+/**
+ * An origin landmark, the size of its connected trail system, and the
+ * landmarks reachable from it in report order, as indexes of the graph they
+ * were read from. The reachable landmarks are kept as the sorted keys that
+ * order them, each packing a distance with a description rank, so nothing is
+ * created per landmark. The indexes are only meaningful while the graph is
+ * locked for reading, so a result is only handed to a Reader inside the lock,
+ * and a report rendered from it describes a single version of the park.
+ *
+ * @author Thommasaht Nhouyvanisvong (tcnhouyv)
+ */
+final class OriginDistances {
+
+	/** Result for a landmark ID that is not in the park */
+	static final OriginDistances INVALID = new OriginDistances(null, -1, 0, null, new long[0]);
+
+	/** Graph the landmarks were read from, or null if the ID is invalid */
+	private final TrailGraph graph;
+	/** Index of the origin landmark, or -1 if the ID is invalid */
+	private final int origin;
+	/** Number of landmarks reachable from the origin, including itself */
+	private final int componentSize;
+	/** Description ranks the keys were built from */
+	private final DescriptionRank ranks;
+	/** Sorted keys of the reachable landmarks with the origin first */
+	private final long[] keys;
+
+	/**
+	 * Creates a result.
+	 *
+	 * @param graph         graph the landmarks were read from, or null if the
+	 *                      ID is invalid
+	 * @param origin        index of the origin landmark, or -1 if the ID is
+	 *                      invalid
+	 * @param componentSize number of landmarks reachable from the origin,
+	 *                      including itself
+	 * @param ranks         description ranks the keys were built from
+	 * @param keys          sorted keys of the reachable landmarks, each a
+	 *                      distance shifted above a description rank, with the
+	 *                      origin first
+	 */
+	OriginDistances(TrailGraph graph, int origin, int componentSize, DescriptionRank ranks, long[] keys) {
+		this.graph = graph;
+		this.origin = origin;
+		this.componentSize = componentSize;
+		this.ranks = ranks;
+		this.keys = keys;
+	}
+
+	/**
+	 * Returns the graph the landmarks were read from.
+	 *
+	 * @return graph holding the landmarks, or null if the ID is invalid
+	 */
+	TrailGraph getGraph() {
+		return graph;
+	}
+
+	/**
+	 * Returns the index of the origin landmark.
+	 *
+	 * @return index of the origin, or -1 if the ID is invalid
+	 */
+	int getOrigin() {
+		return origin;
+	}
+
+	/**
+	 * Returns the number of landmarks reachable from the origin, including
+	 * itself.
+	 *
+	 * @return size of the origin's trail system, or 0 if the ID is invalid
+	 */
+	int getComponentSize() {
+		return componentSize;
+	}
+
+	/**
+	 * Returns the number of landmarks reachable from the origin, not counting
+	 * the origin itself.
+	 *
+	 * @return number of destinations
+	 */
+	int getDestinationCount() {
+		return Math.max(keys.length - 1, 0);
+	}
+
+	/**
+	 * Returns the index of a landmark reachable from the origin, in report
+	 * order: by distance, then by description, then by ID.
+	 *
+	 * @param i position of the destination in report order
+	 * @return index of the destination in the graph
+	 */
+	int getDestination(int i) {
+		return ranks.getLandmark((int) keys[i + 1]);
+	}
+
+	/**
+	 * Returns the distance from the origin to a landmark reachable from it.
+	 *
+	 * @param i position of the destination in report order
+	 * @return distance to the destination in feet
+	 */
+	int getDistance(int i) {
+		return (int) (keys[i + 1] >>> 32);
+	}
+
+	/**
+	 * Reads an OriginDistances while the graph it describes is locked.
+	 *
+	 * @param <T> type of value read
+	 */
+	@FunctionalInterface
+	interface Reader<T> {
+
+		/**
+		 * Reads the distances.
+		 *
+		 * @param distances origin and reachable landmarks read from the graph
+		 * @return value read
+		 * @throws IOException if a destination the distances are written to
+		 *                     cannot be written
+		 */
+		T read(OriginDistances distances) throws IOException;
+	}
+}
@@ -0,0 +1,266 @@
+package edu.ncsu.csc316.trail.manager;
+
+import java.io.FileInputStream;
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.Arrays;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+
+import edu.ncsu.csc316.trail.graph.TrailGraph;
+import edu.ncsu.csc316.trail.graph.TrailGraphBuilder;
+
+/**
+ * Loads landmark and trail CSV files on several threads. The landmark file is
+ * parsed on one worker while the trail file is split on line boundaries into
+ * chunks that are tokenized on their own workers at the same time. Once every
+ * landmark is indexed, each chunk resolves its endpoint IDs into a per-chunk
+ * edge buffer, and the buffers are merged into the graph builder in file
+ * order, so the resulting graph is identical to the one built by
+ * TrailDataLoader.
+ *
+ * @author Thommasaht Nhouyvanisvong (tcnhouyv)
+ */
+public class ParallelTrailDataLoader {
+
+	/** Smallest trail chunk worth handing to its own worker, in bytes */
+	private static final int MIN_CHUNK_BYTES = 1 << 18;
+	/** Size of the buffer used to find line boundaries */
+	private static final int SCAN_BUFFER_SIZE = 1 << 12;
+
+	/**
+	 * A line-aligned range of the trail file and the edges parsed from it.
+	 */
+	private static class TrailChunk {
+
+		/** File position of the first byte of the chunk */
+		private final long start;
+		/** File position one past the last byte of the chunk */
+		private final long end;
+		/** True if the chunk begins with the header row */
+		private final boolean hasHeader;
+		/** Bytes of the chunk */
+		private byte[] bytes;
+		/** Start and end of both landmark IDs of each row, four entries per row */
+		private int[] idBounds;
+		/** Endpoint landmark indexes, two entries per row */
+		private int[] endpoints;
+		/** Trail length of each row */
+		private int[] lengths;
+		/** Number of rows in the chunk */
+		private int rows;
+
+		/**
+		 * Creates a chunk covering [start, end) of the trail file.
+		 *
+		 * @param start     first byte of the chunk
+		 * @param end       end of the chunk (exclusive)
+		 * @param hasHeader true if the chunk begins with the header row
+		 */
+		TrailChunk(long start, long end, boolean hasHeader) {
+			this.start = start;
+			this.end = end;
+			this.hasHeader = hasHeader;
+		}
+
+		/**
+		 * Reads the chunk and records the column bounds and length of every row.
+		 *
+		 * @param channel channel of the trail file
+		 */
+		void tokenize(FileChannel channel) {
+			bytes = new byte[(int) (end - start)];
+			try {
+				ByteBuffer buffer = ByteBuffer.wrap(bytes);
+				while (buffer.hasRemaining() && channel.read(buffer, start + buffer.position()) >= 0) {
+					// Keep reading until the chunk is full
+				}
+			} catch (IOException e) {
+				throw new UncheckedIOException(e);
+			}
+			int capacity = Math.max(16, bytes.length / 16);
+			idBounds = new int[capacity * 4];
+			lengths = new int[capacity];
+			// Chunks after the first never see the header, so their line numbers
+			// start past it.
+			int lineNumber = hasHeader ? 0 : 1;
+			int rowStart = 0;
+			for (int i = 0; i <= bytes.length; i++) {
+				if (i == bytes.length || bytes[i] == '\n') {
+					if (i > rowStart || i < bytes.length) {
+						lineNumber++;
+						TrailDataLoader.handleRow(this::addRow, bytes, rowStart, i, lineNumber);
+					}
+					rowStart = i + 1;
+				}
+			}
+		}
+
+		/**
+		 * Records the column bounds and length of the row spanning [rowStart,
+		 * rowEnd).
+		 *
+		 * @param rowBytes   bytes of the chunk
+		 * @param rowStart   first byte of the row
+		 * @param rowEnd     end of the row (exclusive)
+		 * @param lineNumber line number of the row within the chunk
+		 */
+		private void addRow(byte[] rowBytes, int rowStart, int rowEnd, int lineNumber) {
+			int firstComma = TrailDataLoader.indexOf(rowBytes, rowStart, rowEnd, lineNumber);
+			int secondComma = TrailDataLoader.indexOf(rowBytes, firstComma + 1, rowEnd, lineNumber);
+			if (rows == lengths.length) {
+				lengths = Arrays.copyOf(lengths, rows * 2);
+				idBounds = Arrays.copyOf(idBounds, rows * 8);
+			}
+			idBounds[rows * 4] = rowStart;
+			idBounds[rows * 4 + 1] = firstComma;
+			idBounds[rows * 4 + 2] = firstComma + 1;
+			idBounds[rows * 4 + 3] = secondComma;
+			lengths[rows] = TrailDataLoader.parseLength(rowBytes, secondComma + 1, rowEnd, lineNumber);
+			rows++;
+		}
+
+		/**
+		 * Resolves the endpoint IDs of every row to landmark indexes. The builder
+		 * must hold every landmark and is only read.
+		 *
+		 * @param builder builder holding the landmarks
+		 */
+		void resolve(TrailGraphBuilder builder) {
+			endpoints = new int[rows * 2];
+			for (int r = 0; r < rows; r++) {
+				int b = r * 4;
+				endpoints[r * 2] = TrailDataLoader.resolve(builder, bytes, idBounds[b], idBounds[b + 1]);
+				endpoints[r * 2 + 1] = TrailDataLoader.resolve(builder, bytes, idBounds[b + 2], idBounds[b + 3]);
+			}
+			// The raw bytes are no longer needed once the edges are resolved
+			bytes = null;
+			idBounds = null;
+		}
+
+		/**
+		 * Adds every edge of the chunk to the builder in file order.
+		 *
+		 * @param builder builder to add trails to
+		 */
+		void mergeInto(TrailGraphBuilder builder) {
+			for (int r = 0; r < rows; r++) {
+				builder.addTrail(endpoints[r * 2], endpoints[r * 2 + 1], lengths[r]);
+			}
+		}
+	}
+
+	/**
+	 * Reads a landmark file and a trail file into a new trail graph, parsing both
+	 * files concurrently and the trail file in chunks. If any row is malformed,
+	 * the files are reloaded sequentially so that the error reported is the same
+	 * one TrailDataLoader reports.
+	 *
+	 * @param pathToLandmarkFile file containing landmark information
+	 * @param pathToTrailFile    file containing trail information
+	 * @return graph of the landmarks and trails
+	 * @throws FileNotFoundException    if either file is invalid
+	 * @throws IllegalArgumentException if a row is malformed or a trail
+	 *                                  references an unknown landmark
+	 */
+	public static TrailGraph load(String pathToLandmarkFile, String pathToTrailFile) throws FileNotFoundException {
+		try (FileInputStream landmarkIn = new FileInputStream(pathToLandmarkFile);
+				FileInputStream trailIn = new FileInputStream(pathToTrailFile)) {
+			FileChannel landmarkChannel = landmarkIn.getChannel();
+			FileChannel trailChannel = trailIn.getChannel();
+			TrailGraphBuilder builder = new TrailGraphBuilder(TrailDataLoader.estimateRows(landmarkChannel),
+					TrailDataLoader.estimateRows(trailChannel));
+
+			CompletableFuture<Void> landmarks = CompletableFuture.runAsync(() -> {
+				try {
+					TrailDataLoader.readLandmarks(landmarkChannel, builder);
+				} catch (IOException e) {
+					throw new UncheckedIOException(e);
+				}
+			});
+			long[] bounds = chunkBounds(trailChannel);
+			TrailChunk[] chunks = new TrailChunk[bounds.length - 1];
+			CompletableFuture<?>[] tasks = new CompletableFuture<?>[chunks.length + 1];
+			for (int i = 0; i < chunks.length; i++) {
+				TrailChunk chunk = new TrailChunk(bounds[i], bounds[i + 1], i == 0);
+				chunks[i] = chunk;
+				// Tokenizing overlaps with the landmark parse; resolving IDs waits for it
+				tasks[i] = CompletableFuture.runAsync(() -> chunk.tokenize(trailChannel)).thenAcceptBothAsync(landmarks,
+						(tokenized, indexed) -> chunk.resolve(builder));
+			}
+			tasks[chunks.length] = landmarks;
+			CompletableFuture.allOf(tasks).join();
+
+			for (TrailChunk chunk : chunks) {
+				chunk.mergeInto(builder);
+			}
+			return builder.build();
+		} catch (CompletionException e) {
+			if (e.getCause() instanceof IllegalArgumentException) {
+				return TrailDataLoader.load(pathToLandmarkFile, pathToTrailFile);
+			}
+			if (e.getCause() instanceof RuntimeException) {
+				throw (RuntimeException) e.getCause();
+			}
+			throw e;
+		} catch (FileNotFoundException e) {
+			throw e;
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+	}
+
+	/**
+	 * Splits a file into line-aligned chunks of at least MIN_CHUNK_BYTES, with at
+	 * most four chunks per available processor.
+	 *
+	 * @param channel channel of the file to split
+	 * @return chunk boundaries, starting with 0 and ending with the file size
+	 * @throws IOException if the file cannot be read
+	 */
+	private static long[] chunkBounds(FileChannel channel) throws IOException {
+		long size = channel.size();
+		int maxChunks = 4 * Runtime.getRuntime().availableProcessors();
+		int chunkCount = (int) Math.max(1, Math.min(maxChunks, size / MIN_CHUNK_BYTES));
+		long[] bounds = new long[chunkCount + 1];
+		int count = 1;
+		ByteBuffer buffer = ByteBuffer.allocate(SCAN_BUFFER_SIZE);
+		for (int k = 1; k < chunkCount; k++) {
+			long boundary = nextLineStart(channel, Math.max(bounds[count - 1], size * k / chunkCount), buffer);
+			if (boundary > bounds[count - 1] && boundary < size) {
+				bounds[count++] = boundary;
+			}
+		}
+		bounds[count++] = size;
+		return Arrays.copyOf(bounds, count);
+	}
+
+	/**
+	 * Returns the position just after the first line terminator at or after
+	 * position, or the file size if there is none.
+	 *
+	 * @param channel  channel of the file
+	 * @param position position to search from
+	 * @param buffer   scratch buffer
+	 * @return start of the next line
+	 * @throws IOException if the file cannot be read
+	 */
+	private static long nextLineStart(FileChannel channel, long position, ByteBuffer buffer) throws IOException {
+		while (true) {
+			buffer.clear();
+			int read = channel.read(buffer, position);
+			if (read < 0) {
+				return channel.size();
+			}
+			for (int i = 0; i < read; i++) {
+				if (buffer.get(i) == '\n') {
+					return position + i + 1;
+				}
+			}
+			position += read;
+		}
+	}
+}
@@ -1,35 +1,83 @@
 package edu.ncsu.csc316.trail.manager;
 
 import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.Iterator;
 
 import edu.ncsu.csc316.dsa.list.List;
 import edu.ncsu.csc316.dsa.map.Map;
 import edu.ncsu.csc316.dsa.map.Map.Entry;
-import edu.ncsu.csc316.dsa.sorter.Sorter;
 import edu.ncsu.csc316.trail.data.Landmark;
 import edu.ncsu.csc316.trail.data.Trail;
-import edu.ncsu.csc316.trail.dsa.Algorithm;
-import edu.ncsu.csc316.trail.dsa.DSAFactory;
 import edu.ncsu.csc316.trail.dsa.DataStructure;
-import edu.ncsu.csc316.trail.comparator.LandmarkDistanceComparator;
-import edu.ncsu.csc316.trail.comparator.LandmarkNumTrailsComparator;
+import edu.ncsu.csc316.trail.graph.TrailGraph;
 
 /**
  * A class that sets the data structures and algorithms used for TrailManager
  * and accesses TrailManager functionality. Acts as an interface between
  * TrailManager and the UI by generating String representations of TrailManager
- * output.
+ * output. Closing a ReportManager closes its TrailManager, releasing the
+ * memory of an off-heap graph.
  * 
  * @author Thommasaht Nhouyvanisvong (tcnhouyv)
  */
-public class ReportManager {
+public class ReportManager implements AutoCloseable {
 
 	/** TrailManager used to handle algorithmic logic */
 	private TrailManager manager;
+	/** Cache of distance reports keyed by origin landmark ID */
+	private ResultCache<String> reportCache;
 	/** Indent used for report formatting (three spaces) */
 	private static final String INDENT = "   ";
-	/** Number of feet in mile used for unit conversion */
-	private static final int FEET_IN_A_MILE = 5280;
+	/** Default memory budget of the report cache in bytes (32 MB) */
+	public static final long DEFAULT_REPORT_CACHE_BYTES = 32L << 20;
+
+	/**
+	 * Creates a report manager from the specified files and sets data structures
+	 * used for TrailManager methods. Allows for a custom map type and load mode to
+	 * be specified as parameters. Throws FileNotFoundException if either file is
+	 * invalid.
+	 * 
+	 * @param pathToLandmarkFile file containing landmark information
+	 * @param pathToTrailFile    file containing trail information
+	 * @param mapType            custom map to be used
+	 * @param loadMode           whether to read the files sequentially or in
+	 *                           parallel
+	 * @throws FileNotFoundException if either parameter is invalid
+	 */
+	public ReportManager(String pathToLandmarkFile, String pathToTrailFile, DataStructure mapType, LoadMode loadMode)
+			throws FileNotFoundException {
+		this(new TrailManager(pathToLandmarkFile, pathToTrailFile, mapType, loadMode));
+	}
+
+	/**
+	 * Creates a report manager from the specified files, choosing the map type
+	 * used for TrailManager results for the specified workload. Throws
+	 * FileNotFoundException if either file is invalid.
+	 * 
+	 * @param pathToLandmarkFile file containing landmark information
+	 * @param pathToTrailFile    file containing trail information
+	 * @param workload           expected use of the maps returned by queries
+	 * @param loadMode           how to read the files
+	 * @throws FileNotFoundException if either parameter is invalid
+	 */
+	public ReportManager(String pathToLandmarkFile, String pathToTrailFile, Workload workload, LoadMode loadMode)
+			throws FileNotFoundException {
+		this(new TrailManager(pathToLandmarkFile, pathToTrailFile, workload, loadMode));
+	}
+
+	/**
+	 * Creates a report manager over a loaded TrailManager, which the caller may
+	 * go on changing.
+	 * 
+	 * @param manager trail manager to report on
+	 */
+	ReportManager(TrailManager manager) {
+		this.manager = manager;
+		reportCache = new ResultCache<>(DEFAULT_REPORT_CACHE_BYTES);
+		manager.getMetrics().setReportCache(reportCache);
+	}
 
 	/**
 	 * Creates a report manager from the specified files and sets data structures
@@ -43,25 +91,20 @@ public class ReportManager {
 	 */
 	public ReportManager(String pathToLandmarkFile, String pathToTrailFile, DataStructure mapType)
 			throws FileNotFoundException {
-		DSAFactory.setMapType(mapType);
-		DSAFactory.setListType(DataStructure.SINGLYLINKEDLIST);
-		DSAFactory.setComparisonSorterType(Algorithm.MERGESORT);
-		DSAFactory.setNonComparisonSorterType(Algorithm.RADIX_SORT);
-
-		manager = new TrailManager(pathToLandmarkFile, pathToTrailFile, mapType);
+		this(pathToLandmarkFile, pathToTrailFile, mapType, LoadMode.SEQUENTIAL);
 	}
 
 	/**
 	 * Creates a report manager from the specified files and sets data structures
-	 * used for TrailManager methods. Throws FileNotFoundException if either file is
-	 * invalid.
+	 * used for TrailManager methods, choosing the map type for a balanced
+	 * workload. Throws FileNotFoundException if either file is invalid.
 	 * 
 	 * @param pathToLandmarkFile file containing landmark information
 	 * @param pathToTrailFile    file containing trail information
 	 * @throws FileNotFoundException if either parameter is invalid
 	 */
 	public ReportManager(String pathToLandmarkFile, String pathToTrailFile) throws FileNotFoundException {
-		this(pathToLandmarkFile, pathToTrailFile, DataStructure.SKIPLIST);
+		this(pathToLandmarkFile, pathToTrailFile, Workload.BALANCED, LoadMode.SEQUENTIAL);
 	}
 
 	/**
@@ -73,48 +116,413 @@ public class ReportManager {
 	 *         reachable from originLandmark
 	 */
 	public String getDistancesReport(String originLandmark) {
-		Map<Landmark, Integer> distances = manager.getDistancesToDestinations(originLandmark);
+		// Read the generation once, so a report rendered across a change to the
+		// graph is never cached as current
+		long generation = manager.getGeneration();
+		String cached = getCachedReport(originLandmark, generation);
+		if (cached != null) {
+			return cached;
+		}
+		StringBuilder sb = new StringBuilder();
+		String message;
+		try {
+			message = writeDistances(originLandmark, sb);
+		} catch (IOException e) {
+			// Appending to a StringBuilder never throws
+			throw new UncheckedIOException(e);
+		}
+		if (message != null) {
+			return message;
+		}
+		String report = sb.toString();
+		if (manager.getGeneration() == generation) {
+			// Reports are mostly Latin-1, which Java stores at one byte per character
+			reportCache.put(originLandmark, report, report.length() + 40L, generation);
+		}
+		return report;
+	}
+
+	/**
+	 * Writes the same report as getDistancesReport to the specified destination,
+	 * a line at a time, without building the report as a string. A report
+	 * already in the report cache is written from the cache, but a report
+	 * written here is not added to it. The graph stays locked for reading while
+	 * the report is written, so changes to the graph wait for a slow destination.
+	 * 
+	 * @param originLandmark landmark to find reachable landmarks from
+	 * @param out            destination of the report, such as a Writer or a
+	 *                       StringBuilder
+	 * @throws IOException if the destination cannot be written
+	 */
+	public void writeDistancesReport(String originLandmark, Appendable out) throws IOException {
+		String cached = getCachedReport(originLandmark, manager.getGeneration());
+		if (cached != null) {
+			out.append(cached);
+			return;
+		}
+		String message = writeDistances(originLandmark, out);
+		if (message != null) {
+			out.append(message);
+		}
+	}
+
+	/**
+	 * Private helper method that returns the cached distance report of an origin
+	 * at the specified generation, or null if there is none. Only origins with
+	 * reachable landmarks have reports, so other IDs are not looked up.
+	 * 
+	 * @param originLandmark landmark to find reachable landmarks from
+	 * @param generation     graph generation the report must be current for
+	 * @return cached report, or null
+	 */
+	private String getCachedReport(String originLandmark, long generation) {
+		if (manager.getComponentSize(originLandmark) <= 1) {
+			return null;
+		}
+		return reportCache.get(originLandmark, generation);
+	}
+
+	/**
+	 * Private helper method that returns the message reported in place of a
+	 * distance report for an invalid or isolated landmark, or null if the
+	 * landmark has reachable landmarks to report.
+	 * 
+	 * @param originLandmark landmark to find reachable landmarks from
+	 * @param distances      origin and reachable landmarks read from the graph
+	 * @return message for the landmark, or null
+	 */
+	private static String getDistancesMessage(String originLandmark, OriginDistances distances) {
+		int reachable = distances.getComponentSize();
+		if (reachable == 0) {
+			return getInvalidLandmarkMessage(originLandmark);
+		}
+		if (reachable == 1) {
+			return "No landmarks are reachable from " + distances.getGraph().getDescription(distances.getOrigin())
+					+ " (" + originLandmark + ").";
+		}
+		return null;
+	}
+
+	/**
+	 * Private helper method that writes the distance report of a landmark with
+	 * reachable landmarks, or returns the message reported in its place for an
+	 * invalid or isolated landmark without writing anything. The report is
+	 * written while the graph is locked for reading, straight from the sorted
+	 * keys and graph indexes of the reachable landmarks, so no entry or Landmark
+	 * is created per line.
+	 * 
+	 * @param originLandmark landmark to find reachable landmarks from
+	 * @param out            destination of the report
+	 * @return message for the landmark, or null if the report was written
+	 * @throws IOException if the destination cannot be written
+	 */
+	private String writeDistances(String originLandmark, Appendable out) throws IOException {
+		return manager.readOriginDistances(originLandmark, distances -> {
+			String message = getDistancesMessage(originLandmark, distances);
+			if (message != null) {
+				return message;
+			}
+			// Destinations arrive ordered by distance, then description
+			TrailGraph graph = distances.getGraph();
+			ReportWriter writer = new ReportWriter(out);
+			writer.append("Landmarks Reachable from ").appendLandmark(graph, distances.getOrigin()).append(" {\n");
+			for (int i = 0; i < distances.getDestinationCount(); i++) {
+				writer.append(INDENT).appendFeet(distances.getDistance(i)).append(" to ")
+						.appendLandmark(graph, distances.getDestination(i)).append('\n');
+			}
+			writer.append('}');
+			return null;
+		});
+	}
+
+	/**
+	 * Returns a string report of the landmarks within maxFeet of originLandmark
+	 * by trail, nearest first, in the same format as getDistancesReport.
+	 * 
+	 * @param originLandmark landmark to measure from
+	 * @param maxFeet        longest distance to include, in feet
+	 * @return a string listing the landmarks within maxFeet
+	 */
+	public String getLandmarksWithinReport(String originLandmark, int maxFeet) {
 		Landmark origin = manager.getLandmarkByID(originLandmark);
-		if (distances.size() == 0) {
-			return "The provided landmark ID (" + originLandmark + ") is invalid for the park.";
+		if (origin == null) {
+			return getInvalidLandmarkMessage(originLandmark);
 		}
-		if (distances.size() == 1) {
-			return "No landmarks are reachable from " + origin.getDescription() + " (" + originLandmark + ").";
+		if (maxFeet < 0) {
+			return "Distance must not be negative.";
 		}
-		// Add distancesList entries to an array.
-		@SuppressWarnings("unchecked")
-		Entry<Landmark, Integer>[] entryArr = new Entry[distances.size()];
-		int i = 0;
-		for (Entry<Landmark, Integer> entry : distances.entrySet()) {
-			entryArr[i] = entry;
-			i++;
+		List<Entry<Landmark, Integer>> within = manager.getLandmarksWithin(originLandmark, maxFeet);
+		if (within.isEmpty()) {
+			return render(out -> out.append("No landmarks are within ").appendFeet(maxFeet).append(" of ")
+					.appendLandmark(origin).append('.'));
 		}
-		// Sort entryArr by ascending distance
-		Sorter<Entry<Landmark, Integer>> sorter = DSAFactory.getComparisonSorter(new LandmarkDistanceComparator());
-		sorter.sort(entryArr);
+		return render(out -> {
+			out.append("Landmarks Within ").appendFeet(maxFeet).append(" of ").appendLandmark(origin).append(" {\n");
+			for (Entry<Landmark, Integer> entry : within) {
+				appendDestination(out, entry);
+			}
+			out.append('}');
+		});
+	}
 
-		// Generate String containing landmark distances
-		StringBuilder sb = new StringBuilder();
-		String originDesc = origin.getDescription();
-		String originID = origin.getId();
-		sb.append("Landmarks Reachable from ").append(originDesc).append(" (").append(originID).append(") {\n");
-		for (int j = 1; j < entryArr.length; j++) {
-			int distanceInFeet = entryArr[j].getValue();
-			String landmarkDesc = entryArr[j].getKey().getDescription();
-			String landmarkID = entryArr[j].getKey().getId();
-
-			sb.append(INDENT).append(distanceInFeet).append(" feet ");
-			if (entryArr[j].getValue() > FEET_IN_A_MILE) {
-				double distanceInMiles = (double) distanceInFeet / FEET_IN_A_MILE;
-				sb.append("(").append(String.format("%.2f", distanceInMiles)).append(" miles) ");
+	/**
+	 * Returns a string report of the k landmarks of type typeFilter nearest to
+	 * originLandmark by trail, nearest first, in the same format as
+	 * getDistancesReport.
+	 * 
+	 * @param originLandmark landmark to measure from
+	 * @param k              number of landmarks to list
+	 * @param typeFilter     landmark type to list, or null for every type
+	 * @return a string listing the nearest landmarks of the type
+	 */
+	public String getNearestReport(String originLandmark, int k, String typeFilter) {
+		Landmark origin = manager.getLandmarkByID(originLandmark);
+		if (origin == null) {
+			return getInvalidLandmarkMessage(originLandmark);
+		}
+		if (k <= 0) {
+			return "Number of landmarks must be greater than 0.";
+		}
+		String kind = typeFilter == null ? "" : typeFilter + " ";
+		List<Entry<Landmark, Integer>> nearest = manager.getNearest(originLandmark, k, typeFilter);
+		if (nearest.isEmpty()) {
+			return "No " + kind + "landmarks are reachable from " + origin.getDescription() + " (" + originLandmark
+					+ ").";
+		}
+		return render(out -> {
+			out.append("Nearest ").append(k).append(' ').append(kind).append("Landmarks to ").appendLandmark(origin)
+					.append(" {\n");
+			for (Entry<Landmark, Integer> entry : nearest) {
+				appendDestination(out, entry);
 			}
-			sb.append("to ").append(landmarkDesc).append(" (").append(landmarkID).append(")\n");
+			out.append('}');
+		});
+	}
+
+	/**
+	 * Returns a string report of the landmarks farther than maxFeet by trail from
+	 * every landmark of type sourceType, with the distance to the nearest one.
+	 * Landmarks that cannot reach any landmark of the type are listed first, then
+	 * the rest from the farthest to the nearest.
+	 * 
+	 * @param sourceType landmark type to measure from, such as Restroom
+	 * @param maxFeet    longest distance counted as covered, in feet
+	 * @return a string listing the landmarks not covered by the type
+	 */
+	public String getCoverageReport(String sourceType, int maxFeet) {
+		if (sourceType == null) {
+			return "A landmark type must be provided.";
 		}
-		sb.append("}");
+		if (maxFeet < 0) {
+			return "Distance must not be negative.";
+		}
+		List<Entry<Landmark, Integer>> uncovered = manager.getUncoveredLandmarks(sourceType, maxFeet);
+		if (uncovered.isEmpty()) {
+			return render(out -> out.append("Every landmark is within ").appendFeet(maxFeet).append(" of a ")
+					.append(sourceType).append('.'));
+		}
+		return render(out -> {
+			out.append("Landmarks More Than ").appendFeet(maxFeet).append(" from Any ").append(sourceType)
+					.append(" {\n");
+			for (Entry<Landmark, Integer> entry : uncovered) {
+				out.append(INDENT).appendLandmark(entry.getKey()).append(": ");
+				if (entry.getValue() < 0) {
+					out.append("no ").append(sourceType).append(" reachable\n");
+				} else {
+					out.appendFeet(entry.getValue()).append(" to the nearest ").append(sourceType).append('\n');
+				}
+			}
+			out.append('}');
+		});
+	}
+
+	/**
+	 * Private helper method that writes an indented report line with the
+	 * distance to a landmark and its description and ID.
+	 * 
+	 * @param out   writer to write the line to
+	 * @param entry landmark and its distance in feet
+	 * @throws IOException if the destination cannot be written
+	 */
+	private static void appendDestination(ReportWriter out, Entry<Landmark, Integer> entry) throws IOException {
+		out.append(INDENT).appendFeet(entry.getValue()).append(" to ").appendLandmark(entry.getKey()).append('\n');
+	}
 
+	/**
+	 * Private helper method that renders a report into a string.
+	 * 
+	 * @param body writes the report
+	 * @return the report
+	 */
+	private static String render(ReportBody body) {
+		StringBuilder sb = new StringBuilder();
+		try {
+			body.write(new ReportWriter(sb));
+		} catch (IOException e) {
+			// Appending to a StringBuilder never throws
+			throw new UncheckedIOException(e);
+		}
 		return sb.toString();
 	}
 
+	/**
+	 * A report written to a ReportWriter, which render turns into a string.
+	 */
+	@FunctionalInterface
+	private interface ReportBody {
+
+		/**
+		 * Writes the report.
+		 * 
+		 * @param out writer to write the report to
+		 * @throws IOException if the destination cannot be written
+		 */
+		void write(ReportWriter out) throws IOException;
+	}
+
+	/**
+	 * Returns a turn-by-turn report of the shortest route from originLandmark to
+	 * destinationLandmark, listing each trail to walk in order with its length,
+	 * after a heading with the total length of the route.
+	 * 
+	 * @param originLandmark      ID of the landmark the route starts at
+	 * @param destinationLandmark ID of the landmark the route ends at
+	 * @return a string listing the trails of the shortest route
+	 */
+	public String getRouteReport(String originLandmark, String destinationLandmark) {
+		Landmark origin = manager.getLandmarkByID(originLandmark);
+		Landmark destination = manager.getLandmarkByID(destinationLandmark);
+		if (origin == null || destination == null) {
+			String invalid = origin == null ? originLandmark : destinationLandmark;
+			return getInvalidLandmarkMessage(invalid);
+		}
+		if (originLandmark.equals(destinationLandmark)) {
+			return origin.getDescription() + " (" + originLandmark + ") is both the origin and the destination.";
+		}
+		Route route = manager.getRoute(originLandmark, destinationLandmark);
+		if (route == null) {
+			return "No route connects " + origin.getDescription() + " (" + originLandmark + ") and "
+					+ destination.getDescription() + " (" + destinationLandmark + ").";
+		}
+		return render(out -> {
+			out.append("Route from ").appendLandmark(origin).append(" to ").appendLandmark(destination).append(" - ")
+					.appendFeet(route.getDistance()).append(" {\n");
+			// Walk the landmarks alongside the trails, since the lists may be linked
+			Iterator<Landmark> landmarks = route.getLandmarks().iterator();
+			Landmark from = landmarks.next();
+			int step = 1;
+			for (Trail trail : route.getTrails()) {
+				Landmark to = landmarks.next();
+				out.append(INDENT).append(step).append(". Walk ").appendFeet(trail.getLength()).append(" from ")
+						.appendLandmark(from).append(" to ").appendLandmark(to).append('\n');
+				from = to;
+				step++;
+			}
+			out.append('}');
+		});
+	}
+
+	/**
+	 * Returns the landmarks reachable from originLandmark as a JSON object with
+	 * the origin and an array of destinations in the same order as
+	 * getDistancesReport, each with its ID, description, and distance in feet.
+	 * An isolated landmark has an empty destination array, and an invalid
+	 * landmark ID gives an object with only an error message.
+	 * 
+	 * @param originLandmark landmark to find reachable landmarks from
+	 * @return JSON object of the landmarks reachable from originLandmark
+	 */
+	public String getDistancesJson(String originLandmark) {
+		try {
+			return manager.readOriginDistances(originLandmark, distances -> {
+				if (distances.getComponentSize() == 0) {
+					return getErrorJson(getDistancesMessage(originLandmark, distances));
+				}
+				TrailGraph graph = distances.getGraph();
+				StringBuilder sb = new StringBuilder();
+				sb.append("{\"origin\":");
+				appendLandmarkJson(sb, graph, distances.getOrigin());
+				sb.append("},\"destinations\":[");
+				for (int i = 0; i < distances.getDestinationCount(); i++) {
+					if (i > 0) {
+						sb.append(',');
+					}
+					appendLandmarkJson(sb, graph, distances.getDestination(i));
+					sb.append(",\"feet\":").append(distances.getDistance(i)).append('}');
+				}
+				sb.append("]}");
+				return sb.toString();
+			});
+		} catch (IOException e) {
+			// Building a string never throws
+			throw new UncheckedIOException(e);
+		}
+	}
+
+	/**
+	 * Returns the distance report of every origin landmark, generated in parallel
+	 * on the common fork-join pool. The report for each origin is the same one
+	 * getDistancesReport returns for it, so the reports can be printed in any
+	 * order by looking them up by origin ID.
+	 * 
+	 * @param originLandmarks IDs of the origin landmarks
+	 * @return map of each origin landmark ID to its distance report
+	 */
+	public Map<String, String> getDistancesReports(String[] originLandmarks) {
+		String[] reports = new String[originLandmarks.length];
+		BatchTask.run(originLandmarks.length, i -> reports[i] = getDistancesReport(originLandmarks[i]));
+		Map<String, String> batch = manager.getStructures().getMap();
+		for (int i = 0; i < originLandmarks.length; i++) {
+			batch.put(originLandmarks[i], reports[i]);
+		}
+		return batch;
+	}
+
+	/**
+	 * Returns the type of map used for query results.
+	 * 
+	 * @return map type
+	 */
+	public DataStructure getMapType() {
+		return manager.getMapType();
+	}
+
+	/**
+	 * Returns the cache of distance results used by the TrailManager behind
+	 * this report manager.
+	 * 
+	 * @return the distance result cache
+	 */
+	public ResultCache<?> getDistanceCache() {
+		return manager.getDistanceCache();
+	}
+
+	/**
+	 * Returns the metrics of the TrailManager behind this report manager, which
+	 * include the hit rate of the report cache.
+	 * 
+	 * @return metrics of the trail manager
+	 */
+	public TrailMetrics getMetrics() {
+		return manager.getMetrics();
+	}
+
+	/**
+	 * Returns the cache of distance reports used by getDistancesReport, which
+	 * reports hit and miss counts and allows its memory budget to be changed.
+	 * 
+	 * @return the distance report cache
+	 */
+	public ResultCache<?> getReportCache() {
+		return reportCache;
+	}
+
+	@Override
+	public void close() {
+		manager.close();
+		reportCache.clear();
+	}
+
 	/**
 	 * Returns a string report of landmarks containing >= numberOfIntersectingTrails
 	 * trails that intersecting with the landmarks, their ID, and number of
@@ -126,34 +534,265 @@ public class ReportManager {
 	 *         numberOfIntersectingTrails intersecting trails.
 	 */
 	public String getProposedFirstAidLocations(int numberOfIntersectingTrails) {
-		Map<Landmark, List<Trail>> firstAidLocations = manager.getProposedFirstAidLocations(numberOfIntersectingTrails);
+		return render(out -> writeFirstAid(numberOfIntersectingTrails, out));
+	}
+
+	/**
+	 * Returns a string report of the numberOfLocations landmarks ranked highest
+	 * as locations for first aid stations, in the same format as
+	 * getProposedFirstAidLocations, each followed by the score it was ranked by.
+	 * Centrality scores are shown to four decimal places: betweenness as the
+	 * share of shortest routes through the landmark, and closeness as the
+	 * reciprocal of its average distance in miles.
+	 * 
+	 * @param numberOfLocations number of landmarks to list
+	 * @param ranking           score to rank the landmarks by
+	 * @return a string listing the highest ranked landmarks and their scores
+	 */
+	public String getProposedFirstAidLocations(int numberOfLocations, FirstAidRanking ranking) {
+		if (numberOfLocations <= 0) {
+			return "Number of locations must be greater than 0.";
+		}
+		List<Entry<Landmark, Double>> firstAidLocations = manager.getProposedFirstAidLandmarks(numberOfLocations,
+				ranking);
+		if (firstAidLocations.isEmpty()) {
+			return "No landmarks are in the park.";
+		}
+		return render(out -> {
+			out.append("Proposed Locations for First Aid Stations {\n");
+			for (Entry<Landmark, Double> location : firstAidLocations) {
+				double score = location.getValue();
+				out.append(INDENT).appendLandmark(location.getKey()).append(" - ");
+				if (ranking == FirstAidRanking.DEGREE) {
+					out.append((long) score).append(" intersecting trails\n");
+				} else {
+					String label = ranking == FirstAidRanking.CLOSENESS ? " closeness\n" : " betweenness\n";
+					out.appendScore(score).append(label);
+				}
+			}
+			out.append('}');
+		});
+	}
+
+	/**
+	 * Writes the same report as getProposedFirstAidLocations to the specified
+	 * destination, a line at a time, without building the report as a string.
+	 * 
+	 * @param numberOfIntersectingTrails minimum number of trails to intersect with
+	 *                                   landmarks
+	 * @param out                        destination of the report, such as a
+	 *                                   Writer or a StringBuilder
+	 * @throws IOException if the destination cannot be written
+	 */
+	public void writeProposedFirstAidLocations(int numberOfIntersectingTrails, Appendable out) throws IOException {
+		writeFirstAid(numberOfIntersectingTrails, new ReportWriter(out));
+	}
+
+	/**
+	 * Private helper method that writes the proposed first aid locations report,
+	 * or the message reported in its place.
+	 * 
+	 * @param numberOfIntersectingTrails minimum number of trails to intersect with
+	 *                                   landmarks
+	 * @param out                        writer to write the report to
+	 * @throws IOException if the destination cannot be written
+	 */
+	private void writeFirstAid(int numberOfIntersectingTrails, ReportWriter out) throws IOException {
+		if (numberOfIntersectingTrails <= 0) {
+			out.append("Number of intersecting trails must be greater than 0.");
+			return;
+		}
+		// Landmarks arrive already ordered by number of intersecting trails and
+		// then alphabetically
+		List<Entry<Landmark, Integer>> firstAidLocations = manager
+				.getProposedFirstAidLandmarks(numberOfIntersectingTrails);
+		if (firstAidLocations.isEmpty()) {
+			out.append("No landmarks have at least ").append(numberOfIntersectingTrails)
+					.append(" intersecting trails.");
+			return;
+		}
+		out.append("Proposed Locations for First Aid Stations {\n");
+		for (Entry<Landmark, Integer> location : firstAidLocations) {
+			out.append(INDENT).appendLandmark(location.getKey()).append(" - ").append(location.getValue())
+					.append(" intersecting trails\n");
+		}
+		out.append('}');
+	}
+
+	/**
+	 * Returns the landmarks with at least numberOfIntersectingTrails intersecting
+	 * trails as a JSON object holding an array of locations in the same order as
+	 * getProposedFirstAidLocations, each with its ID, description, and number of
+	 * intersecting trails. A number of trails that is not positive gives an
+	 * object with only an error message.
+	 * 
+	 * @param numberOfIntersectingTrails minimum number of trails to intersect with
+	 *                                   landmarks
+	 * @return JSON object of the proposed first aid locations
+	 */
+	public String getProposedFirstAidLocationsJson(int numberOfIntersectingTrails) {
 		if (numberOfIntersectingTrails <= 0) {
-			return "Number of intersecting trails must be greater than 0.";
-		}
-		if (firstAidLocations.size() == 0) {
-			return "No landmarks have at least " + numberOfIntersectingTrails + " intersecting trails.";
-		}
-		// Add firstAidLocation entries to an array
-		@SuppressWarnings("unchecked")
-		Entry<Landmark, List<Trail>>[] entryArr = new Entry[firstAidLocations.size()];
-		int i = 0;
-		for (Entry<Landmark, List<Trail>> entry : firstAidLocations.entrySet()) {
-			entryArr[i] = entry;
-			i++;
-		}
-		// Sort firstAidLocation entries by num of intersecting trails/alphabetically
-		Sorter<Entry<Landmark, List<Trail>>> sorter = DSAFactory.getComparisonSorter(new LandmarkNumTrailsComparator());
-		sorter.sort(entryArr);
-		// Output formatted String
+			return getErrorJson(getProposedFirstAidLocations(numberOfIntersectingTrails));
+		}
+		StringBuilder sb = new StringBuilder();
+		sb.append("{\"min\":").append(numberOfIntersectingTrails).append(",\"locations\":[");
+		boolean first = true;
+		for (Entry<Landmark, Integer> location : manager.getProposedFirstAidLandmarks(numberOfIntersectingTrails)) {
+			if (!first) {
+				sb.append(',');
+			}
+			appendLandmarkJson(sb, location.getKey());
+			sb.append(",\"trails\":").append(location.getValue()).append('}');
+			first = false;
+		}
+		sb.append("]}");
+		return sb.toString();
+	}
+
+	/**
+	 * Returns the Landmark with the specified ID, or null if there is none.
+	 * 
+	 * @param landmarkID landmark ID to look up
+	 * @return landmark with that ID, or null
+	 */
+	public Landmark getLandmark(String landmarkID) {
+		return manager.getLandmarkByID(landmarkID);
+	}
+
+	/**
+	 * Returns a string report describing a single landmark: its description, ID,
+	 * type, and number of intersecting trails.
+	 * 
+	 * @param landmarkID landmark ID to look up
+	 * @return a string describing the landmark
+	 */
+	public String getLandmarkReport(String landmarkID) {
+		Entry<Landmark, Integer> entry = manager.getLandmarkWithTrailCount(landmarkID);
+		if (entry == null) {
+			return getInvalidLandmarkMessage(landmarkID);
+		}
+		Landmark landmark = entry.getKey();
+		return landmark.getDescription() + " (" + landmark.getId() + ") - " + landmark.getType() + ", "
+				+ entry.getValue() + " intersecting trails";
+	}
+
+	/**
+	 * Returns a single landmark as a JSON object with its ID, description, type,
+	 * and number of intersecting trails. An invalid landmark ID gives an object
+	 * with only an error message.
+	 * 
+	 * @param landmarkID landmark ID to look up
+	 * @return JSON object describing the landmark
+	 */
+	public String getLandmarkJson(String landmarkID) {
+		Entry<Landmark, Integer> entry = manager.getLandmarkWithTrailCount(landmarkID);
+		if (entry == null) {
+			return getErrorJson(getInvalidLandmarkMessage(landmarkID));
+		}
+		Landmark landmark = entry.getKey();
+		StringBuilder sb = new StringBuilder();
+		appendLandmarkJson(sb, landmark);
+		sb.append(",\"type\":");
+		appendJsonString(sb, landmark.getType());
+		sb.append(",\"trails\":").append(entry.getValue()).append('}');
+		return sb.toString();
+	}
+
+	/**
+	 * Returns the message reported in place of a report about a landmark ID that
+	 * is not in the park. Clients can compare a report with this message, or
+	 * with its JSON error object, to tell an invalid ID from a report.
+	 * 
+	 * @param landmarkID landmark ID that is not in the park
+	 * @return message for the invalid ID
+	 */
+	public static String getInvalidLandmarkMessage(String landmarkID) {
+		return "The provided landmark ID (" + landmarkID + ") is invalid for the park.";
+	}
+
+	/**
+	 * Returns a JSON object holding only the specified error message.
+	 * 
+	 * @param message error message
+	 * @return JSON error object
+	 */
+	public static String getErrorJson(String message) {
+		StringBuilder sb = new StringBuilder("{\"error\":");
+		appendJsonString(sb, message);
+		return sb.append('}').toString();
+	}
+
+	/**
+	 * Private helper method that appends the opening brace of a JSON object and
+	 * the ID and description of a landmark, leaving the object open for more
+	 * members.
+	 * 
+	 * @param sb       builder to append to
+	 * @param landmark landmark to describe
+	 */
+	private static void appendLandmarkJson(StringBuilder sb, Landmark landmark) {
+		sb.append("{\"id\":");
+		appendJsonString(sb, landmark.getId());
+		sb.append(",\"description\":");
+		appendJsonString(sb, landmark.getDescription());
+	}
+
+	/**
+	 * Private helper method that appends the opening brace of a JSON object and
+	 * the ID and description of the landmark at an index of a graph, leaving the
+	 * object open for more members.
+	 * 
+	 * @param sb    builder to append to
+	 * @param graph graph holding the landmark
+	 * @param index index of the landmark in the graph
+	 */
+	private static void appendLandmarkJson(StringBuilder sb, TrailGraph graph, int index) {
+		sb.append("{\"id\":");
+		appendJsonString(sb, graph.getId(index));
+		sb.append(",\"description\":");
+		appendJsonString(sb, graph.getDescription(index));
+	}
+
+	/**
+	 * Private helper method that appends a string as a quoted JSON string,
+	 * escaping quotes, backslashes, and control characters.
+	 * 
+	 * @param sb    builder to append to
+	 * @param value string to append
+	 */
+	private static void appendJsonString(StringBuilder sb, String value) {
+		sb.append('"');
+		for (int i = 0; i < value.length(); i++) {
+			char c = value.charAt(i);
+			if (c == '"' || c == '\\') {
+				sb.append('\\').append(c);
+			} else if (c < 0x20) {
+				sb.append(String.format("\\u%04x", (int) c));
+			} else {
+				sb.append(c);
+			}
+		}
+		sb.append('"');
+	}
+
+	/**
+	 * Returns a string report of every connected trail system in the park, in
+	 * order of decreasing size, with the number of landmarks in each system and
+	 * the system's first landmark.
+	 * 
+	 * @return a string listing trail systems by size
+	 */
+	public String getTrailSystemsReport() {
+		List<Entry<Landmark, Integer>> representatives = manager.getComponentsBySize();
+		if (representatives.isEmpty()) {
+			return "The park has no landmarks.";
+		}
 		StringBuilder sb = new StringBuilder();
-		sb.append("Proposed Locations for First Aid Stations {\n");
-		for (Entry<Landmark, List<Trail>> entry : entryArr) {
-			String landmarkDesc = entry.getKey().getDescription();
-			String landmarkID = entry.getKey().getId();
-			int currentIntersectingTrails = entry.getValue().size();
-
-			sb.append(INDENT).append(landmarkDesc).append(" (").append(landmarkID).append(") - ")
-					.append(currentIntersectingTrails).append(" intersecting trails\n");
+		sb.append("Connected Trail Systems {\n");
+		for (Entry<Landmark, Integer> system : representatives) {
+			Landmark landmark = system.getKey();
+			sb.append(INDENT).append(system.getValue()).append(" landmarks including ")
+					.append(landmark.getDescription()).append(" (").append(landmark.getId()).append(")\n");
 		}
 		sb.append("}");
 
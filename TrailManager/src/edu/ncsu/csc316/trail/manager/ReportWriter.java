@@ -0,0 +1,205 @@
+package edu.ncsu.csc316.trail.manager;
+
+import java.io.IOException;
+import java.io.Writer;
+
+import edu.ncsu.csc316.trail.data.Landmark;
+import edu.ncsu.csc316.trail.graph.TrailGraph;
+
+/**
+ * Writes the pieces of a report, such as numbers, landmarks, and distances, to
+ * an Appendable without building intermediate strings. Numbers are rendered
+ * into a reused character buffer, and distances in miles are rounded with
+ * integer arithmetic to the same two decimal places String.format("%.2f")
+ * gives, and landmarks can be copied straight from the graph's storage into
+ * another reused buffer, so a long report can be streamed a line at a time
+ * with no allocation per line. StringBuilders and Writers are written to in bulk; any other
+ * Appendable is written to a character at a time. A writer is not thread-safe
+ * and should be used for one report at a time.
+ *
+ * @author Thommasaht Nhouyvanisvong (tcnhouyv)
+ */
+final class ReportWriter {
+
+	/** Number of feet in mile used for unit conversion */
+	static final int FEET_IN_A_MILE = 5280;
+	/** Longest number written, Long.MIN_VALUE, in characters */
+	private static final int MAX_DIGITS = 20;
+
+	/** Destination of the report */
+	private final Appendable out;
+	/** Destination as a StringBuilder, or null if it is not one */
+	private final StringBuilder builder;
+	/** Destination as a Writer, or null if it is not one */
+	private final Writer writer;
+	/** Buffer numbers are rendered into, right-aligned */
+	private final char[] digits = new char[MAX_DIGITS];
+	/** Buffer landmark descriptions and IDs are copied into from a graph */
+	private char[] chars = new char[64];
+
+	/**
+	 * Creates a report writer appending to the specified destination.
+	 *
+	 * @param out destination of the report
+	 */
+	ReportWriter(Appendable out) {
+		this.out = out;
+		this.builder = out instanceof StringBuilder ? (StringBuilder) out : null;
+		this.writer = out instanceof Writer ? (Writer) out : null;
+	}
+
+	/**
+	 * Appends text to the report.
+	 *
+	 * @param text text to append
+	 * @return this writer
+	 * @throws IOException if the destination cannot be written
+	 */
+	ReportWriter append(CharSequence text) throws IOException {
+		out.append(text);
+		return this;
+	}
+
+	/**
+	 * Appends a character to the report.
+	 *
+	 * @param c character to append
+	 * @return this writer
+	 * @throws IOException if the destination cannot be written
+	 */
+	ReportWriter append(char c) throws IOException {
+		out.append(c);
+		return this;
+	}
+
+	/**
+	 * Appends a number to the report in decimal.
+	 *
+	 * @param value number to append
+	 * @return this writer
+	 * @throws IOException if the destination cannot be written
+	 */
+	ReportWriter append(long value) throws IOException {
+		int start = MAX_DIGITS;
+		// Digits are produced from negative values so Long.MIN_VALUE needs no
+		// special case
+		long remaining = value < 0 ? value : -value;
+		do {
+			digits[--start] = (char) ('0' - remaining % 10);
+			remaining /= 10;
+		} while (remaining != 0);
+		if (value < 0) {
+			digits[--start] = '-';
+		}
+		write(digits, start, MAX_DIGITS);
+		return this;
+	}
+
+	/**
+	 * Appends a landmark's description followed by its ID in parentheses.
+	 *
+	 * @param landmark landmark to append
+	 * @return this writer
+	 * @throws IOException if the destination cannot be written
+	 */
+	ReportWriter appendLandmark(Landmark landmark) throws IOException {
+		out.append(landmark.getDescription()).append(" (").append(landmark.getId()).append(')');
+		return this;
+	}
+
+	/**
+	 * Appends the description of the landmark at an index of a graph followed by
+	 * its ID in parentheses, as appendLandmark does for the landmark itself, but
+	 * copying the characters from the graph's storage rather than creating the
+	 * Landmark and its strings. The caller must keep the graph from changing
+	 * while the landmark is appended.
+	 *
+	 * @param graph graph holding the landmark
+	 * @param index index of the landmark in the graph
+	 * @return this writer
+	 * @throws IOException if the destination cannot be written
+	 */
+	ReportWriter appendLandmark(TrailGraph graph, int index) throws IOException {
+		int descriptionLength = graph.getDescriptionLength(index);
+		int length = descriptionLength + graph.getIdLength(index) + 3;
+		if (length > chars.length) {
+			chars = new char[Math.max(length, chars.length * 2)];
+		}
+		graph.getDescriptionChars(index, chars, 0);
+		chars[descriptionLength] = ' ';
+		chars[descriptionLength + 1] = '(';
+		graph.getIdChars(index, chars, descriptionLength + 2);
+		chars[length - 1] = ')';
+		write(chars, 0, length);
+		return this;
+	}
+
+	/**
+	 * Appends a distance in feet, followed by the distance in miles to two
+	 * decimal places when it is longer than a mile.
+	 *
+	 * @param distanceInFeet distance to append
+	 * @return this writer
+	 * @throws IOException if the destination cannot be written
+	 */
+	ReportWriter appendFeet(int distanceInFeet) throws IOException {
+		append(distanceInFeet).append(" feet");
+		if (distanceInFeet > FEET_IN_A_MILE) {
+			long hundredths = toHundredthsOfMile(distanceInFeet);
+			append(" (").append(hundredths / 100).append('.');
+			int fraction = (int) (hundredths % 100);
+			append((char) ('0' + fraction / 10)).append((char) ('0' + fraction % 10)).append(" miles)");
+		}
+		return this;
+	}
+
+	/**
+	 * Appends a non-negative score to four decimal places, rounding halves up.
+	 *
+	 * @param score score to append
+	 * @return this writer
+	 * @throws IOException if the destination cannot be written
+	 */
+	ReportWriter appendScore(double score) throws IOException {
+		long tenThousandths = Math.round(score * 10000);
+		append(tenThousandths / 10000).append('.');
+		int fraction = (int) (tenThousandths % 10000);
+		for (int place = 1000; place > 0; place /= 10) {
+			append((char) ('0' + fraction / place % 10));
+		}
+		return this;
+	}
+
+	/**
+	 * Converts a non-negative distance in feet to hundredths of a mile, rounding
+	 * halves up. A distance in feet divided by 5280 is never within a rounding
+	 * error of a half hundredth without being exactly on it, so this agrees with
+	 * rounding the quotient as a double the way String.format("%.2f") does.
+	 *
+	 * @param distanceInFeet distance in feet
+	 * @return distance in hundredths of a mile
+	 */
+	static long toHundredthsOfMile(int distanceInFeet) {
+		return (distanceInFeet * 100L + FEET_IN_A_MILE / 2) / FEET_IN_A_MILE;
+	}
+
+	/**
+	 * Writes a range of one of the writer's buffers.
+	 *
+	 * @param buffer buffer to write from
+	 * @param start  position of the first character to write
+	 * @param end    position just past the last character to write
+	 * @throws IOException if the destination cannot be written
+	 */
+	private void write(char[] buffer, int start, int end) throws IOException {
+		if (builder != null) {
+			builder.append(buffer, start, end - start);
+		} else if (writer != null) {
+			writer.write(buffer, start, end - start);
+		} else {
+			for (int i = start; i < end; i++) {
+				out.append(buffer[i]);
+			}
+		}
+	}
+}
@@ -0,0 +1,214 @@
+package edu.ncsu.csc316.trail.manager;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+
+/**
+ * A least-recently-used cache of query results keyed by landmark ID and bounded
+ * by an estimated memory budget. Each result is stored with its estimated size
+ * in bytes, and the least recently used results are evicted until the total
+ * fits the budget. Every lookup and store carries the generation of the graph
+ * it applies to; when the generation changes, every cached result is dropped,
+ * so results never outlive a change to the graph. The cache is safe to use
+ * from several threads.
+ * 
+ * @author Thommasaht Nhouyvanisvong (tcnhouyv)
+ *
+ * @param <V> type of cached result
+ */
+public class ResultCache<V> {
+
+	/** Estimated bytes used by each cache entry apart from its result */
+	private static final long ENTRY_OVERHEAD = 64;
+
+	/** Cached results and their sizes, in least to most recently used order */
+	private final LinkedHashMap<String, Sized<V>> entries;
+	/** Memory budget in bytes */
+	private long capacity;
+	/** Estimated bytes used by all cached results */
+	private long weight;
+	/** Graph generation the cached results apply to */
+	private long generation;
+	/** Number of lookups that found a result */
+	private long hits;
+	/** Number of lookups that did not find a result */
+	private long misses;
+	/** Number of results evicted to stay within the budget */
+	private long evictions;
+
+	/**
+	 * A cached result and its estimated size.
+	 *
+	 * @param <V> type of cached result
+	 */
+	private static class Sized<V> {
+
+		/** Cached result */
+		private final V value;
+		/** Estimated size of the result and its entry in bytes */
+		private final long bytes;
+
+		/**
+		 * Creates a sized result.
+		 *
+		 * @param value cached result
+		 * @param bytes estimated size in bytes
+		 */
+		Sized(V value, long bytes) {
+			this.value = value;
+			this.bytes = bytes;
+		}
+	}
+
+	/**
+	 * Creates an empty cache with the specified memory budget.
+	 * 
+	 * @param capacity memory budget in bytes; 0 disables caching
+	 */
+	public ResultCache(long capacity) {
+		entries = new LinkedHashMap<>(16, 0.75f, true);
+		setCapacity(capacity);
+	}
+
+	/**
+	 * Returns the result cached for the key, or null if there is none or the
+	 * graph has changed since it was cached.
+	 * 
+	 * @param key        landmark ID the result was computed for
+	 * @param generation current graph generation
+	 * @return cached result, or null
+	 */
+	synchronized V get(String key, long generation) {
+		checkGeneration(generation);
+		Sized<V> entry = entries.get(key);
+		if (entry == null) {
+			misses++;
+			return null;
+		}
+		hits++;
+		return entry.value;
+	}
+
+	/**
+	 * Caches a result, evicting least recently used results until the cache fits
+	 * its budget. Results larger than the whole budget are not cached.
+	 * 
+	 * @param key        landmark ID the result was computed for
+	 * @param value      result to cache
+	 * @param bytes      estimated size of the result in bytes
+	 * @param generation graph generation the result was computed from
+	 */
+	synchronized void put(String key, V value, long bytes, long generation) {
+		checkGeneration(generation);
+		long total = bytes + ENTRY_OVERHEAD;
+		if (total > capacity) {
+			return;
+		}
+		Sized<V> previous = entries.put(key, new Sized<>(value, total));
+		if (previous != null) {
+			weight -= previous.bytes;
+		}
+		weight += total;
+		evictToCapacity();
+	}
+
+	/**
+	 * Removes every cached result. Hit, miss, and eviction counts are kept.
+	 */
+	public synchronized void clear() {
+		entries.clear();
+		weight = 0;
+	}
+
+	/**
+	 * Changes the memory budget, evicting results if the cache no longer fits.
+	 * 
+	 * @param capacity memory budget in bytes; 0 disables caching
+	 * @throws IllegalArgumentException if capacity is negative
+	 */
+	public synchronized void setCapacity(long capacity) {
+		if (capacity < 0) {
+			throw new IllegalArgumentException("Cache capacity cannot be negative.");
+		}
+		this.capacity = capacity;
+		evictToCapacity();
+	}
+
+	/**
+	 * Returns the memory budget in bytes.
+	 * 
+	 * @return memory budget in bytes
+	 */
+	public synchronized long getCapacity() {
+		return capacity;
+	}
+
+	/**
+	 * Returns the estimated bytes used by all cached results.
+	 * 
+	 * @return estimated size of the cache in bytes
+	 */
+	public synchronized long getWeight() {
+		return weight;
+	}
+
+	/**
+	 * Returns the number of cached results.
+	 * 
+	 * @return number of cached results
+	 */
+	public synchronized int size() {
+		return entries.size();
+	}
+
+	/**
+	 * Returns the number of lookups that found a cached result.
+	 * 
+	 * @return number of cache hits
+	 */
+	public synchronized long getHitCount() {
+		return hits;
+	}
+
+	/**
+	 * Returns the number of lookups that did not find a cached result.
+	 * 
+	 * @return number of cache misses
+	 */
+	public synchronized long getMissCount() {
+		return misses;
+	}
+
+	/**
+	 * Returns the number of results evicted to stay within the budget.
+	 * 
+	 * @return number of evictions
+	 */
+	public synchronized long getEvictionCount() {
+		return evictions;
+	}
+
+	/**
+	 * Drops every cached result if the graph generation has changed.
+	 * 
+	 * @param current current graph generation
+	 */
+	private void checkGeneration(long current) {
+		if (current != generation) {
+			clear();
+			generation = current;
+		}
+	}
+
+	/**
+	 * Evicts least recently used results until the cache fits its budget.
+	 */
+	private void evictToCapacity() {
+		Iterator<Sized<V>> it = entries.values().iterator();
+		while (weight > capacity && it.hasNext()) {
+			weight -= it.next().bytes;
+			it.remove();
+			evictions++;
+		}
+	}
+}
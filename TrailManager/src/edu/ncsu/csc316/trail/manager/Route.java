@@ -0,0 +1,66 @@
+package edu.ncsu.csc316.trail.manager;
+
+import edu.ncsu.csc316.dsa.list.List;
+import edu.ncsu.csc316.trail.data.Landmark;
+import edu.ncsu.csc316.trail.data.Trail;
+
+/**
+ * The shortest route between two landmarks: its total length and the trails
+ * walked in order. Each trail is oriented in the direction of travel, so its
+ * first landmark is the one the walker is leaving, and the landmarks visited
+ * are listed alongside the trails, starting with the origin and ending with
+ * the destination.
+ * 
+ * @author Thommasaht Nhouyvanisvong (tcnhouyv)
+ */
+public class Route {
+
+	/** Total length of the route in feet */
+	private final int distance;
+	/** Landmarks visited, from origin to destination */
+	private final List<Landmark> landmarks;
+	/** Trails walked, in order */
+	private final List<Trail> trails;
+
+	/**
+	 * Creates a route.
+	 * 
+	 * @param distance  total length of the route in feet
+	 * @param landmarks landmarks visited, from origin to destination
+	 * @param trails    trails walked, in order
+	 */
+	Route(int distance, List<Landmark> landmarks, List<Trail> trails) {
+		this.distance = distance;
+		this.landmarks = landmarks;
+		this.trails = trails;
+	}
+
+	/**
+	 * Returns the total length of the route in feet.
+	 * 
+	 * @return route length
+	 */
+	public int getDistance() {
+		return distance;
+	}
+
+	/**
+	 * Returns the landmarks visited, from the origin to the destination. A route
+	 * from a landmark to itself visits only that landmark.
+	 * 
+	 * @return landmarks on the route
+	 */
+	public List<Landmark> getLandmarks() {
+		return landmarks;
+	}
+
+	/**
+	 * Returns the trails walked, in order, each oriented in the direction of
+	 * travel. A route from a landmark to itself has no trails.
+	 * 
+	 * @return trails on the route
+	 */
+	public List<Trail> getTrails() {
+		return trails;
+	}
+}
@@ -0,0 +1,58 @@
+package edu.ncsu.csc316.trail.manager;
+
+import edu.ncsu.csc316.dsa.map.Map.Entry;
+import edu.ncsu.csc316.trail.data.Landmark;
+
+/**
+ * An immutable pairing of a landmark with the score it was ranked by as a
+ * location for a first aid station. Entries compare in ranking order: by
+ * score from highest to lowest, then by landmark description, then by
+ * landmark ID.
+ *
+ * @author Thommasaht Nhouyvanisvong (tcnhouyv)
+ */
+final class ScoreEntry implements Entry<Landmark, Double> {
+
+	/** Landmark ranked */
+	private final Landmark landmark;
+	/** Score of the landmark */
+	private final Double score;
+
+	/**
+	 * Creates an entry.
+	 *
+	 * @param landmark landmark ranked
+	 * @param score    score of the landmark
+	 */
+	ScoreEntry(Landmark landmark, double score) {
+		this.landmark = landmark;
+		this.score = score;
+	}
+
+	@Override
+	public Landmark getKey() {
+		return landmark;
+	}
+
+	@Override
+	public Double getValue() {
+		return score;
+	}
+
+	@Override
+	public int compareTo(Entry<Landmark, Double> other) {
+		int comparison = Double.compare(other.getValue(), score);
+		if (comparison == 0) {
+			comparison = landmark.getDescription().compareTo(other.getKey().getDescription());
+		}
+		if (comparison == 0) {
+			comparison = landmark.getId().compareTo(other.getKey().getId());
+		}
+		return comparison;
+	}
+
+	@Override
+	public String toString() {
+		return landmark.getId() + "=" + score;
+	}
+}
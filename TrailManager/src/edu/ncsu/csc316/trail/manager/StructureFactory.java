@@ -0,0 +1,150 @@
+package edu.ncsu.csc316.trail.manager;
+
+import java.util.Comparator;
+
+import edu.ncsu.csc316.dsa.list.ArrayBasedList;
+import edu.ncsu.csc316.dsa.list.List;
+import edu.ncsu.csc316.dsa.list.SinglyLinkedList;
+import edu.ncsu.csc316.dsa.map.Map;
+import edu.ncsu.csc316.dsa.map.SearchTableMap;
+import edu.ncsu.csc316.dsa.map.SkipListMap;
+import edu.ncsu.csc316.dsa.map.UnorderedLinkedMap;
+import edu.ncsu.csc316.dsa.map.hashing.LinearProbingHashMap;
+import edu.ncsu.csc316.dsa.map.hashing.SeparateChainingHashMap;
+import edu.ncsu.csc316.dsa.map.search_tree.AVLTreeMap;
+import edu.ncsu.csc316.dsa.map.search_tree.BinarySearchTreeMap;
+import edu.ncsu.csc316.dsa.map.search_tree.RedBlackTreeMap;
+import edu.ncsu.csc316.dsa.map.search_tree.SplayTreeMap;
+import edu.ncsu.csc316.dsa.sorter.BubbleSorter;
+import edu.ncsu.csc316.dsa.sorter.InsertionSorter;
+import edu.ncsu.csc316.dsa.sorter.MergeSorter;
+import edu.ncsu.csc316.dsa.sorter.QuickSorter;
+import edu.ncsu.csc316.dsa.sorter.SelectionSorter;
+import edu.ncsu.csc316.dsa.sorter.Sorter;
+import edu.ncsu.csc316.trail.dsa.Algorithm;
+import edu.ncsu.csc316.trail.dsa.DataStructure;
+
+/**
+ * Creates the library maps, lists, and sorters used by one TrailManager. It
+ * builds the same structures as DSAFactory, but its types are fixed when it
+ * is created instead of being held in static fields, so managers configured
+ * with different types can run side by side and queries never read or write
+ * shared state. A StructureFactory is immutable and safe to share between
+ * threads.
+ * 
+ * @author Thommasaht Nhouyvanisvong (tcnhouyv)
+ */
+public class StructureFactory {
+
+	/** Type of map created by getMap */
+	private final DataStructure mapType;
+	/** Type of list created by getIndexedList */
+	private final DataStructure listType;
+	/** Algorithm of sorter created by getComparisonSorter */
+	private final Algorithm comparisonSorter;
+
+	/**
+	 * Creates a factory for the specified map, list, and sorter types.
+	 * 
+	 * @param mapType          type of map to create
+	 * @param listType         type of indexed list to create
+	 * @param comparisonSorter comparison sorting algorithm to use
+	 * @throws IllegalArgumentException if a type is not a map, indexed list, or
+	 *                                  comparison sort respectively
+	 */
+	public StructureFactory(DataStructure mapType, DataStructure listType, Algorithm comparisonSorter) {
+		this.mapType = mapType;
+		this.listType = listType;
+		this.comparisonSorter = comparisonSorter;
+		// Create one of each so an unsupported type fails here rather than at the
+		// first query
+		getMap();
+		getIndexedList();
+		getComparisonSorter(Comparator.<String>naturalOrder());
+	}
+
+	/**
+	 * Returns the type of map created by this factory.
+	 * 
+	 * @return map type
+	 */
+	public DataStructure getMapType() {
+		return mapType;
+	}
+
+	/**
+	 * Returns a new, empty map of this factory's map type.
+	 * 
+	 * @param <K> type of map key
+	 * @param <V> type of map value
+	 * @return new map
+	 * @throws IllegalArgumentException if the map type is not a map
+	 */
+	public <K extends Comparable<K>, V> Map<K, V> getMap() {
+		switch (mapType) {
+		case UNORDEREDLINKEDMAP:
+			return new UnorderedLinkedMap<>();
+		case SEARCHTABLE:
+			return new SearchTableMap<>(null);
+		case SKIPLIST:
+			return new SkipListMap<>(null);
+		case BINARYSEARCHTREE:
+			return new BinarySearchTreeMap<>(null);
+		case AVLTREE:
+			return new AVLTreeMap<>(null);
+		case SPLAYTREE:
+			return new SplayTreeMap<>(null);
+		case REDBLACKTREE:
+			return new RedBlackTreeMap<>(null);
+		case SEPARATECHAININGHASHMAP:
+			return new SeparateChainingHashMap<>();
+		case LINEARPROBINGHASHMAP:
+			return new LinearProbingHashMap<>();
+		default:
+			throw new IllegalArgumentException(mapType + " is not a map type.");
+		}
+	}
+
+	/**
+	 * Returns a new, empty indexed list of this factory's list type.
+	 * 
+	 * @param <E> type of list element
+	 * @return new list
+	 * @throws IllegalArgumentException if the list type is not a list
+	 */
+	public <E> List<E> getIndexedList() {
+		switch (listType) {
+		case ARRAYBASEDLIST:
+			return new ArrayBasedList<>();
+		case SINGLYLINKEDLIST:
+			return new SinglyLinkedList<>();
+		default:
+			throw new IllegalArgumentException(listType + " is not a list type.");
+		}
+	}
+
+	/**
+	 * Returns a new comparison sorter using this factory's sorting algorithm.
+	 * 
+	 * @param <E>        type of element sorted
+	 * @param comparator order to sort elements into
+	 * @return new sorter
+	 * @throws IllegalArgumentException if the algorithm is not a comparison sort
+	 */
+	public <E extends Comparable<E>> Sorter<E> getComparisonSorter(Comparator<E> comparator) {
+		switch (comparisonSorter) {
+		case BUBBLE_SORT:
+			return new BubbleSorter<>(comparator);
+		case INSERTION_SORT:
+			return new InsertionSorter<>(comparator);
+		case SELECTION_SORT:
+			return new SelectionSorter<>(comparator);
+		case MERGESORT:
+			return new MergeSorter<>(comparator);
+		case QUICKSORT:
+			return new QuickSorter<>(comparator);
+		default:
+			throw new IllegalArgumentException(comparisonSorter + " is not a comparison sort.");
+		}
+	}
+}
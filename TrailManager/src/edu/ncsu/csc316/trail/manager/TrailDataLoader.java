@@ -0,0 +1,324 @@
+package edu.ncsu.csc316.trail.manager;
+
+import java.io.FileInputStream;
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+import edu.ncsu.csc316.trail.graph.GraphStorage;
+import edu.ncsu.csc316.trail.graph.IdIndex;
+import edu.ncsu.csc316.trail.graph.TrailGraph;
+import edu.ncsu.csc316.trail.graph.TrailGraphBuilder;
+
+/**
+ * Streams landmark and trail CSV files straight into a TrailGraphBuilder. Each
+ * file is read exactly once through a buffered FileChannel, and rows are parsed
+ * in place from the read buffer: trail endpoints are resolved to landmark
+ * indexes directly from their bytes and distances are parsed as digits, so
+ * only the landmark ID and description Strings are ever created. Both files
+ * are expected to start with a header row, which is skipped.
+ *
+ * @author Thommasaht Nhouyvanisvong (tcnhouyv)
+ */
+public class TrailDataLoader {
+
+	/** Size of the read buffer in bytes */
+	private static final int BUFFER_SIZE = 1 << 16;
+	/** Rough size of a CSV row in bytes, used to presize the builder */
+	private static final int ESTIMATED_ROW_BYTES = 32;
+
+	/**
+	 * Handles one row of a CSV file held in a byte buffer.
+	 */
+	interface RowHandler {
+
+		/**
+		 * Handles the row spanning [start, end) of bytes, without its line
+		 * terminator.
+		 *
+		 * @param bytes      buffer holding the row
+		 * @param start      first byte of the row
+		 * @param end        end of the row (exclusive)
+		 * @param lineNumber one-based line number of the row in the file
+		 */
+		void handle(byte[] bytes, int start, int end, int lineNumber);
+	}
+
+	/**
+	 * Adds each landmark row to a builder, interning landmark types as it goes.
+	 */
+	private static class LandmarkRowHandler implements RowHandler {
+
+		/** Builder to add landmarks to */
+		private final TrailGraphBuilder builder;
+		/** Index of type names to positions in types */
+		private final IdIndex typeIndex;
+		/** Distinct type names seen so far */
+		private String[] types;
+
+		/**
+		 * Creates a handler that adds landmarks to the specified builder.
+		 *
+		 * @param builder builder to add landmarks to
+		 */
+		LandmarkRowHandler(TrailGraphBuilder builder) {
+			this.builder = builder;
+			typeIndex = new IdIndex(16);
+			types = new String[16];
+		}
+
+		@Override
+		public void handle(byte[] bytes, int start, int end, int lineNumber) {
+			int firstComma = indexOf(bytes, start, end, lineNumber);
+			int secondComma = indexOf(bytes, firstComma + 1, end, lineNumber);
+			int typeEnd = end;
+			// A type column followed by further columns ends at the next comma
+			for (int i = secondComma + 1; i < end; i++) {
+				if (bytes[i] == ',') {
+					typeEnd = i;
+					break;
+				}
+			}
+			String id = new String(bytes, start, firstComma - start, StandardCharsets.UTF_8);
+			String description = new String(bytes, firstComma + 1, secondComma - firstComma - 1,
+					StandardCharsets.UTF_8);
+			builder.addLandmark(id, description, internType(bytes, secondComma + 1, typeEnd));
+		}
+
+		/**
+		 * Returns the shared String for the type spelled by [start, end), creating
+		 * it the first time the type is seen.
+		 *
+		 * @param bytes buffer holding the type
+		 * @param start first byte of the type
+		 * @param end   end of the type (exclusive)
+		 * @return interned type name
+		 */
+		private String internType(byte[] bytes, int start, int end) {
+			int typeNumber = typeIndex.get(bytes, start, end - start);
+			if (typeNumber == IdIndex.NOT_FOUND) {
+				typeNumber = typeIndex.size();
+				if (typeNumber == types.length) {
+					types = Arrays.copyOf(types, typeNumber * 2);
+				}
+				types[typeNumber] = new String(bytes, start, end - start, StandardCharsets.UTF_8);
+				typeIndex.put(types[typeNumber], typeNumber);
+			}
+			return types[typeNumber];
+		}
+	}
+
+	/**
+	 * Reads a landmark file and a trail file into a new trail graph.
+	 *
+	 * @param pathToLandmarkFile file containing landmark information
+	 * @param pathToTrailFile    file containing trail information
+	 * @return graph of the landmarks and trails
+	 * @throws FileNotFoundException    if either file is invalid
+	 * @throws IllegalArgumentException if a row is malformed or a trail
+	 *                                  references an unknown landmark
+	 */
+	public static TrailGraph load(String pathToLandmarkFile, String pathToTrailFile) throws FileNotFoundException {
+		return load(pathToLandmarkFile, pathToTrailFile, GraphStorage.HEAP);
+	}
+
+	/**
+	 * Reads a landmark file and a trail file into a new trail graph held in the
+	 * specified storage.
+	 *
+	 * @param pathToLandmarkFile file containing landmark information
+	 * @param pathToTrailFile    file containing trail information
+	 * @param storage            storage of the graph
+	 * @return graph of the landmarks and trails
+	 * @throws FileNotFoundException    if either file is invalid
+	 * @throws IllegalArgumentException if a row is malformed or a trail
+	 *                                  references an unknown landmark
+	 */
+	public static TrailGraph load(String pathToLandmarkFile, String pathToTrailFile, GraphStorage storage)
+			throws FileNotFoundException {
+		try (FileInputStream landmarkIn = new FileInputStream(pathToLandmarkFile);
+				FileInputStream trailIn = new FileInputStream(pathToTrailFile)) {
+			FileChannel landmarkChannel = landmarkIn.getChannel();
+			FileChannel trailChannel = trailIn.getChannel();
+			TrailGraphBuilder builder = new TrailGraphBuilder(storage, estimateRows(landmarkChannel),
+					estimateRows(trailChannel));
+			readLandmarks(landmarkChannel, builder);
+			readTrails(trailChannel, builder);
+			return builder.build();
+		} catch (FileNotFoundException e) {
+			throw e;
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+	}
+
+	/**
+	 * Reads every LANDMARK_ID,DESCRIPTION,TYPE row of a channel into the builder.
+	 * Landmark types are interned so that landmarks of the same type share one
+	 * String.
+	 *
+	 * @param channel channel positioned at the start of a landmark file
+	 * @param builder builder to add landmarks to
+	 * @throws IOException if the channel cannot be read
+	 */
+	public static void readLandmarks(FileChannel channel, TrailGraphBuilder builder) throws IOException {
+		forEachRow(channel, new LandmarkRowHandler(builder));
+	}
+
+	/**
+	 * Reads every LANDMARK_ID,LANDMARK_ID,DISTANCE row of a channel into the
+	 * builder. Every landmark must already have been added to the builder.
+	 *
+	 * @param channel channel positioned at the start of a trail file
+	 * @param builder builder to add trails to
+	 * @throws IOException if the channel cannot be read
+	 */
+	public static void readTrails(FileChannel channel, TrailGraphBuilder builder) throws IOException {
+		forEachRow(channel, (bytes, start, end, lineNumber) -> {
+			int firstComma = indexOf(bytes, start, end, lineNumber);
+			int secondComma = indexOf(bytes, firstComma + 1, end, lineNumber);
+			int from = resolve(builder, bytes, start, firstComma);
+			int to = resolve(builder, bytes, firstComma + 1, secondComma);
+			builder.addTrail(from, to, parseLength(bytes, secondComma + 1, end, lineNumber));
+		});
+	}
+
+	/**
+	 * Calls handler for every non-empty row after the header row of a channel.
+	 * Rows are handed over in place from the read buffer, which is compacted and
+	 * refilled as rows are consumed and grown only for rows longer than it.
+	 *
+	 * @param channel channel to read
+	 * @param handler handler to call for each row
+	 * @throws IOException if the channel cannot be read
+	 */
+	private static void forEachRow(FileChannel channel, RowHandler handler) throws IOException {
+		ByteBuffer buffer = ByteBuffer.allocate(BUFFER_SIZE);
+		int lineNumber = 0;
+		boolean eof = false;
+		while (!eof) {
+			eof = channel.read(buffer) < 0;
+			byte[] bytes = buffer.array();
+			int limit = buffer.position();
+			int start = 0;
+			for (int i = 0; i < limit; i++) {
+				if (bytes[i] == '\n') {
+					lineNumber++;
+					handleRow(handler, bytes, start, i, lineNumber);
+					start = i + 1;
+				}
+			}
+			if (eof) {
+				// The last row may not be followed by a line terminator
+				if (start < limit) {
+					handleRow(handler, bytes, start, limit, lineNumber + 1);
+				}
+			} else if (start == 0 && limit == bytes.length) {
+				// A single row fills the buffer, so grow it
+				buffer = ByteBuffer.wrap(Arrays.copyOf(bytes, bytes.length * 2));
+				buffer.position(limit);
+			} else {
+				buffer.position(start);
+				buffer.limit(limit);
+				buffer.compact();
+			}
+		}
+	}
+
+	/**
+	 * Strips any carriage return from a row and passes it to the handler unless it
+	 * is the header row or empty.
+	 *
+	 * @param handler    handler to call
+	 * @param bytes      buffer holding the row
+	 * @param start      first byte of the row
+	 * @param end        end of the row (exclusive)
+	 * @param lineNumber one-based line number of the row
+	 */
+	static void handleRow(RowHandler handler, byte[] bytes, int start, int end, int lineNumber) {
+		if (end > start && bytes[end - 1] == '\r') {
+			end--;
+		}
+		if (lineNumber > 1 && end > start) {
+			handler.handle(bytes, start, end, lineNumber);
+		}
+	}
+
+	/**
+	 * Returns the position of the next comma in [start, end).
+	 *
+	 * @param bytes      buffer holding the row
+	 * @param start      position to search from
+	 * @param end        end of the row (exclusive)
+	 * @param lineNumber line number used in the error message
+	 * @return position of the next comma
+	 * @throws IllegalArgumentException if the row has no further comma
+	 */
+	static int indexOf(byte[] bytes, int start, int end, int lineNumber) {
+		for (int i = start; i < end; i++) {
+			if (bytes[i] == ',') {
+				return i;
+			}
+		}
+		throw new IllegalArgumentException("Line " + lineNumber + " is missing a column.");
+	}
+
+	/**
+	 * Returns the index of the landmark whose ID is spelled by [start, end).
+	 *
+	 * @param builder builder holding the landmarks
+	 * @param bytes   buffer holding the ID
+	 * @param start   first byte of the ID
+	 * @param end     end of the ID (exclusive)
+	 * @return index of the landmark
+	 * @throws IllegalArgumentException if the landmark has not been added
+	 */
+	static int resolve(TrailGraphBuilder builder, byte[] bytes, int start, int end) {
+		int index = builder.indexOf(bytes, start, end - start);
+		if (index < 0) {
+			throw new IllegalArgumentException("Trail references unknown landmark "
+					+ new String(bytes, start, end - start, StandardCharsets.UTF_8) + ".");
+		}
+		return index;
+	}
+
+	/**
+	 * Parses the non-negative decimal trail length spelled by [start, end).
+	 *
+	 * @param bytes      buffer holding the length
+	 * @param start      first byte of the length
+	 * @param end        end of the length (exclusive)
+	 * @param lineNumber line number used in the error message
+	 * @return trail length
+	 * @throws IllegalArgumentException if the length is not a number
+	 */
+	static int parseLength(byte[] bytes, int start, int end, int lineNumber) {
+		if (start == end) {
+			throw new IllegalArgumentException("Line " + lineNumber + " has an invalid distance.");
+		}
+		int length = 0;
+		for (int i = start; i < end; i++) {
+			int digit = bytes[i] - '0';
+			if (digit < 0 || digit > 9 || length > (Integer.MAX_VALUE - digit) / 10) {
+				throw new IllegalArgumentException("Line " + lineNumber + " has an invalid distance.");
+			}
+			length = length * 10 + digit;
+		}
+		return length;
+	}
+
+	/**
+	 * Estimates the number of rows in a file from its size.
+	 *
+	 * @param channel channel of the file
+	 * @return estimated number of rows
+	 * @throws IOException if the size cannot be read
+	 */
+	static int estimateRows(FileChannel channel) throws IOException {
+		return (int) Math.min(Integer.MAX_VALUE / 2, channel.size() / ESTIMATED_ROW_BYTES + 1);
+	}
+}
@@ -1,32 +1,199 @@
 package edu.ncsu.csc316.trail.manager;
 
 import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Arrays;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.IntPredicate;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import javax.management.JMException;
 
 import edu.ncsu.csc316.dsa.list.List;
 import edu.ncsu.csc316.dsa.map.Map;
-import edu.ncsu.csc316.dsa.queue.Queue;
+import edu.ncsu.csc316.dsa.map.Map.Entry;
 import edu.ncsu.csc316.trail.data.Landmark;
 import edu.ncsu.csc316.trail.data.Trail;
 import edu.ncsu.csc316.trail.dsa.Algorithm;
-import edu.ncsu.csc316.trail.dsa.DSAFactory;
 import edu.ncsu.csc316.trail.dsa.DataStructure;
-import edu.ncsu.csc316.trail.io.TrailInputReader;
+import edu.ncsu.csc316.trail.graph.AltSearch;
+import edu.ncsu.csc316.trail.graph.CentralityIndex;
+import edu.ncsu.csc316.trail.graph.ComponentIndex;
+import edu.ncsu.csc316.trail.graph.DegreeIndex;
+import edu.ncsu.csc316.trail.graph.DescriptionRank;
+import edu.ncsu.csc316.trail.graph.DijkstraSearch;
+import edu.ncsu.csc316.trail.graph.DistanceOracle;
+import edu.ncsu.csc316.trail.graph.GraphStorage;
+import edu.ncsu.csc316.trail.graph.LongRadixSort;
+import edu.ncsu.csc316.trail.graph.MultiSourceSearch;
+import edu.ncsu.csc316.trail.graph.RouteSearch;
+import edu.ncsu.csc316.trail.graph.SnapshotSource;
+import edu.ncsu.csc316.trail.graph.TrailGraph;
+import edu.ncsu.csc316.trail.graph.TrailSnapshot;
 
 /**
  * A class that maintains trail and landmark information within the TrailManager
  * system. TrailManager contains functionality for getting distances to all
  * landmarks from an origin landmark, searching landmarks by ID, and getting a
  * list of proposed first aid locations by searching for landmarks with an
- * intersecting trail threshold.
+ * intersecting trail threshold. Landmarks and trails are indexed once at load
+ * time into a compact TrailGraph, and every query runs on its primitive arrays.
+ * Landmarks and trails can also be added, removed, and changed in place, in
+ * time proportional to the number of trails at the landmarks involved.
+ * 
+ * A TrailManager is safe to share between threads. Queries take a shared read
+ * lock and run on per-thread search arrays, so any number of them run at once,
+ * while changes to the graph take the lock exclusively. The types of map and
+ * list returned by queries are fixed per manager when it is created.
+ * 
+ * A manager loaded with LoadMode.OFF_HEAP keeps its graph in direct buffers
+ * outside the Java heap. Closing a manager waits for running queries, then
+ * returns that memory at once; any query or change made after that throws
+ * IllegalStateException. Closing also removes the manager's metrics from the
+ * platform MBean server if they were registered.
  * 
  * @author Thommasaht Nhouyvanisvong (tcnhouyv)
  */
-public class TrailManager {
+public class TrailManager implements AutoCloseable {
 
-	/** Map of landmark IDs and Landmarks */
-	private Map<String, Landmark> landmarkIDMap;
-	/** Map of Landmarks and intersecting Trails */
-	private Map<Landmark, List<Trail>> landmarkTrailMap;
+	/** Graph of landmarks and the trails intersecting them */
+	private TrailGraph graph;
+	/** Factory for the maps and lists returned by queries */
+	private final StructureFactory structures;
+	/** Lock shared by queries and held alone by changes to the graph */
+	private final ReadWriteLock lock = new ReentrantReadWriteLock();
+	/** Shortest path engine of each thread, reused by its distance queries */
+	private ThreadLocal<DijkstraSearch> searches;
+	/** Point-to-point route engine of each thread */
+	private ThreadLocal<RouteSearch> routeSearches;
+	/** Multi-source engine of each thread, used by park-wide coverage queries */
+	private ThreadLocal<MultiSourceSearch> multiSourceSearches;
+	/** A* engine of each thread, used by anchor distance oracle queries */
+	private ThreadLocal<AltSearch> altSearches;
+	/** Connected components of the graph, or null if they must be rebuilt */
+	private volatile ComponentIndex components;
+	/** Rank of each landmark by description, or null if it must be rebuilt */
+	private volatile DescriptionRank ranks;
+	/** Centrality of each landmark, or null if it must be recomputed */
+	private volatile CentralityIndex centrality;
+	/** Held by the one reader computing the centrality index */
+	private final Object centralityLock = new Object();
+	/** Landmarks bucketed by number of intersecting trails */
+	private DegreeIndex degrees;
+	/** Precomputed pair distances, or null if none is current */
+	private volatile DistanceOracle oracle;
+	/** Cache of distance results keyed by origin landmark ID */
+	private ResultCache<DistanceResult> distanceCache;
+	/** Load timings, query latencies, and traversal sizes */
+	private final TrailMetrics metrics;
+	/** Number of changes made to the graph since it was loaded */
+	private volatile long generation;
+	/** Landmark and trail files as they were when loaded */
+	private SnapshotSource source;
+	/** Whether the manager has been closed and its graph freed */
+	private boolean closed;
+
+	/** Logger recording the map type chosen for a workload */
+	private static final Logger LOGGER = Logger.getLogger(TrailManager.class.getName());
+	/** Suffix appended to the trail file path to name its snapshot */
+	public static final String SNAPSHOT_SUFFIX = ".snapshot";
+	/** Default memory budget of the distance cache in bytes (16 MB) */
+	public static final long DEFAULT_DISTANCE_CACHE_BYTES = 16L << 20;
+
+	/**
+	 * Creates a TrailManager from input files containing landmarks and trails.
+	 * Allows for custom selection of a map type and of how the files are read.
+	 * Both load modes produce the same graph.
+	 * 
+	 * @param pathToLandmarkFile name of landmark file
+	 * @param pathToTrailFile    name of trail file
+	 * @param mapType            type of map to be used
+	 * @param loadMode           whether to read the files sequentially or in
+	 *                           parallel
+	 * @throws FileNotFoundException if either file is invalid
+	 */
+	public TrailManager(String pathToLandmarkFile, String pathToTrailFile, DataStructure mapType, LoadMode loadMode)
+			throws FileNotFoundException {
+		this(pathToLandmarkFile, pathToTrailFile, mapType, null, loadMode);
+	}
+
+	/**
+	 * Creates a TrailManager from input files containing landmarks and trails,
+	 * choosing the map type for query results automatically. The type with the
+	 * lowest estimated cost for maps of every landmark under the workload is
+	 * chosen once the files are loaded, and the choice is logged at the CONFIG
+	 * level.
+	 * 
+	 * @param pathToLandmarkFile name of landmark file
+	 * @param pathToTrailFile    name of trail file
+	 * @param workload           expected use of the maps returned by queries
+	 * @param loadMode           whether to read the files sequentially or in
+	 *                           parallel
+	 * @throws FileNotFoundException if either file is invalid
+	 */
+	public TrailManager(String pathToLandmarkFile, String pathToTrailFile, Workload workload, LoadMode loadMode)
+			throws FileNotFoundException {
+		this(pathToLandmarkFile, pathToTrailFile, null, workload, loadMode);
+	}
+
+	/**
+	 * Private constructor that loads the files and uses the specified map type,
+	 * or chooses one for the workload if no map type is specified.
+	 * 
+	 * @param pathToLandmarkFile name of landmark file
+	 * @param pathToTrailFile    name of trail file
+	 * @param mapType            type of map to be used, or null to choose one
+	 * @param workload           expected use of the maps returned by queries
+	 * @param loadMode           how to read the files
+	 * @throws FileNotFoundException if either file is invalid
+	 */
+	private TrailManager(String pathToLandmarkFile, String pathToTrailFile, DataStructure mapType, Workload workload,
+			LoadMode loadMode) throws FileNotFoundException {
+		// A given map type is checked before the files are read
+		StructureFactory factory = mapType == null ? null
+				: new StructureFactory(mapType, DataStructure.SINGLYLINKEDLIST, Algorithm.MERGESORT);
+
+		// Sizes and modification times are captured before reading so a file edited
+		// during the load makes the snapshot stale rather than silently out of date.
+		source = SnapshotSource.of(pathToLandmarkFile, pathToTrailFile);
+		long start = System.nanoTime();
+		if (loadMode == LoadMode.PARALLEL) {
+			graph = ParallelTrailDataLoader.load(pathToLandmarkFile, pathToTrailFile);
+		} else if (loadMode == LoadMode.SNAPSHOT) {
+			graph = loadWithSnapshot(pathToLandmarkFile, pathToTrailFile);
+		} else if (loadMode == LoadMode.OFF_HEAP) {
+			graph = TrailDataLoader.load(pathToLandmarkFile, pathToTrailFile, GraphStorage.OFF_HEAP);
+		} else {
+			graph = TrailDataLoader.load(pathToLandmarkFile, pathToTrailFile);
+		}
+		if (factory == null) {
+			int entries = graph.getLandmarkCount();
+			DataStructure chosen = MapCostModel.choose(entries, workload);
+			long estimate = Math.round(MapCostModel.estimate(chosen, entries, workload));
+			LOGGER.log(Level.CONFIG, "Chose {0} result maps for {1} landmarks and a {2} workload, estimated at {3} ns",
+					new Object[] { chosen, entries, workload, estimate });
+			factory = new StructureFactory(chosen, DataStructure.SINGLYLINKEDLIST, Algorithm.MERGESORT);
+		}
+		structures = factory;
+		TrailGraph loaded = graph;
+		searches = ThreadLocal.withInitial(() -> new DijkstraSearch(loaded));
+		routeSearches = ThreadLocal.withInitial(() -> new RouteSearch(loaded));
+		multiSourceSearches = ThreadLocal.withInitial(() -> new MultiSourceSearch(loaded));
+		altSearches = ThreadLocal.withInitial(() -> new AltSearch(loaded));
+		long parsed = System.nanoTime();
+		components = new ComponentIndex(graph);
+		degrees = new DegreeIndex(graph);
+		long indexed = System.nanoTime();
+		ranks = new DescriptionRank(graph);
+		long sorted = System.nanoTime();
+		distanceCache = new ResultCache<>(DEFAULT_DISTANCE_CACHE_BYTES);
+		metrics = new TrailMetrics(distanceCache);
+		metrics.recordLoad(parsed - start, indexed - parsed, sorted - indexed);
+	}
 
 	/**
 	 * Creates a TrailManager from input files containing landmarks and trails.
@@ -39,125 +206,1043 @@ public class TrailManager {
 	 */
 	public TrailManager(String pathToLandmarkFile, String pathToTrailFile, DataStructure mapType)
 			throws FileNotFoundException {
-		DSAFactory.setMapType(mapType);
-		DSAFactory.setListType(DataStructure.SINGLYLINKEDLIST);
-		DSAFactory.setComparisonSorterType(Algorithm.MERGESORT);
-		DSAFactory.setNonComparisonSorterType(Algorithm.RADIX_SORT);
-
-		addLandmarksToMap(TrailInputReader.readLandmarks(pathToLandmarkFile));
-		addTrailsToMap(TrailInputReader.readLandmarks(pathToLandmarkFile),
-				TrailInputReader.readTrails(pathToTrailFile));
+		this(pathToLandmarkFile, pathToTrailFile, mapType, LoadMode.SEQUENTIAL);
 	}
 
 	/**
 	 * Creates a TrailManager from an input file containing landmarks and an input
-	 * file containing trails. Throws a FileNotFoundException if either file is
-	 * invalid.
+	 * file containing trails, choosing the map type for a balanced workload.
+	 * Throws a FileNotFoundException if either file is invalid.
 	 * 
 	 * @param pathToLandmarkFile name of landmark file
 	 * @param pathToTrailFile    name of trail file
 	 * @throws FileNotFoundException if either file is invalid
 	 */
 	public TrailManager(String pathToLandmarkFile, String pathToTrailFile) throws FileNotFoundException {
-		this(pathToLandmarkFile, pathToTrailFile, DataStructure.SKIPLIST);
+		this(pathToLandmarkFile, pathToTrailFile, Workload.BALANCED, LoadMode.SEQUENTIAL);
 	}
 
 	/**
-	 * This method traverses all trails that intersect with originLandmark, adding
-	 * landmarks not currently in the map to return a map containing all landmarks
-	 * reachable from originLandmark and their distances from originLandmark.
+	 * Returns a map containing all landmarks reachable from originLandmark and
+	 * their shortest trail distances from originLandmark, including
+	 * originLandmark itself at a distance of 0. Distances are computed with
+	 * Dijkstra's algorithm, so they are the shortest total trail length even when
+	 * trails form cycles.
 	 * 
 	 * @param originLandmark landmark to determine reachable landmarks
 	 * @return map containing reachable landmarks and their distances
 	 */
 	public Map<Landmark, Integer> getDistancesToDestinations(String originLandmark) {
-		Map<Landmark, Integer> distancesMap = DSAFactory.getMap(null);
-		Landmark origin = getLandmarkByID(originLandmark);
-		// Error handling. If originLandmark is not in the system, an empty map is
-		// returned.
-		if (origin == null) {
+		long start = metrics.start();
+		lockForQuery();
+		try {
+			Map<Landmark, Integer> distancesMap = structures.getMap();
+			int origin = graph.indexOf(originLandmark);
+			// Error handling. If originLandmark is not in the system, an empty map is
+			// returned.
+			if (origin < 0) {
+				return distancesMap;
+			}
+			// A landmark with no trails only reaches itself
+			if (graph.degree(origin) == 0) {
+				distancesMap.put(graph.getLandmark(origin), 0);
+				return distancesMap;
+			}
+
+			DistanceResult result = getDistanceResult(originLandmark, origin);
+			for (int i = 0; i < result.size(); i++) {
+				distancesMap.put(graph.getLandmark(result.getLandmark(i)), result.getDistance(i));
+			}
 			return distancesMap;
+		} finally {
+			lock.readLock().unlock();
+			metrics.recordDistanceQuery(start);
 		}
+	}
 
-		Queue<Landmark> visitedLandmarks = DSAFactory.getQueue();
-
-		// place origin landmark in distancesMap with distance of 0
-		distancesMap.put(origin, 0);
-		List<Trail> currentTrailList = landmarkTrailMap.get(origin);
-		// For each trail intersecting with the origin, we add the opposite landmark and
-		// its distance.
-		// We also add each visited landmark to the visitedLandmarks for later
-		// traversal.
-		for (Trail t : currentTrailList) {
-			Landmark landmarkOne = getLandmarkByID(t.getLandmarkOne());
-			if (!landmarkOne.equals(origin)) {
-				distancesMap.put(landmarkOne, t.getLength());
-				visitedLandmarks.enqueue(landmarkOne);
-			} else {
-				Landmark landmarkTwo = getLandmarkByID(t.getLandmarkTwo());
-				distancesMap.put(landmarkTwo, t.getLength());
-				visitedLandmarks.enqueue(landmarkTwo);
-			}
-		}
-		// For each visited landmark, we visit all trails in its trail list and add
-		// landmarks not currently in distancesMap, also enqueueing new landmarks in
-		// visitedLandmarks.
-		while (!visitedLandmarks.isEmpty()) {
-			Landmark currentLandmark = visitedLandmarks.dequeue();
-			currentTrailList = landmarkTrailMap.get(currentLandmark);
-			int currentDistance = distancesMap.get(currentLandmark);
-			for (Trail t : currentTrailList) {
-				Landmark landmarkOne = getLandmarkByID(t.getLandmarkOne());
-				if (!currentLandmark.equals(landmarkOne)) {
-					// If the opposite landmark is not in distancesMap, we put it in with its length
-					// + the distance of the current landmark from the origin as the value.
-					if (distancesMap.get(landmarkOne) == null) {
-						distancesMap.put(landmarkOne, t.getLength() + currentDistance);
-						visitedLandmarks.enqueue(landmarkOne);
-					}
-				} else {
-					Landmark landmarkTwo = getLandmarkByID(t.getLandmarkTwo());
-					if (distancesMap.get(landmarkTwo) == null) {
-						distancesMap.put(landmarkTwo, t.getLength() + currentDistance);
-						visitedLandmarks.enqueue(landmarkTwo);
-					}
+	/**
+	 * Returns the distance map of every origin landmark, computed in parallel on
+	 * the common fork-join pool. Each worker thread runs its searches on its own
+	 * reusable distance and heap arrays. The map for each origin is the same one
+	 * getDistancesToDestinations returns for it, including an empty map for an
+	 * invalid ID.
+	 * 
+	 * Each origin takes the read lock on its own, so every map describes one
+	 * version of the graph, but a change made while the batch is running may
+	 * fall between two origins and leave maps from before and after it in the
+	 * same batch.
+	 * 
+	 * @param originLandmarks IDs of the origin landmarks
+	 * @return map of each origin landmark ID to its distance map
+	 */
+	public Map<String, Map<Landmark, Integer>> getDistancesToDestinations(String[] originLandmarks) {
+		Object[] results = new Object[originLandmarks.length];
+		BatchTask.run(originLandmarks.length, i -> results[i] = getDistancesToDestinations(originLandmarks[i]));
+		Map<String, Map<Landmark, Integer>> batch = structures.getMap();
+		for (int i = 0; i < originLandmarks.length; i++) {
+			@SuppressWarnings("unchecked")
+			Map<Landmark, Integer> result = (Map<Landmark, Integer>) results[i];
+			batch.put(originLandmarks[i], result);
+		}
+		return batch;
+	}
+
+	/**
+	 * Returns the landmarks reachable from originLandmark, including itself, and
+	 * their distances in the order of the distances report: by distance, then by
+	 * description, then by ID. Each landmark's distance and description rank are
+	 * packed into one long key, so the order is found with a radix sort of
+	 * primitive keys rather than a comparison sort of entries. Returns an empty
+	 * array if the landmark ID is invalid.
+	 * 
+	 * @param originLandmark landmark to find reachable landmarks from
+	 * @return reachable landmarks and their distances in report order
+	 */
+	DistanceEntry[] getDistancesInReportOrder(String originLandmark) {
+		long start = metrics.start();
+		lockForQuery();
+		try {
+			int origin = graph.indexOf(originLandmark);
+			return origin < 0 ? new DistanceEntry[0] : reportOrder(originLandmark, origin);
+		} finally {
+			lock.readLock().unlock();
+			metrics.recordDistanceQuery(start);
+		}
+	}
+
+	/**
+	 * Passes an origin landmark, the size of its trail system, and the landmarks
+	 * reachable from it in the order of getDistancesInReportOrder to a reader,
+	 * all while holding the read lock. The reader sees the landmarks as graph
+	 * indexes and sorted keys rather than entries, so a report can be rendered
+	 * from them with nothing created per landmark, and it is consistent even if
+	 * the graph is changed by another thread. Changes to the graph wait for the
+	 * reader to finish. Invalid and isolated landmarks are answered from the
+	 * component index without a traversal.
+	 * 
+	 * @param <T>            type of value read
+	 * @param originLandmark landmark to find reachable landmarks from
+	 * @param reader         reads the origin and reachable landmarks
+	 * @return value returned by the reader
+	 * @throws IOException if the reader cannot write its destination
+	 */
+	<T> T readOriginDistances(String originLandmark, OriginDistances.Reader<T> reader) throws IOException {
+		lockForQuery();
+		try {
+			return reader.read(getOriginDistances(originLandmark));
+		} finally {
+			lock.readLock().unlock();
+		}
+	}
+
+	/**
+	 * Private helper method that returns an origin landmark, the size of its
+	 * trail system, and the landmarks reachable from it in report order. The
+	 * caller must hold the read lock.
+	 * 
+	 * @param originLandmark landmark to find reachable landmarks from
+	 * @return origin, trail system size, and reachable landmarks
+	 */
+	private OriginDistances getOriginDistances(String originLandmark) {
+		long start = metrics.start();
+		try {
+			int origin = graph.indexOf(originLandmark);
+			if (origin < 0) {
+				return OriginDistances.INVALID;
+			}
+			int size = components().getComponentSize(origin);
+			if (graph.degree(origin) == 0) {
+				return new OriginDistances(graph, origin, size, null, new long[0]);
+			}
+			DescriptionRank ranks = descriptionRanks();
+			return new OriginDistances(graph, origin, size, ranks, reportKeys(originLandmark, origin, ranks));
+		} finally {
+			metrics.recordDistanceQuery(start);
+		}
+	}
+
+	/**
+	 * Private helper method that returns the landmarks reachable from an origin
+	 * in report order. The caller must hold the read lock.
+	 * 
+	 * @param originLandmark ID of the origin landmark
+	 * @param origin         index of the origin landmark
+	 * @return reachable landmarks and their distances in report order
+	 */
+	private DistanceEntry[] reportOrder(String originLandmark, int origin) {
+		if (graph.degree(origin) == 0) {
+			return new DistanceEntry[] { new DistanceEntry(graph.getLandmark(origin), 0) };
+		}
+		DescriptionRank ranks = descriptionRanks();
+		long[] keys = reportKeys(originLandmark, origin, ranks);
+		DistanceEntry[] entries = new DistanceEntry[keys.length];
+		for (int i = 0; i < keys.length; i++) {
+			entries[i] = new DistanceEntry(graph.getLandmark(ranks.getLandmark((int) keys[i])),
+					(int) (keys[i] >>> 32));
+		}
+		return entries;
+	}
+
+	/**
+	 * Private helper method that returns the report order keys of the landmarks
+	 * reachable from an origin, sorted. Each key packs a landmark's distance
+	 * above its description rank. The caller must hold the read lock.
+	 * 
+	 * @param originLandmark ID of the origin landmark
+	 * @param origin         index of the origin landmark
+	 * @param ranks          description ranks of the current landmarks
+	 * @return sorted keys of the reachable landmarks
+	 */
+	private long[] reportKeys(String originLandmark, int origin, DescriptionRank ranks) {
+		DistanceResult result = getDistanceResult(originLandmark, origin);
+		long[] keys = new long[result.size()];
+		for (int i = 0; i < keys.length; i++) {
+			keys[i] = (long) result.getDistance(i) << 32 | ranks.getRank(result.getLandmark(i));
+		}
+		LongRadixSort.sort(keys);
+		return keys;
+	}
+
+	/**
+	 * Private helper method that returns the distance result of an origin from
+	 * the cache, computing and caching it if it is missing or stale.
+	 * 
+	 * @param originLandmark ID of the origin landmark
+	 * @param origin         index of the origin landmark
+	 * @return landmarks reachable from the origin in distance order
+	 */
+	private DistanceResult getDistanceResult(String originLandmark, int origin) {
+		DistanceResult result = distanceCache.get(originLandmark, generation);
+		if (result == null) {
+			result = computeDistances(origin);
+			distanceCache.put(originLandmark, result, result.estimateBytes(), generation);
+		}
+		return result;
+	}
+
+	/**
+	 * Private helper method that runs a shortest path search from the origin and
+	 * copies the settled landmarks and their distances into a DistanceResult.
+	 * 
+	 * @param origin index of the origin landmark
+	 * @return landmarks reachable from the origin in distance order
+	 */
+	private DistanceResult computeDistances(int origin) {
+		DijkstraSearch search = searches.get();
+		search.run(origin);
+		metrics.recordTraversal(search.getSettledCount(), search.getScannedCount());
+		int[] landmarks = new int[search.getSettledCount()];
+		int[] distances = new int[landmarks.length];
+		for (int i = 0; i < landmarks.length; i++) {
+			landmarks[i] = search.getSettled(i);
+			distances[i] = (int) search.getDistance(landmarks[i]);
+		}
+		return new DistanceResult(landmarks, distances);
+	}
+
+	/**
+	 * Returns the landmarks within maxFeet of originLandmark by trail, with
+	 * their distances, ordered by distance and then by description and ID. The
+	 * origin itself is left out. The search stops at maxFeet, so only the
+	 * landmarks within range and the trails leaving them are visited. Returns an
+	 * empty list if the landmark ID is invalid or maxFeet is negative.
+	 * 
+	 * @param originLandmark ID of the landmark to measure from
+	 * @param maxFeet        longest distance to include, in feet
+	 * @return landmarks within maxFeet and their distances, nearest first
+	 */
+	public List<Entry<Landmark, Integer>> getLandmarksWithin(String originLandmark, int maxFeet) {
+		lockForQuery();
+		try {
+			int origin = graph.indexOf(originLandmark);
+			if (origin < 0 || maxFeet < 0) {
+				return structures.getIndexedList();
+			}
+			DijkstraSearch search = searches.get();
+			search.run(origin, maxFeet, null, Integer.MAX_VALUE);
+			metrics.recordTraversal(search.getSettledCount(), search.getScannedCount());
+			return collectNearest(search, v -> v != origin, Integer.MAX_VALUE);
+		} finally {
+			lock.readLock().unlock();
+		}
+	}
+
+	/**
+	 * Returns the k landmarks nearest to originLandmark by trail whose type is
+	 * typeFilter, with their distances, ordered by distance and then by
+	 * description and ID. The origin itself is left out, and landmarks tied at
+	 * the distance of the k-th are chosen by description and ID. The search
+	 * stops once k landmarks of the type are found, so only landmarks no farther
+	 * than the k-th are visited. Returns an empty list if the landmark ID is
+	 * invalid or k is not positive.
+	 * 
+	 * @param originLandmark ID of the landmark to measure from
+	 * @param k              number of landmarks to return
+	 * @param typeFilter     landmark type to return, such as Restroom, or null
+	 *                       for every type
+	 * @return up to k nearest landmarks of the type and their distances, nearest
+	 *         first
+	 */
+	public List<Entry<Landmark, Integer>> getNearest(String originLandmark, int k, String typeFilter) {
+		lockForQuery();
+		try {
+			int origin = graph.indexOf(originLandmark);
+			if (origin < 0 || k <= 0) {
+				return structures.getIndexedList();
+			}
+			IntPredicate filter = v -> v != origin
+					&& (typeFilter == null || typeFilter.equals(graph.getType(v)));
+			DijkstraSearch search = searches.get();
+			search.run(origin, DijkstraSearch.UNREACHED, filter, k);
+			metrics.recordTraversal(search.getSettledCount(), search.getScannedCount());
+			return collectNearest(search, filter, k);
+		} finally {
+			lock.readLock().unlock();
+		}
+	}
+
+	/**
+	 * Private helper method that lists up to limit landmarks settled by the last
+	 * run of a search that are accepted by the filter, with their distances.
+	 * Landmarks are settled in distance order already, so only runs of
+	 * landmarks at the same distance are sorted, by description and then ID.
+	 * 
+	 * @param search search whose settled landmarks are listed
+	 * @param filter landmarks to include
+	 * @param limit  largest number of landmarks to include
+	 * @return accepted landmarks and their distances, nearest first
+	 */
+	private List<Entry<Landmark, Integer>> collectNearest(DijkstraSearch search, IntPredicate filter, int limit) {
+		Integer[] found = new Integer[search.getSettledCount()];
+		int count = 0;
+		for (int i = 0; i < search.getSettledCount(); i++) {
+			if (filter.test(search.getSettled(i))) {
+				found[count++] = search.getSettled(i);
+			}
+		}
+		for (int start = 0, end; start < count; start = end) {
+			end = start + 1;
+			while (end < count && search.getDistance(found[end]) == search.getDistance(found[start])) {
+				end++;
+			}
+			if (end - start > 1) {
+				Arrays.sort(found, start, end, graph::compareLandmarks);
+			}
+		}
+		List<Entry<Landmark, Integer>> nearest = structures.getIndexedList();
+		for (int i = 0; i < Math.min(count, limit); i++) {
+			nearest.addLast(new DistanceEntry(graph.getLandmark(found[i]), (int) search.getDistance(found[i])));
+		}
+		return nearest;
+	}
+
+	/**
+	 * Returns the nearest of the source landmarks to every landmark connected to
+	 * at least one of them, with its distance in feet. Every source is searched
+	 * from at once by a parallel multi-source search, so the cost is that of a
+	 * single search however many sources there are. A source is its own nearest
+	 * source at a distance of 0, and a landmark tied between sources is assigned
+	 * the one listed first. Invalid IDs are ignored, and landmarks connected to
+	 * no source are left out of the map.
+	 * 
+	 * @param sourceLandmarks IDs of the source landmarks
+	 * @return map of each reached landmark to its nearest source and distance
+	 */
+	public Map<Landmark, Entry<Landmark, Integer>> getNearestSources(String[] sourceLandmarks) {
+		lockForQuery();
+		try {
+			int[] sources = new int[sourceLandmarks.length];
+			int count = 0;
+			for (String sourceLandmark : sourceLandmarks) {
+				int source = graph.indexOf(sourceLandmark);
+				if (source >= 0) {
+					sources[count++] = source;
+				}
+			}
+			MultiSourceSearch search = runMultiSource(Arrays.copyOf(sources, count));
+			Map<Landmark, Entry<Landmark, Integer>> nearest = structures.getMap();
+			for (int v = 0; v < graph.size(); v++) {
+				int source = search.getSource(v);
+				if (source != MultiSourceSearch.NO_SOURCE) {
+					nearest.put(graph.getLandmark(v),
+							new DistanceEntry(graph.getLandmark(source), (int) search.getDistance(v)));
+				}
+			}
+			return nearest;
+		} finally {
+			lock.readLock().unlock();
+		}
+	}
+
+	/**
+	 * Returns the landmarks farther than maxFeet by trail from every landmark of
+	 * type sourceType, such as the landmarks more than 1000 feet from any
+	 * Restroom, with the distance to the nearest landmark of the type. The
+	 * distances come from one multi-source search seeded with every landmark of
+	 * the type. Landmarks connected to no landmark of the type have a distance of
+	 * -1 and are listed first, then the rest from the farthest to the nearest,
+	 * with ties ordered by description and ID. Returns an empty list if maxFeet
+	 * is negative.
+	 * 
+	 * @param sourceType landmark type to measure from, or null for every type
+	 * @param maxFeet    longest distance counted as covered, in feet
+	 * @return uncovered landmarks and their distances, farthest first
+	 */
+	public List<Entry<Landmark, Integer>> getUncoveredLandmarks(String sourceType, int maxFeet) {
+		lockForQuery();
+		try {
+			if (maxFeet < 0) {
+				return structures.getIndexedList();
+			}
+			int[] sources = new int[graph.getLandmarkCount()];
+			int count = 0;
+			for (int v = 0; v < graph.size(); v++) {
+				if (graph.contains(v) && (sourceType == null || sourceType.equals(graph.getType(v)))) {
+					sources[count++] = v;
+				}
+			}
+			MultiSourceSearch search = runMultiSource(Arrays.copyOf(sources, count));
+			Integer[] uncovered = new Integer[graph.getLandmarkCount()];
+			int found = 0;
+			for (int v = 0; v < graph.size(); v++) {
+				if (graph.contains(v) && search.getDistance(v) > maxFeet) {
+					uncovered[found++] = v;
+				}
+			}
+			// Unreached landmarks have the largest distance, so they sort first
+			Arrays.sort(uncovered, 0, found, (a, b) -> {
+				int comparison = Long.compare(search.getDistance(b), search.getDistance(a));
+				return comparison != 0 ? comparison : graph.compareLandmarks(a, b);
+			});
+			List<Entry<Landmark, Integer>> list = structures.getIndexedList();
+			for (int i = 0; i < found; i++) {
+				long distance = search.getDistance(uncovered[i]);
+				list.addLast(new DistanceEntry(graph.getLandmark(uncovered[i]),
+						distance == MultiSourceSearch.UNREACHED ? -1 : (int) distance));
+			}
+			return list;
+		} finally {
+			lock.readLock().unlock();
+		}
+	}
+
+	/**
+	 * Private helper method that runs this thread's multi-source search from the
+	 * specified sources and records its traversal.
+	 * 
+	 * @param sources indexes of the source landmarks
+	 * @return search holding the nearest source and distance of every landmark
+	 */
+	private MultiSourceSearch runMultiSource(int[] sources) {
+		MultiSourceSearch search = multiSourceSearches.get();
+		search.run(sources);
+		metrics.recordTraversal(search.getReachedCount(), search.getScannedCount());
+		return search;
+	}
+
+	/**
+	 * Returns the shortest route between two landmarks, with its length and the
+	 * trails walked in order. The route is found with a bidirectional search
+	 * that stops once the searches from both ends meet on a shortest path, so
+	 * nearby landmarks are routed without exploring the rest of their trail
+	 * system. Returns null if either landmark ID is invalid or the landmarks are
+	 * not connected; landmarks in different trail systems are recognized without
+	 * a search.
+	 * 
+	 * @param originLandmark      ID of the landmark the route starts at
+	 * @param destinationLandmark ID of the landmark the route ends at
+	 * @return shortest route, or null if there is none
+	 */
+	public Route getRoute(String originLandmark, String destinationLandmark) {
+		lockForQuery();
+		try {
+			int origin = graph.indexOf(originLandmark);
+			int destination = graph.indexOf(destinationLandmark);
+			if (origin < 0 || destination < 0 || !components().isConnected(origin, destination)) {
+				return null;
+			}
+			RouteSearch search = routeSearches.get();
+			int distance = (int) search.run(origin, destination);
+			metrics.recordTraversal(search.getSettledCount(), search.getScannedCount());
+			List<Landmark> landmarks = structures.getIndexedList();
+			List<Trail> trails = structures.getIndexedList();
+			for (int i = 0; i < search.getPathSize(); i++) {
+				landmarks.addLast(graph.getLandmark(search.getPathLandmark(i)));
+				if (i > 0) {
+					trails.addLast(new Trail(graph.getId(search.getPathLandmark(i - 1)),
+							graph.getId(search.getPathLandmark(i)), search.getPathTrailLength(i - 1)));
+				}
+			}
+			return new Route(distance, landmarks, trails);
+		} finally {
+			lock.readLock().unlock();
+		}
+	}
+
+	/**
+	 * Returns the shortest distance between two landmarks in feet, or -1 if
+	 * either landmark ID is invalid or the landmarks are not connected. If a
+	 * distance oracle has been built or loaded since the graph last changed, the
+	 * distance comes from the oracle; otherwise it comes from the same
+	 * bidirectional search as getRoute.
+	 * 
+	 * @param firstLandmarkID  ID of the first landmark
+	 * @param secondLandmarkID ID of the second landmark
+	 * @return shortest distance in feet, or -1
+	 */
+	public int getDistance(String firstLandmarkID, String secondLandmarkID) {
+		lockForQuery();
+		try {
+			int first = graph.indexOf(firstLandmarkID);
+			int second = graph.indexOf(secondLandmarkID);
+			if (first < 0 || second < 0 || !components().isConnected(first, second)) {
+				return -1;
+			}
+			DistanceOracle current = oracle;
+			if (current != null) {
+				return (int) current.getDistance(first, second, altSearches.get());
+			}
+			RouteSearch search = routeSearches.get();
+			long distance = search.run(first, second);
+			metrics.recordTraversal(search.getSettledCount(), search.getScannedCount());
+			return (int) distance;
+		} finally {
+			lock.readLock().unlock();
+		}
+	}
+
+	/**
+	 * Precomputes pair distances so that getDistance becomes a lookup or a
+	 * heavily pruned search. If a matrix of every pair's distance fits
+	 * memoryBudget bytes, it is computed in parallel; otherwise the distances
+	 * from a few far-apart anchor landmarks are computed for A* lower bounds.
+	 * The oracle is discarded the next time the graph changes.
+	 * 
+	 * @param memoryBudget largest size of an exact distance matrix, in bytes
+	 * @return true if the oracle holds exact distances for every pair
+	 */
+	public boolean buildDistanceOracle(long memoryBudget) {
+		lockForQuery();
+		try {
+			DistanceOracle built = DistanceOracle.build(graph, memoryBudget);
+			oracle = built;
+			return built.isExact();
+		} finally {
+			lock.readLock().unlock();
+		}
+	}
+
+	/**
+	 * Saves the current distance oracle to a file that loadDistanceOracle can
+	 * reopen for the same graph.
+	 * 
+	 * @param pathToOracle file to write
+	 * @throws IOException           if the file cannot be written
+	 * @throws IllegalStateException if no oracle is current
+	 */
+	public void saveDistanceOracle(String pathToOracle) throws IOException {
+		lockForQuery();
+		try {
+			DistanceOracle current = oracle;
+			if (current == null) {
+				throw new IllegalStateException("No distance oracle has been built since the graph last changed.");
+			}
+			current.write(Paths.get(pathToOracle));
+		} finally {
+			lock.readLock().unlock();
+		}
+	}
+
+	/**
+	 * Loads a distance oracle saved by saveDistanceOracle for this graph.
+	 * 
+	 * @param pathToOracle file to read
+	 * @throws IOException if the file cannot be read, is corrupt, or was saved
+	 *                     for a different graph
+	 */
+	public void loadDistanceOracle(String pathToOracle) throws IOException {
+		lockForQuery();
+		try {
+			oracle = DistanceOracle.read(Paths.get(pathToOracle), graph);
+		} finally {
+			lock.readLock().unlock();
+		}
+	}
+
+	/**
+	 * Returns the current distance oracle, or null if none has been built or
+	 * loaded since the graph last changed.
+	 * 
+	 * @return current distance oracle, or null
+	 */
+	DistanceOracle getDistanceOracle() {
+		return oracle;
+	}
+
+	/**
+	 * Returns the cache of distance results used by getDistancesToDestinations,
+	 * which reports hit and miss counts and allows its memory budget to be
+	 * changed.
+	 * 
+	 * @return the distance result cache
+	 */
+	public ResultCache<?> getDistanceCache() {
+		return distanceCache;
+	}
+
+	/**
+	 * Returns the load timings, query latencies, traversal sizes, and cache hit
+	 * rates of this manager. Query latencies and traversal sizes are only
+	 * recorded while the metrics are enabled.
+	 * 
+	 * @return metrics of this manager
+	 */
+	public TrailMetrics getMetrics() {
+		return metrics;
+	}
+
+	/**
+	 * Returns the type of map returned by queries.
+	 * 
+	 * @return map type
+	 */
+	public DataStructure getMapType() {
+		return structures.getMapType();
+	}
+
+	/**
+	 * Returns the factory for the maps, lists, and sorters used with this
+	 * manager's results.
+	 * 
+	 * @return structure factory
+	 */
+	StructureFactory getStructures() {
+		return structures;
+	}
+
+	/**
+	 * Returns the number of changes made to the graph since it was loaded.
+	 * Cached results computed under an older generation are stale.
+	 * 
+	 * @return current graph generation
+	 */
+	long getGeneration() {
+		return generation;
+	}
+
+	/**
+	 * Returns the number of landmarks reachable from the specified landmark,
+	 * including itself, or 0 if the landmark ID is invalid. No traversal is
+	 * performed.
+	 * 
+	 * @param landmarkID landmark ID to look up
+	 * @return size of the landmark's connected trail system, or 0
+	 */
+	public int getComponentSize(String landmarkID) {
+		lockForQuery();
+		try {
+			int index = graph.indexOf(landmarkID);
+			return index < 0 ? 0 : components().getComponentSize(index);
+		} finally {
+			lock.readLock().unlock();
+		}
+	}
+
+	/**
+	 * Returns the number of the connected trail system containing the specified
+	 * landmark, or -1 if the landmark ID is invalid. Trail systems are numbered
+	 * from 0 in order of decreasing size.
+	 * 
+	 * @param landmarkID landmark ID to look up
+	 * @return component number of the landmark, or -1
+	 */
+	public int getComponentID(String landmarkID) {
+		lockForQuery();
+		try {
+			int index = graph.indexOf(landmarkID);
+			return index < 0 ? -1 : components().getComponent(index);
+		} finally {
+			lock.readLock().unlock();
+		}
+	}
+
+	/**
+	 * Returns true if the two landmarks are connected by trails. Returns false if
+	 * either landmark ID is invalid. No traversal is performed.
+	 * 
+	 * @param firstLandmarkID  ID of the first landmark
+	 * @param secondLandmarkID ID of the second landmark
+	 * @return true if the landmarks are in the same connected trail system
+	 */
+	public boolean areConnected(String firstLandmarkID, String secondLandmarkID) {
+		lockForQuery();
+		try {
+			int first = graph.indexOf(firstLandmarkID);
+			int second = graph.indexOf(secondLandmarkID);
+			return first >= 0 && second >= 0 && components().isConnected(first, second);
+		} finally {
+			lock.readLock().unlock();
+		}
+	}
+
+	/**
+	 * Returns one landmark from each connected trail system paired with the
+	 * number of landmarks in the system, in order of decreasing system size.
+	 * Each system is represented by its landmark that appears first in the
+	 * landmark file. The sizes are read under the same lock as the
+	 * representatives, so they always match the order.
+	 * 
+	 * @return representative landmarks of each trail system and the sizes of
+	 *         their systems, largest first
+	 */
+	public List<Entry<Landmark, Integer>> getComponentsBySize() {
+		lockForQuery();
+		try {
+			ComponentIndex index = components();
+			List<Entry<Landmark, Integer>> representatives = structures.getIndexedList();
+			for (int c = 0; c < index.getComponentCount(); c++) {
+				int representative = index.getRepresentative(c);
+				representatives.addLast(
+						new CountEntry(graph.getLandmark(representative), index.getComponentSize(representative)));
+			}
+			return representatives;
+		} finally {
+			lock.readLock().unlock();
+		}
+	}
+
+	/**
+	 * Saves the loaded landmarks and trails to a binary snapshot that can be
+	 * reopened with LoadMode.SNAPSHOT in place of the CSV files they were read
+	 * from, as long as those files have not been modified since.
+	 * 
+	 * @param pathToSnapshot file to write the snapshot to
+	 * @throws IOException if the snapshot cannot be written
+	 */
+	public void saveSnapshot(String pathToSnapshot) throws IOException {
+		lockForQuery();
+		try {
+			// Once the graph has been changed it no longer matches the CSV files, so its
+			// snapshot must never be mistaken for a current one.
+			TrailSnapshot.write(graph, Paths.get(pathToSnapshot), generation == 0 ? source : SnapshotSource.NONE);
+		} finally {
+			lock.readLock().unlock();
+		}
+	}
+
+	/**
+	 * Adds a landmark with no trails.
+	 * 
+	 * @param landmark landmark to add
+	 * @return true if the landmark was added, or false if a landmark with the
+	 *         same ID already exists
+	 */
+	public boolean addLandmark(Landmark landmark) {
+		lockForChange();
+		try {
+			int index = graph.addLandmark(landmark);
+			if (index < 0) {
+				return false;
+			}
+			degrees.update(index);
+			// The new landmark is a trail system of its own
+			components = null;
+			ranks = null;
+			oracle = null;
+			centrality = null;
+			generation++;
+			return true;
+		} finally {
+			lock.writeLock().unlock();
+		}
+	}
+
+	/**
+	 * Removes a landmark along with every trail that intersects it.
+	 * 
+	 * @param landmarkID ID of the landmark to remove
+	 * @return true if the landmark was removed, or false if the ID is invalid
+	 */
+	public boolean removeLandmark(String landmarkID) {
+		lockForChange();
+		try {
+			int index = graph.indexOf(landmarkID);
+			if (index < 0) {
+				return false;
+			}
+			int[] neighbors = new int[graph.degree(index)];
+			for (int i = 0; i < neighbors.length; i++) {
+				neighbors[i] = graph.neighbor(graph.firstEdge(index) + i);
+			}
+			degrees.remove(index);
+			graph.removeLandmark(index);
+			for (int neighbor : neighbors) {
+				if (neighbor != index) {
+					degrees.update(neighbor);
 				}
 			}
+			components = null;
+			ranks = null;
+			oracle = null;
+			centrality = null;
+			generation++;
+			return true;
+		} finally {
+			lock.writeLock().unlock();
 		}
+	}
 
-		return distancesMap;
+	/**
+	 * Adds a trail between two landmarks.
+	 * 
+	 * @param landmarkOne ID of the first landmark
+	 * @param landmarkTwo ID of the second landmark
+	 * @param length      trail length in feet
+	 * @throws IllegalArgumentException if either landmark ID is invalid or the
+	 *                                  length is negative
+	 */
+	public void addTrail(String landmarkOne, String landmarkTwo, int length) {
+		lockForChange();
+		try {
+			int first = resolve(landmarkOne);
+			int second = resolve(landmarkTwo);
+			checkLength(length);
+			graph.addTrail(first, second, length);
+			degrees.update(first);
+			degrees.update(second);
+			// A trail inside one trail system leaves the systems unchanged
+			if (components != null && !components.isConnected(first, second)) {
+				components = null;
+			}
+			oracle = null;
+			centrality = null;
+			generation++;
+		} finally {
+			lock.writeLock().unlock();
+		}
 	}
 
 	/**
-	 * Private helper method for adding landmarks in a list to landmarkIDMap.
+	 * Removes a trail between two landmarks. If several trails join the same
+	 * landmarks, the one added first is removed.
 	 * 
-	 * @param list list of landmarks added to the system
+	 * @param landmarkOne ID of the first landmark
+	 * @param landmarkTwo ID of the second landmark
+	 * @return true if a trail was removed, or false if there is no such trail
 	 */
-	private void addLandmarksToMap(List<Landmark> list) {
-		landmarkIDMap = DSAFactory.getMap(null);
-		for (Landmark l : list) {
-			landmarkIDMap.put(l.getId(), l);
+	public boolean removeTrail(String landmarkOne, String landmarkTwo) {
+		lockForChange();
+		try {
+			int first = graph.indexOf(landmarkOne);
+			int second = graph.indexOf(landmarkTwo);
+			if (!graph.removeTrail(first, second)) {
+				return false;
+			}
+			degrees.update(first);
+			degrees.update(second);
+			components = null;
+			oracle = null;
+			centrality = null;
+			generation++;
+			return true;
+		} finally {
+			lock.writeLock().unlock();
 		}
 	}
 
 	/**
-	 * Private helper method for adding a list to trails to each landmark in
-	 * landmarkTrailMap.
+	 * Changes the length of a trail between two landmarks. If several trails join
+	 * the same landmarks, the one added first is changed.
 	 * 
-	 * @param landmarkList list containing landmarks on system
-	 * @param trailList    list containing trails to add
+	 * @param landmarkOne ID of the first landmark
+	 * @param landmarkTwo ID of the second landmark
+	 * @param length      new trail length in feet
+	 * @return true if a trail was changed, or false if there is no such trail
+	 * @throws IllegalArgumentException if the length is negative
 	 */
-	private void addTrailsToMap(List<Landmark> landmarkList, List<Trail> trailList) {
-		landmarkTrailMap = DSAFactory.getMap(null);
-		for (Landmark l : landmarkList) {
-			landmarkTrailMap.put(l, DSAFactory.getIndexedList());
+	public boolean updateTrailLength(String landmarkOne, String landmarkTwo, int length) {
+		lockForChange();
+		try {
+			checkLength(length);
+			if (!graph.setTrailLength(graph.indexOf(landmarkOne), graph.indexOf(landmarkTwo), length)) {
+				return false;
+			}
+			oracle = null;
+			centrality = null;
+			generation++;
+			return true;
+		} finally {
+			lock.writeLock().unlock();
 		}
-		for (Trail t : trailList) {
-			landmarkTrailMap.get(getLandmarkByID(t.getLandmarkOne())).addLast(t);
-			landmarkTrailMap.get(getLandmarkByID(t.getLandmarkTwo())).addLast(t);
+	}
+
+	@Override
+	public void close() {
+		lock.writeLock().lock();
+		try {
+			if (!closed) {
+				closed = true;
+				oracle = null;
+				centrality = null;
+				distanceCache.clear();
+				graph.close();
+			}
+		} finally {
+			lock.writeLock().unlock();
+		}
+		// The platform MBean server would otherwise keep the closed manager's
+		// metrics and caches reachable, and its name taken
+		try {
+			metrics.unregister();
+		} catch (JMException e) {
+			// The manager is closed either way, and nothing is left to retry
 		}
 	}
 
+	/**
+	 * Private helper method that takes the shared lock held by queries.
+	 * 
+	 * @throws IllegalStateException if the manager has been closed
+	 */
+	private void lockForQuery() {
+		lock.readLock().lock();
+		if (closed) {
+			lock.readLock().unlock();
+			throw new IllegalStateException("TrailManager has been closed.");
+		}
+	}
+
+	/**
+	 * Private helper method that takes the exclusive lock held by changes to the
+	 * graph.
+	 * 
+	 * @throws IllegalStateException if the manager has been closed
+	 */
+	private void lockForChange() {
+		lock.writeLock().lock();
+		if (closed) {
+			lock.writeLock().unlock();
+			throw new IllegalStateException("TrailManager has been closed.");
+		}
+	}
+
+	/**
+	 * Private helper method that returns the component index, rebuilding it if a
+	 * change to the graph may have split or joined trail systems since it was
+	 * built.
+	 * 
+	 * @return component index of the current graph
+	 */
+	private ComponentIndex components() {
+		ComponentIndex index = components;
+		if (index == null) {
+			// Readers that race here each build the same index, and either may be kept
+			index = new ComponentIndex(graph);
+			components = index;
+		}
+		return index;
+	}
+
+	/**
+	 * Private helper method that returns the centrality of the landmarks,
+	 * recomputing it if the graph has changed since it was computed.
+	 * 
+	 * @return centrality of the current graph
+	 */
+	private CentralityIndex centralityIndex() {
+		CentralityIndex current = centrality;
+		if (current == null) {
+			// Centrality takes seconds in a large park, so only one reader computes it
+			synchronized (centralityLock) {
+				current = centrality;
+				if (current == null) {
+					current = CentralityIndex.compute(graph);
+					centrality = current;
+				}
+			}
+		}
+		return current;
+	}
+
+	/**
+	 * Private helper method that returns the description ranks of the landmarks,
+	 * rebuilding them if landmarks have been added or removed since they were
+	 * built.
+	 * 
+	 * @return description ranks of the current landmarks
+	 */
+	private DescriptionRank descriptionRanks() {
+		DescriptionRank current = ranks;
+		if (current == null) {
+			// Readers that race here each build the same ranks, and either may be kept
+			current = new DescriptionRank(graph);
+			ranks = current;
+		}
+		return current;
+	}
+
+	/**
+	 * Private helper method that returns the index of a landmark that a new trail
+	 * references.
+	 * 
+	 * @param landmarkID landmark ID to look up
+	 * @return index of the landmark
+	 * @throws IllegalArgumentException if the landmark ID is invalid
+	 */
+	private int resolve(String landmarkID) {
+		int index = graph.indexOf(landmarkID);
+		if (index < 0) {
+			throw new IllegalArgumentException("Trail references unknown landmark " + landmarkID + ".");
+		}
+		return index;
+	}
+
+	/**
+	 * Private helper method that checks that a trail length is not negative.
+	 * 
+	 * @param length trail length in feet
+	 * @throws IllegalArgumentException if the length is negative
+	 */
+	private static void checkLength(int length) {
+		if (length < 0) {
+			throw new IllegalArgumentException("Trail length cannot be negative.");
+		}
+	}
+
+	/**
+	 * Private helper method that reopens the snapshot saved next to the trail
+	 * file if it is current, or reads the CSV files and saves a new snapshot
+	 * otherwise.
+	 * 
+	 * @param pathToLandmarkFile name of landmark file
+	 * @param pathToTrailFile    name of trail file
+	 * @return graph of the landmarks and trails
+	 * @throws FileNotFoundException if either file is invalid
+	 */
+	private TrailGraph loadWithSnapshot(String pathToLandmarkFile, String pathToTrailFile)
+			throws FileNotFoundException {
+		Path snapshot = Paths.get(pathToTrailFile + SNAPSHOT_SUFFIX);
+		// A missing CSV file has a modification time of 0 and is reported by the
+		// CSV loader below.
+		if (source.exists()) {
+			try {
+				if (TrailSnapshot.isCurrent(snapshot, source)) {
+					return TrailSnapshot.read(snapshot);
+				}
+			} catch (IOException e) {
+				// An unreadable or corrupt snapshot is rebuilt from the CSV files
+			}
+		}
+		TrailGraph loaded = TrailDataLoader.load(pathToLandmarkFile, pathToTrailFile);
+		try {
+			TrailSnapshot.write(loaded, snapshot, source);
+		} catch (IOException e) {
+			// The snapshot only speeds up the next run, so failing to save it is
+			// not an error
+		}
+		return loaded;
+	}
+
 	/**
 	 * Returns the Landmark corresponding with the specified landmark ID.
 	 * 
@@ -165,31 +1250,202 @@ public class TrailManager {
 	 * @return landmark containing landmarkID
 	 */
 	public Landmark getLandmarkByID(String landmarkID) {
-		return landmarkIDMap.get(landmarkID);
+		lockForQuery();
+		try {
+			int index = graph.indexOf(landmarkID);
+			return index < 0 ? null : graph.getLandmark(index);
+		} finally {
+			lock.readLock().unlock();
+		}
 	}
 
 	/**
 	 * Returns a map of landmarks and list of trails with a number of intersecting
 	 * trails >= the parameter. If no landmarks contain the specified number of
-	 * trails, an empty map is returned.
+	 * trails, an empty map is returned. Only landmarks in the result are visited.
 	 * 
 	 * @param numberOfIntersectingTrails number of intersecting trails a landmark
 	 *                                   must contain
 	 * @return map containing Landmarks with at least numberOfIntersectingTrails
 	 */
 	public Map<Landmark, List<Trail>> getProposedFirstAidLocations(int numberOfIntersectingTrails) {
-		Map<Landmark, List<Trail>> firstAidLocations = DSAFactory.getMap(null);
-		// Return an empty map if numberOfIntersectingTrails is <= 0
-		if (numberOfIntersectingTrails <= 0) {
+		long start = metrics.start();
+		lockForQuery();
+		try {
+			Map<Landmark, List<Trail>> firstAidLocations = structures.getMap();
+			// Return an empty map if numberOfIntersectingTrails is <= 0
+			if (numberOfIntersectingTrails <= 0) {
+				return firstAidLocations;
+			}
+			// Add landmarks whose degree is >= numberOfIntersectingTrails, along with
+			// their intersecting trails as seen from that landmark
+			for (int d = degrees.getMaxDegree(); d >= numberOfIntersectingTrails; d--) {
+				for (int i = 0; i < degrees.getCount(d); i++) {
+					int v = degrees.get(d, i);
+					String landmarkID = graph.getId(v);
+					List<Trail> trailList = structures.getIndexedList();
+					for (int e = graph.firstEdge(v); e < graph.endEdge(v); e++) {
+						trailList.addLast(new Trail(landmarkID, graph.getId(graph.neighbor(e)), graph.length(e)));
+					}
+					firstAidLocations.put(graph.getLandmark(v), trailList);
+				}
+			}
 			return firstAidLocations;
+		} finally {
+			lock.readLock().unlock();
+			metrics.recordFirstAidQuery(start);
+		}
+	}
+
+	/**
+	 * Returns the numberOfLocations landmarks ranked highest as locations for
+	 * first aid stations, from the highest score to the lowest and then by
+	 * description and ID. DEGREE ranks by number of intersecting trails, while
+	 * CLOSENESS and BETWEENNESS rank by centrality, computed in parallel once per
+	 * change to the graph and sampled in large parks. Each landmark is paired
+	 * with its score, read under the same lock as the ranking, so the scores
+	 * always match the order. Returns an empty list if numberOfLocations is not
+	 * positive.
+	 * 
+	 * @param numberOfLocations number of landmarks to return
+	 * @param ranking           score to rank the landmarks by
+	 * @return highest ranked landmarks and their scores, in report order
+	 */
+	public List<Entry<Landmark, Double>> getProposedFirstAidLandmarks(int numberOfLocations,
+			FirstAidRanking ranking) {
+		long start = metrics.start();
+		lockForQuery();
+		try {
+			List<Entry<Landmark, Double>> landmarks = structures.getIndexedList();
+			if (numberOfLocations <= 0) {
+				return landmarks;
+			}
+			Integer[] ranked = new Integer[graph.getLandmarkCount()];
+			double[] scores = new double[graph.size()];
+			int count = 0;
+			for (int v = 0; v < graph.size(); v++) {
+				if (graph.contains(v)) {
+					ranked[count++] = v;
+					scores[v] = score(v, ranking);
+				}
+			}
+			Arrays.sort(ranked, 0, count, (a, b) -> {
+				int comparison = Double.compare(scores[b], scores[a]);
+				return comparison != 0 ? comparison : graph.compareLandmarks(a, b);
+			});
+			for (int i = 0; i < Math.min(count, numberOfLocations); i++) {
+				landmarks.addLast(new ScoreEntry(graph.getLandmark(ranked[i]), scores[ranked[i]]));
+			}
+			return landmarks;
+		} finally {
+			lock.readLock().unlock();
+			metrics.recordFirstAidQuery(start);
+		}
+	}
+
+	/**
+	 * Returns the score a landmark is ranked by as a location for a first aid
+	 * station: its number of intersecting trails for DEGREE, or its closeness or
+	 * betweenness centrality. Returns 0 if the landmark ID is invalid.
+	 * 
+	 * @param landmarkID ID of the landmark
+	 * @param ranking    score to return
+	 * @return score of the landmark
+	 */
+	public double getFirstAidScore(String landmarkID, FirstAidRanking ranking) {
+		lockForQuery();
+		try {
+			int index = graph.indexOf(landmarkID);
+			return index < 0 ? 0 : score(index, ranking);
+		} finally {
+			lock.readLock().unlock();
+		}
+	}
+
+	/**
+	 * Private helper method that returns the score of a landmark under a first
+	 * aid ranking.
+	 * 
+	 * @param index   landmark index
+	 * @param ranking score to return
+	 * @return score of the landmark
+	 */
+	private double score(int index, FirstAidRanking ranking) {
+		if (ranking == FirstAidRanking.CLOSENESS) {
+			return centralityIndex().getCloseness(index);
+		}
+		if (ranking == FirstAidRanking.BETWEENNESS) {
+			return centralityIndex().getBetweenness(index);
 		}
-		// Add landmarks with a trailList whose size is >= numberOfIntersectingTrails
-		for (Landmark landmark : landmarkTrailMap) {
-			List<Trail> currentTrailList = landmarkTrailMap.get(landmark);
-			if (currentTrailList.size() >= numberOfIntersectingTrails) {
-				firstAidLocations.put(landmark, currentTrailList);
+		return graph.degree(index);
+	}
+
+	/**
+	 * Returns the landmarks with a number of intersecting trails >= the
+	 * parameter, ordered from the most intersecting trails to the fewest and then
+	 * by description. The landmarks are read in order from an index kept by
+	 * number of trails, so no sorting is done. Each landmark is paired with its
+	 * number of intersecting trails, read under the same lock as the index, so
+	 * the counts always match the order. If numberOfIntersectingTrails is not
+	 * positive, an empty list is returned.
+	 * 
+	 * @param numberOfIntersectingTrails number of intersecting trails a landmark
+	 *                                   must contain
+	 * @return landmarks with at least numberOfIntersectingTrails and their
+	 *         numbers of intersecting trails, in report order
+	 */
+	public List<Entry<Landmark, Integer>> getProposedFirstAidLandmarks(int numberOfIntersectingTrails) {
+		long start = metrics.start();
+		lockForQuery();
+		try {
+			List<Entry<Landmark, Integer>> landmarks = structures.getIndexedList();
+			if (numberOfIntersectingTrails <= 0) {
+				return landmarks;
 			}
+			for (int d = degrees.getMaxDegree(); d >= numberOfIntersectingTrails; d--) {
+				for (int i = 0; i < degrees.getCount(d); i++) {
+					landmarks.addLast(new CountEntry(graph.getLandmark(degrees.get(d, i)), d));
+				}
+			}
+			return landmarks;
+		} finally {
+			lock.readLock().unlock();
+			metrics.recordFirstAidQuery(start);
+		}
+	}
+
+	/**
+	 * Returns the number of trails intersecting the specified landmark, or 0 if
+	 * the landmark ID is invalid.
+	 * 
+	 * @param landmarkID landmark ID to look up
+	 * @return number of intersecting trails
+	 */
+	public int getIntersectingTrailCount(String landmarkID) {
+		lockForQuery();
+		try {
+			int index = graph.indexOf(landmarkID);
+			return index < 0 ? 0 : graph.degree(index);
+		} finally {
+			lock.readLock().unlock();
+		}
+	}
+
+	/**
+	 * Returns the landmark with the specified ID paired with its number of
+	 * intersecting trails, both read under one lock, or null if the landmark ID
+	 * is invalid.
+	 * 
+	 * @param landmarkID landmark ID to look up
+	 * @return landmark and its number of intersecting trails, or null
+	 */
+	public Entry<Landmark, Integer> getLandmarkWithTrailCount(String landmarkID) {
+		lockForQuery();
+		try {
+			int index = graph.indexOf(landmarkID);
+			return index < 0 ? null : new CountEntry(graph.getLandmark(index), graph.degree(index));
+		} finally {
+			lock.readLock().unlock();
 		}
-		return firstAidLocations;
 	}
 }
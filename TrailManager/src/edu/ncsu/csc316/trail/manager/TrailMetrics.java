@@ -0,0 +1,305 @@
+package edu.ncsu.csc316.trail.manager;
+
+import java.lang.management.ManagementFactory;
+import java.util.Hashtable;
+
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+/**
+ * Instrumentation of a TrailManager: how long each phase of loading took,
+ * latency histograms of distance and first aid queries, the number of
+ * landmarks settled and edges scanned by each graph traversal, and the hit
+ * rates of the distance and report caches. Metrics can be read as a
+ * MetricsSnapshot or through JMX once registered with the platform MBean
+ * server.
+ *
+ * Load timings and cache counts are always kept, since they cost nothing per
+ * query. Recording queries and traversals is off unless the trail.metrics
+ * system property is true or it is switched on with setEnabled; while it is
+ * off, an instrumented query only reads one volatile flag, and while it is on
+ * it adds two clock reads and a few uncontended LongAdder updates.
+ *
+ * @author Thommasaht Nhouyvanisvong (tcnhouyv)
+ */
+public class TrailMetrics implements TrailMetricsMXBean {
+
+	/** System property that switches query recording on for new managers */
+	public static final String ENABLED_PROPERTY = "trail.metrics";
+	/** JMX domain metrics are registered under */
+	public static final String JMX_DOMAIN = "edu.ncsu.csc316.trail";
+	/** Start time returned while recording is off */
+	private static final long NOT_TIMED = Long.MIN_VALUE;
+
+	/** Whether queries and traversals are recorded */
+	private volatile boolean enabled;
+	/** Time spent reading the files into the graph, in nanoseconds */
+	private volatile long parseNanos;
+	/** Time spent building the component and degree indexes, in nanoseconds */
+	private volatile long indexNanos;
+	/** Time spent sorting landmarks by description, in nanoseconds */
+	private volatile long sortNanos;
+	/** Latencies of distance queries in nanoseconds */
+	private final Log2Histogram distanceQueries = new Log2Histogram();
+	/** Latencies of first aid queries in nanoseconds */
+	private final Log2Histogram firstAidQueries = new Log2Histogram();
+	/** Landmarks settled per traversal */
+	private final Log2Histogram landmarksSettled = new Log2Histogram();
+	/** Edges scanned per traversal */
+	private final Log2Histogram edgesScanned = new Log2Histogram();
+	/** Cache of distance results of the manager */
+	private final ResultCache<?> distanceCache;
+	/** Cache of distance reports built from the manager, or null */
+	private volatile ResultCache<?> reportCache;
+	/** Name the metrics are registered under, or null if they are not */
+	private ObjectName registeredName;
+
+	/**
+	 * Creates metrics for a manager with the specified distance cache, recording
+	 * queries if the trail.metrics system property is true.
+	 *
+	 * @param distanceCache cache of distance results of the manager
+	 */
+	TrailMetrics(ResultCache<?> distanceCache) {
+		this.distanceCache = distanceCache;
+		this.enabled = Boolean.getBoolean(ENABLED_PROPERTY);
+	}
+
+	/**
+	 * Attaches the cache of distance reports built from the manager, so its hit
+	 * rate is reported alongside the distance cache's.
+	 *
+	 * @param reportCache cache of distance reports
+	 */
+	void setReportCache(ResultCache<?> reportCache) {
+		this.reportCache = reportCache;
+	}
+
+	/**
+	 * Records how long each phase of loading took.
+	 *
+	 * @param parse time spent reading the files into the graph, in nanoseconds
+	 * @param index time spent building indexes, in nanoseconds
+	 * @param sort  time spent sorting landmarks by description, in nanoseconds
+	 */
+	void recordLoad(long parse, long index, long sort) {
+		parseNanos = parse;
+		indexNanos = index;
+		sortNanos = sort;
+	}
+
+	/**
+	 * Returns the start time of a query to pass to recordDistanceQuery or
+	 * recordFirstAidQuery once it finishes, without reading the clock if
+	 * recording is off.
+	 *
+	 * @return start time of the query
+	 */
+	long start() {
+		return enabled ? System.nanoTime() : NOT_TIMED;
+	}
+
+	/**
+	 * Records the latency of a distance query that started at the specified
+	 * time.
+	 *
+	 * @param start value start returned when the query began
+	 */
+	void recordDistanceQuery(long start) {
+		if (start != NOT_TIMED) {
+			distanceQueries.record(System.nanoTime() - start);
+		}
+	}
+
+	/**
+	 * Records the latency of a first aid query that started at the specified
+	 * time.
+	 *
+	 * @param start value start returned when the query began
+	 */
+	void recordFirstAidQuery(long start) {
+		if (start != NOT_TIMED) {
+			firstAidQueries.record(System.nanoTime() - start);
+		}
+	}
+
+	/**
+	 * Records the size of a graph traversal.
+	 *
+	 * @param settled number of landmarks settled
+	 * @param scanned number of edges scanned
+	 */
+	void recordTraversal(int settled, long scanned) {
+		if (enabled) {
+			landmarksSettled.record(settled);
+			edgesScanned.record(scanned);
+		}
+	}
+
+	/**
+	 * Returns a copy of every metric as it is now.
+	 *
+	 * @return snapshot of the metrics
+	 */
+	public MetricsSnapshot snapshot() {
+		ResultCache<?> reports = reportCache;
+		long[] cacheCounts = { distanceCache.getHitCount(), distanceCache.getMissCount(),
+				reports == null ? 0 : reports.getHitCount(), reports == null ? 0 : reports.getMissCount() };
+		return new MetricsSnapshot(new long[] { parseNanos, indexNanos, sortNanos }, distanceQueries.snapshot(),
+				firstAidQueries.snapshot(), landmarksSettled.snapshot(), edgesScanned.snapshot(), cacheCounts);
+	}
+
+	/**
+	 * Registers the metrics with the platform MBean server under
+	 * edu.ncsu.csc316.trail:type=TrailMetrics,name=name, replacing any metrics
+	 * registered under that name before. Registering again under another name
+	 * moves the registration.
+	 *
+	 * @param name name distinguishing these metrics from other managers'
+	 * @return name the metrics were registered under
+	 * @throws JMException if the metrics cannot be registered
+	 */
+	public synchronized ObjectName register(String name) throws JMException {
+		unregister();
+		Hashtable<String, String> properties = new Hashtable<>();
+		properties.put("type", "TrailMetrics");
+		properties.put("name", ObjectName.quote(name));
+		ObjectName objectName = new ObjectName(JMX_DOMAIN, properties);
+		MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+		if (server.isRegistered(objectName)) {
+			server.unregisterMBean(objectName);
+		}
+		server.registerMBean(this, objectName);
+		registeredName = objectName;
+		return objectName;
+	}
+
+	/**
+	 * Removes the metrics from the platform MBean server if they are registered.
+	 *
+	 * @throws JMException if the metrics cannot be unregistered
+	 */
+	public synchronized void unregister() throws JMException {
+		if (registeredName != null) {
+			MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+			if (server.isRegistered(registeredName)) {
+				server.unregisterMBean(registeredName);
+			}
+			registeredName = null;
+		}
+	}
+
+	@Override
+	public boolean isEnabled() {
+		return enabled;
+	}
+
+	@Override
+	public void setEnabled(boolean enabled) {
+		this.enabled = enabled;
+	}
+
+	@Override
+	public long getParseNanos() {
+		return parseNanos;
+	}
+
+	@Override
+	public long getIndexNanos() {
+		return indexNanos;
+	}
+
+	@Override
+	public long getSortNanos() {
+		return sortNanos;
+	}
+
+	@Override
+	public long getDistanceQueryCount() {
+		return distanceQueries.snapshot().getCount();
+	}
+
+	@Override
+	public double getDistanceQueryMeanNanos() {
+		return distanceQueries.snapshot().getMean();
+	}
+
+	@Override
+	public long getDistanceQueryP50Nanos() {
+		return distanceQueries.snapshot().getPercentile(50);
+	}
+
+	@Override
+	public long getDistanceQueryP99Nanos() {
+		return distanceQueries.snapshot().getPercentile(99);
+	}
+
+	@Override
+	public long getDistanceQueryMaxNanos() {
+		return distanceQueries.snapshot().getMax();
+	}
+
+	@Override
+	public long getFirstAidQueryCount() {
+		return firstAidQueries.snapshot().getCount();
+	}
+
+	@Override
+	public double getFirstAidQueryMeanNanos() {
+		return firstAidQueries.snapshot().getMean();
+	}
+
+	@Override
+	public long getFirstAidQueryP50Nanos() {
+		return firstAidQueries.snapshot().getPercentile(50);
+	}
+
+	@Override
+	public long getFirstAidQueryP99Nanos() {
+		return firstAidQueries.snapshot().getPercentile(99);
+	}
+
+	@Override
+	public long getFirstAidQueryMaxNanos() {
+		return firstAidQueries.snapshot().getMax();
+	}
+
+	@Override
+	public long getTraversalCount() {
+		return landmarksSettled.snapshot().getCount();
+	}
+
+	@Override
+	public double getMeanLandmarksSettled() {
+		return landmarksSettled.snapshot().getMean();
+	}
+
+	@Override
+	public long getMaxLandmarksSettled() {
+		return landmarksSettled.snapshot().getMax();
+	}
+
+	@Override
+	public double getMeanEdgesScanned() {
+		return edgesScanned.snapshot().getMean();
+	}
+
+	@Override
+	public double getDistanceCacheHitRate() {
+		return snapshot().getDistanceCacheHitRate();
+	}
+
+	@Override
+	public double getReportCacheHitRate() {
+		return snapshot().getReportCacheHitRate();
+	}
+
+	@Override
+	public void reset() {
+		distanceQueries.reset();
+		firstAidQueries.reset();
+		landmarksSettled.reset();
+		edgesScanned.reset();
+	}
+}
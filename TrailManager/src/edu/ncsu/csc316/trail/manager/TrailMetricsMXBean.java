@@ -0,0 +1,171 @@
+package edu.ncsu.csc316.trail.manager;
+
+/**
+ * Management interface of TrailMetrics, through which JMX clients such as
+ * JConsole can read a TrailManager's load timings, query latencies, traversal
+ * sizes, and cache hit rates, and switch query instrumentation on and off.
+ * Latencies are in nanoseconds, and percentiles are upper bounds accurate to
+ * within a factor of two.
+ *
+ * @author Thommasaht Nhouyvanisvong (tcnhouyv)
+ */
+public interface TrailMetricsMXBean {
+
+	/**
+	 * Returns true if queries and traversals are being recorded.
+	 *
+	 * @return true if query instrumentation is on
+	 */
+	boolean isEnabled();
+
+	/**
+	 * Switches recording of queries and traversals on or off. Load timings and
+	 * cache hit rates are always kept.
+	 *
+	 * @param enabled true to record queries and traversals
+	 */
+	void setEnabled(boolean enabled);
+
+	/**
+	 * Returns the time spent reading the landmark and trail files, or the
+	 * snapshot, into the graph.
+	 *
+	 * @return parse time in nanoseconds
+	 */
+	long getParseNanos();
+
+	/**
+	 * Returns the time spent building the component and degree indexes.
+	 *
+	 * @return index time in nanoseconds
+	 */
+	long getIndexNanos();
+
+	/**
+	 * Returns the time spent sorting landmarks by description for reports.
+	 *
+	 * @return sort time in nanoseconds
+	 */
+	long getSortNanos();
+
+	/**
+	 * Returns the number of distance queries recorded.
+	 *
+	 * @return number of distance queries
+	 */
+	long getDistanceQueryCount();
+
+	/**
+	 * Returns the mean latency of the distance queries recorded.
+	 *
+	 * @return mean latency in nanoseconds
+	 */
+	double getDistanceQueryMeanNanos();
+
+	/**
+	 * Returns the median latency of the distance queries recorded.
+	 *
+	 * @return median latency in nanoseconds
+	 */
+	long getDistanceQueryP50Nanos();
+
+	/**
+	 * Returns the 99th percentile latency of the distance queries recorded.
+	 *
+	 * @return 99th percentile latency in nanoseconds
+	 */
+	long getDistanceQueryP99Nanos();
+
+	/**
+	 * Returns the longest latency of the distance queries recorded.
+	 *
+	 * @return longest latency in nanoseconds
+	 */
+	long getDistanceQueryMaxNanos();
+
+	/**
+	 * Returns the number of first aid queries recorded.
+	 *
+	 * @return number of first aid queries
+	 */
+	long getFirstAidQueryCount();
+
+	/**
+	 * Returns the mean latency of the first aid queries recorded.
+	 *
+	 * @return mean latency in nanoseconds
+	 */
+	double getFirstAidQueryMeanNanos();
+
+	/**
+	 * Returns the median latency of the first aid queries recorded.
+	 *
+	 * @return median latency in nanoseconds
+	 */
+	long getFirstAidQueryP50Nanos();
+
+	/**
+	 * Returns the 99th percentile latency of the first aid queries recorded.
+	 *
+	 * @return 99th percentile latency in nanoseconds
+	 */
+	long getFirstAidQueryP99Nanos();
+
+	/**
+	 * Returns the longest latency of the first aid queries recorded.
+	 *
+	 * @return longest latency in nanoseconds
+	 */
+	long getFirstAidQueryMaxNanos();
+
+	/**
+	 * Returns the number of graph traversals recorded, counting every shortest
+	 * path search but not answers served from a cache or an oracle.
+	 *
+	 * @return number of traversals
+	 */
+	long getTraversalCount();
+
+	/**
+	 * Returns the mean number of landmarks settled per traversal.
+	 *
+	 * @return mean landmarks settled
+	 */
+	double getMeanLandmarksSettled();
+
+	/**
+	 * Returns the most landmarks settled by a single traversal.
+	 *
+	 * @return most landmarks settled
+	 */
+	long getMaxLandmarksSettled();
+
+	/**
+	 * Returns the mean number of edges scanned per traversal.
+	 *
+	 * @return mean edges scanned
+	 */
+	double getMeanEdgesScanned();
+
+	/**
+	 * Returns the fraction of distance cache lookups that were hits, or 0 if
+	 * there were none.
+	 *
+	 * @return distance cache hit rate
+	 */
+	double getDistanceCacheHitRate();
+
+	/**
+	 * Returns the fraction of report cache lookups that were hits, or 0 if
+	 * there were none or no report cache is attached.
+	 *
+	 * @return report cache hit rate
+	 */
+	double getReportCacheHitRate();
+
+	/**
+	 * Discards the recorded queries and traversals. Load timings and cache hit
+	 * counts are kept.
+	 */
+	void reset();
+}
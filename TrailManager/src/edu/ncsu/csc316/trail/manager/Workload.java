@@ -0,0 +1,42 @@
+package edu.ncsu.csc316.trail.manager;
+
+/**
+ * The expected use of the maps TrailManager returns, which decides the map
+ * type it picks when none is specified. Each workload is a number of lookups
+ * expected per entry put into a result map.
+ *
+ * @author Thommasaht Nhouyvanisvong (tcnhouyv)
+ */
+public enum Workload {
+
+	/** Results are looked up many times, about eight lookups per entry */
+	READ_HEAVY(8),
+	/** Results are looked up about once per entry */
+	BALANCED(1),
+	/**
+	 * Results are mostly built and then iterated or discarded, with about one
+	 * lookup per eight entries
+	 */
+	WRITE_HEAVY(0.125);
+
+	/** Expected lookups per entry put */
+	private final double readsPerWrite;
+
+	/**
+	 * Creates a workload.
+	 *
+	 * @param readsPerWrite expected lookups per entry put
+	 */
+	Workload(double readsPerWrite) {
+		this.readsPerWrite = readsPerWrite;
+	}
+
+	/**
+	 * Returns the number of lookups expected per entry put into a result map.
+	 *
+	 * @return expected lookups per entry
+	 */
+	public double getReadsPerWrite() {
+		return readsPerWrite;
+	}
+}
@@ -0,0 +1,203 @@
+package edu.ncsu.csc316.trail.ui;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.io.Writer;
+import java.util.ArrayDeque;
+import java.util.Locale;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import edu.ncsu.csc316.trail.manager.FirstAidRanking;
+import edu.ncsu.csc316.trail.manager.ReportManager;
+
+/**
+ * A headless front end for TrailManager that answers a script of commands, one
+ * per line, and writes their reports in the order the commands were given. The
+ * commands are:
+ * <ul>
+ * <li>first-aid N [degree|closeness|betweenness] - proposed first aid
+ * locations, by minimum number of intersecting trails or as the N most
+ * central landmarks</li>
+ * <li>distances ID - landmarks reachable from a landmark</li>
+ * <li>landmark ID - a single landmark</li>
+ * </ul>
+ * Blank lines and lines starting with # are skipped. Each report is followed
+ * by a blank line, as in the interactive UI.
+ *
+ * Reading, answering and writing overlap: each command is answered on a pool
+ * of worker threads as soon as it is read, while finished reports at the head
+ * of the script are written out. At most a window of commands is in progress
+ * at a time, so a long script does not hold all of its reports in memory.
+ *
+ * @author Thommasaht Nhouyvanisvong (tcnhouyv)
+ */
+public class BatchRunner implements AutoCloseable {
+
+	/** Default number of commands in progress at a time */
+	public static final int DEFAULT_WINDOW = 1024;
+
+	/** Report manager answering commands */
+	private final ReportManager manager;
+	/** Threads answering commands */
+	private final ExecutorService executor;
+	/** Largest number of commands in progress at a time */
+	private final int window;
+
+	/**
+	 * Creates a runner answering commands from the specified report manager
+	 * with the default window.
+	 *
+	 * @param manager report manager answering commands
+	 * @param threads number of worker threads
+	 */
+	public BatchRunner(ReportManager manager, int threads) {
+		this(manager, threads, DEFAULT_WINDOW);
+	}
+
+	/**
+	 * Creates a runner answering commands from the specified report manager.
+	 *
+	 * @param manager report manager answering commands
+	 * @param threads number of worker threads
+	 * @param window  largest number of commands in progress at a time
+	 * @throws IllegalArgumentException if threads or window is not positive
+	 */
+	public BatchRunner(ReportManager manager, int threads, int window) {
+		if (threads <= 0 || window <= 0) {
+			throw new IllegalArgumentException("Number of threads and window must be greater than 0.");
+		}
+		this.manager = manager;
+		this.window = window;
+		AtomicInteger count = new AtomicInteger();
+		ThreadFactory factory = task -> {
+			Thread thread = new Thread(task, "trail-batch-" + count.incrementAndGet());
+			thread.setDaemon(true);
+			return thread;
+		};
+		executor = Executors.newFixedThreadPool(threads, factory);
+	}
+
+	/**
+	 * Answers every command read from in and writes the reports to out in
+	 * command order, then flushes out. Neither in nor out is closed.
+	 *
+	 * @param in  commands, one per line
+	 * @param out destination of the reports
+	 * @return number of commands answered
+	 * @throws IOException if in cannot be read or out cannot be written
+	 */
+	public int run(BufferedReader in, Writer out) throws IOException {
+		ArrayDeque<Future<String>> pending = new ArrayDeque<>();
+		int count = 0;
+		String line;
+		while ((line = in.readLine()) != null) {
+			String command = line.strip();
+			if (command.isEmpty() || command.startsWith("#")) {
+				continue;
+			}
+			if (pending.size() == window) {
+				write(pending.poll(), out);
+			}
+			pending.add(executor.submit(() -> answer(command)));
+			count++;
+			// Write whatever is already finished at the head of the script
+			while (!pending.isEmpty() && pending.peek().isDone()) {
+				write(pending.poll(), out);
+			}
+		}
+		while (!pending.isEmpty()) {
+			write(pending.poll(), out);
+		}
+		out.flush();
+		return count;
+	}
+
+	/**
+	 * Returns the report for a single command, or a message if the command is
+	 * not recognized.
+	 *
+	 * @param command command to answer, without surrounding whitespace
+	 * @return report for the command
+	 */
+	public String answer(String command) {
+		String[] words = command.split("\\s+");
+		switch (words[0]) {
+		case "first-aid":
+			if (words.length == 2 || words.length == 3) {
+				int number;
+				try {
+					number = Integer.parseInt(words[1]);
+				} catch (NumberFormatException e) {
+					break;
+				}
+				if (words.length == 2) {
+					return manager.getProposedFirstAidLocations(number);
+				}
+				try {
+					FirstAidRanking ranking = FirstAidRanking.valueOf(words[2].toUpperCase(Locale.ROOT));
+					return manager.getProposedFirstAidLocations(number, ranking);
+				} catch (IllegalArgumentException e) {
+					break;
+				}
+			}
+			break;
+		case "distances":
+			if (words.length == 2) {
+				return manager.getDistancesReport(words[1]);
+			}
+			break;
+		case "landmark":
+			if (words.length == 2) {
+				return manager.getLandmarkReport(words[1]);
+			}
+			break;
+		default:
+			break;
+		}
+		return "Invalid command: " + command;
+	}
+
+	/**
+	 * Returns the report manager answering commands.
+	 *
+	 * @return report manager
+	 */
+	public ReportManager getManager() {
+		return manager;
+	}
+
+	@Override
+	public void close() {
+		executor.shutdownNow();
+	}
+
+	/**
+	 * Private helper method that waits for a command to be answered and writes
+	 * its report followed by a blank line.
+	 *
+	 * @param report report being generated
+	 * @param out    destination of the report
+	 * @throws IOException if out cannot be written or the wait is interrupted
+	 */
+	private static void write(Future<String> report, Writer out) throws IOException {
+		try {
+			out.write(report.get());
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new InterruptedIOException("Interrupted while waiting for a report.");
+		} catch (ExecutionException e) {
+			// Invalid input is reported as a message, so anything thrown is a bug
+			if (e.getCause() instanceof RuntimeException) {
+				throw (RuntimeException) e.getCause();
+			}
+			throw new IllegalStateException(e.getCause());
+		}
+		out.write("\n\n");
+	}
+}
@@ -1,29 +1,49 @@
 package edu.ncsu.csc316.trail.ui;
 
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.FileDescriptor;
 import java.io.FileNotFoundException;
+import java.io.FileOutputStream;
+import java.io.FileReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
 import java.util.Scanner;
 
-import edu.ncsu.csc316.trail.dsa.DSAFactory;
-import edu.ncsu.csc316.trail.dsa.DataStructure;
+import edu.ncsu.csc316.trail.manager.LoadMode;
 import edu.ncsu.csc316.trail.manager.ReportManager;
+import edu.ncsu.csc316.trail.manager.Workload;
 
 /**
  * A class that contains the UI functionality for TrailManager, i.e. the View
  * and Controller portion of the MVC model. Allows the client to select input
  * files, navigate through TrailManager features, and close the program when
- * necessary.
+ * necessary. When started with file arguments it runs headless instead,
+ * answering a script of commands with a BatchRunner.
  * 
  * @author Thommasaht Nhouyvanisvong (tcnhouyv)
  */
 public class TrailManagerUI {
 
+	/** Size of the buffers between the batch mode and the console */
+	private static final int BUFFER_SIZE = 1 << 16;
+
 	/**
 	 * Creates a console based UI that allows users to specify input files and
-	 * navigate TrailManager features.
+	 * navigate TrailManager features. If a landmark file and trail file are
+	 * given, runs the commands in the command file, or standard input if none
+	 * is given, without prompting.
 	 * 
-	 * @param args command line arguments (not used)
+	 * @param args no arguments for the interactive UI, or the landmark file,
+	 *             trail file, and optionally the command file and the number of
+	 *             worker threads for the batch mode
 	 */
 	public static void main(String[] args) {
+		if (args.length > 0) {
+			System.exit(runBatch(args));
+		}
 		Scanner scanner = new Scanner(System.in);
 		String landmarkFile;
 		String trailFile;
@@ -37,13 +57,13 @@ public class TrailManagerUI {
 			trailFile = scanner.next();
 
 			try {
-				manager = new ReportManager(landmarkFile, trailFile, DataStructure.LINEARPROBINGHASHMAP);
+				manager = new ReportManager(landmarkFile, trailFile, Workload.BALANCED, LoadMode.SNAPSHOT);
 			} catch (FileNotFoundException e) {
 				System.out.println("File(s) not found.");
 			}
 		} while (manager == null);
 		
-		System.out.println("Map selected: " + DSAFactory.getMap(null).getClass().getSimpleName());
+		System.out.println("Map selected: " + manager.getMapType());
 		
 		// Display main menu
 		String input = null;
@@ -89,4 +109,54 @@ public class TrailManagerUI {
 		scanner.close();
 		System.exit(0);
 	}
+
+	/**
+	 * Private helper method that loads a park and runs a script of commands
+	 * against it. Reports go to standard output through a buffer that is
+	 * flushed only when full and at the end, rather than after every line.
+	 * 
+	 * @param args landmark file, trail file, and optionally the command file
+	 *             and the number of worker threads
+	 * @return exit status, 0 if every command was run
+	 */
+	private static int runBatch(String[] args) {
+		int threads = Runtime.getRuntime().availableProcessors();
+		if (args.length > 3) {
+			try {
+				threads = Integer.parseInt(args[3]);
+			} catch (NumberFormatException e) {
+				threads = 0;
+			}
+		}
+		if (args.length < 2 || args.length > 4 || threads <= 0) {
+			System.err.println("Usage: TrailManagerUI [<landmark file> <trail file> [command file|-] [threads]]");
+			if (threads <= 0) {
+				System.err.println("The number of threads must be a positive integer.");
+			}
+			return 2;
+		}
+		ReportManager manager;
+		try {
+			manager = new ReportManager(args[0], args[1], Workload.READ_HEAVY, LoadMode.SNAPSHOT);
+		} catch (FileNotFoundException e) {
+			System.err.println("File(s) not found.");
+			return 1;
+		}
+		boolean stdin = args.length < 3 || "-".equals(args[2]);
+		try (BatchRunner runner = new BatchRunner(manager, threads);
+				BufferedReader in = stdin ? new BufferedReader(new InputStreamReader(System.in), BUFFER_SIZE)
+						: new BufferedReader(new FileReader(args[2]), BUFFER_SIZE)) {
+			// Write to the descriptor directly, as System.out flushes each line
+			Writer out = new BufferedWriter(new OutputStreamWriter(new FileOutputStream(FileDescriptor.out)),
+					BUFFER_SIZE);
+			runner.run(in, out);
+			return 0;
+		} catch (FileNotFoundException e) {
+			System.err.println("Command file not found.");
+			return 1;
+		} catch (IOException e) {
+			System.err.println("Could not run commands: " + e.getMessage());
+			return 1;
+		}
+	}
 }
@@ -0,0 +1,338 @@
+package edu.ncsu.csc316.trail.ui;
+
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import javax.management.JMException;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpHandler;
+import com.sun.net.httpserver.HttpServer;
+
+import edu.ncsu.csc316.trail.manager.LoadMode;
+import edu.ncsu.csc316.trail.manager.ReportManager;
+import edu.ncsu.csc316.trail.manager.Workload;
+
+/**
+ * A long-running HTTP front end for TrailManager. The park is loaded once into
+ * a ReportManager and queries are answered concurrently on a pool of handler
+ * threads, so scripts can ask many questions without paying for a JVM start
+ * and a CSV load each time. The endpoints are:
+ * <ul>
+ * <li>GET /distances?origin=ID - landmarks reachable from a landmark</li>
+ * <li>GET /first-aid?min=N - proposed first aid locations</li>
+ * <li>GET /landmark/ID - a single landmark</li>
+ * </ul>
+ * Responses are the existing text reports unless the request has
+ * format=json in its query string or accepts application/json, in which case
+ * they are JSON objects. Unknown paths and invalid landmark IDs are answered
+ * with 404, malformed parameters with 400, and queries that fail with 500.
+ *
+ * @author Thommasaht Nhouyvanisvong (tcnhouyv)
+ */
+public class TrailServer {
+
+	/** Port used when none is given on the command line */
+	public static final int DEFAULT_PORT = 8316;
+	/** Content type of text responses */
+	private static final String TEXT_TYPE = "text/plain; charset=utf-8";
+	/** Content type of JSON responses */
+	private static final String JSON_TYPE = "application/json; charset=utf-8";
+
+	/** Report manager answering queries */
+	private final ReportManager manager;
+	/** Underlying HTTP server */
+	private final HttpServer server;
+	/** Threads handling requests */
+	private final ExecutorService executor;
+
+	/**
+	 * Creates a server answering queries from the specified report manager on a
+	 * port of the loopback address. The server does not accept requests until it
+	 * is started.
+	 *
+	 * @param manager report manager answering queries
+	 * @param port    port to listen on, or 0 to pick a free port
+	 * @param threads number of request handler threads
+	 * @throws IOException if the port cannot be bound
+	 */
+	public TrailServer(ReportManager manager, int port, int threads) throws IOException {
+		this(manager, new InetSocketAddress(InetAddress.getLoopbackAddress(), port), threads);
+	}
+
+	/**
+	 * Creates a server answering queries from the specified report manager on
+	 * the specified address. The server does not accept requests until it is
+	 * started.
+	 *
+	 * @param manager report manager answering queries
+	 * @param address address and port to listen on
+	 * @param threads number of request handler threads
+	 * @throws IOException if the address cannot be bound
+	 */
+	public TrailServer(ReportManager manager, InetSocketAddress address, int threads) throws IOException {
+		if (threads <= 0) {
+			throw new IllegalArgumentException("Number of threads must be greater than 0.");
+		}
+		this.manager = manager;
+		server = HttpServer.create(address, 0);
+		AtomicInteger count = new AtomicInteger();
+		ThreadFactory factory = task -> {
+			Thread thread = new Thread(task, "trail-server-" + count.incrementAndGet());
+			thread.setDaemon(true);
+			return thread;
+		};
+		executor = Executors.newFixedThreadPool(threads, factory);
+		server.setExecutor(executor);
+		// Unknown paths are answered here rather than by the built-in handler,
+		// which closes the connection and ignores the requested format
+		server.createContext("/", new QueryHandler() {
+			@Override
+			Response answer(HttpExchange exchange, boolean json) {
+				return new Response(404, "Not found.");
+			}
+		});
+		server.createContext("/distances", new QueryHandler() {
+			@Override
+			Response answer(HttpExchange exchange, boolean json) {
+				String origin = getParameter(exchange, "origin");
+				if (origin == null) {
+					return new Response(400, "Missing origin parameter.");
+				}
+				return landmarkResponse(origin, json, json ? manager.getDistancesJson(origin)
+						: manager.getDistancesReport(origin));
+			}
+		});
+		server.createContext("/first-aid", new QueryHandler() {
+			@Override
+			Response answer(HttpExchange exchange, boolean json) {
+				String min = getParameter(exchange, "min");
+				int numberOfTrails;
+				try {
+					numberOfTrails = Integer.parseInt(min);
+				} catch (NumberFormatException e) {
+					return new Response(400, "Missing or invalid min parameter.");
+				}
+				int status = numberOfTrails <= 0 ? 400 : 200;
+				return new Response(status, json ? manager.getProposedFirstAidLocationsJson(numberOfTrails)
+						: manager.getProposedFirstAidLocations(numberOfTrails));
+			}
+		});
+		server.createContext("/landmark/", new QueryHandler() {
+			@Override
+			Response answer(HttpExchange exchange, boolean json) {
+				String id = exchange.getRequestURI().getPath().substring("/landmark/".length());
+				if (id.isEmpty() || id.indexOf('/') >= 0) {
+					return new Response(404, "Not found.");
+				}
+				return landmarkResponse(id, json, json ? manager.getLandmarkJson(id) : manager.getLandmarkReport(id));
+			}
+		});
+	}
+
+	/**
+	 * Private helper method that answers with a report about a landmark, or with
+	 * 404 if the report says the landmark ID is invalid. The status comes from
+	 * the report itself, so it cannot disagree with the body if the landmark is
+	 * added or removed while the request is answered.
+	 *
+	 * @param landmarkID landmark ID the report is about
+	 * @param json       true if the report is a JSON object
+	 * @param report     report about the landmark
+	 * @return response to send
+	 */
+	private static Response landmarkResponse(String landmarkID, boolean json, String report) {
+		String invalid = ReportManager.getInvalidLandmarkMessage(landmarkID);
+		boolean found = !report.equals(json ? ReportManager.getErrorJson(invalid) : invalid);
+		return new Response(found ? 200 : 404, report);
+	}
+
+	/**
+	 * Starts accepting requests in the background.
+	 */
+	public void start() {
+		server.start();
+	}
+
+	/**
+	 * Stops accepting requests, waits up to the specified number of seconds for
+	 * requests in progress to finish, and stops the handler threads.
+	 *
+	 * @param delaySeconds longest time to wait for requests in progress
+	 */
+	public void stop(int delaySeconds) {
+		server.stop(delaySeconds);
+		executor.shutdownNow();
+	}
+
+	/**
+	 * Returns the port the server is listening on, which is useful when the
+	 * server was created with port 0.
+	 *
+	 * @return listening port
+	 */
+	public int getPort() {
+		return server.getAddress().getPort();
+	}
+
+	/**
+	 * Returns the report manager answering queries.
+	 *
+	 * @return report manager
+	 */
+	public ReportManager getManager() {
+		return manager;
+	}
+
+	/**
+	 * Status code and body of a response, with the body either a report or a
+	 * JSON object.
+	 */
+	private static class Response {
+
+		/** HTTP status code */
+		private final int status;
+		/** Response body */
+		private final String body;
+
+		/**
+		 * Creates a response.
+		 *
+		 * @param status HTTP status code
+		 * @param body   response body
+		 */
+		Response(int status, String body) {
+			this.status = status;
+			this.body = body;
+		}
+	}
+
+	/**
+	 * Handler for a GET endpoint that answers with a report or a JSON object,
+	 * depending on the format the client asked for. Errors found by the handler
+	 * itself, such as a missing parameter, are written as JSON error objects when
+	 * JSON was requested.
+	 */
+	private abstract static class QueryHandler implements HttpHandler {
+
+		/**
+		 * Answers a request.
+		 *
+		 * @param exchange request being answered
+		 * @param json     true if the client asked for JSON
+		 * @return response to send
+		 */
+		abstract Response answer(HttpExchange exchange, boolean json);
+
+		@Override
+		public void handle(HttpExchange exchange) throws IOException {
+			try (exchange) {
+				boolean json = wantsJson(exchange);
+				Response response;
+				if (!"GET".equals(exchange.getRequestMethod())) {
+					exchange.getResponseHeaders().set("Allow", "GET");
+					response = new Response(405, "Only GET is supported.");
+				} else {
+					try {
+						response = answer(exchange, json);
+					} catch (RuntimeException e) {
+						// Answer rather than drop the connection with no status line
+						response = new Response(500, "Internal server error.");
+					}
+				}
+				String body = response.body;
+				// Handler errors are plain messages, so wrap them for JSON clients
+				if (json && !body.startsWith("{")) {
+					body = ReportManager.getErrorJson(body);
+				}
+				byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+				exchange.getResponseHeaders().set("Content-Type", json ? JSON_TYPE : TEXT_TYPE);
+				exchange.sendResponseHeaders(response.status, bytes.length);
+				try (OutputStream out = exchange.getResponseBody()) {
+					out.write(bytes);
+				}
+			}
+		}
+
+		/**
+		 * Returns true if the request asked for JSON, either with format=json in
+		 * the query string or by accepting application/json.
+		 *
+		 * @param exchange request to check
+		 * @return true if the response should be JSON
+		 */
+		private static boolean wantsJson(HttpExchange exchange) {
+			String format = getParameter(exchange, "format");
+			if (format != null) {
+				return "json".equalsIgnoreCase(format);
+			}
+			String accept = exchange.getRequestHeaders().getFirst("Accept");
+			return accept != null && accept.contains("application/json");
+		}
+
+		/**
+		 * Returns the decoded value of the first query string parameter with the
+		 * specified name, or null if there is none.
+		 *
+		 * @param exchange request to read
+		 * @param name     parameter name
+		 * @return parameter value, or null
+		 */
+		static String getParameter(HttpExchange exchange, String name) {
+			String query = exchange.getRequestURI().getRawQuery();
+			if (query == null) {
+				return null;
+			}
+			for (String pair : query.split("&")) {
+				int equals = pair.indexOf('=');
+				String key = equals < 0 ? pair : pair.substring(0, equals);
+				if (name.equals(URLDecoder.decode(key, StandardCharsets.UTF_8))) {
+					return equals < 0 ? "" : URLDecoder.decode(pair.substring(equals + 1), StandardCharsets.UTF_8);
+				}
+			}
+			return null;
+		}
+	}
+
+	/**
+	 * Loads a park and serves queries about it until the process is stopped.
+	 *
+	 * @param args landmark file, trail file, and optionally the port and the
+	 *             number of handler threads
+	 */
+	public static void main(String[] args) {
+		if (args.length < 2) {
+			System.out.println("Usage: TrailServer <landmark file> <trail file> [port] [threads]");
+			return;
+		}
+		int port = args.length > 2 ? Integer.parseInt(args[2]) : DEFAULT_PORT;
+		int threads = args.length > 3 ? Integer.parseInt(args[3])
+				: Math.max(4, 2 * Runtime.getRuntime().availableProcessors());
+		try {
+			ReportManager manager = new ReportManager(args[0], args[1], Workload.BALANCED, LoadMode.SNAPSHOT);
+			TrailServer server = new TrailServer(manager, port, threads);
+			// Metrics are readable over JMX, and query recording can be switched
+			// on there or with -Dtrail.metrics=true
+			try {
+				manager.getMetrics().register("server-" + server.getPort());
+			} catch (JMException e) {
+				System.out.println("Could not register metrics: " + e.getMessage());
+			}
+			server.start();
+			System.out.println("Serving " + args[0] + " and " + args[1] + " on port " + server.getPort());
+		} catch (FileNotFoundException e) {
+			System.out.println("File(s) not found.");
+		} catch (IOException e) {
+			System.out.println("Could not start server: " + e.getMessage());
+		}
+	}
+}
@@ -0,0 +1,126 @@
+package edu.ncsu.csc316.trail.graph;
+
+import static org.junit.Assert.*;
+
+import java.io.FileNotFoundException;
+
+import org.junit.Test;
+
+import edu.ncsu.csc316.trail.manager.TrailDataLoader;
+
+/**
+ * Tests the CentralityIndex class on small graphs with known scores, including
+ * tied shortest paths and trails of length 0, and checks sampled scores of a
+ * generated park against its exact scores.
+ *
+ * @author Thommasaht Nhouyvanisvong (tcnhouyv)
+ */
+public class CentralityIndexTest {
+
+	/** Allowed floating point error of exact scores */
+	private static final double EPSILON = 1e-9;
+
+	/**
+	 * Tests exact betweenness and closeness on a path of five landmarks.
+	 */
+	@Test
+	public void testPath() {
+		TrailGraph graph = build(5, 0, 1, 1320, 1, 2, 1320, 2, 3, 1320, 3, 4, 1320);
+		CentralityIndex index = CentralityIndex.compute(graph);
+		assertTrue(index.isExact());
+		assertEquals(5, index.getSampleCount());
+		// L1 lies between L0 and each of L2, L3, L4: 3 of the 6 other pairs
+		assertEquals(0.0, index.getBetweenness(0), EPSILON);
+		assertEquals(0.5, index.getBetweenness(1), EPSILON);
+		assertEquals(4.0 / 6, index.getBetweenness(2), EPSILON);
+		assertEquals(0.5, index.getBetweenness(3), EPSILON);
+		// L2 is on average 0.375 miles from the other four landmarks
+		assertEquals(1 / 0.375, index.getCloseness(2), EPSILON);
+		assertEquals(1 / 0.625, index.getCloseness(0), EPSILON);
+		assertEquals(0.0, index.getBetweenness(5), EPSILON);
+	}
+
+	/**
+	 * Tests that tied shortest paths split a pair's share between them, that a
+	 * trail of length 0 passes its share on, and that landmarks in a smaller
+	 * trail system get lower closeness for reaching fewer landmarks.
+	 */
+	@Test
+	public void testTiesAndComponents() {
+		// A diamond L0-L1-L3 and L0-L2-L3 of equal lengths, and a separate pair
+		TrailGraph graph = build(6, 0, 1, 100, 0, 2, 100, 1, 3, 100, 2, 3, 100, 4, 5, 100);
+		CentralityIndex index = CentralityIndex.compute(graph);
+		assertEquals(1.0 / 20, index.getBetweenness(1), EPSILON);
+		assertEquals(index.getBetweenness(1), index.getBetweenness(2), EPSILON);
+		assertEquals(1.0 / 20, index.getBetweenness(0), EPSILON);
+		assertTrue(index.getCloseness(4) < index.getCloseness(0));
+
+		// L1 and L2 are joined by a trail of length 0 on the only path from L0 to L3
+		graph = build(4, 0, 1, 100, 1, 2, 0, 2, 3, 100);
+		index = CentralityIndex.compute(graph);
+		assertEquals(4.0 / 6, index.getBetweenness(1), EPSILON);
+		assertEquals(4.0 / 6, index.getBetweenness(2), EPSILON);
+		try {
+			CentralityIndex.compute(graph, 0, 1);
+			fail("A sample of 0 landmarks was accepted");
+		} catch (IllegalArgumentException e) {
+			assertEquals("Number of samples must be positive.", e.getMessage());
+		}
+	}
+
+	/**
+	 * Tests that sampled scores of a generated park are repeatable and close to
+	 * its exact scores, and that they agree on the most central landmark.
+	 *
+	 * @throws FileNotFoundException if the input files are missing
+	 */
+	@Test
+	public void testSampling() throws FileNotFoundException {
+		TrailGraph graph = TrailDataLoader.load("input/landmarks_10.csv", "input/trails_10.csv");
+		CentralityIndex exact = CentralityIndex.compute(graph, graph.size(), 1);
+		CentralityIndex sampled = CentralityIndex.compute(graph, 256, 316);
+		CentralityIndex repeated = CentralityIndex.compute(graph, 256, 316);
+		assertTrue(exact.isExact());
+		assertFalse(sampled.isExact());
+		assertEquals(256, sampled.getSampleCount());
+
+		int top = 0;
+		int sampledTop = 0;
+		double betweennessError = 0;
+		double closenessError = 0;
+		for (int v = 0; v < graph.size(); v++) {
+			assertEquals(sampled.getBetweenness(v), repeated.getBetweenness(v), 0);
+			assertEquals(sampled.getCloseness(v), repeated.getCloseness(v), 0);
+			betweennessError += Math.abs(sampled.getBetweenness(v) - exact.getBetweenness(v));
+			closenessError += Math.abs(sampled.getCloseness(v) - exact.getCloseness(v)) / exact.getCloseness(v);
+			if (exact.getBetweenness(v) > exact.getBetweenness(top)) {
+				top = v;
+			}
+			if (sampled.getBetweenness(v) > sampled.getBetweenness(sampledTop)) {
+				sampledTop = v;
+			}
+		}
+		assertEquals(top, sampledTop);
+		assertTrue("Mean betweenness error " + betweennessError / graph.size(),
+				betweennessError / graph.size() < 0.01);
+		assertTrue("Mean closeness error " + closenessError / graph.size(), closenessError / graph.size() < 0.05);
+	}
+
+	/**
+	 * Builds a graph of landmarks L0 through L(n - 1) and the specified trails.
+	 *
+	 * @param n      number of landmarks
+	 * @param trails triples of landmark numbers and trail length
+	 * @return graph of the landmarks and trails
+	 */
+	private static TrailGraph build(int n, int... trails) {
+		TrailGraphBuilder builder = new TrailGraphBuilder();
+		for (int v = 0; v < n; v++) {
+			builder.addLandmark("L" + v, "Landmark " + v, "Location");
+		}
+		for (int i = 0; i < trails.length; i += 3) {
+			builder.addTrail("L" + trails[i], "L" + trails[i + 1], trails[i + 2]);
+		}
+		return builder.build();
+	}
+}
@@ -0,0 +1,144 @@
+package edu.ncsu.csc316.trail.graph;
+
+import static org.junit.Assert.*;
+
+import java.util.Random;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import edu.ncsu.csc316.trail.data.Landmark;
+
+/**
+ * Tests the DegreeIndex class, including the order of landmarks within each
+ * degree and moving landmarks between degrees as the graph changes.
+ *
+ * @author Thommasaht Nhouyvanisvong (tcnhouyv)
+ */
+public class DegreeIndexTest {
+
+	/** TrailGraph used for testing */
+	private TrailGraph graph;
+	/** DegreeIndex of the graph */
+	private DegreeIndex index;
+
+	/**
+	 * Builds a graph of five landmarks and its degree index before each test.
+	 */
+	@Before
+	public void setUp() {
+		TrailGraphBuilder builder = new TrailGraphBuilder();
+		builder.addLandmark(new Landmark("L01", "Park Entrance", "Location"));
+		builder.addLandmark(new Landmark("L02", "Restroom", "Restroom"));
+		builder.addLandmark(new Landmark("L03", "Lake", "Body of Water"));
+		builder.addLandmark(new Landmark("L04", "Pond", "Body of Water"));
+		builder.addLandmark(new Landmark("L05", "Lake", "Body of Water"));
+		builder.addTrail("L01", "L02", 200);
+		builder.addTrail("L01", "L03", 500);
+		builder.addTrail("L01", "L05", 300);
+		graph = builder.build();
+		index = new DegreeIndex(graph);
+	}
+
+	/**
+	 * Tests that landmarks are bucketed by degree and ordered by description and
+	 * then ID within each bucket.
+	 */
+	@Test
+	public void testBuckets() {
+		assertEquals(3, index.getMaxDegree());
+		assertEquals(1, index.getCount(3));
+		assertEquals(0, index.get(3, 0));
+		assertEquals(0, index.getCount(2));
+		assertEquals(3, index.getCount(1));
+		// Lake (L03), Lake (L05), Restroom (L02)
+		assertEquals(2, index.get(1, 0));
+		assertEquals(4, index.get(1, 1));
+		assertEquals(1, index.get(1, 2));
+		assertEquals(1, index.getCount(0));
+		assertEquals(0, index.getCount(-1));
+		assertEquals(0, index.getCount(10));
+		assertEquals(4, index.countAtLeast(1));
+		assertEquals(5, index.countAtLeast(-3));
+		assertEquals(0, index.countAtLeast(4));
+	}
+
+	/**
+	 * Tests that landmarks move between buckets as trails and landmarks are added
+	 * and removed.
+	 */
+	@Test
+	public void testUpdate() {
+		graph.addTrail(3, 4, 100);
+		index.update(3);
+		index.update(4);
+		assertEquals(3, index.getCount(1));
+		assertEquals(1, index.getCount(2));
+		assertEquals(4, index.get(2, 0));
+		assertEquals(3, index.get(1, 1));
+
+		int added = graph.addLandmark(new Landmark("L06", "Campsite", "Campsite"));
+		index.update(added);
+		assertEquals(1, index.getCount(0));
+		graph.addTrail(added, added, 10);
+		index.update(added);
+		assertEquals(added, index.get(2, 0));
+		assertEquals(4, index.get(2, 1));
+
+		index.remove(0);
+		graph.removeLandmark(0);
+		index.update(1);
+		index.update(2);
+		index.update(4);
+		assertEquals(2, index.getMaxDegree());
+		assertEquals(1, index.getCount(2));
+		assertEquals(2, index.getCount(1));
+		assertEquals(2, index.getCount(0));
+	}
+
+	/**
+	 * Tests a random sequence of updates against degrees read from the graph.
+	 */
+	@Test
+	public void testRandomUpdates() {
+		Random random = new Random(316);
+		for (int step = 0; step < 2000; step++) {
+			int from = random.nextInt(graph.size());
+			int to = random.nextInt(graph.size());
+			if (!graph.contains(from) || !graph.contains(to)) {
+				graph.addLandmark(new Landmark("N" + step, "Landmark " + random.nextInt(20), "Location"));
+				index.update(graph.indexOf("N" + step));
+			} else if (random.nextBoolean()) {
+				graph.addTrail(from, to, 1);
+				index.update(from);
+				index.update(to);
+			} else if (random.nextInt(10) == 0) {
+				index.remove(from);
+				graph.removeLandmark(from);
+				for (int v = 0; v < graph.size(); v++) {
+					if (graph.contains(v)) {
+						index.update(v);
+					}
+				}
+			} else if (graph.removeTrail(from, to)) {
+				index.update(from);
+				index.update(to);
+			}
+		}
+		int total = 0;
+		for (int d = 0; d <= index.getMaxDegree(); d++) {
+			for (int i = 0; i < index.getCount(d); i++) {
+				int v = index.get(d, i);
+				assertEquals(d, graph.degree(v));
+				if (i > 0) {
+					Landmark previous = graph.getLandmark(index.get(d, i - 1));
+					Landmark current = graph.getLandmark(v);
+					int comparison = previous.getDescription().compareTo(current.getDescription());
+					assertTrue(comparison < 0 || comparison == 0 && previous.getId().compareTo(current.getId()) < 0);
+				}
+			}
+			total += index.getCount(d);
+		}
+		assertEquals(graph.getLandmarkCount(), total);
+	}
+}
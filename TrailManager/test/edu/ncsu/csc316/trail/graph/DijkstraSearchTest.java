@@ -0,0 +1,105 @@
+package edu.ncsu.csc316.trail.graph;
+
+import static org.junit.Assert.*;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import edu.ncsu.csc316.trail.data.Landmark;
+
+/**
+ * Tests the DijkstraSearch class on a small graph with a cycle, checking
+ * shortest distances, settle order, and reuse across runs.
+ *
+ * @author Thommasaht Nhouyvanisvong (tcnhouyv)
+ */
+public class DijkstraSearchTest {
+
+	/** Graph searched in each test */
+	private TrailGraph graph;
+	/** DijkstraSearch used for testing */
+	private DijkstraSearch search;
+
+	/**
+	 * Builds a graph where the direct trail from L01 to L03 is longer than the
+	 * route through L02, plus an isolated landmark.
+	 */
+	@Before
+	public void setUp() {
+		TrailGraphBuilder builder = new TrailGraphBuilder();
+		builder.addLandmark(new Landmark("L01", "Park Entrance", "Location"));
+		builder.addLandmark(new Landmark("L02", "Restroom 1", "Restroom"));
+		builder.addLandmark(new Landmark("L03", "Visitor Center", "Building"));
+		builder.addLandmark(new Landmark("L04", "Lake", "Body of Water"));
+		builder.addLandmark(new Landmark("L05", "Pond", "Body of Water"));
+		builder.addTrail("L01", "L03", 900);
+		builder.addTrail("L01", "L02", 200);
+		builder.addTrail("L02", "L03", 300);
+		builder.addTrail("L03", "L04", 100);
+		graph = builder.build();
+		search = new DijkstraSearch(graph);
+	}
+
+	/**
+	 * Tests that distances are shortest distances and that landmarks are
+	 * settled in nondecreasing distance order.
+	 */
+	@Test
+	public void testRun() {
+		search.run(graph.indexOf("L01"));
+		assertEquals(4, search.getSettledCount());
+		assertEquals(0, search.getDistance(graph.indexOf("L01")));
+		assertEquals(200, search.getDistance(graph.indexOf("L02")));
+		assertEquals(500, search.getDistance(graph.indexOf("L03")));
+		assertEquals(600, search.getDistance(graph.indexOf("L04")));
+		assertEquals(DijkstraSearch.UNREACHED, search.getDistance(graph.indexOf("L05")));
+
+		assertEquals(graph.indexOf("L01"), search.getSettled(0));
+		assertEquals(graph.indexOf("L02"), search.getSettled(1));
+		assertEquals(graph.indexOf("L03"), search.getSettled(2));
+		assertEquals(graph.indexOf("L04"), search.getSettled(3));
+	}
+
+	/**
+	 * Tests that a second run does not see state from the first.
+	 */
+	@Test
+	public void testReuse() {
+		search.run(graph.indexOf("L04"));
+		assertEquals(4, search.getSettledCount());
+		assertEquals(600, search.getDistance(graph.indexOf("L01")));
+
+		search.run(graph.indexOf("L05"));
+		assertEquals(1, search.getSettledCount());
+		assertEquals(0, search.getDistance(graph.indexOf("L05")));
+		assertEquals(DijkstraSearch.UNREACHED, search.getDistance(graph.indexOf("L01")));
+	}
+
+	/**
+	 * Tests runs that stop at a distance bound or after a number of accepted
+	 * landmarks, including landmarks tied with the last one accepted.
+	 */
+	@Test
+	public void testBoundedRun() {
+		int source = graph.indexOf("L01");
+		search.run(source, 500, null, Integer.MAX_VALUE);
+		assertEquals(3, search.getSettledCount());
+		assertEquals(graph.indexOf("L03"), search.getSettled(2));
+
+		search.run(source, 499, null, Integer.MAX_VALUE);
+		assertEquals(2, search.getSettledCount());
+
+		// Only L03 and L04 are accepted, so the search stops after settling L04
+		search.run(source, DijkstraSearch.UNREACHED, v -> v == graph.indexOf("L03") || v == graph.indexOf("L04"), 2);
+		assertEquals(4, search.getSettledCount());
+		search.run(source, DijkstraSearch.UNREACHED, v -> v == graph.indexOf("L03"), 1);
+		assertEquals(3, search.getSettledCount());
+
+		graph.addTrail(graph.indexOf("L01"), graph.indexOf("L05"), 200);
+		search.run(source, DijkstraSearch.UNREACHED, v -> v != source, 1);
+		// L02 and L05 are tied at 200 feet, so both are settled
+		assertEquals(3, search.getSettledCount());
+		assertEquals(200, search.getDistance(search.getSettled(1)));
+		assertEquals(200, search.getDistance(search.getSettled(2)));
+	}
+}
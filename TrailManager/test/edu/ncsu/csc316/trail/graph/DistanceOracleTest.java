@@ -0,0 +1,173 @@
+package edu.ncsu.csc316.trail.graph;
+
+import static org.junit.Assert.*;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Random;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import edu.ncsu.csc316.trail.data.Landmark;
+import edu.ncsu.csc316.trail.manager.TrailDataLoader;
+
+/**
+ * Tests the DistanceOracle class by comparing exact and anchor oracles with
+ * DijkstraSearch, checking that anchor queries are pruned, and saving and
+ * reopening oracles.
+ *
+ * @author Thommasaht Nhouyvanisvong (tcnhouyv)
+ */
+public class DistanceOracleTest {
+
+	/** Folder for oracle files */
+	@Rule
+	public TemporaryFolder folder = new TemporaryFolder();
+
+	/**
+	 * Builds a random graph with several trail systems, parallel trails, and
+	 * one removed landmark.
+	 *
+	 * @param random source of randomness
+	 * @param n      number of landmarks
+	 * @return random graph
+	 */
+	private static TrailGraph randomGraph(Random random, int n) {
+		TrailGraphBuilder builder = new TrailGraphBuilder();
+		for (int v = 0; v < n; v++) {
+			builder.addLandmark(new Landmark("L" + v, "Landmark " + v, "Location"));
+		}
+		for (int t = 0; t < 2 * n; t++) {
+			// Trails stay within thirds of the landmarks, so there are at least
+			// three trail systems
+			int third = random.nextInt(3);
+			int low = third * n / 3;
+			int high = (third + 1) * n / 3;
+			builder.addTrail(low + random.nextInt(high - low), low + random.nextInt(high - low), random.nextInt(500));
+		}
+		TrailGraph graph = builder.build();
+		graph.removeLandmark(n - 1);
+		return graph;
+	}
+
+	/**
+	 * Asserts that the oracle gives the same distance as DijkstraSearch for
+	 * every pair of live landmarks.
+	 *
+	 * @param graph     graph searched
+	 * @param oracle    oracle to check
+	 * @param altSearch search to run the oracle's queries on
+	 */
+	private static void assertAllPairs(TrailGraph graph, DistanceOracle oracle, AltSearch altSearch) {
+		DijkstraSearch search = new DijkstraSearch(graph);
+		for (int s = 0; s < graph.size(); s++) {
+			if (!graph.contains(s)) {
+				continue;
+			}
+			search.run(s);
+			for (int t = 0; t < graph.size(); t++) {
+				if (graph.contains(t)) {
+					assertEquals(search.getDistance(t), oracle.getDistance(s, t, altSearch));
+				}
+			}
+		}
+	}
+
+	/**
+	 * Tests exact and anchor oracles against DijkstraSearch on random graphs,
+	 * with one search shared by the oracles of each graph.
+	 */
+	@Test
+	public void testRandomGraphs() {
+		Random random = new Random(316);
+		for (int round = 0; round < 10; round++) {
+			TrailGraph graph = randomGraph(random, 6 + random.nextInt(60));
+			AltSearch altSearch = new AltSearch(graph);
+			DistanceOracle exact = DistanceOracle.build(graph, Long.MAX_VALUE);
+			assertTrue(exact.isExact());
+			assertEquals((long) graph.size() * graph.size() * 4, exact.estimateBytes());
+			assertAllPairs(graph, exact, altSearch);
+
+			DistanceOracle anchored = DistanceOracle.build(graph, 0, 1 + random.nextInt(4));
+			assertFalse(anchored.isExact());
+			assertAllPairs(graph, anchored, altSearch);
+		}
+	}
+
+	/**
+	 * Tests that anchor queries in the largest park give Dijkstra's distances
+	 * while settling far fewer landmarks than Dijkstra settles before reaching
+	 * the target.
+	 *
+	 * @throws IOException if the park files are missing
+	 */
+	@Test
+	public void testAnchorQueriesArePruned() throws IOException {
+		TrailGraph graph = TrailDataLoader.load("input/landmarks_16.csv", "input/trails_16.csv");
+		DistanceOracle oracle = DistanceOracle.build(graph, 64L << 20);
+		assertFalse(oracle.isExact());
+		assertEquals(DistanceOracle.DEFAULT_ANCHORS, oracle.getAnchorCount());
+		DijkstraSearch search = new DijkstraSearch(graph);
+		AltSearch altSearch = new AltSearch(graph);
+		Random random = new Random(316);
+		long dijkstraSettled = 0;
+		long oracleSettled = 0;
+		for (int query = 0; query < 40; query++) {
+			int s = random.nextInt(graph.size());
+			int t = random.nextInt(graph.size());
+			search.run(s);
+			assertEquals(search.getDistance(t), oracle.getDistance(s, t, altSearch));
+			oracleSettled += altSearch.getSettledCount();
+			for (int i = 0; i < search.getSettledCount(); i++) {
+				if (search.getSettled(i) == t) {
+					dijkstraSettled += i + 1;
+				}
+			}
+		}
+		assertTrue(oracleSettled * 4 < dijkstraSettled);
+	}
+
+	/**
+	 * Tests that saved oracles reopen with the same answers, and that oracles
+	 * for a different graph and corrupt files are rejected.
+	 *
+	 * @throws IOException if a file cannot be written or read
+	 */
+	@Test
+	public void testWriteAndRead() throws IOException {
+		TrailGraph graph = TrailDataLoader.load("input/landmarks_8.csv", "input/trails_8.csv");
+		Path file = folder.getRoot().toPath().resolve("oracle");
+		for (long budget : new long[] { Long.MAX_VALUE, 0 }) {
+			DistanceOracle oracle = DistanceOracle.build(graph, budget);
+			oracle.write(file);
+			DistanceOracle reopened = DistanceOracle.read(file, graph);
+			assertEquals(oracle.isExact(), reopened.isExact());
+			assertEquals(oracle.estimateBytes(), reopened.estimateBytes());
+			assertAllPairs(graph, reopened, new AltSearch(graph));
+		}
+
+		TrailGraph other = TrailDataLoader.load("input/landmarks_8.csv", "input/trails_8.csv");
+		other.setTrailLength(0, other.neighbor(other.firstEdge(0)), 1);
+		try {
+			DistanceOracle.read(file, other);
+			fail("An oracle for a different graph was opened.");
+		} catch (IOException e) {
+			assertTrue(e.getMessage().contains("different graph"));
+		}
+
+		try (FileChannel channel = FileChannel.open(file, StandardOpenOption.WRITE)) {
+			channel.write(ByteBuffer.wrap(new byte[] { 1, 2, 3, 4 }), channel.size() - 4);
+		}
+		try {
+			DistanceOracle.read(file, graph);
+			fail("A corrupt oracle was opened.");
+		} catch (IOException e) {
+			assertTrue(e.getMessage().contains("checksum"));
+		}
+	}
+}
@@ -0,0 +1,155 @@
+package edu.ncsu.csc316.trail.graph;
+
+import static org.junit.Assert.*;
+
+import java.io.FileNotFoundException;
+import java.lang.management.BufferPoolMXBean;
+import java.lang.management.ManagementFactory;
+import java.util.Random;
+
+import org.junit.Test;
+
+import edu.ncsu.csc316.trail.data.Landmark;
+import edu.ncsu.csc316.trail.manager.TrailDataLoader;
+
+/**
+ * Tests graphs kept in OFF_HEAP storage against the same graphs kept on the
+ * heap: loading, random updates that move and pack edge ranges, releasing the
+ * direct memory when a graph is closed, and failing on use after close.
+ *
+ * @author Thommasaht Nhouyvanisvong (tcnhouyv)
+ */
+public class GraphStorageTest {
+
+	/** Landmark file of the dataset used for loading */
+	private static final String LANDMARKS = "input/landmarks_10.csv";
+	/** Trail file of the dataset used for loading */
+	private static final String TRAILS = "input/trails_10.csv";
+
+	/**
+	 * Tests that a dataset loaded off the heap matches the same dataset loaded on
+	 * it, and that closing the graph returns its direct memory.
+	 *
+	 * @throws FileNotFoundException if the input files are missing
+	 */
+	@Test
+	public void testLoad() throws FileNotFoundException {
+		TrailGraph heap = TrailDataLoader.load(LANDMARKS, TRAILS);
+		long before = directMemoryUsed();
+		TrailGraph offHeap = TrailDataLoader.load(LANDMARKS, TRAILS, GraphStorage.OFF_HEAP);
+		long loaded = directMemoryUsed();
+		assertEquals(GraphStorage.HEAP, heap.getStorage());
+		assertEquals(GraphStorage.OFF_HEAP, offHeap.getStorage());
+		assertSameGraph(heap, offHeap);
+		assertTrue("Direct memory grew by " + (loaded - before), loaded - before >= 4L * offHeap.getTrailCount());
+
+		offHeap.close();
+		offHeap.close();
+		assertTrue("Direct memory after close " + directMemoryUsed(), directMemoryUsed() <= before);
+	}
+
+	/**
+	 * Tests a long random sequence of landmark and trail updates applied to a
+	 * heap graph and an off-heap graph, which must stay identical.
+	 */
+	@Test
+	public void testRandomUpdates() {
+		int n = 30;
+		TrailGraphBuilder heapBuilder = new TrailGraphBuilder();
+		TrailGraphBuilder offHeapBuilder = new TrailGraphBuilder(GraphStorage.OFF_HEAP, 0, 0);
+		for (int v = 0; v < n; v++) {
+			heapBuilder.addLandmark("L" + v, "Landmark " + v, "Location");
+			offHeapBuilder.addLandmark("L" + v, "Landmark " + v, "Location");
+		}
+		TrailGraph heap = heapBuilder.build();
+		TrailGraph offHeap = offHeapBuilder.build();
+		Random random = new Random(316);
+		for (int step = 0; step < 10000; step++) {
+			int from = random.nextInt(heap.size());
+			int to = random.nextInt(heap.size());
+			int length = random.nextInt(1000);
+			int operation = random.nextInt(20);
+			if (!heap.contains(from) || !heap.contains(to)) {
+				continue;
+			}
+			if (operation < 10) {
+				heap.addTrail(from, to, length);
+				offHeap.addTrail(from, to, length);
+			} else if (operation < 15) {
+				assertEquals(heap.removeTrail(from, to), offHeap.removeTrail(from, to));
+			} else if (operation < 18) {
+				assertEquals(heap.setTrailLength(from, to, length), offHeap.setTrailLength(from, to, length));
+			} else if (operation < 19) {
+				Landmark landmark = new Landmark("N" + step, "\u00c9tang " + step, "Body of Water");
+				assertEquals(heap.addLandmark(landmark), offHeap.addLandmark(landmark));
+			} else {
+				assertEquals(heap.removeLandmark(from), offHeap.removeLandmark(from));
+			}
+		}
+		assertSameGraph(heap, offHeap);
+		offHeap.close();
+	}
+
+	/**
+	 * Tests that reading a closed off-heap graph fails rather than reading freed
+	 * memory.
+	 */
+	@Test
+	public void testClosed() {
+		TrailGraphBuilder builder = new TrailGraphBuilder(GraphStorage.OFF_HEAP, 2, 1);
+		builder.addLandmark("L01", "Park Entrance", "Location");
+		builder.addLandmark("L02", "Restroom 1", "Restroom");
+		builder.addTrail("L01", "L02", 200);
+		TrailGraph graph = builder.build();
+		assertEquals(200, graph.length(graph.firstEdge(0)));
+		graph.close();
+		try {
+			graph.degree(0);
+			fail("A closed graph was read");
+		} catch (IndexOutOfBoundsException e) {
+			assertEquals(GraphStorage.OFF_HEAP, graph.getStorage());
+		}
+	}
+
+	/**
+	 * Asserts that two graphs hold the same landmarks and the same edges in the
+	 * same order.
+	 *
+	 * @param expected graph holding the expected data
+	 * @param actual   graph to check
+	 */
+	private static void assertSameGraph(TrailGraph expected, TrailGraph actual) {
+		assertEquals(expected.size(), actual.size());
+		assertEquals(expected.getLandmarkCount(), actual.getLandmarkCount());
+		assertEquals(expected.getTrailCount(), actual.getTrailCount());
+		for (int v = 0; v < expected.size(); v++) {
+			assertEquals(expected.contains(v), actual.contains(v));
+			if (!expected.contains(v)) {
+				continue;
+			}
+			assertEquals(expected.getId(v), actual.getId(v));
+			assertEquals(v, actual.indexOf(expected.getId(v)));
+			assertEquals(expected.getDescription(v), actual.getDescription(v));
+			assertEquals(expected.getType(v), actual.getType(v));
+			assertEquals(expected.degree(v), actual.degree(v));
+			for (int i = 0; i < expected.degree(v); i++) {
+				assertEquals(expected.neighbor(expected.firstEdge(v) + i), actual.neighbor(actual.firstEdge(v) + i));
+				assertEquals(expected.length(expected.firstEdge(v) + i), actual.length(actual.firstEdge(v) + i));
+			}
+		}
+	}
+
+	/**
+	 * Returns the bytes of direct buffer memory the JVM has allocated.
+	 *
+	 * @return direct memory in use
+	 */
+	private static long directMemoryUsed() {
+		for (BufferPoolMXBean pool : ManagementFactory.getPlatformMXBeans(BufferPoolMXBean.class)) {
+			if ("direct".equals(pool.getName())) {
+				return pool.getMemoryUsed();
+			}
+		}
+		throw new IllegalStateException("No direct buffer pool.");
+	}
+}
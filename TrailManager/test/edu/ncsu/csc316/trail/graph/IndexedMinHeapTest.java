@@ -0,0 +1,66 @@
+package edu.ncsu.csc316.trail.graph;
+
+import static org.junit.Assert.*;
+
+import org.junit.Test;
+
+/**
+ * Tests the IndexedMinHeap class including insertion, decreasing keys, polling
+ * in key order, and clearing.
+ *
+ * @author Thommasaht Nhouyvanisvong (tcnhouyv)
+ */
+public class IndexedMinHeapTest {
+
+	/**
+	 * Tests that items are polled in ascending key order after inserts and
+	 * decreases, and that larger keys do not replace smaller ones.
+	 */
+	@Test
+	public void testInsertOrDecrease() {
+		IndexedMinHeap heap = new IndexedMinHeap(6);
+		assertTrue(heap.isEmpty());
+		assertTrue(heap.insertOrDecrease(0, 50));
+		assertTrue(heap.insertOrDecrease(1, 20));
+		assertTrue(heap.insertOrDecrease(2, 40));
+		assertTrue(heap.insertOrDecrease(3, 10));
+		assertTrue(heap.insertOrDecrease(4, 30));
+		assertEquals(5, heap.size());
+		assertTrue(heap.contains(2));
+		assertFalse(heap.contains(5));
+
+		assertTrue(heap.insertOrDecrease(0, 5));
+		assertFalse(heap.insertOrDecrease(2, 45));
+		assertEquals(40, heap.getKey(2));
+
+		assertEquals(0, heap.peek());
+		assertEquals(0, heap.poll());
+		assertEquals(3, heap.poll());
+		assertEquals(1, heap.poll());
+		assertEquals(4, heap.poll());
+		assertEquals(2, heap.poll());
+		assertTrue(heap.isEmpty());
+		assertFalse(heap.contains(0));
+	}
+
+	/**
+	 * Tests that clear empties the heap and items can be inserted again.
+	 */
+	@Test
+	public void testClear() {
+		IndexedMinHeap heap = new IndexedMinHeap(3);
+		heap.insertOrDecrease(0, 3);
+		heap.insertOrDecrease(1, 2);
+		heap.clear();
+		assertTrue(heap.isEmpty());
+		assertFalse(heap.contains(1));
+		heap.insertOrDecrease(1, 7);
+		assertEquals(1, heap.poll());
+		try {
+			heap.poll();
+			fail("IllegalStateException was not thrown.");
+		} catch (IllegalStateException e) {
+			assertEquals("Heap is empty.", e.getMessage());
+		}
+	}
+}
@@ -0,0 +1,223 @@
+package edu.ncsu.csc316.trail.graph;
+
+import static org.junit.Assert.*;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Random;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import edu.ncsu.csc316.trail.data.Landmark;
+
+/**
+ * Tests the LandmarkTable class: storing, replacing, and removing landmarks,
+ * ID lookups by String and by bytes, and comparisons that must agree with
+ * String.compareTo for Latin-1 and wider characters.
+ *
+ * @author Thommasaht Nhouyvanisvong (tcnhouyv)
+ */
+public class LandmarkTableTest {
+
+	/** LandmarkTable used for testing */
+	private LandmarkTable table;
+
+	/**
+	 * Creates a table of three landmarks before each test, one of them with a
+	 * description outside Latin-1.
+	 */
+	@Before
+	public void setUp() {
+		table = new LandmarkTable(2);
+		table.put(0, "L01", "Park Entrance", "Location");
+		table.put(1, "L02", "Caf\u00e9", "Restroom");
+		table.put(2, "L03", "\u5bcc\u58eb View", "Location");
+	}
+
+	/**
+	 * Tests that stored landmarks read back as equal views with shared types.
+	 */
+	@Test
+	public void testGet() {
+		assertEquals(3, table.size());
+		assertEquals(3, table.getCount());
+		Landmark view = table.get(2);
+		assertEquals(new Landmark("L03", "", ""), view);
+		assertEquals("\u5bcc\u58eb View", view.getDescription());
+		assertEquals("Location", view.getType());
+		assertEquals("Caf\u00e9", table.getDescription(1));
+		assertSame(table.getType(0), table.getType(2));
+		assertNotSame(table.get(0), table.get(0));
+		assertNull(table.get(3));
+		assertNull(table.get(-1));
+	}
+
+	/**
+	 * Tests that IDs and descriptions copied into a char[] match the decoded
+	 * Strings, for Latin-1 and wider characters.
+	 */
+	@Test
+	public void testChars() {
+		for (int v = 0; v < 3; v++) {
+			String id = table.getId(v);
+			assertEquals(id.length(), table.getIdLength(v));
+			char[] chars = new char[id.length() + 2];
+			table.getIdChars(v, chars, 1);
+			assertEquals(id, new String(chars, 1, id.length()));
+			assertEquals(0, chars[chars.length - 1]);
+			String description = table.getDescription(v);
+			assertEquals(description.length(), table.getDescriptionLength(v));
+			chars = new char[description.length() + 2];
+			table.getDescriptionChars(v, chars, 1);
+			assertEquals(description, new String(chars, 1, description.length()));
+			assertEquals(0, chars[chars.length - 1]);
+		}
+	}
+
+	/**
+	 * Tests ID lookups by String and by UTF-8 bytes, including an ASCII ID
+	 * stored two bytes per character.
+	 */
+	@Test
+	public void testIndexOf() {
+		assertEquals(0, table.indexOf("L01"));
+		assertEquals(2, table.indexOf("L03"));
+		assertEquals(LandmarkTable.NOT_FOUND, table.indexOf("L04"));
+		assertEquals(LandmarkTable.NOT_FOUND, table.indexOf((String) null));
+		byte[] row = "x,L03,y".getBytes(StandardCharsets.UTF_8);
+		assertEquals(2, table.indexOf(row, 2, 3));
+		assertEquals(LandmarkTable.NOT_FOUND, table.indexOf(row, 2, 2));
+		table.put(3, "\u00c9tang", "Pond", "Body of Water");
+		byte[] accented = "\u00c9tang".getBytes(StandardCharsets.UTF_8);
+		assertEquals(3, table.indexOf(accented, 0, accented.length));
+	}
+
+	/**
+	 * Tests replacing and removing landmarks, reusing an emptied index, and
+	 * rejecting an ID held by another index.
+	 */
+	@Test
+	public void testPutAndRemove() {
+		table.put(1, "L02", "Restroom 1", "Restroom");
+		assertEquals(3, table.getCount());
+		assertEquals("Restroom 1", table.getDescription(1));
+		assertTrue(table.remove(0));
+		assertFalse(table.remove(0));
+		assertFalse(table.contains(0));
+		assertEquals(LandmarkTable.NOT_FOUND, table.indexOf("L01"));
+		assertEquals(2, table.indexOf("L03"));
+		table.put(0, "L09", "Overlook", "View");
+		assertEquals(0, table.indexOf("L09"));
+		assertEquals(3, table.size());
+		try {
+			table.put(0, "L03", "Duplicate", "View");
+			fail("An ID held by another index was stored");
+		} catch (IllegalArgumentException e) {
+			assertEquals("Landmark L03 already has index 2.", e.getMessage());
+		}
+		try {
+			table.put(5, "L05", "Gap", "View");
+			fail("A landmark was stored past the end of the table");
+		} catch (IllegalArgumentException e) {
+			assertEquals("No landmark index 5.", e.getMessage());
+		}
+	}
+
+	/**
+	 * Tests that repeatedly replacing landmarks keeps every landmark readable
+	 * while the arena is packed to reclaim abandoned characters.
+	 */
+	@Test
+	public void testPacking() {
+		for (int round = 0; round < 200; round++) {
+			for (int v = 0; v < 3; v++) {
+				table.put(v, "L0" + (v + 1), "Description " + round + " of " + v, "Type " + v % 2);
+			}
+		}
+		for (int v = 0; v < 3; v++) {
+			assertEquals(v, table.indexOf("L0" + (v + 1)));
+			assertEquals("Description 199 of " + v, table.getDescription(v));
+		}
+		assertTrue(table.getTextLength() < 200 * 3 * 20);
+	}
+
+	/**
+	 * Tests that comparisons of IDs and descriptions agree in sign with
+	 * String.compareTo on random strings mixing ASCII, Latin-1, and wider
+	 * characters.
+	 */
+	@Test
+	public void testCompare() {
+		Random random = new Random(316);
+		char[] alphabet = { 'a', 'b', 'B', '\u00e9', '\u00ff', '\u0100', '\u5bcc' };
+		LandmarkTable strings = new LandmarkTable(0);
+		String[] descriptions = new String[300];
+		for (int v = 0; v < descriptions.length; v++) {
+			char[] chars = new char[random.nextInt(5)];
+			for (int i = 0; i < chars.length; i++) {
+				// Most strings stay in Latin-1 so both encodings are compared
+				chars[i] = alphabet[random.nextInt(random.nextInt(4) == 0 ? alphabet.length : 5)];
+			}
+			descriptions[v] = new String(chars);
+			strings.put(v, "ID" + descriptions[v] + v, descriptions[v], "Type");
+		}
+		for (int a = 0; a < descriptions.length; a++) {
+			for (int b = 0; b < descriptions.length; b++) {
+				assertEquals(Integer.signum(descriptions[a].compareTo(descriptions[b])),
+						Integer.signum(strings.compareDescriptions(a, b)));
+				assertEquals(Integer.signum(strings.getId(a).compareTo(strings.getId(b))),
+						Integer.signum(strings.compareIds(a, b)));
+			}
+		}
+	}
+
+	/**
+	 * Tests that a table written to a buffer is restored with the same
+	 * landmarks, ID lookups, and comparisons and can still grow, that a table
+	 * with an empty index must be compacted first, and that a truncated buffer
+	 * is rejected.
+	 */
+	@Test
+	public void testBuffer() {
+		LandmarkTable restored = LandmarkTable.fromBuffer(table.toBuffer());
+		assertEquals(3, restored.size());
+		assertEquals(3, restored.getCount());
+		for (int v = 0; v < 3; v++) {
+			assertEquals(table.getId(v), restored.getId(v));
+			assertEquals(table.getDescription(v), restored.getDescription(v));
+			assertEquals(table.getType(v), restored.getType(v));
+			assertEquals(v, restored.indexOf(table.getId(v)));
+		}
+		assertEquals(Integer.signum(table.compareDescriptions(1, 2)),
+				Integer.signum(restored.compareDescriptions(1, 2)));
+		assertSame(restored.getType(0), restored.getType(2));
+		restored.put(3, "L04", "Lookout", "Location");
+		assertEquals(3, restored.indexOf("L04"));
+		assertEquals(2, restored.indexOf("L03"));
+		assertSame(restored.getType(0), restored.getType(3));
+
+		assertSame(table, table.compacted());
+		table.remove(0);
+		try {
+			table.toBuffer();
+			fail("A table with an empty index was written.");
+		} catch (IllegalStateException e) {
+			assertEquals("Only a compact landmark table can be written.", e.getMessage());
+		}
+		ByteBuffer buffer = table.compacted().toBuffer();
+		LandmarkTable compact = LandmarkTable.fromBuffer(buffer.duplicate());
+		assertEquals(2, compact.size());
+		assertEquals(0, compact.indexOf("L02"));
+		assertEquals(LandmarkTable.NOT_FOUND, compact.indexOf("L01"));
+		assertEquals("\u5bcc\u58eb View", compact.getDescription(1));
+
+		buffer.limit(buffer.limit() - 1);
+		try {
+			LandmarkTable.fromBuffer(buffer);
+			fail("A truncated table was restored.");
+		} catch (IllegalArgumentException e) {
+			assertEquals("Truncated landmark table.", e.getMessage());
+		}
+	}
+}
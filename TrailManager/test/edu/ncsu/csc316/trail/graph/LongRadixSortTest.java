@@ -0,0 +1,68 @@
+package edu.ncsu.csc316.trail.graph;
+
+import static org.junit.Assert.*;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import org.junit.Test;
+
+/**
+ * Tests the LongRadixSort class against Arrays.sort on short, long, and
+ * packed keys.
+ *
+ * @author Thommasaht Nhouyvanisvong (tcnhouyv)
+ */
+public class LongRadixSortTest {
+
+	/**
+	 * Sorts a copy of the keys with both sorts and checks they agree.
+	 *
+	 * @param keys keys to sort
+	 */
+	private static void assertSorts(long[] keys) {
+		long[] expected = keys.clone();
+		Arrays.sort(expected);
+		long[] actual = keys.clone();
+		LongRadixSort.sort(actual);
+		assertArrayEquals(expected, actual);
+	}
+
+	/**
+	 * Tests empty, short, and equal-key arrays.
+	 */
+	@Test
+	public void testSmallArrays() {
+		assertSorts(new long[0]);
+		assertSorts(new long[] { 5 });
+		assertSorts(new long[] { 3, 1, 2 });
+		long[] same = new long[1000];
+		Arrays.fill(same, 42L << 32 | 7);
+		assertSorts(same);
+	}
+
+	/**
+	 * Tests random keys spread over every bit, and keys packing a distance above
+	 * a rank, where most digits are skipped.
+	 */
+	@Test
+	public void testRandomArrays() {
+		Random random = new Random(316);
+		for (int length : new int[] { 255, 256, 1000, 70000 }) {
+			long[] keys = new long[length];
+			for (int i = 0; i < length; i++) {
+				keys[i] = random.nextLong() >>> 1;
+			}
+			assertSorts(keys);
+			for (int i = 0; i < length; i++) {
+				keys[i] = (long) random.nextInt(3_000_000) << 32 | random.nextInt(length);
+			}
+			assertSorts(keys);
+			for (int i = 0; i < length; i++) {
+				// Keys that differ only in a digit above the rank
+				keys[i] = (long) random.nextInt(4) << 44 | 9;
+			}
+			assertSorts(keys);
+		}
+	}
+}
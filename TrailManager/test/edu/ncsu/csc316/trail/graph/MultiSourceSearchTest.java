@@ -0,0 +1,148 @@
+package edu.ncsu.csc316.trail.graph;
+
+import static org.junit.Assert.*;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import edu.ncsu.csc316.trail.data.Landmark;
+
+/**
+ * Tests the MultiSourceSearch class on a small graph and on random graphs
+ * checked against one DijkstraSearch per source, with bucket widths and
+ * parallel thresholds that force both light and heavy relaxations and rounds
+ * split across threads.
+ *
+ * @author Thommasaht Nhouyvanisvong (tcnhouyv)
+ */
+public class MultiSourceSearchTest {
+
+	/** Graph searched in each test */
+	private TrailGraph graph;
+
+	/**
+	 * Builds a path of four landmarks with a landmark tied between the two ends,
+	 * plus an isolated landmark.
+	 */
+	@Before
+	public void setUp() {
+		TrailGraphBuilder builder = new TrailGraphBuilder();
+		builder.addLandmark(new Landmark("L01", "Park Entrance", "Location"));
+		builder.addLandmark(new Landmark("L02", "Restroom 1", "Restroom"));
+		builder.addLandmark(new Landmark("L03", "Visitor Center", "Building"));
+		builder.addLandmark(new Landmark("L04", "Restroom 2", "Restroom"));
+		builder.addLandmark(new Landmark("L05", "Pond", "Body of Water"));
+		builder.addTrail("L01", "L02", 200);
+		builder.addTrail("L02", "L03", 300);
+		builder.addTrail("L03", "L04", 300);
+		graph = builder.build();
+	}
+
+	/**
+	 * Tests nearest sources and distances, ties going to the source listed
+	 * first, and landmarks no source reaches.
+	 */
+	@Test
+	public void testRun() {
+		MultiSourceSearch search = new MultiSourceSearch(graph);
+		search.run(new int[] { 1, 3 });
+		assertEquals(200, search.getDistance(0));
+		assertEquals(1, search.getSource(0));
+		assertEquals(0, search.getDistance(3));
+		assertEquals(3, search.getSource(3));
+		assertEquals(300, search.getDistance(2));
+		assertEquals(1, search.getSource(2));
+		assertEquals(MultiSourceSearch.UNREACHED, search.getDistance(4));
+		assertEquals(MultiSourceSearch.NO_SOURCE, search.getSource(4));
+		assertEquals(4, search.getReachedCount());
+		assertEquals(266, search.getDelta());
+
+		search.run(new int[] { 3, 1, 3 });
+		assertEquals(3, search.getSource(2));
+		assertEquals(1, search.getSource(0));
+
+		search.run(new int[0]);
+		assertEquals(0, search.getReachedCount());
+		assertEquals(MultiSourceSearch.NO_SOURCE, search.getSource(1));
+
+		try {
+			search.run(new int[] { 5 });
+			fail("A missing source was searched from");
+		} catch (IllegalArgumentException e) {
+			assertEquals("No landmark index 5.", e.getMessage());
+		}
+		try {
+			new MultiSourceSearch(graph, 0, 1);
+			fail("A bucket width of 0 was accepted");
+		} catch (IllegalArgumentException e) {
+			assertEquals("Bucket width and parallel threshold must be positive.", e.getMessage());
+		}
+	}
+
+	/**
+	 * Tests random graphs against the minimum over one Dijkstra search per
+	 * source, with narrow and wide buckets and every round run in parallel.
+	 */
+	@Test
+	public void testRandomGraphs() {
+		Random random = new Random(316);
+		for (int round = 0; round < 30; round++) {
+			int n = 1 + random.nextInt(300);
+			TrailGraphBuilder builder = new TrailGraphBuilder();
+			for (int v = 0; v < n; v++) {
+				builder.addLandmark("L" + v, "Landmark " + v, "Location");
+			}
+			int trails = random.nextInt(3 * n);
+			for (int t = 0; t < trails; t++) {
+				// Short lengths make ties between sources common
+				int length = random.nextBoolean() ? random.nextInt(5) : random.nextInt(2000);
+				builder.addTrail("L" + random.nextInt(n), "L" + random.nextInt(n), length);
+			}
+			TrailGraph park = builder.build();
+			int[] sources = new int[1 + random.nextInt(Math.min(n, 20))];
+			for (int i = 0; i < sources.length; i++) {
+				sources[i] = random.nextInt(n);
+			}
+			long[][] expected = expected(park, sources);
+			MultiSourceSearch[] searches = { new MultiSourceSearch(park),
+					new MultiSourceSearch(park, 1, 1), new MultiSourceSearch(park, 500, 2),
+					new MultiSourceSearch(park, 1L << 40, 1) };
+			for (MultiSourceSearch search : searches) {
+				search.run(sources);
+				for (int v = 0; v < n; v++) {
+					assertEquals(expected[0][v], search.getDistance(v));
+					assertEquals(expected[1][v], search.getSource(v));
+				}
+			}
+		}
+	}
+
+	/**
+	 * Returns the nearest source and distance of every landmark, found with one
+	 * Dijkstra search per source and ties going to the source listed first.
+	 *
+	 * @param searched graph to search
+	 * @param sources  source landmark indexes
+	 * @return distances in the first row and sources in the second
+	 */
+	private static long[][] expected(TrailGraph searched, int[] sources) {
+		int n = searched.size();
+		long[][] expected = new long[2][n];
+		Arrays.fill(expected[0], MultiSourceSearch.UNREACHED);
+		Arrays.fill(expected[1], MultiSourceSearch.NO_SOURCE);
+		DijkstraSearch search = new DijkstraSearch(searched);
+		for (int source : sources) {
+			search.run(source);
+			for (int v = 0; v < n; v++) {
+				if (search.getDistance(v) < expected[0][v]) {
+					expected[0][v] = search.getDistance(v);
+					expected[1][v] = source;
+				}
+			}
+		}
+		return expected;
+	}
+}
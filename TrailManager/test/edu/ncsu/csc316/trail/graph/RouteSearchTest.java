@@ -0,0 +1,163 @@
+package edu.ncsu.csc316.trail.graph;
+
+import static org.junit.Assert.*;
+
+import java.io.FileNotFoundException;
+import java.util.Random;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import edu.ncsu.csc316.trail.data.Landmark;
+import edu.ncsu.csc316.trail.manager.TrailDataLoader;
+
+/**
+ * Tests the RouteSearch class by checking routes on a small graph with a
+ * cycle, comparing route lengths with DijkstraSearch on random graphs, and
+ * checking that nearby landmarks in a large park are routed without exploring
+ * most of it.
+ *
+ * @author Thommasaht Nhouyvanisvong (tcnhouyv)
+ */
+public class RouteSearchTest {
+
+	/** Graph searched in each test */
+	private TrailGraph graph;
+	/** RouteSearch used for testing */
+	private RouteSearch search;
+
+	/**
+	 * Builds a graph where the direct trail from L01 to L03 is longer than the
+	 * route through L02, plus an isolated landmark.
+	 */
+	@Before
+	public void setUp() {
+		TrailGraphBuilder builder = new TrailGraphBuilder();
+		builder.addLandmark(new Landmark("L01", "Park Entrance", "Location"));
+		builder.addLandmark(new Landmark("L02", "Restroom 1", "Restroom"));
+		builder.addLandmark(new Landmark("L03", "Visitor Center", "Building"));
+		builder.addLandmark(new Landmark("L04", "Lake", "Body of Water"));
+		builder.addLandmark(new Landmark("L05", "Pond", "Body of Water"));
+		builder.addTrail("L01", "L03", 900);
+		builder.addTrail("L01", "L02", 200);
+		builder.addTrail("L02", "L03", 300);
+		builder.addTrail("L03", "L04", 100);
+		graph = builder.build();
+		search = new RouteSearch(graph);
+	}
+
+	/**
+	 * Tests the route, its trail lengths, and runs that reuse the search.
+	 */
+	@Test
+	public void testRun() {
+		assertEquals(600, search.run(graph.indexOf("L01"), graph.indexOf("L04")));
+		assertEquals(4, search.getPathSize());
+		assertEquals(graph.indexOf("L01"), search.getPathLandmark(0));
+		assertEquals(graph.indexOf("L02"), search.getPathLandmark(1));
+		assertEquals(graph.indexOf("L03"), search.getPathLandmark(2));
+		assertEquals(graph.indexOf("L04"), search.getPathLandmark(3));
+		assertEquals(200, search.getPathTrailLength(0));
+		assertEquals(300, search.getPathTrailLength(1));
+		assertEquals(100, search.getPathTrailLength(2));
+
+		assertEquals(600, search.run(graph.indexOf("L04"), graph.indexOf("L01")));
+		assertEquals(graph.indexOf("L04"), search.getPathLandmark(0));
+		assertEquals(graph.indexOf("L01"), search.getPathLandmark(3));
+		assertEquals(100, search.getPathTrailLength(0));
+
+		assertEquals(0, search.run(graph.indexOf("L03"), graph.indexOf("L03")));
+		assertEquals(1, search.getPathSize());
+		assertEquals(graph.indexOf("L03"), search.getPathLandmark(0));
+
+		assertEquals(RouteSearch.UNREACHED, search.run(graph.indexOf("L01"), graph.indexOf("L05")));
+		assertEquals(0, search.getPathSize());
+	}
+
+	/**
+	 * Tests routes between random pairs in random graphs with cycles, parallel
+	 * trails, and self-loops against distances from DijkstraSearch, and checks
+	 * that each route is made of real trails adding up to its length.
+	 */
+	@Test
+	public void testRandomGraphs() {
+		Random random = new Random(316);
+		for (int round = 0; round < 20; round++) {
+			int n = 2 + random.nextInt(60);
+			TrailGraphBuilder builder = new TrailGraphBuilder();
+			for (int v = 0; v < n; v++) {
+				builder.addLandmark(new Landmark("L" + v, "Landmark " + v, "Location"));
+			}
+			int trails = random.nextInt(3 * n);
+			for (int t = 0; t < trails; t++) {
+				builder.addTrail(random.nextInt(n), random.nextInt(n), random.nextInt(1000));
+			}
+			graph = builder.build();
+			search = new RouteSearch(graph);
+			DijkstraSearch dijkstra = new DijkstraSearch(graph);
+			for (int pair = 0; pair < 30; pair++) {
+				int source = random.nextInt(n);
+				int target = random.nextInt(n);
+				dijkstra.run(source);
+				long expected = dijkstra.getDistance(target);
+				assertEquals(expected, search.run(source, target));
+				if (expected == DijkstraSearch.UNREACHED) {
+					assertEquals(0, search.getPathSize());
+					continue;
+				}
+				assertEquals(source, search.getPathLandmark(0));
+				assertEquals(target, search.getPathLandmark(search.getPathSize() - 1));
+				long total = 0;
+				for (int i = 0; i + 1 < search.getPathSize(); i++) {
+					assertTrue(hasTrail(search.getPathLandmark(i), search.getPathLandmark(i + 1),
+							search.getPathTrailLength(i)));
+					total += search.getPathTrailLength(i);
+				}
+				assertEquals(expected, total);
+			}
+		}
+	}
+
+	/**
+	 * Tests that routing between neighboring landmarks in the largest park
+	 * settles only a small fraction of its landmarks.
+	 *
+	 * @throws FileNotFoundException if the park files are missing
+	 */
+	@Test
+	public void testNearbyRouteIsLocal() throws FileNotFoundException {
+		graph = TrailDataLoader.load("input/landmarks_16.csv", "input/trails_16.csv");
+		search = new RouteSearch(graph);
+		DijkstraSearch dijkstra = new DijkstraSearch(graph);
+		int source = graph.indexOf("L0000001");
+		int target = graph.neighbor(graph.firstEdge(source));
+		int next = target;
+		for (int e = graph.firstEdge(target); e < graph.endEdge(target); e++) {
+			if (graph.neighbor(e) != source) {
+				next = graph.neighbor(e);
+			}
+		}
+		dijkstra.run(source);
+		assertEquals(dijkstra.getDistance(next), search.run(source, next));
+		assertTrue(search.getSettledCount() < graph.size() / 100);
+		assertEquals(dijkstra.getDistance(target), search.run(source, target));
+		assertTrue(search.getSettledCount() < graph.size() / 100);
+	}
+
+	/**
+	 * Returns true if a trail of the specified length joins two landmarks.
+	 *
+	 * @param from   first landmark
+	 * @param to     second landmark
+	 * @param length trail length
+	 * @return true if such a trail exists
+	 */
+	private boolean hasTrail(int from, int to, int length) {
+		for (int e = graph.firstEdge(from); e < graph.endEdge(from); e++) {
+			if (graph.neighbor(e) == to && graph.length(e) == length) {
+				return true;
+			}
+		}
+		return false;
+	}
+}
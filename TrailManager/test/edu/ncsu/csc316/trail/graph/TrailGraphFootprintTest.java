@@ -0,0 +1,237 @@
+package edu.ncsu.csc316.trail.graph;
+
+import static org.junit.Assert.*;
+
+import java.io.FileNotFoundException;
+import java.lang.reflect.Array;
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.util.ArrayDeque;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.IdentityHashMap;
+import java.util.Set;
+
+import org.junit.Test;
+
+import edu.ncsu.csc316.dsa.list.List;
+import edu.ncsu.csc316.dsa.map.Map;
+import edu.ncsu.csc316.trail.data.Landmark;
+import edu.ncsu.csc316.trail.data.Trail;
+import edu.ncsu.csc316.trail.dsa.Algorithm;
+import edu.ncsu.csc316.trail.dsa.DSAFactory;
+import edu.ncsu.csc316.trail.dsa.DataStructure;
+import edu.ncsu.csc316.trail.io.TrailInputReader;
+import edu.ncsu.csc316.trail.manager.TrailDataLoader;
+
+/**
+ * Tests the heap footprint of a loaded TrailGraph against the object model
+ * TrailManager used to keep: a map of IDs to Landmarks and a map of Landmarks
+ * to lists of Trails, built from the library's readers. Footprints are
+ * measured by walking the object graph reachable from each model, in the
+ * manner of JOL, assuming a 64-bit JVM with compressed references: 12-byte
+ * object headers, 16-byte array headers, 4-byte references, and 8-byte
+ * alignment.
+ *
+ * @author Thommasaht Nhouyvanisvong (tcnhouyv)
+ */
+public class TrailGraphFootprintTest {
+
+	/** Landmark file of the largest dataset */
+	private static final String LANDMARKS = "input/landmarks_16.csv";
+	/** Trail file of the largest dataset */
+	private static final String TRAILS = "input/trails_16.csv";
+	/** Size of an object header */
+	private static final long OBJECT_HEADER = 12;
+	/** Size of an array header, including its length */
+	private static final long ARRAY_HEADER = 16;
+	/** Size of a compressed reference */
+	private static final long REFERENCE = 4;
+
+	/**
+	 * Tests that the graph of the largest dataset takes at most a fifth of the
+	 * heap of the object model holding the same landmarks and trails.
+	 *
+	 * @throws FileNotFoundException if the input files are missing
+	 */
+	@Test
+	public void testFootprint() throws FileNotFoundException {
+		TrailGraph graph = TrailDataLoader.load(LANDMARKS, TRAILS);
+		long compact = footprint(graph);
+
+		DSAFactory.setMapType(DataStructure.SKIPLIST);
+		DSAFactory.setListType(DataStructure.SINGLYLINKEDLIST);
+		DSAFactory.setComparisonSorterType(Algorithm.MERGESORT);
+		DSAFactory.setNonComparisonSorterType(Algorithm.RADIX_SORT);
+		Map<String, Landmark> landmarkIDMap = DSAFactory.getMap(null);
+		for (Landmark landmark : TrailInputReader.readLandmarks(LANDMARKS)) {
+			landmarkIDMap.put(landmark.getId(), landmark);
+		}
+		Map<Landmark, List<Trail>> landmarkTrailMap = DSAFactory.getMap(null);
+		for (Landmark landmark : TrailInputReader.readLandmarks(LANDMARKS)) {
+			landmarkTrailMap.put(landmark, DSAFactory.getIndexedList());
+		}
+		for (Trail trail : TrailInputReader.readTrails(TRAILS)) {
+			landmarkTrailMap.get(landmarkIDMap.get(trail.getLandmarkOne())).addLast(trail);
+			landmarkTrailMap.get(landmarkIDMap.get(trail.getLandmarkTwo())).addLast(trail);
+		}
+		long objects = footprint(landmarkIDMap, landmarkTrailMap);
+
+		assertEquals(landmarkIDMap.size(), graph.getLandmarkCount());
+		assertTrue("Graph takes " + compact + " bytes, object model " + objects, compact * 5 <= objects);
+	}
+
+	/**
+	 * Tests that a graph loaded off the heap leaves only a small, nearly constant
+	 * amount of heap behind, however large the dataset.
+	 *
+	 * @throws FileNotFoundException if the input files are missing
+	 */
+	@Test
+	public void testOffHeapFootprint() throws FileNotFoundException {
+		TrailGraph small = TrailDataLoader.load("input/landmarks_12.csv", "input/trails_12.csv", GraphStorage.OFF_HEAP);
+		TrailGraph large = TrailDataLoader.load(LANDMARKS, TRAILS, GraphStorage.OFF_HEAP);
+		long smallHeap = footprint(small);
+		long largeHeap = footprint(large);
+		long onHeap = footprint(TrailDataLoader.load(LANDMARKS, TRAILS));
+		small.close();
+		large.close();
+		assertTrue("Off-heap graph keeps " + largeHeap + " bytes of heap", largeHeap * 100 <= onHeap);
+		assertTrue("Heap grew from " + smallHeap + " to " + largeHeap, largeHeap <= smallHeap + 16 * 1024);
+	}
+
+	/**
+	 * Tests that the walker measures objects and arrays as laid out by a JVM
+	 * with compressed references.
+	 */
+	@Test
+	public void testWalker() {
+		assertEquals(16, footprint(new int[0]));
+		assertEquals(32, footprint(new int[4]));
+		assertEquals(24 + 24, footprint("abc"));
+		assertEquals(24, footprint((Object) new Object[] { null, null }));
+		// A landmark's header and three references, then its three strings
+		assertEquals(24 + 3 * (24 + 24), footprint(new Landmark("L0000001", "YHHTSZR", "Overlook")));
+	}
+
+	/**
+	 * Returns the bytes of heap reachable from the specified roots, counting
+	 * each object once.
+	 *
+	 * @param roots objects to start from
+	 * @return retained size in bytes
+	 */
+	private static long footprint(Object... roots) {
+		Set<Object> seen = Collections.newSetFromMap(new IdentityHashMap<>());
+		Deque<Object> pending = new ArrayDeque<>();
+		for (Object root : roots) {
+			pending.push(root);
+		}
+		long total = 0;
+		while (!pending.isEmpty()) {
+			Object object = pending.pop();
+			if (!seen.add(object)) {
+				continue;
+			}
+			total += sizeOf(object, pending);
+		}
+		return total;
+	}
+
+	/**
+	 * Returns the shallow size of an object and pushes the objects it refers to.
+	 * Strings and BitSets are measured with their backing arrays, since the
+	 * fields of java.base classes cannot be read reflectively.
+	 *
+	 * @param object  object to measure
+	 * @param pending objects still to visit
+	 * @return size of the object in bytes
+	 */
+	private static long sizeOf(Object object, Deque<Object> pending) {
+		Class<?> type = object.getClass();
+		if (type == String.class) {
+			// Header, value reference, hash, coder, hashIsZero, then Latin-1 bytes
+			return align(OBJECT_HEADER + REFERENCE + 4 + 1 + 1) + align(ARRAY_HEADER + ((String) object).length());
+		}
+		if (type == BitSet.class) {
+			return align(OBJECT_HEADER + REFERENCE + 4 + 1) + align(ARRAY_HEADER + ((BitSet) object).size() / 8);
+		}
+		if (type.isArray()) {
+			int length = Array.getLength(object);
+			Class<?> component = type.getComponentType();
+			if (!component.isPrimitive()) {
+				for (int i = 0; i < length; i++) {
+					if (Array.get(object, i) != null) {
+						pending.push(Array.get(object, i));
+					}
+				}
+			}
+			return align(ARRAY_HEADER + length * fieldSize(component));
+		}
+		long size = OBJECT_HEADER;
+		for (Class<?> c = type; c != null; c = c.getSuperclass()) {
+			for (Field field : c.getDeclaredFields()) {
+				if (Modifier.isStatic(field.getModifiers())) {
+					continue;
+				}
+				size += fieldSize(field.getType());
+				if (!field.getType().isPrimitive() && !c.getName().startsWith("java.")) {
+					Object value = read(field, object);
+					if (value != null) {
+						pending.push(value);
+					}
+				}
+			}
+		}
+		return align(size);
+	}
+
+	/**
+	 * Reads a reference field of an object.
+	 *
+	 * @param field  field to read
+	 * @param object object holding the field
+	 * @return value of the field
+	 */
+	private static Object read(Field field, Object object) {
+		try {
+			field.setAccessible(true);
+			return field.get(object);
+		} catch (ReflectiveOperationException e) {
+			throw new IllegalStateException(e);
+		}
+	}
+
+	/**
+	 * Returns the bytes a field or array element of the specified type takes.
+	 *
+	 * @param type field type
+	 * @return size in bytes
+	 */
+	private static long fieldSize(Class<?> type) {
+		if (type == long.class || type == double.class) {
+			return 8;
+		}
+		if (type == int.class || type == float.class) {
+			return 4;
+		}
+		if (type == short.class || type == char.class) {
+			return 2;
+		}
+		if (type == byte.class || type == boolean.class) {
+			return 1;
+		}
+		return REFERENCE;
+	}
+
+	/**
+	 * Rounds a size up to the 8-byte object alignment.
+	 *
+	 * @param size unaligned size
+	 * @return aligned size
+	 */
+	private static long align(long size) {
+		return (size + 7) & ~7L;
+	}
+}
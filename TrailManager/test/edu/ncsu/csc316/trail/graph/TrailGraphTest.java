@@ -0,0 +1,313 @@
+package edu.ncsu.csc316.trail.graph;
+
+import static org.junit.Assert.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import edu.ncsu.csc316.trail.data.Landmark;
+
+/**
+ * Tests the TrailGraph class by building a small graph with TrailGraphBuilder
+ * and checking the CSR layout, degrees, ID lookups, and in-place updates.
+ *
+ * @author Thommasaht Nhouyvanisvong (tcnhouyv)
+ */
+public class TrailGraphTest {
+
+	/** TrailGraph used for testing */
+	private TrailGraph graph;
+
+	/**
+	 * Builds a graph of four landmarks, three trails, and one isolated landmark
+	 * before each test.
+	 */
+	@Before
+	public void setUp() {
+		TrailGraphBuilder builder = new TrailGraphBuilder();
+		builder.addLandmark(new Landmark("L01", "Park Entrance", "Location"));
+		builder.addLandmark(new Landmark("L02", "Restroom 1", "Restroom"));
+		builder.addLandmark(new Landmark("L03", "Visitor Center", "Building"));
+		builder.addLandmark(new Landmark("L04", "Pond", "Body of Water"));
+		builder.addTrail("L01", "L02", 200);
+		builder.addTrail("L01", "L03", 500);
+		builder.addTrail("L03", "L02", 350);
+		graph = builder.build();
+	}
+
+	/**
+	 * Tests that landmark IDs are interned to dense indexes in the order they
+	 * were added and that unknown IDs are rejected.
+	 */
+	@Test
+	public void testIndexOf() {
+		assertEquals(4, graph.size());
+		assertEquals(3, graph.getTrailCount());
+		assertEquals(0, graph.indexOf("L01"));
+		assertEquals(3, graph.indexOf("L04"));
+		assertEquals("Visitor Center", graph.getLandmark(graph.indexOf("L03")).getDescription());
+		assertEquals(-1, graph.indexOf("L404"));
+		assertEquals(-1, graph.indexOf(null));
+	}
+
+	/**
+	 * Tests that each landmark's edge range holds its trails in the order they
+	 * were added, with the opposite landmark and trail length.
+	 */
+	@Test
+	public void testEdges() {
+		int entrance = graph.indexOf("L01");
+		assertEquals(2, graph.degree(entrance));
+		int e = graph.firstEdge(entrance);
+		assertEquals(graph.indexOf("L02"), graph.neighbor(e));
+		assertEquals(200, graph.length(e));
+		assertEquals(graph.indexOf("L03"), graph.neighbor(e + 1));
+		assertEquals(500, graph.length(e + 1));
+		assertEquals(e + 2, graph.endEdge(entrance));
+
+		int restroom = graph.indexOf("L02");
+		assertEquals(2, graph.degree(restroom));
+		assertEquals(entrance, graph.neighbor(graph.firstEdge(restroom)));
+		assertEquals(350, graph.length(graph.firstEdge(restroom) + 1));
+
+		int pond = graph.indexOf("L04");
+		assertEquals(0, graph.degree(pond));
+		assertEquals(graph.firstEdge(pond), graph.endEdge(pond));
+	}
+
+	/**
+	 * Tests that trails referencing unknown landmarks are rejected.
+	 */
+	@Test
+	public void testUnknownLandmark() {
+		TrailGraphBuilder builder = new TrailGraphBuilder();
+		builder.addLandmark(new Landmark("L01", "Park Entrance", "Location"));
+		try {
+			builder.addTrail("L01", "L404", 100);
+			fail("IllegalArgumentException was not thrown.");
+		} catch (IllegalArgumentException e) {
+			assertEquals("Trail references unknown landmark L404.", e.getMessage());
+		}
+	}
+
+	/**
+	 * Tests that the ID index grows past its initial capacity.
+	 */
+	@Test
+	public void testIdIndexResize() {
+		IdIndex index = new IdIndex(1);
+		for (int i = 0; i < 1000; i++) {
+			assertEquals(IdIndex.NOT_FOUND, index.put("L" + i, i));
+		}
+		assertEquals(1000, index.size());
+		for (int i = 0; i < 1000; i++) {
+			assertEquals(i, index.get("L" + i));
+		}
+		assertEquals(999, index.put("L999", 5));
+		assertEquals(5, index.get("L999"));
+		assertEquals(IdIndex.NOT_FOUND, index.get("L1000"));
+	}
+
+	/**
+	 * Tests that removing IDs keeps every other ID reachable, including IDs that
+	 * probed past the removed ones.
+	 */
+	@Test
+	public void testIdIndexRemove() {
+		IdIndex index = new IdIndex(1);
+		for (int i = 0; i < 1000; i++) {
+			index.put("L" + i, i);
+		}
+		for (int i = 0; i < 1000; i += 3) {
+			assertEquals(i, index.remove("L" + i));
+		}
+		assertEquals(IdIndex.NOT_FOUND, index.remove("L0"));
+		assertEquals(666, index.size());
+		for (int i = 0; i < 1000; i++) {
+			assertEquals(i % 3 == 0 ? IdIndex.NOT_FOUND : i, index.get("L" + i));
+		}
+	}
+
+	/**
+	 * Tests adding, removing, and changing trails in place.
+	 */
+	@Test
+	public void testUpdateTrails() {
+		graph.addTrail(3, 0, 900);
+		graph.addTrail(0, 2, 100);
+		assertEquals(5, graph.getTrailCount());
+		// New trails follow the existing trails in each range
+		assertEdges(0, 1, 200, 2, 500, 3, 900, 2, 100);
+		assertEdges(3, 0, 900);
+
+		// The first trail between two landmarks is the one removed or changed
+		assertTrue(graph.setTrailLength(2, 0, 450));
+		assertEdges(0, 1, 200, 2, 450, 3, 900, 2, 100);
+		assertEdges(2, 0, 450, 1, 350, 0, 100);
+		assertTrue(graph.removeTrail(0, 2));
+		assertEdges(0, 1, 200, 3, 900, 2, 100);
+		assertEdges(2, 1, 350, 0, 100);
+		assertEquals(4, graph.getTrailCount());
+
+		assertFalse(graph.removeTrail(1, 3));
+		assertFalse(graph.setTrailLength(1, 3, 10));
+		assertFalse(graph.removeTrail(0, 9));
+		try {
+			graph.addTrail(0, 9, 10);
+			fail("A trail to a missing landmark was accepted.");
+		} catch (IllegalArgumentException e) {
+			assertEquals("No landmark has index 9.", e.getMessage());
+		}
+
+		// A trail from a landmark to itself is stored twice in its range
+		graph.addTrail(3, 3, 40);
+		assertEdges(3, 0, 900, 3, 40, 3, 40);
+		assertTrue(graph.setTrailLength(3, 3, 60));
+		assertEdges(3, 0, 900, 3, 60, 3, 60);
+		assertTrue(graph.removeTrail(3, 3));
+		assertEdges(3, 0, 900);
+		assertEquals(4, graph.getTrailCount());
+	}
+
+	/**
+	 * Tests adding and removing landmarks, including reuse of the index of a
+	 * removed landmark.
+	 */
+	@Test
+	public void testUpdateLandmarks() {
+		assertEquals(-1, graph.addLandmark(new Landmark("L01", "Duplicate", "Location")));
+		int campsite = graph.addLandmark(new Landmark("L05", "Campsite", "Campsite"));
+		assertEquals(4, campsite);
+		assertEquals(5, graph.getLandmarkCount());
+		assertEquals(campsite, graph.indexOf("L05"));
+		graph.addTrail(campsite, 0, 700);
+		graph.addTrail(campsite, campsite, 20);
+		assertEquals(5, graph.getTrailCount());
+
+		assertTrue(graph.removeLandmark(0));
+		assertFalse(graph.removeLandmark(0));
+		assertFalse(graph.contains(0));
+		assertNull(graph.getLandmark(0));
+		assertEquals(-1, graph.indexOf("L01"));
+		assertEquals(4, graph.getLandmarkCount());
+		assertEquals(5, graph.size());
+		assertEquals(2, graph.getTrailCount());
+		assertEdges(1, 2, 350);
+		assertEdges(campsite, campsite, 20, campsite, 20);
+
+		assertTrue(graph.removeLandmark(campsite));
+		assertEquals(1, graph.getTrailCount());
+		assertEquals(campsite, graph.addLandmark(new Landmark("L06", "Lookout", "Viewpoint")));
+		assertEquals(0, graph.addLandmark(new Landmark("L01", "Park Entrance", "Location")));
+		assertEquals(0, graph.degree(0));
+		assertEquals(0, graph.degree(campsite));
+		assertEquals(5, graph.size());
+	}
+
+	/**
+	 * Tests a long random sequence of updates against a simple list of the
+	 * trails at each landmark, so that ranges are moved and packed many times.
+	 */
+	@Test
+	public void testRandomUpdates() {
+		int n = 40;
+		TrailGraphBuilder builder = new TrailGraphBuilder();
+		List<List<int[]>> expected = new ArrayList<>();
+		for (int v = 0; v < n; v++) {
+			builder.addLandmark(new Landmark("L" + v, "Landmark " + v, "Location"));
+			expected.add(new ArrayList<>());
+		}
+		graph = builder.build();
+		Random random = new Random(316);
+		int trails = 0;
+		for (int step = 0; step < 20000; step++) {
+			int from = random.nextInt(n);
+			int to = random.nextInt(n);
+			int length = random.nextInt(1000);
+			int operation = random.nextInt(10);
+			if (operation < 5) {
+				graph.addTrail(from, to, length);
+				expected.get(from).add(new int[] { to, length });
+				expected.get(to).add(new int[] { from, length });
+				trails++;
+			} else if (operation < 8) {
+				boolean removed = removeFirst(expected.get(from), to);
+				assertEquals(removed, graph.removeTrail(from, to));
+				if (removed) {
+					removeFirst(expected.get(to), from);
+					trails--;
+				}
+			} else {
+				boolean found = setFirst(expected.get(from), to, length, 0);
+				assertEquals(found, graph.setTrailLength(from, to, length));
+				if (found) {
+					setFirst(expected.get(to), from, length, from == to ? 1 : 0);
+				}
+			}
+		}
+		assertEquals(trails, graph.getTrailCount());
+		for (int v = 0; v < n; v++) {
+			List<int[]> edges = expected.get(v);
+			assertEquals(edges.size(), graph.degree(v));
+			for (int i = 0; i < edges.size(); i++) {
+				assertEquals(edges.get(i)[0], graph.neighbor(graph.firstEdge(v) + i));
+				assertEquals(edges.get(i)[1], graph.length(graph.firstEdge(v) + i));
+			}
+		}
+	}
+
+	/**
+	 * Asserts that a landmark's edge range holds the specified neighbor and
+	 * length pairs in order.
+	 *
+	 * @param index landmark index
+	 * @param edges alternating neighbor indexes and trail lengths
+	 */
+	private void assertEdges(int index, int... edges) {
+		assertEquals(edges.length / 2, graph.degree(index));
+		for (int i = 0; i < edges.length / 2; i++) {
+			assertEquals(edges[2 * i], graph.neighbor(graph.firstEdge(index) + i));
+			assertEquals(edges[2 * i + 1], graph.length(graph.firstEdge(index) + i));
+		}
+	}
+
+	/**
+	 * Removes the first edge to the specified neighbor from a list of edges.
+	 *
+	 * @param edges    neighbor and length pairs
+	 * @param neighbor neighbor to remove
+	 * @return true if an edge was removed
+	 */
+	private static boolean removeFirst(List<int[]> edges, int neighbor) {
+		for (int i = 0; i < edges.size(); i++) {
+			if (edges.get(i)[0] == neighbor) {
+				edges.remove(i);
+				return true;
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * Sets the length of an edge to the specified neighbor in a list of edges.
+	 *
+	 * @param edges    neighbor and length pairs
+	 * @param neighbor neighbor to look for
+	 * @param length   new length
+	 * @param skip     number of matching edges to skip
+	 * @return true if an edge was changed
+	 */
+	private static boolean setFirst(List<int[]> edges, int neighbor, int length, int skip) {
+		for (int[] edge : edges) {
+			if (edge[0] == neighbor && skip-- == 0) {
+				edge[1] = length;
+				return true;
+			}
+		}
+		return false;
+	}
+}
@@ -0,0 +1,227 @@
+package edu.ncsu.csc316.trail.graph;
+
+import static org.junit.Assert.*;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import edu.ncsu.csc316.trail.data.Landmark;
+import edu.ncsu.csc316.trail.dsa.DataStructure;
+import edu.ncsu.csc316.trail.manager.LoadMode;
+import edu.ncsu.csc316.trail.manager.TrailDataLoader;
+import edu.ncsu.csc316.trail.manager.TrailManager;
+
+/**
+ * Tests the TrailSnapshot class by saving and reopening graphs, and checks
+ * that corrupt and stale snapshots are detected.
+ *
+ * @author Thommasaht Nhouyvanisvong (tcnhouyv)
+ */
+public class TrailSnapshotTest {
+
+	/** Folder for snapshots and copied input files */
+	@Rule
+	public TemporaryFolder folder = new TemporaryFolder();
+
+	/** Source recorded in snapshots that are not built from real files */
+	private static final SnapshotSource SOURCE = new SnapshotSource("/parks/landmarks.csv", 10L, 300L, 20L, 400L);
+
+	/** Graph of the largest dataset */
+	private TrailGraph graph;
+	/** Snapshot file used by each test */
+	private Path snapshot;
+
+	/**
+	 * Loads the largest dataset and picks a snapshot path before each test.
+	 * 
+	 * @throws IOException if the dataset is missing
+	 */
+	@Before
+	public void setUp() throws IOException {
+		graph = TrailDataLoader.load("input/landmarks_16.csv", "input/trails_16.csv");
+		snapshot = folder.getRoot().toPath().resolve("trails_16.snapshot");
+	}
+
+	/**
+	 * Tests that a saved graph reopens with the same landmarks and CSR layout.
+	 * 
+	 * @throws IOException if the snapshot cannot be written or read
+	 */
+	@Test
+	public void testRoundTrip() throws IOException {
+		TrailSnapshot.write(graph, snapshot, SOURCE);
+		assertTrue(TrailSnapshot.isCurrent(snapshot, SOURCE));
+		TrailGraph reopened = TrailSnapshot.read(snapshot);
+
+		assertEquals(graph.size(), reopened.size());
+		assertEquals(graph.getTrailCount(), reopened.getTrailCount());
+		for (int v = 0; v < graph.size(); v++) {
+			Landmark l = graph.getLandmark(v);
+			assertEquals(l.getId(), reopened.getLandmark(v).getId());
+			assertEquals(l.getDescription(), reopened.getLandmark(v).getDescription());
+			assertEquals(l.getType(), reopened.getLandmark(v).getType());
+			assertEquals(v, reopened.indexOf(l.getId()));
+			assertEquals(graph.firstEdge(v), reopened.firstEdge(v));
+			assertEquals(graph.endEdge(v), reopened.endEdge(v));
+		}
+		for (int e = 0; e < graph.getTrailCount() * 2; e++) {
+			assertEquals(graph.neighbor(e), reopened.neighbor(e));
+			assertEquals(graph.length(e), reopened.length(e));
+		}
+	}
+
+	/**
+	 * Tests that a graph changed in place is saved with its ranges packed and
+	 * its removed landmarks left out, and that the reopened graph can be
+	 * changed again.
+	 *
+	 * @throws IOException if the snapshot cannot be written or read
+	 */
+	@Test
+	public void testUpdatedGraph() throws IOException {
+		String removedID = graph.getLandmark(0).getId();
+		int added = graph.addLandmark(new Landmark("NEW", "New Lookout", "Viewpoint"));
+		graph.addTrail(added, 1, 75);
+		graph.addTrail(1, 2, 125);
+		assertTrue(graph.removeLandmark(0));
+		TrailSnapshot.write(graph, snapshot, SOURCE);
+		TrailGraph reopened = TrailSnapshot.read(snapshot);
+
+		assertEquals(graph.getLandmarkCount(), reopened.size());
+		assertEquals(graph.getTrailCount(), reopened.getTrailCount());
+		assertEquals(-1, reopened.indexOf(removedID));
+		for (int v = 0; v < graph.size(); v++) {
+			if (!graph.contains(v)) {
+				continue;
+			}
+			int w = reopened.indexOf(graph.getLandmark(v).getId());
+			assertEquals(graph.degree(v), reopened.degree(w));
+			for (int i = 0; i < graph.degree(v); i++) {
+				int edge = graph.firstEdge(v) + i;
+				int reopenedEdge = reopened.firstEdge(w) + i;
+				assertEquals(graph.getLandmark(graph.neighbor(edge)).getId(),
+						reopened.getLandmark(reopened.neighbor(reopenedEdge)).getId());
+				assertEquals(graph.length(edge), reopened.length(reopenedEdge));
+			}
+		}
+
+		int lookout = reopened.addLandmark(new Landmark("\u5bcc\u58eb", "\u5bcc\u58eb Lookout", "Viewpoint"));
+		reopened.addTrail(lookout, reopened.indexOf("NEW"), 50);
+		assertEquals(lookout, reopened.indexOf("\u5bcc\u58eb"));
+		assertEquals("Viewpoint", reopened.getType(reopened.indexOf("NEW")));
+		assertEquals(2, reopened.degree(reopened.indexOf("NEW")));
+	}
+
+	/**
+	 * Tests that snapshots built from older CSV files, from CSV files of another
+	 * size, or from another landmark file are stale, and that missing snapshots
+	 * and snapshots of changed graphs are never current.
+	 * 
+	 * @throws IOException if the snapshot cannot be written or read
+	 */
+	@Test
+	public void testIsCurrent() throws IOException {
+		assertFalse(TrailSnapshot.isCurrent(snapshot, SOURCE));
+		TrailSnapshot.write(graph, snapshot, SOURCE);
+		String path = SOURCE.getLandmarkPath();
+		assertTrue(TrailSnapshot.isCurrent(snapshot, new SnapshotSource(path, 10L, 300L, 20L, 400L)));
+		assertFalse(TrailSnapshot.isCurrent(snapshot, new SnapshotSource(path, 11L, 300L, 20L, 400L)));
+		assertFalse(TrailSnapshot.isCurrent(snapshot, new SnapshotSource(path, 10L, 300L, 21L, 400L)));
+		assertFalse(TrailSnapshot.isCurrent(snapshot, new SnapshotSource(path, 10L, 301L, 20L, 400L)));
+		assertFalse(TrailSnapshot.isCurrent(snapshot, new SnapshotSource(path, 10L, 300L, 20L, 399L)));
+		// Paths that are shorter, longer, or the same length but different
+		assertFalse(TrailSnapshot.isCurrent(snapshot, new SnapshotSource("/parks/landmark.csv", 10L, 300L, 20L, 400L)));
+		assertFalse(TrailSnapshot.isCurrent(snapshot, new SnapshotSource(path + "x", 10L, 300L, 20L, 400L)));
+		assertFalse(TrailSnapshot.isCurrent(snapshot, new SnapshotSource("/parks/Landmarks.csv", 10L, 300L, 20L, 400L)));
+
+		TrailSnapshot.write(graph, snapshot, SnapshotSource.NONE);
+		assertFalse(TrailSnapshot.isCurrent(snapshot, SOURCE));
+		assertEquals(graph.size(), TrailSnapshot.read(snapshot).size());
+	}
+
+	/**
+	 * Tests that a snapshot with a corrupted payload fails its checksum.
+	 * 
+	 * @throws IOException if the snapshot cannot be written
+	 */
+	@Test
+	public void testCorruptSnapshot() throws IOException {
+		TrailSnapshot.write(graph, snapshot, SOURCE);
+		byte[] bytes = Files.readAllBytes(snapshot);
+		bytes[bytes.length / 2] ^= 0x01;
+		Files.write(snapshot, bytes);
+		try {
+			TrailSnapshot.read(snapshot);
+			fail("IOException was not thrown.");
+		} catch (IOException e) {
+			assertTrue(e.getMessage().startsWith("Trail snapshot checksum mismatch"));
+		}
+	}
+
+	/**
+	 * Tests that LoadMode.SNAPSHOT saves a snapshot on the first load, reuses it,
+	 * and rebuilds it when a CSV file changes.
+	 * 
+	 * @throws IOException if the input files cannot be copied
+	 */
+	@Test
+	public void testTrailManagerSnapshotMode() throws IOException {
+		File landmarks = copy("input/landmark_data_valid.txt");
+		File trails = copy("input/trail_data_valid.txt");
+		Path saved = Paths.get(trails.getPath() + TrailManager.SNAPSHOT_SUFFIX);
+
+		TrailManager manager = new TrailManager(landmarks.getPath(), trails.getPath(), DataStructure.SKIPLIST,
+				LoadMode.SNAPSHOT);
+		assertTrue(TrailSnapshot.isCurrent(saved, SnapshotSource.of(landmarks.getPath(), trails.getPath())));
+		assertEquals(11, manager.getDistancesToDestinations("L01").size());
+
+		manager = new TrailManager(landmarks.getPath(), trails.getPath(), DataStructure.SKIPLIST, LoadMode.SNAPSHOT);
+		assertEquals(7400, (int) manager.getDistancesToDestinations("L01").get(manager.getLandmarkByID("L11")));
+
+		// Replace the trails with the cyclic set; the stale snapshot must not be used
+		Files.copy(Paths.get("input/trail_data_cycle.txt"), trails.toPath(), StandardCopyOption.REPLACE_EXISTING);
+		assertTrue(trails.setLastModified(trails.lastModified() + 5000));
+		manager = new TrailManager(landmarks.getPath(), trails.getPath(), DataStructure.SKIPLIST, LoadMode.SNAPSHOT);
+		assertEquals(6100, (int) manager.getDistancesToDestinations("L01").get(manager.getLandmarkByID("L11")));
+		assertTrue(TrailSnapshot.isCurrent(saved, SnapshotSource.of(landmarks.getPath(), trails.getPath())));
+
+		// Another landmark file of the same size and modification time must not
+		// reuse the snapshot built from the first one
+		String data = new String(Files.readAllBytes(landmarks.toPath()), StandardCharsets.UTF_8);
+		File other = new File(folder.newFolder("other"), landmarks.getName());
+		Files.write(other.toPath(), data.replace("Park Entrance", "North Gateway").getBytes(StandardCharsets.UTF_8));
+		assertTrue(other.setLastModified(landmarks.lastModified()));
+		assertEquals(landmarks.length(), other.length());
+		manager = new TrailManager(other.getPath(), trails.getPath(), DataStructure.SKIPLIST, LoadMode.SNAPSHOT);
+		assertEquals("North Gateway", manager.getLandmarkByID("L01").getDescription());
+
+		// So must the same landmark file rewritten to another size at the same time
+		Files.write(landmarks.toPath(), data.replace("Park Entrance", "Gate").getBytes(StandardCharsets.UTF_8));
+		assertTrue(landmarks.setLastModified(other.lastModified()));
+		manager = new TrailManager(landmarks.getPath(), trails.getPath(), DataStructure.SKIPLIST, LoadMode.SNAPSHOT);
+		assertEquals("Gate", manager.getLandmarkByID("L01").getDescription());
+	}
+
+	/**
+	 * Copies an input file into the temporary folder.
+	 * 
+	 * @param path input file to copy
+	 * @return the copy
+	 * @throws IOException if the file cannot be copied
+	 */
+	private File copy(String path) throws IOException {
+		File copy = new File(folder.getRoot(), new File(path).getName());
+		Files.copy(Paths.get(path), copy.toPath());
+		return copy;
+	}
+}
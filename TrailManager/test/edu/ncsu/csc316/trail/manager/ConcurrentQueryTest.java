@@ -0,0 +1,220 @@
+package edu.ncsu.csc316.trail.manager;
+
+import static org.junit.Assert.*;
+
+import java.io.FileNotFoundException;
+import java.util.ArrayList;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import edu.ncsu.csc316.dsa.map.Map;
+import edu.ncsu.csc316.dsa.map.SkipListMap;
+import edu.ncsu.csc316.dsa.map.hashing.LinearProbingHashMap;
+import edu.ncsu.csc316.trail.data.Landmark;
+import edu.ncsu.csc316.trail.dsa.DataStructure;
+
+/**
+ * Stress tests TrailManager and ReportManager queries running on many threads
+ * at once, against two managers with different map types and while another
+ * thread changes the graph.
+ * 
+ * @author Thommasaht Nhouyvanisvong (tcnhouyv)
+ */
+public class ConcurrentQueryTest {
+
+	/** Number of query threads */
+	private static final int THREADS = 8;
+	/** Number of queries run by each thread */
+	private static final int ROUNDS = 150;
+	/** Origins queried by the threads */
+	private static final String[] ORIGINS = { "L0000001", "L0000467", "L0000928", "L0000512", "L0001024" };
+
+	/** Report manager using a skip list map */
+	private ReportManager skipList;
+	/** Report manager using a linear probing hash map */
+	private ReportManager hashMap;
+	/** Threads running the queries */
+	private ExecutorService executor;
+
+	/**
+	 * Loads the same dataset into two report managers with different map types.
+	 */
+	@Before
+	public void setUp() {
+		try {
+			skipList = new ReportManager("input/landmarks_10.csv", "input/trails_10.csv", DataStructure.SKIPLIST);
+			hashMap = new ReportManager("input/landmarks_10.csv", "input/trails_10.csv",
+					DataStructure.LINEARPROBINGHASHMAP);
+		} catch (FileNotFoundException e) {
+			fail("FileNotFoundException was thrown.");
+		}
+		executor = Executors.newFixedThreadPool(THREADS);
+	}
+
+	/**
+	 * Stops the query threads after each test.
+	 */
+	@After
+	public void tearDown() {
+		executor.shutdownNow();
+	}
+
+	/**
+	 * Tests that reports and first aid queries from many threads on two managers
+	 * match the results of the same queries made from one thread, and that each
+	 * manager keeps its own map type.
+	 * 
+	 * @throws Exception if a query thread fails
+	 */
+	@Test
+	public void testConcurrentReports() throws Exception {
+		String[] expected = new String[ORIGINS.length];
+		for (int o = 0; o < ORIGINS.length; o++) {
+			expected[o] = skipList.getDistancesReport(ORIGINS[o]);
+			assertEquals(expected[o], hashMap.getDistancesReport(ORIGINS[o]));
+		}
+		String expectedFirstAid = skipList.getProposedFirstAidLocations(3);
+		// Disable the caches so every query runs a search
+		for (ReportManager manager : new ReportManager[] { skipList, hashMap }) {
+			manager.getReportCache().setCapacity(0);
+			manager.getDistanceCache().setCapacity(0);
+		}
+
+		java.util.List<Callable<Boolean>> tasks = new ArrayList<>();
+		for (int t = 0; t < THREADS; t++) {
+			int id = t;
+			tasks.add(() -> {
+				ReportManager manager = id % 2 == 0 ? skipList : hashMap;
+				for (int round = 0; round < ROUNDS; round++) {
+					int o = (id + round) % ORIGINS.length;
+					if (!expected[o].equals(manager.getDistancesReport(ORIGINS[o]))) {
+						return false;
+					}
+					if (round % 10 == 0 && !expectedFirstAid.equals(manager.getProposedFirstAidLocations(3))) {
+						return false;
+					}
+				}
+				return true;
+			});
+		}
+		for (Future<Boolean> result : executor.invokeAll(tasks)) {
+			assertTrue(result.get());
+		}
+
+		TrailManager skipListManager = new TrailManager("input/landmarks_6.csv", "input/trails_6.csv",
+				DataStructure.SKIPLIST);
+		TrailManager hashMapManager = new TrailManager("input/landmarks_6.csv", "input/trails_6.csv",
+				DataStructure.LINEARPROBINGHASHMAP);
+		assertTrue(skipListManager.getDistancesToDestinations("L0000001") instanceof SkipListMap);
+		assertTrue(hashMapManager.getDistancesToDestinations("L0000001") instanceof LinearProbingHashMap);
+	}
+
+	/**
+	 * Tests that distance queries and reports running while another thread
+	 * repeatedly adds, connects, and removes a landmark always see the graph
+	 * either before or after a change, never part way through one. The reports
+	 * include the temporary landmarks as origins, which are invalid, isolated,
+	 * or connected depending on when they are read.
+	 * 
+	 * @throws Exception if a query thread fails
+	 */
+	@Test
+	public void testQueriesDuringUpdates() throws Exception {
+		TrailManager manager = new TrailManager("input/landmarks_10.csv", "input/trails_10.csv",
+				DataStructure.LINEARPROBINGHASHMAP);
+		String origin = "L0000001";
+		Map<Landmark, Integer> before = manager.getDistancesToDestinations(origin);
+		int reachable = before.size();
+		int[] farthest = { 0 };
+		Landmark[] target = new Landmark[1];
+		for (Landmark landmark : before) {
+			if (before.get(landmark) > farthest[0]) {
+				farthest[0] = before.get(landmark);
+				target[0] = landmark;
+			}
+		}
+
+		ReportManager reports = new ReportManager(manager);
+		// The farthest landmark's line is the same before and after each change
+		String originReport = reports.getDistancesReport(origin);
+		int end = originReport.indexOf(" (" + target[0].getId() + ")\n") + 1;
+		String farthestLine = originReport.substring(originReport.lastIndexOf('\n', end) + 1, end);
+		AtomicInteger current = new AtomicInteger();
+		AtomicBoolean finished = new AtomicBoolean();
+		// Started first, so it is running for the whole time the writer is
+		Future<Boolean> reporter = executor.submit(() -> {
+			// Report on the landmark the writer is changing until it finishes
+			while (!finished.get()) {
+				int i = current.get();
+				String temporary = "X" + i;
+				String report = reports.getDistancesReport(temporary);
+				if (!report.equals("The provided landmark ID (" + temporary + ") is invalid for the park.")
+						&& !report.equals("No landmarks are reachable from Temporary " + i + " (" + temporary + ").")
+						&& !report.startsWith("Landmarks Reachable from Temporary " + i + " (" + temporary
+								+ ") {\n   1 feet to ")) {
+					return false;
+				}
+				if (!reports.getDistancesReport(origin).contains(farthestLine)) {
+					return false;
+				}
+			}
+			return true;
+		});
+		Future<Integer> writer = executor.submit(() -> {
+			int changes = 0;
+			try {
+				for (int i = 0; i < 300; i++) {
+					current.set(i);
+					manager.addLandmark(new Landmark("X" + i, "Temporary " + i, "Location"));
+					manager.addTrail("X" + i, origin, 1);
+					manager.removeLandmark("X" + i);
+					changes += 3;
+				}
+			} finally {
+				finished.set(true);
+			}
+			return changes;
+		});
+		java.util.List<Callable<Boolean>> readers = new ArrayList<>();
+		// One thread writes and one renders reports
+		for (int t = 0; t < THREADS - 2; t++) {
+			readers.add(() -> {
+				for (int round = 0; round < ROUNDS; round++) {
+					Map<Landmark, Integer> distances = manager.getDistancesToDestinations(origin);
+					// The temporary landmark is either absent or one foot away
+					if (distances.size() != reachable && distances.size() != reachable + 1) {
+						return false;
+					}
+					if (distances.get(target[0]) != farthest[0]) {
+						return false;
+					}
+				}
+				return true;
+			});
+		}
+		for (Future<Boolean> result : executor.invokeAll(readers)) {
+			assertTrue(result.get());
+		}
+		try {
+			assertTrue(reporter.get());
+		} catch (ExecutionException e) {
+			fail("The report thread failed: " + e.getCause());
+		}
+		try {
+			assertEquals(900, (int) writer.get());
+		} catch (ExecutionException e) {
+			fail("The writer failed: " + e.getCause());
+		}
+		assertEquals(reachable, manager.getDistancesToDestinations(origin).size());
+		assertEquals(reachable, manager.getComponentSize(origin));
+	}
+}
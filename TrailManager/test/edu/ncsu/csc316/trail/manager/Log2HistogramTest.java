@@ -0,0 +1,85 @@
+package edu.ncsu.csc316.trail.manager;
+
+import static org.junit.Assert.*;
+
+import java.util.stream.IntStream;
+
+import org.junit.Test;
+
+/**
+ * Tests the Log2Histogram class by checking bucket boundaries, summary
+ * statistics, percentiles, and concurrent recording.
+ *
+ * @author Thommasaht Nhouyvanisvong (tcnhouyv)
+ */
+public class Log2HistogramTest {
+
+	/**
+	 * Tests that values are filed in the bucket of their bit length.
+	 */
+	@Test
+	public void testBuckets() {
+		assertEquals(0, Log2Histogram.bucketOf(0));
+		assertEquals(1, Log2Histogram.bucketOf(1));
+		assertEquals(2, Log2Histogram.bucketOf(2));
+		assertEquals(2, Log2Histogram.bucketOf(3));
+		assertEquals(11, Log2Histogram.bucketOf(1024));
+		assertEquals(63, Log2Histogram.bucketOf(Long.MAX_VALUE));
+		assertEquals(0, Log2Histogram.upperBound(0));
+		assertEquals(3, Log2Histogram.upperBound(2));
+		assertEquals(Long.MAX_VALUE, Log2Histogram.upperBound(63));
+	}
+
+	/**
+	 * Tests the count, total, mean, maximum, and percentiles of recorded values,
+	 * and that reset discards them.
+	 */
+	@Test
+	public void testSnapshot() {
+		Log2Histogram histogram = new Log2Histogram();
+		Log2Histogram.Snapshot empty = histogram.snapshot();
+		assertEquals(0, empty.getCount());
+		assertEquals(0, empty.getMean(), 0);
+		assertEquals(0, empty.getPercentile(99));
+
+		for (int i = 1; i <= 100; i++) {
+			histogram.record(i);
+		}
+		histogram.record(-5);
+		Log2Histogram.Snapshot snapshot = histogram.snapshot();
+		assertEquals(101, snapshot.getCount());
+		assertEquals(5050, snapshot.getTotal());
+		assertEquals(100, snapshot.getMax());
+		assertEquals(5050.0 / 101, snapshot.getMean(), 1e-9);
+		assertEquals(1, snapshot.getBucketCount(0));
+		assertEquals(32, snapshot.getBucketCount(6));
+		// The 51st value is 50, in the bucket [32, 63]
+		assertEquals(63, snapshot.getPercentile(50));
+		// The top bucket is capped by the largest value
+		assertEquals(100, snapshot.getPercentile(99));
+		assertEquals(0, snapshot.getPercentile(0));
+
+		histogram.reset();
+		assertEquals(0, histogram.snapshot().getCount());
+		assertEquals(0, histogram.snapshot().getMax());
+		// Snapshots do not change after they are taken
+		assertEquals(101, snapshot.getCount());
+	}
+
+	/**
+	 * Tests that no values are lost when threads record at once.
+	 */
+	@Test
+	public void testConcurrentRecording() {
+		Log2Histogram histogram = new Log2Histogram();
+		IntStream.range(0, 8).parallel().forEach(t -> {
+			for (int i = 0; i < 10_000; i++) {
+				histogram.record(i);
+			}
+		});
+		Log2Histogram.Snapshot snapshot = histogram.snapshot();
+		assertEquals(80_000, snapshot.getCount());
+		assertEquals(8L * 9_999 * 10_000 / 2, snapshot.getTotal());
+		assertEquals(9_999, snapshot.getMax());
+	}
+}
@@ -0,0 +1,69 @@
+package edu.ncsu.csc316.trail.manager;
+
+import static org.junit.Assert.*;
+
+import org.junit.Test;
+
+import edu.ncsu.csc316.trail.dsa.DataStructure;
+
+/**
+ * Tests the MapCostModel class by checking its estimates against the
+ * calibration table and the map types it chooses.
+ *
+ * @author Thommasaht Nhouyvanisvong (tcnhouyv)
+ */
+public class MapCostModelTest {
+
+	/**
+	 * Tests that estimates match the calibration table at calibrated sizes, are
+	 * interpolated between them, and keep growing for maps with linear-time
+	 * operations.
+	 */
+	@Test
+	public void testEstimates() {
+		assertEquals(97.2, MapCostModel.getPutCost(DataStructure.BINARYSEARCHTREE, 64), 1e-9);
+		assertEquals(97.2, MapCostModel.getPutCost(DataStructure.BINARYSEARCHTREE, 1), 1e-9);
+		assertEquals(149.0, MapCostModel.getGetCost(DataStructure.BINARYSEARCHTREE, 1024), 1e-9);
+		double between = MapCostModel.getGetCost(DataStructure.BINARYSEARCHTREE, 256);
+		assertTrue(between > 71.7 && between < 149.0);
+		// Four times the entries of a linked map costs about four times as much
+		// per get
+		double ratio = MapCostModel.getGetCost(DataStructure.UNORDEREDLINKEDMAP, 65536)
+				/ MapCostModel.getGetCost(DataStructure.UNORDEREDLINKEDMAP, 16384);
+		assertTrue(ratio > 3);
+		// Extrapolation never makes a larger map cheaper per entry
+		assertTrue(MapCostModel.getPutCost(DataStructure.SEPARATECHAININGHASHMAP, 65536) >= 761.5);
+		assertEquals(64 * (97.2 + 71.7), MapCostModel.estimate(DataStructure.BINARYSEARCHTREE, 64, Workload.BALANCED),
+				1e-6);
+		try {
+			MapCostModel.estimate(DataStructure.SINGLYLINKEDLIST, 64, Workload.BALANCED);
+			fail("A list type has no map cost.");
+		} catch (IllegalArgumentException e) {
+			assertEquals("SINGLYLINKEDLIST is not a map type.", e.getMessage());
+		}
+	}
+
+	/**
+	 * Tests that the chosen type has the lowest estimate for every dataset size
+	 * and workload, and that linear-time maps are never chosen for large parks.
+	 */
+	@Test
+	public void testChoose() {
+		for (int exponent = 6; exponent <= 16; exponent += 2) {
+			int entries = 1 << exponent;
+			for (Workload workload : Workload.values()) {
+				DataStructure chosen = MapCostModel.choose(entries, workload);
+				double cost = MapCostModel.estimate(chosen, entries, workload);
+				for (DataStructure type : new DataStructure[] { DataStructure.UNORDEREDLINKEDMAP,
+						DataStructure.SEARCHTABLE, DataStructure.SKIPLIST, DataStructure.AVLTREE,
+						DataStructure.LINEARPROBINGHASHMAP }) {
+					assertTrue(cost <= MapCostModel.estimate(type, entries, workload));
+				}
+				if (entries >= 1024) {
+					assertNotEquals(DataStructure.UNORDEREDLINKEDMAP, chosen);
+					assertNotEquals(DataStructure.SEARCHTABLE, chosen);
+				}
+			}
+		}
+	}
+}
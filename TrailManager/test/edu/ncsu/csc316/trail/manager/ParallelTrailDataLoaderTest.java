@@ -0,0 +1,108 @@
+package edu.ncsu.csc316.trail.manager;
+
+import static org.junit.Assert.*;
+
+import java.io.File;
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import edu.ncsu.csc316.trail.data.Landmark;
+import edu.ncsu.csc316.trail.dsa.DataStructure;
+import edu.ncsu.csc316.trail.graph.TrailGraph;
+
+/**
+ * Tests the ParallelTrailDataLoader class by checking that it builds exactly
+ * the same graph as the sequential TrailDataLoader.
+ *
+ * @author Thommasaht Nhouyvanisvong (tcnhouyv)
+ */
+public class ParallelTrailDataLoaderTest {
+
+	/** Folder for generated input files */
+	@Rule
+	public TemporaryFolder folder = new TemporaryFolder();
+
+	/**
+	 * Tests that the largest dataset, which is split into several chunks, loads
+	 * into the same graph as the sequential loader.
+	 * 
+	 * @throws FileNotFoundException if the dataset is missing
+	 */
+	@Test
+	public void testLoadMatchesSequential() throws FileNotFoundException {
+		assertSameGraph(TrailDataLoader.load("input/landmarks_16.csv", "input/trails_16.csv"),
+				ParallelTrailDataLoader.load("input/landmarks_16.csv", "input/trails_16.csv"));
+		assertSameGraph(TrailDataLoader.load("input/landmark_data_valid.txt", "input/trail_data_valid.txt"),
+				ParallelTrailDataLoader.load("input/landmark_data_valid.txt", "input/trail_data_valid.txt"));
+	}
+
+	/**
+	 * Tests that the TrailManager load modes produce the same distances.
+	 * 
+	 * @throws FileNotFoundException if the dataset is missing
+	 */
+	@Test
+	public void testTrailManagerLoadModes() throws FileNotFoundException {
+		TrailManager parallel = new TrailManager("input/landmark_data_valid.txt", "input/trail_data_cycle.txt",
+				DataStructure.SKIPLIST, LoadMode.PARALLEL);
+		assertEquals(4700, (int) parallel.getDistancesToDestinations("L01").get(parallel.getLandmarkByID("L07")));
+	}
+
+	/**
+	 * Tests that malformed input reports the same error as the sequential
+	 * loader, and that missing files are reported.
+	 * 
+	 * @throws IOException if the test files cannot be written
+	 */
+	@Test
+	public void testInvalidInput() throws IOException {
+		File landmarkFile = folder.newFile();
+		Files.write(landmarkFile.toPath(),
+				"LANDMARK_ID,DESCRIPTION,TYPE\nL01,Park Entrance,Location\nL02,Lake,Body of Water\n"
+						.getBytes(StandardCharsets.UTF_8));
+		File trailFile = folder.newFile();
+		Files.write(trailFile.toPath(), "LANDMARK_ID,LANDMARK_ID,DISTANCE\nL01,L02,5\nL01,L02,oops\n"
+				.getBytes(StandardCharsets.UTF_8));
+		try {
+			ParallelTrailDataLoader.load(landmarkFile.getPath(), trailFile.getPath());
+			fail("IllegalArgumentException was not thrown.");
+		} catch (IllegalArgumentException e) {
+			assertEquals("Line 3 has an invalid distance.", e.getMessage());
+		}
+		try {
+			ParallelTrailDataLoader.load(landmarkFile.getPath(), "input/missing.csv");
+			fail("FileNotFoundException was not thrown.");
+		} catch (FileNotFoundException e) {
+			assertNotNull(e.getMessage());
+		}
+	}
+
+	/**
+	 * Asserts that two graphs have the same landmarks and the same CSR layout.
+	 * 
+	 * @param expected graph built sequentially
+	 * @param actual   graph built in parallel
+	 */
+	private static void assertSameGraph(TrailGraph expected, TrailGraph actual) {
+		assertEquals(expected.size(), actual.size());
+		assertEquals(expected.getTrailCount(), actual.getTrailCount());
+		for (int v = 0; v < expected.size(); v++) {
+			Landmark l = expected.getLandmark(v);
+			assertEquals(l.getId(), actual.getLandmark(v).getId());
+			assertEquals(l.getDescription(), actual.getLandmark(v).getDescription());
+			assertEquals(l.getType(), actual.getLandmark(v).getType());
+			assertEquals(expected.firstEdge(v), actual.firstEdge(v));
+			assertEquals(expected.endEdge(v), actual.endEdge(v));
+			for (int e = expected.firstEdge(v); e < expected.endEdge(v); e++) {
+				assertEquals(expected.neighbor(e), actual.neighbor(e));
+				assertEquals(expected.length(e), actual.length(e));
+			}
+		}
+	}
+}
@@ -3,10 +3,15 @@ package edu.ncsu.csc316.trail.manager;
 import static org.junit.Assert.*;
 
 import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.io.StringWriter;
 
 import org.junit.Before;
 import org.junit.Test;
 
+import edu.ncsu.csc316.dsa.map.Map;
+import edu.ncsu.csc316.trail.data.Landmark;
+
 /**
  * Tests the ReportManager class by generating the distances report and proposed
  * first aid locations and checking expected output.
@@ -105,4 +110,218 @@ public class ReportManagerTest {
 		assertEquals("No landmarks have at least 4 intersecting trails.", manager.getProposedFirstAidLocations(4));
 	}
 
+	/**
+	 * Tests the getTrailSystemsReport method, which lists connected trail
+	 * systems from largest to smallest.
+	 */
+	@Test
+	public void testGetTrailSystemsReport() {
+		assertEquals("Connected Trail Systems {"
+				+ "\n   11 landmarks including Park Entrance (L01)"
+				+ "\n   3 landmarks including Campsite 1 (L12)"
+				+ "\n   1 landmarks including Pond (L15)"
+				+ "\n}", manager.getTrailSystemsReport());
+	}
+
+
+	/**
+	 * Tests that repeated distance reports are answered from the report cache.
+	 */
+	@Test
+	public void testReportCache() {
+		ResultCache<?> cache = manager.getReportCache();
+		String report = manager.getDistancesReport("L01");
+		assertEquals(1, cache.getMissCount());
+		assertEquals(report, manager.getDistancesReport("L01"));
+		assertEquals(1, cache.getHitCount());
+		assertEquals(1, cache.size());
+	}
+
+	/**
+	 * Tests that a batch of origins gets the same reports as individual calls.
+	 */
+	@Test
+	public void testGetDistancesReports() {
+		String[] origins = { "L01", "L12", "L15", "L404" };
+		Map<String, String> reports = manager.getDistancesReports(origins);
+		assertEquals(4, reports.size());
+		for (String origin : origins) {
+			assertEquals(manager.getDistancesReport(origin), reports.get(origin));
+		}
+	}
+
+	/**
+	 * Tests the JSON forms of the distance, first aid, and landmark reports.
+	 */
+	@Test
+	public void testJsonReports() {
+		assertEquals("{\"origin\":{\"id\":\"L12\",\"description\":\"Campsite 1\"},\"destinations\":["
+				+ "{\"id\":\"L14\",\"description\":\"Overlook 2\",\"feet\":300},"
+				+ "{\"id\":\"L13\",\"description\":\"Showers 1\",\"feet\":300}]}", manager.getDistancesJson("L12"));
+		assertEquals("{\"origin\":{\"id\":\"L15\",\"description\":\"Pond\"},\"destinations\":[]}",
+				manager.getDistancesJson("L15"));
+		assertEquals("{\"error\":\"The provided landmark ID (L404) is invalid for the park.\"}",
+				manager.getDistancesJson("L404"));
+
+		assertEquals("{\"min\":3,\"locations\":["
+				+ "{\"id\":\"L01\",\"description\":\"Park Entrance\",\"trails\":3},"
+				+ "{\"id\":\"L07\",\"description\":\"Waterfall\",\"trails\":3}]}",
+				manager.getProposedFirstAidLocationsJson(3));
+		assertEquals("{\"min\":4,\"locations\":[]}", manager.getProposedFirstAidLocationsJson(4));
+		assertEquals("{\"error\":\"Number of intersecting trails must be greater than 0.\"}",
+				manager.getProposedFirstAidLocationsJson(0));
+
+		assertEquals("Park Entrance (L01) - Location, 3 intersecting trails", manager.getLandmarkReport("L01"));
+		assertEquals("{\"id\":\"L01\",\"description\":\"Park Entrance\",\"type\":\"Location\",\"trails\":3}",
+				manager.getLandmarkJson("L01"));
+		assertEquals("The provided landmark ID (L404) is invalid for the park.", manager.getLandmarkReport("L404"));
+		assertEquals("{\"error\":\"Say \\\"hi\\\" \\\\ \\u0009\"}", ReportManager.getErrorJson("Say \"hi\" \\ \t"));
+	}
+
+	/**
+	 * Tests the getRouteReport method on connected, identical, disconnected, and
+	 * invalid landmarks.
+	 */
+	@Test
+	public void testGetRouteReport() {
+		assertEquals("Route from Park Entrance (L01) to Overlook 1 (L10) - 7200 feet (1.36 miles) {"
+				+ "\n   1. Walk 1800 feet from Park Entrance (L01) to Waste Station 1 (L04)"
+				+ "\n   2. Walk 4200 feet from Waste Station 1 (L04) to Waterfall (L07)"
+				+ "\n   3. Walk 1200 feet from Waterfall (L07) to Overlook 1 (L10)"
+				+ "\n}", manager.getRouteReport("L01", "L10"));
+		assertEquals("Route from Overlook 2 (L14) to Showers 1 (L13) - 600 feet {"
+				+ "\n   1. Walk 300 feet from Overlook 2 (L14) to Campsite 1 (L12)"
+				+ "\n   2. Walk 300 feet from Campsite 1 (L12) to Showers 1 (L13)"
+				+ "\n}", manager.getRouteReport("L14", "L13"));
+		assertEquals("Park Entrance (L01) is both the origin and the destination.", manager.getRouteReport("L01", "L01"));
+		assertEquals("No route connects Park Entrance (L01) and Pond (L15).", manager.getRouteReport("L01", "L15"));
+		assertEquals("The provided landmark ID (L404) is invalid for the park.", manager.getRouteReport("L01", "L404"));
+		assertEquals("The provided landmark ID (L405) is invalid for the park.", manager.getRouteReport("L405", "L404"));
+	}
+
+	/**
+	 * Tests the getLandmarksWithinReport and getNearestReport methods.
+	 */
+	@Test
+	public void testNearbyReports() {
+		assertEquals("Landmarks Within 1800 feet of Park Entrance (L01) {"
+				+ "\n   200 feet to Restroom 1 (L02)"
+				+ "\n   500 feet to Visitor Center (L03)"
+				+ "\n   1600 feet to Open Meadow (L06)"
+				+ "\n   1800 feet to Waste Station 1 (L04)"
+				+ "\n}", manager.getLandmarksWithinReport("L01", 1800));
+		assertEquals("No landmarks are within 5280 feet of Pond (L15).", manager.getLandmarksWithinReport("L15", 5280));
+		assertEquals("Distance must not be negative.", manager.getLandmarksWithinReport("L01", -1));
+		assertEquals("The provided landmark ID (L404) is invalid for the park.",
+				manager.getLandmarksWithinReport("L404", 100));
+
+		assertEquals("Nearest 2 Restroom Landmarks to Park Entrance (L01) {"
+				+ "\n   200 feet to Restroom 1 (L02)"
+				+ "\n   7400 feet (1.40 miles) to Restroom 2 (L11)"
+				+ "\n}", manager.getNearestReport("L01", 2, "Restroom"));
+		assertEquals("Nearest 1 Landmarks to Campsite 1 (L12) {"
+				+ "\n   300 feet to Overlook 2 (L14)"
+				+ "\n}", manager.getNearestReport("L12", 1, null));
+		assertEquals("No Campsite landmarks are reachable from Park Entrance (L01).",
+				manager.getNearestReport("L01", 3, "Campsite"));
+		assertEquals("Number of landmarks must be greater than 0.", manager.getNearestReport("L01", 0, null));
+	}
+
+	/**
+	 * Tests the getProposedFirstAidLocations method with each ranking, including
+	 * the exact centrality scores of the small park, and invalid arguments.
+	 */
+	@Test
+	public void testGetProposedFirstAidLocationsRanked() {
+		assertEquals("Proposed Locations for First Aid Stations {"
+				+ "\n   Park Entrance (L01) - 0.3407 betweenness"
+				+ "\n   Waste Station 1 (L04) - 0.2637 betweenness"
+				+ "\n   Waterfall (L07) - 0.2527 betweenness"
+				+ "\n}", manager.getProposedFirstAidLocations(3, FirstAidRanking.BETWEENNESS));
+		assertEquals("Proposed Locations for First Aid Stations {"
+				+ "\n   Campsite 1 (L12) - 2.5143 closeness"
+				+ "\n   Overlook 2 (L14) - 1.6762 closeness"
+				+ "\n}", manager.getProposedFirstAidLocations(2, FirstAidRanking.CLOSENESS));
+		assertEquals("Proposed Locations for First Aid Stations {"
+				+ "\n   Park Entrance (L01) - 3 intersecting trails"
+				+ "\n   Waterfall (L07) - 3 intersecting trails"
+				+ "\n   Campsite 1 (L12) - 2 intersecting trails"
+				+ "\n}", manager.getProposedFirstAidLocations(3, FirstAidRanking.DEGREE));
+		assertEquals("Number of locations must be greater than 0.",
+				manager.getProposedFirstAidLocations(0, FirstAidRanking.BETWEENNESS));
+	}
+
+	/**
+	 * Tests the getCoverageReport method with landmarks that cannot reach the
+	 * type, landmarks too far from it, and invalid arguments.
+	 */
+	@Test
+	public void testGetCoverageReport() {
+		assertEquals("Landmarks More Than 1500 feet from Any Restroom {"
+				+ "\n   Campsite 1 (L12): no Restroom reachable"
+				+ "\n   Overlook 2 (L14): no Restroom reachable"
+				+ "\n   Pond (L15): no Restroom reachable"
+				+ "\n   Showers 1 (L13): no Restroom reachable"
+				+ "\n   Lake (L08): 5500 feet (1.04 miles) to the nearest Restroom"
+				+ "\n   Waste Station 1 (L04): 2000 feet to the nearest Restroom"
+				+ "\n   Waste Station 2 (L05): 2000 feet to the nearest Restroom"
+				+ "\n   Open Meadow (L06): 1800 feet to the nearest Restroom"
+				+ "\n   Rock Formation 1 (L09): 1700 feet to the nearest Restroom"
+				+ "\n}", manager.getCoverageReport("Restroom", 1500));
+		assertTrue(manager.getCoverageReport("Campsite", 300).startsWith("Landmarks More Than 300 feet from Any Campsite {"
+				+ "\n   Lake (L08): no Campsite reachable\n"));
+		assertEquals("Distance must not be negative.", manager.getCoverageReport("Restroom", -1));
+		assertEquals("A landmark type must be provided.", manager.getCoverageReport(null, 100));
+	}
+
+	/**
+	 * Tests that landmarks at the same distance with the same description are
+	 * reported in ID order, whichever was added first.
+	 */
+	@Test
+	public void testDistancesReportTies() {
+		TrailManager trails = null;
+		try {
+			trails = new TrailManager("input/landmark_data_valid.txt", "input/trail_data_valid.txt");
+		} catch (FileNotFoundException e) {
+			fail("FileNotFoundException was thrown.");
+		}
+		trails.addLandmark(new Landmark("L17", "Bench", "Seating"));
+		trails.addLandmark(new Landmark("L16", "Bench", "Seating"));
+		trails.addTrail("L15", "L17", 50);
+		trails.addTrail("L15", "L16", 50);
+		DistanceEntry[] entries = trails.getDistancesInReportOrder("L15");
+		assertEquals(3, entries.length);
+		assertEquals("L15", entries[0].getKey().getId());
+		assertEquals("L16", entries[1].getKey().getId());
+		assertEquals("L17", entries[2].getKey().getId());
+		assertEquals(50, (int) entries[2].getValue());
+		assertEquals(0, trails.getDistancesInReportOrder("L404").length);
+	}
+
+	/**
+	 * Tests that the streaming report methods write the same reports as the
+	 * string methods, whether or not the report is cached.
+	 * 
+	 * @throws IOException if a report cannot be written
+	 */
+	@Test
+	public void testWriteReports() throws IOException {
+		for (String origin : new String[] { "L01", "L07", "L15", "L404" }) {
+			StringWriter uncached = new StringWriter();
+			manager.writeDistancesReport(origin, uncached);
+			assertEquals(manager.getDistancesReport(origin), uncached.toString());
+			StringBuilder cached = new StringBuilder();
+			manager.writeDistancesReport(origin, cached);
+			assertEquals(uncached.toString(), cached.toString());
+		}
+		// Only the two reachable origins were cached, by the string method
+		assertEquals(4, manager.getReportCache().getMissCount());
+		assertEquals(2, manager.getReportCache().getHitCount());
+		for (int trails = 0; trails <= 4; trails++) {
+			StringWriter out = new StringWriter();
+			manager.writeProposedFirstAidLocations(trails, out);
+			assertEquals(manager.getProposedFirstAidLocations(trails), out.toString());
+		}
+	}
 }
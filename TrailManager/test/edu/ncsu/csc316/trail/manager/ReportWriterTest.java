@@ -0,0 +1,138 @@
+package edu.ncsu.csc316.trail.manager;
+
+import static org.junit.Assert.*;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.util.Random;
+
+import org.junit.Test;
+
+import edu.ncsu.csc316.trail.data.Landmark;
+import edu.ncsu.csc316.trail.graph.TrailGraph;
+import edu.ncsu.csc316.trail.graph.TrailGraphBuilder;
+
+/**
+ * Tests the ReportWriter class, checking that integer rounding of miles agrees
+ * with String.format and that every kind of destination gets the same output.
+ *
+ * @author Thommasaht Nhouyvanisvong (tcnhouyv)
+ */
+public class ReportWriterTest {
+
+	/**
+	 * Returns the distance in miles the way reports formatted it before
+	 * ReportWriter.
+	 *
+	 * @param feet distance in feet
+	 * @return miles to two decimal places
+	 */
+	private static String formatMiles(int feet) {
+		return String.format("%.2f", (double) feet / ReportWriter.FEET_IN_A_MILE);
+	}
+
+	/**
+	 * Returns the distance in miles the way ReportWriter formats it.
+	 *
+	 * @param feet distance in feet
+	 * @return miles to two decimal places
+	 */
+	private static String writeMiles(int feet) {
+		long hundredths = ReportWriter.toHundredthsOfMile(feet);
+		return String.format("%d.%02d", hundredths / 100, hundredths % 100);
+	}
+
+	/**
+	 * Tests that miles are rounded the same as String.format for every distance
+	 * up to about forty miles, which includes hundreds of exact half hundredths,
+	 * and for random distances up to Integer.MAX_VALUE.
+	 */
+	@Test
+	public void testMilesMatchFormat() {
+		for (int feet = 0; feet <= 200_000; feet++) {
+			assertEquals("feet = " + feet, formatMiles(feet), writeMiles(feet));
+		}
+		Random random = new Random(316);
+		for (int i = 0; i < 20_000; i++) {
+			int feet = random.nextInt(Integer.MAX_VALUE);
+			assertEquals("feet = " + feet, formatMiles(feet), writeMiles(feet));
+		}
+		assertEquals(formatMiles(Integer.MAX_VALUE), writeMiles(Integer.MAX_VALUE));
+		// 132 feet is exactly 0.025 miles, which rounds up
+		assertEquals(3, ReportWriter.toHundredthsOfMile(132));
+	}
+
+	/**
+	 * Writes a sample of report pieces to a destination.
+	 *
+	 * @param out destination
+	 * @throws IOException if the destination cannot be written
+	 */
+	private static void writeSample(Appendable out) throws IOException {
+		new ReportWriter(out).append(0L).append(' ').append(-42L).append(' ').append(Long.MIN_VALUE).append(' ')
+				.append(Long.MAX_VALUE).append('\n').appendFeet(5280).append('\n').appendFeet(5281).append('\n')
+				.appendFeet(1_000_000).append('\n').appendLandmark(new Landmark("L01", "Parking", "Parking Lot"));
+	}
+
+	/**
+	 * Tests that StringBuilders, Writers, and other Appendables get the same
+	 * output.
+	 *
+	 * @throws IOException if a destination cannot be written
+	 */
+	@Test
+	public void testDestinations() throws IOException {
+		String expected = "0 -42 -9223372036854775808 9223372036854775807\n5280 feet\n5281 feet (1.00 miles)\n"
+				+ "1000000 feet (189.39 miles)\nParking (L01)";
+		StringBuilder builder = new StringBuilder();
+		writeSample(builder);
+		assertEquals(expected, builder.toString());
+		StringWriter writer = new StringWriter();
+		writeSample(writer);
+		assertEquals(expected, writer.toString());
+		// StringBuffer is neither a StringBuilder nor a Writer
+		StringBuffer buffer = new StringBuffer();
+		writeSample(buffer);
+		assertEquals(expected, buffer.toString());
+	}
+
+	/**
+	 * Tests that landmarks appended by graph index match the landmarks
+	 * themselves on every kind of destination, including characters outside
+	 * Latin-1 and a description longer than the writer's initial buffer.
+	 *
+	 * @throws IOException if a destination cannot be written
+	 */
+	@Test
+	public void testGraphLandmarks() throws IOException {
+		TrailGraphBuilder builder = new TrailGraphBuilder();
+		builder.addLandmark("L01", "Parking", "Parking Lot");
+		builder.addLandmark("L02", "Caf\u00e9", "Restroom");
+		builder.addLandmark("\u5bcc01", "\u5bcc\u58eb View", "Location");
+		builder.addLandmark("L04", "Overlook ".repeat(20), "Location");
+		TrailGraph graph = builder.build();
+		for (int v = 0; v < graph.size(); v++) {
+			StringBuilder expected = new StringBuilder();
+			new ReportWriter(expected).appendLandmark(graph.getLandmark(v));
+			Appendable[] destinations = { new StringBuilder(), new StringWriter(), new StringBuffer() };
+			for (Appendable out : destinations) {
+				new ReportWriter(out).appendLandmark(graph, v).appendLandmark(graph, v);
+				assertEquals(expected.toString() + expected, out.toString());
+			}
+		}
+	}
+
+	/**
+	 * Tests that scores are written to four decimal places with halves rounded
+	 * up.
+	 *
+	 * @throws IOException if the destination cannot be written
+	 */
+	@Test
+	public void testScores() throws IOException {
+		StringBuilder builder = new StringBuilder();
+		new ReportWriter(builder).appendScore(0).append(' ').appendScore(0.34065).append(' ').appendScore(2.5142857)
+				.append(' ').appendScore(0.00005).append(' ').appendScore(12.99999);
+		assertEquals("0.0000 0.3407 2.5143 0.0001 13.0000", builder.toString());
+	}
+}
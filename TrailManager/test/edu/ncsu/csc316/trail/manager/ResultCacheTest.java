@@ -0,0 +1,93 @@
+package edu.ncsu.csc316.trail.manager;
+
+import static org.junit.Assert.*;
+
+import org.junit.Test;
+
+/**
+ * Tests the ResultCache class including hits, misses, least-recently-used
+ * eviction, and invalidation when the graph generation changes.
+ * 
+ * @author Thommasaht Nhouyvanisvong (tcnhouyv)
+ */
+public class ResultCacheTest {
+
+	/**
+	 * Tests that cached results are returned and counted as hits, and that
+	 * missing results are counted as misses.
+	 */
+	@Test
+	public void testGetAndPut() {
+		ResultCache<String> cache = new ResultCache<>(1000);
+		assertNull(cache.get("L01", 0));
+		cache.put("L01", "first", 100, 0);
+		assertEquals("first", cache.get("L01", 0));
+		assertEquals(1, cache.size());
+		assertEquals(164, cache.getWeight());
+		assertEquals(1, cache.getHitCount());
+		assertEquals(1, cache.getMissCount());
+
+		cache.put("L01", "second", 50, 0);
+		assertEquals("second", cache.get("L01", 0));
+		assertEquals(1, cache.size());
+		assertEquals(114, cache.getWeight());
+	}
+
+	/**
+	 * Tests that the least recently used results are evicted to stay within the
+	 * memory budget, and that results larger than the budget are not cached.
+	 */
+	@Test
+	public void testEviction() {
+		ResultCache<String> cache = new ResultCache<>(500);
+		cache.put("L01", "one", 100, 0);
+		cache.put("L02", "two", 100, 0);
+		cache.put("L03", "three", 100, 0);
+		// Using L01 makes L02 the least recently used result
+		assertEquals("one", cache.get("L01", 0));
+		cache.put("L04", "four", 100, 0);
+		assertEquals(3, cache.size());
+		assertEquals(1, cache.getEvictionCount());
+		assertNull(cache.get("L02", 0));
+		assertEquals("one", cache.get("L01", 0));
+		assertEquals("four", cache.get("L04", 0));
+
+		cache.put("L05", "huge", 1000, 0);
+		assertNull(cache.get("L05", 0));
+		assertEquals(3, cache.size());
+
+		cache.setCapacity(200);
+		assertEquals(1, cache.size());
+		assertEquals("four", cache.get("L04", 0));
+
+		cache.setCapacity(0);
+		assertEquals(0, cache.size());
+		assertEquals(0, cache.getWeight());
+		cache.put("L01", "one", 0, 0);
+		assertNull(cache.get("L01", 0));
+
+		try {
+			cache.setCapacity(-1);
+			fail("Negative capacity was accepted.");
+		} catch (IllegalArgumentException e) {
+			assertEquals("Cache capacity cannot be negative.", e.getMessage());
+		}
+	}
+
+	/**
+	 * Tests that every cached result is dropped once the graph generation
+	 * changes.
+	 */
+	@Test
+	public void testGenerationChange() {
+		ResultCache<String> cache = new ResultCache<>(1000);
+		cache.put("L01", "one", 10, 0);
+		cache.put("L02", "two", 10, 0);
+		assertEquals(2, cache.size());
+		assertNull(cache.get("L01", 1));
+		assertEquals(0, cache.size());
+		assertEquals(0, cache.getWeight());
+		cache.put("L01", "new", 10, 1);
+		assertEquals("new", cache.get("L01", 1));
+	}
+}
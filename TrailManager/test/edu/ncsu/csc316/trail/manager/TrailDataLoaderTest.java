@@ -0,0 +1,132 @@
+package edu.ncsu.csc316.trail.manager;
+
+import static org.junit.Assert.*;
+
+import java.io.File;
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import edu.ncsu.csc316.dsa.list.List;
+import edu.ncsu.csc316.trail.data.Landmark;
+import edu.ncsu.csc316.trail.data.Trail;
+import edu.ncsu.csc316.trail.dsa.DSAFactory;
+import edu.ncsu.csc316.trail.dsa.DataStructure;
+import edu.ncsu.csc316.trail.graph.TrailGraph;
+import edu.ncsu.csc316.trail.io.TrailInputReader;
+
+/**
+ * Tests the TrailDataLoader class against the library's TrailInputReader and
+ * with line endings, missing files, and malformed rows.
+ *
+ * @author Thommasaht Nhouyvanisvong (tcnhouyv)
+ */
+public class TrailDataLoaderTest {
+
+	/** Folder for generated input files */
+	@Rule
+	public TemporaryFolder folder = new TemporaryFolder();
+
+	/**
+	 * Tests that loading the largest dataset, which spans many read buffers,
+	 * produces the same landmarks and trails as TrailInputReader.
+	 * 
+	 * @throws FileNotFoundException if the dataset is missing
+	 */
+	@Test
+	public void testLoadMatchesTrailInputReader() throws FileNotFoundException {
+		DSAFactory.setListType(DataStructure.ARRAYBASEDLIST);
+		List<Landmark> landmarks = TrailInputReader.readLandmarks("input/landmarks_16.csv");
+		List<Trail> trails = TrailInputReader.readTrails("input/trails_16.csv");
+		TrailGraph graph = TrailDataLoader.load("input/landmarks_16.csv", "input/trails_16.csv");
+
+		assertEquals(landmarks.size(), graph.size());
+		assertEquals(trails.size(), graph.getTrailCount());
+		for (int i = 0; i < landmarks.size(); i++) {
+			Landmark expected = landmarks.get(i);
+			Landmark actual = graph.getLandmark(i);
+			assertEquals(expected.getId(), actual.getId());
+			assertEquals(expected.getDescription(), actual.getDescription());
+			assertEquals(expected.getType(), actual.getType());
+		}
+		int[] seen = new int[graph.size()];
+		for (Trail t : trails) {
+			int from = graph.indexOf(t.getLandmarkOne());
+			int to = graph.indexOf(t.getLandmarkTwo());
+			int e = graph.firstEdge(from) + seen[from]++;
+			assertEquals(to, graph.neighbor(e));
+			assertEquals(t.getLength(), graph.length(e));
+			e = graph.firstEdge(to) + seen[to]++;
+			assertEquals(from, graph.neighbor(e));
+		}
+	}
+
+	/**
+	 * Tests that CRLF line endings, blank lines, and a missing final line
+	 * terminator are handled.
+	 * 
+	 * @throws IOException if the test files cannot be written
+	 */
+	@Test
+	public void testLineEndings() throws IOException {
+		File landmarkFile = write("LANDMARK_ID,DESCRIPTION,TYPE\r\nL01,Park Entrance,Location\r\n\r\nL02,Lake,Body of Water");
+		File trailFile = write("LANDMARK_ID,LANDMARK_ID,DISTANCE\r\nL01,L02,450\r\n");
+		TrailGraph graph = TrailDataLoader.load(landmarkFile.getPath(), trailFile.getPath());
+		assertEquals(2, graph.size());
+		assertEquals("Body of Water", graph.getLandmark(1).getType());
+		assertEquals(1, graph.getTrailCount());
+		assertEquals(450, graph.length(graph.firstEdge(0)));
+	}
+
+	/**
+	 * Tests that missing files and malformed rows are reported.
+	 * 
+	 * @throws IOException if the test files cannot be written
+	 */
+	@Test
+	public void testInvalidInput() throws IOException {
+		File landmarkFile = write("LANDMARK_ID,DESCRIPTION,TYPE\nL01,Park Entrance,Location\nL02,Lake,Body of Water\n");
+		try {
+			TrailDataLoader.load("input/missing.csv", "input/trail_data_valid.txt");
+			fail("FileNotFoundException was not thrown.");
+		} catch (FileNotFoundException e) {
+			assertNotNull(e.getMessage());
+		}
+		try {
+			TrailDataLoader.load(landmarkFile.getPath(), write("LANDMARK_ID,LANDMARK_ID,DISTANCE\nL01,L03,5\n").getPath());
+			fail("IllegalArgumentException was not thrown.");
+		} catch (IllegalArgumentException e) {
+			assertEquals("Trail references unknown landmark L03.", e.getMessage());
+		}
+		try {
+			TrailDataLoader.load(landmarkFile.getPath(), write("LANDMARK_ID,LANDMARK_ID,DISTANCE\nL01,L02,5x\n").getPath());
+			fail("IllegalArgumentException was not thrown.");
+		} catch (IllegalArgumentException e) {
+			assertEquals("Line 2 has an invalid distance.", e.getMessage());
+		}
+		try {
+			TrailDataLoader.load(landmarkFile.getPath(), write("LANDMARK_ID,LANDMARK_ID,DISTANCE\nL01,L02,5\nL01\n").getPath());
+			fail("IllegalArgumentException was not thrown.");
+		} catch (IllegalArgumentException e) {
+			assertEquals("Line 3 is missing a column.", e.getMessage());
+		}
+	}
+
+	/**
+	 * Writes the specified contents to a new temporary file.
+	 * 
+	 * @param contents contents of the file
+	 * @return the new file
+	 * @throws IOException if the file cannot be written
+	 */
+	private File write(String contents) throws IOException {
+		File file = folder.newFile();
+		Files.write(file.toPath(), contents.getBytes(StandardCharsets.UTF_8));
+		return file;
+	}
+}
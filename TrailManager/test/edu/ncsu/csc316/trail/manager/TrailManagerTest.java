@@ -3,14 +3,22 @@ package edu.ncsu.csc316.trail.manager;
 import static org.junit.Assert.*;
 
 import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.logging.Handler;
+import java.util.logging.Level;
+import java.util.logging.LogRecord;
+import java.util.logging.Logger;
 
 import org.junit.Before;
 import org.junit.Test;
 
 import edu.ncsu.csc316.dsa.list.List;
 import edu.ncsu.csc316.dsa.map.Map;
+import edu.ncsu.csc316.dsa.map.Map.Entry;
 import edu.ncsu.csc316.trail.data.Landmark;
 import edu.ncsu.csc316.trail.data.Trail;
+import edu.ncsu.csc316.trail.dsa.DataStructure;
 
 /**
  * Tests the TrailManger class including getDistancesToDestinations and getProposedFirstAidLocations.
@@ -73,6 +81,30 @@ public class TrailManagerTest {
 		assertTrue(invalidMap.isEmpty());
 	}
 
+	/**
+	 * Tests that getDistancesToDestinations returns the shortest distance when
+	 * trails form cycles, rather than the distance along the first trail found.
+	 */
+	@Test
+	public void testGetDistancesToDestinationsWithCycles() {
+		try {
+			manager = new TrailManager("input/landmark_data_valid.txt", "input/trail_data_cycle.txt");
+		} catch (FileNotFoundException e) {
+			fail("FileNotFoundException was thrown.");
+		}
+		Map<Landmark, Integer> entranceMap = manager.getDistancesToDestinations("L01");
+		assertEquals(11, entranceMap.size());
+		assertEquals(0, (int) entranceMap.get(manager.getLandmarkByID("L01")));
+		// L01 -> L02 -> L04 is shorter than the direct trail from L01 to L04
+		assertEquals(500, (int) entranceMap.get(manager.getLandmarkByID("L04")));
+		// L01 -> L02 -> L04 -> L07 is shorter than L01 -> L02 -> L05 -> L08 -> L07
+		assertEquals(4700, (int) entranceMap.get(manager.getLandmarkByID("L07")));
+		assertEquals(4800, (int) entranceMap.get(manager.getLandmarkByID("L08")));
+		assertEquals(5000, (int) entranceMap.get(manager.getLandmarkByID("L09")));
+		assertEquals(5900, (int) entranceMap.get(manager.getLandmarkByID("L10")));
+		assertEquals(6100, (int) entranceMap.get(manager.getLandmarkByID("L11")));
+	}
+
 	/**
 	 * Tests the getProposedFirstAidLocations method using inputs of 0-4,
 	 * representing the lower and upper bounds of the data set.
@@ -97,4 +129,560 @@ public class TrailManagerTest {
 		Map<Landmark, List<Trail>> fourIntersectingTrails = manager.getProposedFirstAidLocations(4);
 		assertEquals(0, fourIntersectingTrails.size());
 	}
+
+	/**
+	 * Tests that getProposedFirstAidLandmarks lists landmarks by number of
+	 * intersecting trails and then by description.
+	 */
+	@Test
+	public void testGetProposedFirstAidLandmarks() {
+		List<Entry<Landmark, Integer>> landmarks = manager.getProposedFirstAidLandmarks(2);
+		assertEquals(8, landmarks.size());
+		assertEquals("L01", landmarks.get(0).getKey().getId());
+		assertEquals(3, (int) landmarks.get(0).getValue());
+		assertEquals("L07", landmarks.get(1).getKey().getId());
+		assertEquals("L12", landmarks.get(2).getKey().getId());
+		assertEquals(2, (int) landmarks.get(2).getValue());
+		assertEquals(2, manager.getIntersectingTrailCount("L12"));
+		assertEquals(0, manager.getIntersectingTrailCount("L15"));
+		assertEquals(0, manager.getIntersectingTrailCount("L404"));
+		assertEquals(0, manager.getProposedFirstAidLandmarks(4).size());
+		assertEquals(0, manager.getProposedFirstAidLandmarks(0).size());
+
+		Entry<Landmark, Integer> landmark = manager.getLandmarkWithTrailCount("L07");
+		assertEquals("L07", landmark.getKey().getId());
+		assertEquals(3, (int) landmark.getValue());
+		assertNull(manager.getLandmarkWithTrailCount("L404"));
+	}
+
+	/**
+	 * Tests the connected trail system queries with connected, disconnected,
+	 * isolated, and invalid landmarks.
+	 */
+	@Test
+	public void testComponents() {
+		assertEquals(11, manager.getComponentSize("L01"));
+		assertEquals(11, manager.getComponentSize("L11"));
+		assertEquals(3, manager.getComponentSize("L13"));
+		assertEquals(1, manager.getComponentSize("L15"));
+		assertEquals(0, manager.getComponentSize("L404"));
+
+		assertEquals(0, manager.getComponentID("L07"));
+		assertEquals(1, manager.getComponentID("L14"));
+		assertEquals(2, manager.getComponentID("L15"));
+		assertEquals(-1, manager.getComponentID("L404"));
+
+		assertTrue(manager.areConnected("L01", "L11"));
+		assertTrue(manager.areConnected("L15", "L15"));
+		assertFalse(manager.areConnected("L01", "L12"));
+		assertFalse(manager.areConnected("L01", "L404"));
+
+		List<Entry<Landmark, Integer>> systems = manager.getComponentsBySize();
+		assertEquals(3, systems.size());
+		assertEquals("L01", systems.get(0).getKey().getId());
+		assertEquals(11, (int) systems.get(0).getValue());
+		assertEquals("L12", systems.get(1).getKey().getId());
+		assertEquals(3, (int) systems.get(1).getValue());
+		assertEquals("L15", systems.get(2).getKey().getId());
+		assertEquals(1, (int) systems.get(2).getValue());
+	}
+
+	/**
+	 * Tests that repeated distance queries are answered from the distance cache
+	 * with the same results, and that disabling the cache still gives correct
+	 * results.
+	 */
+	@Test
+	public void testDistanceCache() {
+		ResultCache<?> cache = manager.getDistanceCache();
+		assertEquals(TrailManager.DEFAULT_DISTANCE_CACHE_BYTES, cache.getCapacity());
+		Map<Landmark, Integer> first = manager.getDistancesToDestinations("L01");
+		assertEquals(0, cache.getHitCount());
+		assertEquals(1, cache.getMissCount());
+		Map<Landmark, Integer> second = manager.getDistancesToDestinations("L01");
+		assertEquals(1, cache.getHitCount());
+		assertEquals(11, second.size());
+		for (Landmark landmark : first) {
+			assertEquals(first.get(landmark), second.get(landmark));
+		}
+		// Invalid and isolated landmarks never reach the cache
+		manager.getDistancesToDestinations("L404");
+		manager.getDistancesToDestinations("L15");
+		assertEquals(1, cache.size());
+
+		cache.setCapacity(0);
+		assertEquals(0, cache.size());
+		assertEquals(7400, (int) manager.getDistancesToDestinations("L01").get(manager.getLandmarkByID("L11")));
+		assertEquals(0, cache.size());
+	}
+
+	/**
+	 * Tests that adding, removing, and changing landmarks and trails is reflected
+	 * by distance, component, and first aid queries, and that cached distances
+	 * are not reused after a change.
+	 */
+	@Test
+	public void testUpdates() {
+		assertEquals(7400, (int) manager.getDistancesToDestinations("L01").get(manager.getLandmarkByID("L11")));
+		assertTrue(manager.updateTrailLength("L04", "L01", 2800));
+		assertEquals(8400, (int) manager.getDistancesToDestinations("L01").get(manager.getLandmarkByID("L11")));
+		assertEquals(2, manager.getDistanceCache().getMissCount());
+		assertFalse(manager.updateTrailLength("L01", "L15", 10));
+
+		// A trail from the pond to the campsite joins two trail systems
+		manager.addTrail("L15", "L12", 400);
+		assertEquals(4, manager.getComponentSize("L12"));
+		assertTrue(manager.areConnected("L15", "L13"));
+		assertEquals(2, manager.getComponentsBySize().size());
+		assertEquals(700, (int) manager.getDistancesToDestinations("L15").get(manager.getLandmarkByID("L13")));
+
+		assertTrue(manager.removeTrail("L12", "L15"));
+		assertFalse(manager.removeTrail("L12", "L15"));
+		assertEquals(1, manager.getComponentSize("L15"));
+		assertEquals(1, manager.getDistancesToDestinations("L15").size());
+		assertEquals(3, manager.getComponentsBySize().size());
+
+		assertTrue(manager.addLandmark(new Landmark("L16", "Lookout Tower", "Viewpoint")));
+		assertFalse(manager.addLandmark(new Landmark("L16", "Duplicate", "Viewpoint")));
+		assertEquals(4, manager.getComponentsBySize().size());
+		manager.addTrail("L16", "L01", 100);
+		manager.addTrail("L16", "L12", 100);
+		manager.addTrail("L16", "L15", 100);
+		assertEquals(16, manager.getComponentSize("L01"));
+		assertEquals(4, manager.getProposedFirstAidLocations(3).size());
+		assertEquals(1, manager.getComponentsBySize().size());
+
+		assertTrue(manager.removeLandmark("L16"));
+		assertFalse(manager.removeLandmark("L16"));
+		assertNull(manager.getLandmarkByID("L16"));
+		assertEquals(0, manager.getDistancesToDestinations("L16").size());
+		assertEquals(11, manager.getComponentSize("L01"));
+		assertEquals(3, manager.getComponentsBySize().size());
+		assertEquals(2, manager.getProposedFirstAidLocations(3).size());
+
+		try {
+			manager.addTrail("L01", "L404", 10);
+			fail("A trail to an unknown landmark was accepted.");
+		} catch (IllegalArgumentException e) {
+			assertEquals("Trail references unknown landmark L404.", e.getMessage());
+		}
+		try {
+			manager.updateTrailLength("L01", "L02", -1);
+			fail("A negative trail length was accepted.");
+		} catch (IllegalArgumentException e) {
+			assertEquals("Trail length cannot be negative.", e.getMessage());
+		}
+	}
+
+	/**
+	 * Tests that a batch of origins gets the same distance maps as individual
+	 * queries, including repeated and invalid origins.
+	 */
+	@Test
+	public void testGetDistancesToDestinationsBatch() {
+		String[] origins = { "L01", "L12", "L15", "L404", "L07", "L01" };
+		Map<String, Map<Landmark, Integer>> batch = manager.getDistancesToDestinations(origins);
+		assertEquals(5, batch.size());
+		assertEquals(0, batch.get("L404").size());
+		assertEquals(1, batch.get("L15").size());
+		for (String origin : origins) {
+			Map<Landmark, Integer> expected = manager.getDistancesToDestinations(origin);
+			Map<Landmark, Integer> actual = batch.get(origin);
+			assertEquals(expected.size(), actual.size());
+			for (Landmark landmark : expected) {
+				assertEquals(expected.get(landmark), actual.get(landmark));
+			}
+		}
+		assertEquals(0, manager.getDistancesToDestinations(new String[0]).size());
+	}
+
+	/**
+	 * Tests that distance queries from several threads at once each get correct
+	 * results.
+	 * 
+	 * @throws InterruptedException if the test is interrupted
+	 */
+	@Test
+	public void testConcurrentDistanceQueries() throws InterruptedException {
+		manager.getDistanceCache().setCapacity(0);
+		String[] origins = { "L01", "L07", "L11", "L12" };
+		int[] expectedSizes = { 11, 11, 11, 3 };
+		Thread[] threads = new Thread[8];
+		boolean[] correct = new boolean[threads.length];
+		for (int t = 0; t < threads.length; t++) {
+			int id = t;
+			threads[t] = new Thread(() -> {
+				boolean ok = true;
+				for (int round = 0; round < 200; round++) {
+					int o = (id + round) % origins.length;
+					Map<Landmark, Integer> distances = manager.getDistancesToDestinations(origins[o]);
+					ok &= distances.size() == expectedSizes[o];
+					ok &= distances.get(manager.getLandmarkByID(origins[o])) == 0;
+				}
+				correct[id] = ok;
+			});
+			threads[t].start();
+		}
+		for (Thread thread : threads) {
+			thread.join();
+		}
+		for (boolean ok : correct) {
+			assertTrue(ok);
+		}
+	}
+
+	/**
+	 * Tests getRoute on connected, identical, disconnected, and invalid
+	 * landmarks, and after a shortcut is added.
+	 */
+	@Test
+	public void testGetRoute() {
+		Route route = manager.getRoute("L01", "L10");
+		assertEquals(7200, route.getDistance());
+		assertEquals(3, route.getTrails().size());
+		assertEquals(4, route.getLandmarks().size());
+		String[] stops = { "L01", "L04", "L07", "L10" };
+		int[] lengths = { 1800, 4200, 1200 };
+		int i = 0;
+		for (Trail trail : route.getTrails()) {
+			assertEquals(stops[i], trail.getLandmarkOne());
+			assertEquals(stops[i + 1], trail.getLandmarkTwo());
+			assertEquals(lengths[i], trail.getLength());
+			assertEquals(stops[i], route.getLandmarks().get(i).getId());
+			i++;
+		}
+		assertEquals("L10", route.getLandmarks().last().getId());
+
+		route = manager.getRoute("L10", "L01");
+		assertEquals(7200, route.getDistance());
+		assertEquals("L10", route.getTrails().first().getLandmarkOne());
+
+		route = manager.getRoute("L06", "L06");
+		assertEquals(0, route.getDistance());
+		assertTrue(route.getTrails().isEmpty());
+		assertEquals(1, route.getLandmarks().size());
+
+		assertNull(manager.getRoute("L01", "L12"));
+		assertNull(manager.getRoute("L01", "L15"));
+		assertNull(manager.getRoute("L404", "L01"));
+
+		manager.addTrail("L01", "L10", 1000);
+		route = manager.getRoute("L11", "L01");
+		assertEquals(1200, route.getDistance());
+		assertEquals(2, route.getTrails().size());
+	}
+
+	/**
+	 * Tests getLandmarksWithin with ranges that end on, before, and between
+	 * landmarks, ties, and invalid input.
+	 */
+	@Test
+	public void testGetLandmarksWithin() {
+		assertEntries(manager.getLandmarksWithin("L01", 1800), "L02", 200, "L03", 500, "L06", 1600, "L04", 1800);
+		assertEntries(manager.getLandmarksWithin("L01", 1799), "L02", 200, "L03", 500, "L06", 1600);
+		assertEntries(manager.getLandmarksWithin("L12", 300), "L14", 300, "L13", 300);
+		assertEquals(10, manager.getLandmarksWithin("L01", Integer.MAX_VALUE).size());
+		assertTrue(manager.getLandmarksWithin("L01", 0).isEmpty());
+		assertTrue(manager.getLandmarksWithin("L15", 1000).isEmpty());
+		assertTrue(manager.getLandmarksWithin("L01", -1).isEmpty());
+		assertTrue(manager.getLandmarksWithin("L404", 1000).isEmpty());
+	}
+
+	/**
+	 * Tests getNearest with and without a type filter, ties at the k-th
+	 * landmark, fewer matches than k, and invalid input.
+	 */
+	@Test
+	public void testGetNearest() {
+		assertEntries(manager.getNearest("L01", 2, "Restroom"), "L02", 200, "L11", 7400);
+		assertEntries(manager.getNearest("L01", 5, "Restroom"), "L02", 200, "L11", 7400);
+		assertEntries(manager.getNearest("L11", 1, "Restroom"), "L02", 7600);
+		assertEntries(manager.getNearest("L01", 1, "Body of Water"), "L08", 5700);
+		assertEntries(manager.getNearest("L01", 3, null), "L02", 200, "L03", 500, "L06", 1600);
+		assertEntries(manager.getNearest("L12", 1, null), "L14", 300);
+		assertTrue(manager.getNearest("L01", 1, "Campsite").isEmpty());
+		assertTrue(manager.getNearest("L15", 3, null).isEmpty());
+		assertTrue(manager.getNearest("L01", 0, null).isEmpty());
+		assertTrue(manager.getNearest("L404", 3, null).isEmpty());
+	}
+
+	/**
+	 * Tests getNearest and getLandmarksWithin from many origins in a larger park
+	 * against the full distance map, sorted and filtered.
+	 * 
+	 * @throws FileNotFoundException if the park files are missing
+	 */
+	@Test
+	public void testNearestMatchesFullSearch() throws FileNotFoundException {
+		manager = new TrailManager("input/landmarks_10.csv", "input/trails_10.csv");
+		String[] types = { "Restroom", "Waterfall", "Overlook", null };
+		for (int i = 1; i <= 1024; i += 37) {
+			String origin = String.format("L%07d", i);
+			java.util.List<Entry<Landmark, Integer>> all = new java.util.ArrayList<>();
+			for (Entry<Landmark, Integer> entry : manager.getDistancesToDestinations(origin).entrySet()) {
+				if (!entry.getKey().getId().equals(origin)) {
+					all.add(new DistanceEntry(entry.getKey(), entry.getValue()));
+				}
+			}
+			java.util.Collections.sort(all);
+			String type = types[i % types.length];
+			int k = 1 + i % 7;
+			java.util.List<Entry<Landmark, Integer>> expected = new java.util.ArrayList<>();
+			for (Entry<Landmark, Integer> entry : all) {
+				if (expected.size() < k && (type == null || type.equals(entry.getKey().getType()))) {
+					expected.add(entry);
+				}
+			}
+			assertSameEntries(expected, manager.getNearest(origin, k, type));
+
+			int maxFeet = all.isEmpty() ? 0 : all.get(all.size() / 3).getValue();
+			expected.clear();
+			for (Entry<Landmark, Integer> entry : all) {
+				if (entry.getValue() <= maxFeet) {
+					expected.add(entry);
+				}
+			}
+			assertSameEntries(expected, manager.getLandmarksWithin(origin, maxFeet));
+		}
+	}
+
+	/**
+	 * Asserts that a list of landmark distances holds exactly the specified IDs
+	 * and distances, in order.
+	 * 
+	 * @param actual         list to check
+	 * @param idsAndDistances alternating landmark IDs and distances
+	 */
+	private void assertEntries(List<Entry<Landmark, Integer>> actual, Object... idsAndDistances) {
+		assertEquals(idsAndDistances.length / 2, actual.size());
+		int i = 0;
+		for (Entry<Landmark, Integer> entry : actual) {
+			assertEquals(idsAndDistances[i], entry.getKey().getId());
+			assertEquals(idsAndDistances[i + 1], entry.getValue());
+			i += 2;
+		}
+	}
+
+	/**
+	 * Asserts that a list of landmark distances has the same landmarks and
+	 * distances as the expected list, in the same order.
+	 * 
+	 * @param expected expected entries
+	 * @param actual   list to check
+	 */
+	private void assertSameEntries(java.util.List<Entry<Landmark, Integer>> expected,
+			List<Entry<Landmark, Integer>> actual) {
+		assertEquals(expected.size(), actual.size());
+		int i = 0;
+		for (Entry<Landmark, Integer> entry : actual) {
+			assertEquals(expected.get(i).getKey(), entry.getKey());
+			assertEquals(expected.get(i).getKey().getDescription(), entry.getKey().getDescription());
+			assertEquals(expected.get(i).getKey().getType(), entry.getKey().getType());
+			assertEquals(expected.get(i).getValue(), entry.getValue());
+			i++;
+		}
+	}
+
+	/**
+	 * Tests getDistance with and without a distance oracle, that the oracle is
+	 * dropped when the graph changes, and that a saved oracle can be reloaded.
+	 * 
+	 * @throws IOException if the oracle cannot be saved or loaded
+	 */
+	@Test
+	public void testDistanceOracle() throws IOException {
+		assertEquals(7200, manager.getDistance("L01", "L10"));
+		assertEquals(0, manager.getDistance("L06", "L06"));
+		assertEquals(-1, manager.getDistance("L01", "L12"));
+		assertEquals(-1, manager.getDistance("L01", "L404"));
+		try {
+			manager.saveDistanceOracle("unused");
+			fail("An oracle was saved before one was built.");
+		} catch (IllegalStateException e) {
+			assertNull(manager.getDistanceOracle());
+		}
+
+		for (long budget : new long[] { 1L << 20, 0 }) {
+			assertEquals(budget > 0, manager.buildDistanceOracle(budget));
+			assertNotNull(manager.getDistanceOracle());
+			assertEquals(7200, manager.getDistance("L01", "L10"));
+			assertEquals(7600, manager.getDistance("L11", "L02"));
+			assertEquals(600, manager.getDistance("L13", "L14"));
+			assertEquals(-1, manager.getDistance("L01", "L15"));
+		}
+
+		java.io.File file = java.io.File.createTempFile("trails", ".oracle");
+		file.deleteOnExit();
+		manager.saveDistanceOracle(file.getPath());
+		manager.addTrail("L01", "L10", 1000);
+		assertNull(manager.getDistanceOracle());
+		assertEquals(1000, manager.getDistance("L01", "L10"));
+		try {
+			manager.loadDistanceOracle(file.getPath());
+			fail("An oracle for the old graph was loaded.");
+		} catch (IOException e) {
+			assertNull(manager.getDistanceOracle());
+		}
+		manager.removeTrail("L01", "L10");
+		manager.loadDistanceOracle(file.getPath());
+		assertEquals(7200, manager.getDistance("L01", "L10"));
+	}
+
+	/**
+	 * Tests that a manager created for a workload uses the map type the cost
+	 * model chooses for its number of landmarks, and logs the choice.
+	 * 
+	 * @throws FileNotFoundException if the test files are missing
+	 */
+	@Test
+	public void testAutoMapType() throws FileNotFoundException {
+		Logger logger = Logger.getLogger(TrailManager.class.getName());
+		java.util.List<LogRecord> records = new ArrayList<>();
+		Handler handler = new Handler() {
+			@Override
+			public void publish(LogRecord record) {
+				records.add(record);
+			}
+
+			@Override
+			public void flush() {
+				// Records are kept in memory
+			}
+
+			@Override
+			public void close() {
+				// Nothing to release
+			}
+		};
+		Level level = logger.getLevel();
+		logger.setLevel(Level.CONFIG);
+		logger.addHandler(handler);
+		try {
+			TrailManager auto = new TrailManager("input/landmarks_10.csv", "input/trails_10.csv",
+					Workload.READ_HEAVY, LoadMode.SEQUENTIAL);
+			assertEquals(MapCostModel.choose(1024, Workload.READ_HEAVY), auto.getMapType());
+			assertEquals(1, records.size());
+			assertEquals(Level.CONFIG, records.get(0).getLevel());
+			assertEquals(auto.getMapType(), records.get(0).getParameters()[0]);
+			assertEquals(1024, records.get(0).getParameters()[1]);
+
+			// An explicit map type is used as given and not logged
+			TrailManager fixed = new TrailManager("input/landmarks_10.csv", "input/trails_10.csv",
+					DataStructure.SPLAYTREE, LoadMode.SEQUENTIAL);
+			assertEquals(DataStructure.SPLAYTREE, fixed.getMapType());
+			assertEquals(1, records.size());
+		} finally {
+			logger.removeHandler(handler);
+			logger.setLevel(level);
+		}
+		assertEquals(MapCostModel.choose(15, Workload.BALANCED), manager.getMapType());
+		assertEquals(11, manager.getDistancesToDestinations("L01").size());
+	}
+
+	/**
+	 * Tests the getNearestSources and getUncoveredLandmarks methods, including
+	 * invalid source IDs, landmarks no source reaches, and the order of
+	 * uncovered landmarks.
+	 */
+	@Test
+	public void testCoverage() {
+		Map<Landmark, Entry<Landmark, Integer>> nearest = manager.getNearestSources(new String[] { "L02", "L404", "L11" });
+		assertEquals(11, nearest.size());
+		assertEquals("L02", nearest.get(manager.getLandmarkByID("L02")).getKey().getId());
+		assertEquals(0, (int) nearest.get(manager.getLandmarkByID("L02")).getValue());
+		assertEquals("L11", nearest.get(manager.getLandmarkByID("L07")).getKey().getId());
+		assertEquals(1400, (int) nearest.get(manager.getLandmarkByID("L07")).getValue());
+		assertEquals("L02", nearest.get(manager.getLandmarkByID("L06")).getKey().getId());
+		assertEquals(1800, (int) nearest.get(manager.getLandmarkByID("L06")).getValue());
+		assertNull(nearest.get(manager.getLandmarkByID("L15")));
+		assertTrue(manager.getNearestSources(new String[] { "L404" }).isEmpty());
+
+		List<Entry<Landmark, Integer>> uncovered = manager.getUncoveredLandmarks("Restroom", 1800);
+		assertEquals(7, uncovered.size());
+		assertEquals("L12", uncovered.get(0).getKey().getId());
+		assertEquals(-1, (int) uncovered.get(0).getValue());
+		assertEquals("L08", uncovered.get(4).getKey().getId());
+		assertEquals(5500, (int) uncovered.get(4).getValue());
+		assertEquals("L05", uncovered.get(6).getKey().getId());
+		assertEquals(2000, (int) uncovered.get(6).getValue());
+		assertEquals(15, manager.getUncoveredLandmarks("Amphitheater", 0).size());
+		assertTrue(manager.getUncoveredLandmarks(null, 0).isEmpty());
+		assertTrue(manager.getUncoveredLandmarks("Restroom", -1).isEmpty());
+	}
+
+	/**
+	 * Tests ranking first aid locations by centrality, and that the scores are
+	 * recomputed after the trails change.
+	 */
+	@Test
+	public void testProposedFirstAidRanked() {
+		List<Entry<Landmark, Double>> ranked = manager.getProposedFirstAidLandmarks(15, FirstAidRanking.BETWEENNESS);
+		assertEquals(15, ranked.size());
+		assertEquals("L01", ranked.get(0).getKey().getId());
+		// Leaves and isolated landmarks lie on no shortest path and are ordered by
+		// description
+		assertEquals("L12", ranked.get(7).getKey().getId());
+		assertEquals("L08", ranked.get(8).getKey().getId());
+		assertEquals(0.0, ranked.get(8).getValue(), 0);
+		assertEquals("L15", ranked.get(11).getKey().getId());
+		for (int i = 0; i < ranked.size(); i++) {
+			assertEquals(manager.getFirstAidScore(ranked.get(i).getKey().getId(), FirstAidRanking.BETWEENNESS),
+					ranked.get(i).getValue(), 0);
+			assertTrue(i == 0 || ranked.get(i - 1).compareTo(ranked.get(i)) < 0);
+		}
+		assertEquals(0.0, manager.getFirstAidScore("L15", FirstAidRanking.BETWEENNESS), 0);
+		assertEquals(3.0, manager.getFirstAidScore("L01", FirstAidRanking.DEGREE), 0);
+		assertEquals(0.0, manager.getFirstAidScore("L404", FirstAidRanking.CLOSENESS), 0);
+		assertTrue(manager.getProposedFirstAidLandmarks(0, FirstAidRanking.CLOSENESS).isEmpty());
+
+		// A shortcut from the Lake to Restroom 2 routes paths around Waterfall
+		double waterfall = manager.getFirstAidScore("L07", FirstAidRanking.BETWEENNESS);
+		manager.addTrail("L08", "L11", 100);
+		assertTrue(manager.getFirstAidScore("L07", FirstAidRanking.BETWEENNESS) < waterfall);
+		assertEquals("L08",
+				manager.getProposedFirstAidLandmarks(3, FirstAidRanking.BETWEENNESS).get(2).getKey().getId());
+	}
+
+	/**
+	 * Tests that a manager loaded off the heap answers queries like one loaded on
+	 * it, and that it rejects queries and changes once closed.
+	 * 
+	 * @throws FileNotFoundException if the input files are missing
+	 */
+	@Test
+	public void testOffHeap() throws FileNotFoundException {
+		TrailManager heap = new TrailManager("input/landmarks_10.csv", "input/trails_10.csv",
+				DataStructure.LINEARPROBINGHASHMAP, LoadMode.SEQUENTIAL);
+		TrailManager offHeap = new TrailManager("input/landmarks_10.csv", "input/trails_10.csv",
+				DataStructure.LINEARPROBINGHASHMAP, LoadMode.OFF_HEAP);
+		for (String origin : new String[] { "L0000001", "L0000467", "L0000928" }) {
+			Map<Landmark, Integer> expected = heap.getDistancesToDestinations(origin);
+			Map<Landmark, Integer> actual = offHeap.getDistancesToDestinations(origin);
+			assertEquals(expected.size(), actual.size());
+			for (Landmark landmark : expected) {
+				assertEquals(expected.get(landmark), actual.get(landmark));
+			}
+		}
+		Map<Landmark, List<Trail>> expected = heap.getProposedFirstAidLocations(3);
+		Map<Landmark, List<Trail>> actual = offHeap.getProposedFirstAidLocations(3);
+		assertEquals(expected.size(), actual.size());
+		for (Landmark landmark : expected) {
+			assertEquals(expected.get(landmark).size(), actual.get(landmark).size());
+		}
+
+		offHeap.close();
+		offHeap.close();
+		try {
+			offHeap.getDistancesToDestinations("L0000001");
+			fail("A closed manager answered a query");
+		} catch (IllegalStateException e) {
+			assertEquals("TrailManager has been closed.", e.getMessage());
+		}
+		try {
+			offHeap.addTrail("L0000001", "L0000002", 100);
+			fail("A closed manager accepted a change");
+		} catch (IllegalStateException e) {
+			assertEquals("TrailManager has been closed.", e.getMessage());
+		}
+	}
 }
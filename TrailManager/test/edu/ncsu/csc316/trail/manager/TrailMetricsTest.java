@@ -0,0 +1,129 @@
+package edu.ncsu.csc316.trail.manager;
+
+import static org.junit.Assert.*;
+
+import java.io.FileNotFoundException;
+import java.lang.management.ManagementFactory;
+
+import javax.management.Attribute;
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import edu.ncsu.csc316.trail.dsa.DataStructure;
+
+/**
+ * Tests the TrailMetrics class by running queries with recording on and off
+ * and reading the metrics as snapshots and through JMX.
+ *
+ * @author Thommasaht Nhouyvanisvong (tcnhouyv)
+ */
+public class TrailMetricsTest {
+
+	/** ReportManager used for testing */
+	private ReportManager manager;
+	/** Metrics of the manager */
+	private TrailMetrics metrics;
+
+	/**
+	 * Loads the valid test files.
+	 */
+	@Before
+	public void setUp() {
+		try {
+			manager = new ReportManager("input/landmark_data_valid.txt", "input/trail_data_valid.txt",
+					DataStructure.LINEARPROBINGHASHMAP);
+		} catch (FileNotFoundException e) {
+			fail("FileNotFoundException was thrown.");
+		}
+		metrics = manager.getMetrics();
+	}
+
+	/**
+	 * Tests that load phases are timed and that nothing is recorded per query
+	 * while recording is off, apart from cache counts.
+	 */
+	@Test
+	public void testDisabled() {
+		metrics.setEnabled(false);
+		manager.getDistancesReport("L01");
+		manager.getDistancesReport("L01");
+		manager.getProposedFirstAidLocations(2);
+		MetricsSnapshot snapshot = metrics.snapshot();
+		assertTrue(snapshot.getParseNanos() > 0);
+		assertTrue(snapshot.getIndexNanos() > 0);
+		assertTrue(snapshot.getSortNanos() > 0);
+		assertEquals(0, snapshot.getDistanceQueries().getCount());
+		assertEquals(0, snapshot.getFirstAidQueries().getCount());
+		assertEquals(0, snapshot.getLandmarksSettled().getCount());
+		assertEquals(1, snapshot.getReportCacheHits());
+		assertEquals(1, snapshot.getReportCacheMisses());
+		assertEquals(0.5, snapshot.getReportCacheHitRate(), 0);
+	}
+
+	/**
+	 * Tests that queries and traversals are recorded while recording is on, and
+	 * that reset discards them.
+	 */
+	@Test
+	public void testEnabled() {
+		metrics.setEnabled(true);
+		manager.getDistancesReport("L01");
+		manager.getDistancesReport("L07");
+		manager.getDistancesReport("L01");
+		manager.getProposedFirstAidLocations(2);
+		manager.getRouteReport("L12", "L14");
+		MetricsSnapshot snapshot = metrics.snapshot();
+		// The cached report for L01 is answered without a distance query
+		assertEquals(2, snapshot.getDistanceQueries().getCount());
+		assertTrue(snapshot.getDistanceQueries().getMax() > 0);
+		assertEquals(1, snapshot.getFirstAidQueries().getCount());
+		// L01 and L07 share an 11-landmark system, and the route settles a few
+		assertEquals(3, snapshot.getLandmarksSettled().getCount());
+		assertEquals(11, snapshot.getLandmarksSettled().getMax());
+		// Each of the system's 10 trails is scanned from both ends
+		assertEquals(20, snapshot.getEdgesScanned().getMax());
+		assertEquals(0, snapshot.getDistanceCacheHits());
+		assertEquals(2, snapshot.getDistanceCacheMisses());
+
+		metrics.reset();
+		assertEquals(0, metrics.getDistanceQueryCount());
+		assertEquals(0, metrics.getTraversalCount());
+		assertTrue(metrics.getParseNanos() > 0);
+	}
+
+	/**
+	 * Tests that registered metrics can be read and switched on through the
+	 * platform MBean server, and are removed from it when their manager is
+	 * closed.
+	 *
+	 * @throws JMException if the metrics cannot be registered or read
+	 */
+	@Test
+	public void testJmx() throws JMException {
+		MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+		ObjectName name = metrics.register("test");
+		try {
+			assertTrue(server.isRegistered(name));
+			assertEquals(TrailMetrics.JMX_DOMAIN, name.getDomain());
+			server.setAttribute(name, new Attribute("Enabled", true));
+			assertTrue(metrics.isEnabled());
+			manager.getProposedFirstAidLocations(1);
+			assertEquals(1L, server.getAttribute(name, "FirstAidQueryCount"));
+			assertTrue((Long) server.getAttribute(name, "FirstAidQueryP99Nanos") > 0);
+			// Registering again under the same name replaces the registration
+			assertEquals(name, metrics.register("test"));
+		} finally {
+			metrics.unregister();
+		}
+		assertFalse(server.isRegistered(name));
+
+		// Closing the manager removes its registration
+		name = metrics.register("closed");
+		manager.close();
+		assertFalse(server.isRegistered(name));
+	}
+}
@@ -0,0 +1,121 @@
+package edu.ncsu.csc316.trail.ui;
+
+import static org.junit.Assert.*;
+
+import java.io.BufferedReader;
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.io.StringReader;
+import java.io.StringWriter;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import edu.ncsu.csc316.trail.manager.FirstAidRanking;
+import edu.ncsu.csc316.trail.manager.ReportManager;
+
+/**
+ * Tests the BatchRunner class by running scripts against the valid test park
+ * and comparing the output with the reports of the ReportManager behind it.
+ *
+ * @author Thommasaht Nhouyvanisvong (tcnhouyv)
+ */
+public class BatchRunnerTest {
+
+	/** ReportManager behind the runner */
+	private ReportManager manager;
+	/** Runner under test */
+	private BatchRunner runner;
+
+	/**
+	 * Loads the valid test park and creates a runner with a small window, so
+	 * longer scripts wait on the oldest command.
+	 */
+	@Before
+	public void setUp() {
+		try {
+			manager = new ReportManager("input/landmark_data_valid.txt", "input/trail_data_valid.txt");
+		} catch (FileNotFoundException e) {
+			fail("FileNotFoundException was thrown.");
+		}
+		runner = new BatchRunner(manager, 4, 8);
+	}
+
+	/**
+	 * Stops the runner's threads after each test.
+	 */
+	@After
+	public void tearDown() {
+		runner.close();
+	}
+
+	/**
+	 * Runs a script and returns its output.
+	 *
+	 * @param script commands, one per line
+	 * @return reports written by the runner
+	 * @throws IOException if the script cannot be run
+	 */
+	private String run(String script) throws IOException {
+		StringWriter out = new StringWriter();
+		runner.run(new BufferedReader(new StringReader(script)), out);
+		return out.toString();
+	}
+
+	/**
+	 * Tests each command, skipped lines, and invalid commands.
+	 *
+	 * @throws IOException if a script cannot be run
+	 */
+	@Test
+	public void testCommands() throws IOException {
+		assertEquals(manager.getDistancesReport("L01") + "\n\n", run("distances L01"));
+		assertEquals(manager.getProposedFirstAidLocations(3) + "\n\n", run("  first-aid   3  \n"));
+		assertEquals(manager.getProposedFirstAidLocations(2, FirstAidRanking.BETWEENNESS) + "\n\n",
+				run("first-aid 2 Betweenness"));
+		assertEquals(manager.getLandmarkReport("L02") + "\n\n", run("# A comment\n\nlandmark L02\n"));
+		assertEquals("The provided landmark ID (L99) is invalid for the park.\n\n", run("distances L99"));
+		assertEquals("", run(""));
+
+		assertEquals("Invalid command: first-aid three", runner.answer("first-aid three"));
+		assertEquals("Invalid command: first-aid 2 shortest", runner.answer("first-aid 2 shortest"));
+		assertEquals("Invalid command: distances", runner.answer("distances"));
+		assertEquals("Invalid command: landmark L01 L02", runner.answer("landmark L01 L02"));
+		assertEquals("Invalid command: 1", runner.answer("1"));
+
+		try {
+			new BatchRunner(manager, 1, 0);
+			fail("A window of 0 was accepted");
+		} catch (IllegalArgumentException e) {
+			assertEquals("Number of threads and window must be greater than 0.", e.getMessage());
+		}
+	}
+
+	/**
+	 * Tests that the reports of a script much longer than the window come out
+	 * in the order of its commands.
+	 *
+	 * @throws IOException if the script cannot be run
+	 */
+	@Test
+	public void testOrder() throws IOException {
+		String[] ids = { "L01", "L02", "L03", "L04", "L05", "L06", "L07", "L08", "L09", "L10" };
+		StringBuilder script = new StringBuilder();
+		StringBuilder expected = new StringBuilder();
+		for (int i = 0; i < 500; i++) {
+			String id = ids[(i * 7) % ids.length];
+			if (i % 3 == 0) {
+				script.append("first-aid ").append(i % 4 + 1).append('\n');
+				expected.append(manager.getProposedFirstAidLocations(i % 4 + 1));
+			} else {
+				script.append("distances ").append(id).append('\n');
+				expected.append(manager.getDistancesReport(id));
+			}
+			expected.append("\n\n");
+		}
+		StringWriter out = new StringWriter();
+		assertEquals(500, runner.run(new BufferedReader(new StringReader(script.toString())), out));
+		assertEquals(expected.toString(), out.toString());
+	}
+}
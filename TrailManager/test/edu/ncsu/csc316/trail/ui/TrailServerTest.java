@@ -0,0 +1,188 @@
+package edu.ncsu.csc316.trail.ui;
+
+import static org.junit.Assert.*;
+
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import edu.ncsu.csc316.trail.manager.ReportManager;
+
+/**
+ * Tests the TrailServer class by starting it on a free localhost port and
+ * comparing its responses with the reports of the ReportManager behind it.
+ * 
+ * @author Thommasaht Nhouyvanisvong (tcnhouyv)
+ */
+public class TrailServerTest {
+
+	/** ReportManager behind the server */
+	private ReportManager manager;
+	/** Server under test */
+	private TrailServer server;
+	/** Client sending requests */
+	private HttpClient client;
+
+	/**
+	 * Loads the valid test park and starts a server for it.
+	 * 
+	 * @throws IOException if the server cannot be started
+	 */
+	@Before
+	public void setUp() throws IOException {
+		try {
+			manager = new ReportManager("input/landmark_data_valid.txt", "input/trail_data_valid.txt");
+		} catch (FileNotFoundException e) {
+			fail("FileNotFoundException was thrown.");
+		}
+		server = new TrailServer(manager, 0, 4);
+		server.start();
+		client = HttpClient.newHttpClient();
+	}
+
+	/**
+	 * Stops the server after each test.
+	 */
+	@After
+	public void tearDown() {
+		server.stop(0);
+	}
+
+	/**
+	 * Sends a GET request for the specified path and query.
+	 * 
+	 * @param pathAndQuery path and query string to request
+	 * @param accept       Accept header to send, or null for none
+	 * @return the response
+	 * @throws Exception if the request fails
+	 */
+	private HttpResponse<String> get(String pathAndQuery, String accept) throws Exception {
+		HttpRequest.Builder request = HttpRequest.newBuilder(
+				URI.create("http://localhost:" + server.getPort() + pathAndQuery));
+		if (accept != null) {
+			request.header("Accept", accept);
+		}
+		return client.send(request.build(), HttpResponse.BodyHandlers.ofString());
+	}
+
+	/**
+	 * Tests the distances endpoint in both formats and with invalid origins.
+	 * 
+	 * @throws Exception if a request fails
+	 */
+	@Test
+	public void testDistances() throws Exception {
+		HttpResponse<String> response = get("/distances?origin=L01", null);
+		assertEquals(200, response.statusCode());
+		assertEquals(manager.getDistancesReport("L01"), response.body());
+		assertTrue(response.headers().firstValue("Content-Type").get().startsWith("text/plain"));
+
+		response = get("/distances?origin=L12&format=json", null);
+		assertEquals(200, response.statusCode());
+		assertEquals(manager.getDistancesJson("L12"), response.body());
+		assertTrue(response.headers().firstValue("Content-Type").get().startsWith("application/json"));
+		assertEquals(manager.getDistancesJson("L12"), get("/distances?origin=L12", "application/json").body());
+
+		response = get("/distances?origin=L404", null);
+		assertEquals(404, response.statusCode());
+		assertEquals(manager.getDistancesReport("L404"), response.body());
+		response = get("/distances", "application/json");
+		assertEquals(400, response.statusCode());
+		assertEquals("{\"error\":\"Missing origin parameter.\"}", response.body());
+	}
+
+	/**
+	 * Tests the first aid endpoint in both formats and with invalid minimums.
+	 * 
+	 * @throws Exception if a request fails
+	 */
+	@Test
+	public void testFirstAid() throws Exception {
+		HttpResponse<String> response = get("/first-aid?min=2", null);
+		assertEquals(200, response.statusCode());
+		assertEquals(manager.getProposedFirstAidLocations(2), response.body());
+		assertEquals(manager.getProposedFirstAidLocationsJson(3), get("/first-aid?min=3&format=json", null).body());
+
+		response = get("/first-aid?min=0", null);
+		assertEquals(400, response.statusCode());
+		assertEquals(manager.getProposedFirstAidLocations(0), response.body());
+		assertEquals(400, get("/first-aid?min=many", null).statusCode());
+		assertEquals(400, get("/first-aid", null).statusCode());
+	}
+
+	/**
+	 * Tests the landmark endpoint, unknown paths, and methods other than GET.
+	 * 
+	 * @throws Exception if a request fails
+	 */
+	@Test
+	public void testLandmark() throws Exception {
+		HttpResponse<String> response = get("/landmark/L07", null);
+		assertEquals(200, response.statusCode());
+		assertEquals(manager.getLandmarkReport("L07"), response.body());
+		assertEquals(manager.getLandmarkJson("L07"), get("/landmark/L07?format=json", null).body());
+		assertEquals(404, get("/landmark/L404", null).statusCode());
+		assertEquals(404, get("/landmark/", null).statusCode());
+		assertEquals(404, get("/unknown", null).statusCode());
+		assertEquals("{\"error\":\"Not found.\"}", get("/unknown?format=json", null).body());
+
+		HttpRequest post = HttpRequest.newBuilder(URI.create("http://localhost:" + server.getPort() + "/landmark/L07"))
+				.POST(HttpRequest.BodyPublishers.noBody()).build();
+		assertEquals(405, client.send(post, HttpResponse.BodyHandlers.ofString()).statusCode());
+	}
+
+	/**
+	 * Tests that invalid landmark IDs are answered with 404 in JSON too, and
+	 * that queries that fail are answered with 500 rather than a dropped
+	 * connection.
+	 * 
+	 * @throws Exception if a request fails
+	 */
+	@Test
+	public void testErrors() throws Exception {
+		HttpResponse<String> response = get("/landmark/L404?format=json", null);
+		assertEquals(404, response.statusCode());
+		assertEquals(manager.getLandmarkJson("L404"), response.body());
+		assertEquals(404, get("/distances?origin=L404&format=json", null).statusCode());
+		// L15 has no trails, which is a report rather than an invalid ID
+		assertEquals(200, get("/distances?origin=L15", null).statusCode());
+
+		// Queries on a closed manager throw IllegalStateException
+		manager.close();
+		response = get("/distances?origin=L01", null);
+		assertEquals(500, response.statusCode());
+		assertEquals("Internal server error.", response.body());
+		response = get("/landmark/L07", "application/json");
+		assertEquals(500, response.statusCode());
+		assertEquals("{\"error\":\"Internal server error.\"}", response.body());
+	}
+
+	/**
+	 * Tests that many requests sent at once all get the right answers.
+	 * 
+	 * @throws Exception if a request fails
+	 */
+	@Test
+	public void testConcurrentRequests() throws Exception {
+		String[] origins = { "L01", "L03", "L07", "L12", "L15" };
+		List<CompletableFuture<HttpResponse<String>>> responses = new ArrayList<>();
+		for (int i = 0; i < 100; i++) {
+			HttpRequest request = HttpRequest.newBuilder(URI.create(
+					"http://localhost:" + server.getPort() + "/distances?origin=" + origins[i % origins.length])).build();
+			responses.add(client.sendAsync(request, HttpResponse.BodyHandlers.ofString()));
+		}
+		for (int i = 0; i < responses.size(); i++) {
+			assertEquals(manager.getDistancesReport(origins[i % origins.length]), responses.get(i).join().body());
+		}
+	}
+}